@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * measures the methods of the actions.
+ * <p>
+ * by default the benchmark of an action class invokes all its methods in turn, so the result is the
+ * average time of a method. to measure a single method, select it by its signature:
+ * <pre>
+ * java -jar target/benchmarks.jar ActionBenchmark -p action=StringAction -p method="replaceValue(XmlAction,String,String,String)"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionBenchmark
+{
+	private static final String ACTION_PACKAGE = "com.datamelt.rules.core.action.";
+
+	@Param({"StringAction", "DateAction", "MathAction"})
+	public String action;
+
+	@Param({"all"})
+	public String method;
+
+	private MethodHandle[] actionMethods;
+	private int next;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		actionMethods = MethodSamples.getMethods(Class.forName(ACTION_PACKAGE + action), null, method);
+	}
+
+	@Benchmark
+	public Object execute() throws Throwable
+	{
+		MethodHandle actionMethod = actionMethods[next];
+		next = next + 1==actionMethods.length ? 0 : next + 1;
+		return (Object)actionMethod.invokeExact();
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * measures the evaluate methods of the checks.
+ * <p>
+ * by default the benchmark of a check invokes all its evaluate overloads in turn, so the result is
+ * the average time of an overload. to measure a single overload, select it by its signature:
+ * <pre>
+ * java -jar target/benchmarks.jar CheckBenchmark -p check=CheckIsEqual -p overload="evaluate(long,long)"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckBenchmark
+{
+	private static final String CHECK_PACKAGE = "com.datamelt.rules.implementation.";
+
+	@Param({"CheckContains", "CheckDateTimeIsBetween", "CheckDistanceIsEqual", "CheckDistanceIsGreater", "CheckDistanceIsGreaterOrEqual",
+		"CheckDistanceIsSmaller", "CheckDistanceIsSmallerOrEqual", "CheckEndsWith", "CheckIsBetween", "CheckIsEmpty", "CheckIsEqual",
+		"CheckIsEven", "CheckIsGreater", "CheckIsGreaterOrEqual", "CheckIsInList", "CheckIsLowercase", "CheckIsNegativeNumber",
+		"CheckIsNotBetween", "CheckIsNotEmpty", "CheckIsNotEqual", "CheckIsNotEven", "CheckIsNotInList", "CheckIsNotNegativeNumber",
+		"CheckIsNotNull", "CheckIsNotPrime", "CheckIsNull", "CheckIsNumeric", "CheckIsPrime", "CheckIsSmaller", "CheckIsSmallerOrEqual",
+		"CheckIsUppercase", "CheckLength", "CheckListHasMember", "CheckListNotHasMember", "CheckMatches", "CheckNotContains",
+		"CheckNotEndsWith", "CheckNotMatches", "CheckNotSoundsLike", "CheckNotSoundsLikeCologne", "CheckNotSoundsLikeMetaphone",
+		"CheckNotStartsWith", "CheckSoundsLike", "CheckSoundsLikeCologne", "CheckSoundsLikeMetaphone", "CheckStartsWith"})
+	public String check;
+
+	@Param({"all"})
+	public String overload;
+
+	private MethodHandle[] evaluateMethods;
+	private int next;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		evaluateMethods = MethodSamples.getMethods(Class.forName(CHECK_PACKAGE + check), "evaluate", overload);
+	}
+
+	@Benchmark
+	public Object evaluate() throws Throwable
+	{
+		MethodHandle method = evaluateMethods[next];
+		next = next + 1==evaluateMethods.length ? 0 : next + 1;
+		return (Object)method.invokeExact();
+	}
+}
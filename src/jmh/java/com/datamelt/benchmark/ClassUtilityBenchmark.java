@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.datamelt.util.ClassUtility;
+
+/**
+ * measures converting a value to an object of the given type - the way the expected values
+ * and the parameters of the rules and actions are converted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassUtilityBenchmark
+{
+	@Param({ClassUtility.TYPE_STRING, ClassUtility.TYPE_INTEGER, ClassUtility.TYPE_LONG, ClassUtility.TYPE_DOUBLE, ClassUtility.TYPE_FLOAT,
+		ClassUtility.TYPE_BOOLEAN, ClassUtility.TYPE_BIGDECIMAL, ClassUtility.TYPE_DATE})
+	public String type;
+
+	private String value;
+
+	@Setup
+	public void setup()
+	{
+		if(type.equals(ClassUtility.TYPE_BOOLEAN))
+		{
+			value = "true";
+		}
+		else if(type.equals(ClassUtility.TYPE_DATE))
+		{
+			value = "2020-08-28";
+		}
+		else
+		{
+			value = "42";
+		}
+	}
+
+	@Benchmark
+	public Object getObject()
+	{
+		return ClassUtility.getObject(type, value);
+	}
+}
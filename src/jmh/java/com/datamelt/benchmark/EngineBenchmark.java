@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.datamelt.rules.engine.BusinessRulesEngine;
+import com.datamelt.rules.engine.RuleEngineSession;
+import com.datamelt.util.HeaderRow;
+import com.datamelt.util.RowFieldCollection;
+
+/**
+ * measures running a generated ruleset against rows of data. the result is the time it takes to run all rules
+ * for one row.
+ * <p>
+ * the ruleset consists of groups of ten rules each, in two subgroups connected by [and] and [or]. the rules use
+ * some of the most common checks and each group has an action, which is executed if the group fails. the rows
+ * are built so that about half of the rules fail.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark
+{
+	private static final int ROWS 					= 1000;
+	private static final int RULES_PER_SUBGROUP 	= 5;
+
+	private static final String[] FIELD_NAMES 		= {"name", "age", "city", "code", "status"};
+	private static final String[][] DATA 			= {{"peter", "42", "Berlin", null, ""}, {"mary", "17", "Rome", "A1", ""}, {"paul", "65", "Paris", "", ""}, {"anna", "30", "Madrid", "B2", ""}};
+
+	@Param({"10", "100", "1000"})
+	public int rules;
+
+	@Param({"false", "true"})
+	public boolean statisticsOnly;
+
+	private RuleEngineSession session;
+	private ArrayList<Object> rows;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		BusinessRulesEngine engine = new BusinessRulesEngine(writeRuleFiles(rules));
+		engine.setStatisticsOnly(statisticsOnly);
+		session = engine.createSession();
+
+		HeaderRow header = new HeaderRow(FIELD_NAMES);
+		rows = new ArrayList<Object>(ROWS);
+		for(int i=0;i<ROWS;i++)
+		{
+			rows.add(new RowFieldCollection(header, DATA[i % DATA.length].clone()));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public long run() throws Exception
+	{
+		session.run(rows);
+		long rulesFailed = session.getNumberOfRulesFailed();
+		session.clear();
+		return rulesFailed;
+	}
+
+	/**
+	 * writes the rule files - one for each group - with the given number of rules in total. the number
+	 * is rounded up to a multiple of ten.
+	 */
+	private static File[] writeRuleFiles(int numberOfRules) throws Exception
+	{
+		ArrayList<File> files = new ArrayList<File>();
+		int rule = 0;
+		for(int group=0;rule<numberOfRules;group++)
+		{
+			File file = File.createTempFile("jare-benchmark-", ".xml");
+			file.deleteOnExit();
+			files.add(file);
+			Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+			try
+			{
+				writer.write("<group id=\"g" + group + "\" description=\"group " + group + "\" validfrom=\"2000-01-01\" validuntil=\"2099-12-31\">\n");
+				for(int subgroup=0;subgroup<2;subgroup++)
+				{
+					writer.write(" <subgroup id=\"sg" + group + "_" + subgroup + "\" intergroupoperator=\"and\" ruleoperator=\"" + (subgroup==0 ? "and" : "or") + "\">\n");
+					for(int i=0;i<RULES_PER_SUBGROUP;i++)
+					{
+						writeRule(writer, rule);
+						rule++;
+					}
+					writer.write(" </subgroup>\n");
+				}
+				writer.write(" <action id=\"a" + group + "\" executeif=\"failed\" classname=\"com.datamelt.rules.core.action.StringAction\" method=\"setValue\">\n");
+				writer.write("  <object classname=\"com.datamelt.util.RowFieldCollection\" method=\"setFieldValue\" type=\"setter\">\n");
+				writer.write("   <parameter type=\"string\" value=\"status\"/>\n");
+				writer.write("   <parameter type=\"string\" value=\"\" settervalue=\"true\"/>\n");
+				writer.write("  </object>\n");
+				writer.write("  <parameter type=\"string\" value=\"failed\"/>\n");
+				writer.write(" </action>\n");
+				writer.write("</group>\n");
+			}
+			finally
+			{
+				writer.close();
+			}
+		}
+		return files.toArray(new File[files.size()]);
+	}
+
+	private static void writeRule(Writer writer, int rule) throws Exception
+	{
+		String field;
+		String returnType = "string";
+		String expected = null;
+		String expectedType = "string";
+		String check;
+		switch(rule % 8)
+		{
+			case 0:
+				field = "name";
+				expected = "peter";
+				check = "CheckIsEqual";
+				break;
+			case 1:
+				field = "age";
+				returnType = "integer";
+				expected = String.valueOf(18 + rule % 40);
+				expectedType = "integer";
+				check = "CheckIsGreater";
+				break;
+			case 2:
+				field = "city";
+				expected = "Berlin,Paris,London";
+				check = "CheckIsInList";
+				break;
+			case 3:
+				field = "code";
+				check = "CheckIsNull";
+				break;
+			case 4:
+				field = "name";
+				expected = "pe";
+				check = "CheckStartsWith";
+				break;
+			case 5:
+				field = "city";
+				expected = "ar";
+				check = "CheckContains";
+				break;
+			case 6:
+				field = "age";
+				returnType = "integer";
+				expected = "64";
+				expectedType = "integer";
+				check = "CheckIsSmaller";
+				break;
+			default:
+				field = "code";
+				check = "CheckIsNotEmpty";
+		}
+		writer.write("  <rule id=\"r" + rule + "\" description=\"rule " + rule + "\">\n");
+		writer.write("   <object classname=\"com.datamelt.util.RowFieldCollection\" method=\"getFieldValue\" parameter=\"" + field + "\" parametertype=\"string\" returntype=\"" + returnType + "\"/>\n");
+		if(expected!=null)
+		{
+			writer.write("   <expected value=\"" + expected + "\" type=\"" + expectedType + "\"/>\n");
+		}
+		writer.write("   <execute value=\"com.datamelt.rules.implementation." + check + "\"/>\n");
+		writer.write("   <message type=\"failed\" text=\"" + field + " $1 failed " + check + "\"/>\n");
+		writer.write("  </rule>\n");
+	}
+}
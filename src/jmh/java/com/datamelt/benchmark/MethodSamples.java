@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+
+import com.datamelt.rules.core.XmlAction;
+
+/**
+ * creates method handles for the public methods of the checks and actions, with sample values bound
+ * to all parameters, so that the benchmarks can invoke each overload of a method without arguments.
+ * <p>
+ * for each parameter there are some candidate values of its type. the candidates are combined until
+ * the method can be invoked without an exception - combinations for which a check passes or an action
+ * returns a value are preferred, as they are closer to the way the rules are used. methods with parameters
+ * of other types or for which no combination works are left out.
+ */
+final class MethodSamples
+{
+	// combinations tried for one method at most
+	private static final int MAX_COMBINATIONS 	= 5000;
+
+	private static final Object[] STRINGS 		= {"peter", "Peter", "2020-08-28", "yyyy-MM-dd", "peter,paul,mary", "10-100", "p.*r"};
+	private static final Object[] INTEGERS 		= {3, 42};
+	private static final Object[] LONGS 		= {3L, 42L};
+	private static final Object[] FLOATS 		= {4.2f};
+	private static final Object[] DOUBLES 		= {4.2d};
+	private static final Object[] BOOLEANS 		= {true, false};
+	private static final Object[] DATES 		= {createDate()};
+	private static final Object[] ACTIONS 		= {new XmlAction("benchmark", "benchmark action")};
+
+	private MethodSamples()
+	{
+	}
+
+	/**
+	 * returns the handles of the methods with the given name - or of all public methods declared by the
+	 * class, if the name is null. the handles take no arguments and return the result of the method as an
+	 * object. if an overload is given, only the method with this signature - e.g. "evaluate(long,long)" -
+	 * is returned.
+	 *
+	 * @param clazz			the class of the methods
+	 * @param methodName	the name of the methods or null for all methods
+	 * @param overload		the signature of the method or "all"
+	 * @return				the method handles
+	 * @throws Exception	exception if no method can be invoked with the sample values
+	 */
+	static MethodHandle[] getMethods(Class<?> clazz, String methodName, String overload) throws Exception
+	{
+		Object target = null;
+		ArrayList<MethodHandle> handles = new ArrayList<MethodHandle>();
+		Method[] methods = clazz.getDeclaredMethods();
+		for(int i=0;i<methods.length;i++)
+		{
+			Method method = methods[i];
+			if(!Modifier.isPublic(method.getModifiers()) || (methodName!=null && !method.getName().equals(methodName)))
+			{
+				continue;
+			}
+			if(!overload.equals("all") && !overload.equals(getSignature(method)))
+			{
+				continue;
+			}
+			if(!Modifier.isStatic(method.getModifiers()) && target==null)
+			{
+				target = clazz.newInstance();
+			}
+			Object[] arguments = getArguments(method, Modifier.isStatic(method.getModifiers()) ? null : target);
+			if(arguments!=null)
+			{
+				MethodHandle handle = MethodHandles.publicLookup().unreflect(method);
+				if(!Modifier.isStatic(method.getModifiers()))
+				{
+					handle = handle.bindTo(target);
+				}
+				handles.add(MethodHandles.insertArguments(handle, 0, arguments).asType(MethodType.methodType(Object.class)));
+			}
+		}
+		if(handles.size()==0)
+		{
+			throw new Exception("no method of class: " + clazz.getName() + " can be invoked with the sample values - method: " + methodName + ", overload: " + overload);
+		}
+		return handles.toArray(new MethodHandle[handles.size()]);
+	}
+
+	/**
+	 * returns the signature of the method: the name and the types of the parameters - e.g. "evaluate(long,long)"
+	 */
+	static String getSignature(Method method)
+	{
+		StringBuffer buffer = new StringBuffer(method.getName()).append("(");
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for(int i=0;i<parameterTypes.length;i++)
+		{
+			if(i>0)
+			{
+				buffer.append(",");
+			}
+			buffer.append(parameterTypes[i].getSimpleName());
+		}
+		return buffer.append(")").toString();
+	}
+
+	private static Object[] getArguments(Method method, Object target)
+	{
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		Object[][] candidates = new Object[parameterTypes.length][];
+		int combinations = 1;
+		for(int i=0;i<parameterTypes.length;i++)
+		{
+			candidates[i] = getCandidates(parameterTypes[i]);
+			if(candidates[i]==null)
+			{
+				return null;
+			}
+			combinations = combinations * candidates[i].length;
+		}
+		Object[] firstInvokable = null;
+		for(int combination=0;combination<combinations && combination<MAX_COMBINATIONS;combination++)
+		{
+			Object[] arguments = new Object[parameterTypes.length];
+			int rest = combination;
+			for(int i=0;i<parameterTypes.length;i++)
+			{
+				arguments[i] = candidates[i][rest % candidates[i].length];
+				rest = rest / candidates[i].length;
+			}
+			try
+			{
+				Object result = method.invoke(target, arguments);
+				if(result!=null && !Boolean.FALSE.equals(result))
+				{
+					return arguments;
+				}
+				if(firstInvokable==null)
+				{
+					firstInvokable = arguments;
+				}
+			}
+			catch(Exception ex)
+			{
+				// the method can not be used with these values
+			}
+		}
+		return firstInvokable;
+	}
+
+	private static Object[] getCandidates(Class<?> type)
+	{
+		if(type==String.class)
+		{
+			return STRINGS;
+		}
+		else if(type==int.class)
+		{
+			return INTEGERS;
+		}
+		else if(type==long.class)
+		{
+			return LONGS;
+		}
+		else if(type==float.class)
+		{
+			return FLOATS;
+		}
+		else if(type==double.class)
+		{
+			return DOUBLES;
+		}
+		else if(type==boolean.class)
+		{
+			return BOOLEANS;
+		}
+		else if(type==Date.class)
+		{
+			return DATES;
+		}
+		else if(type==XmlAction.class)
+		{
+			return ACTIONS;
+		}
+		return null;
+	}
+
+	private static Date createDate()
+	{
+		Calendar calendar = Calendar.getInstance();
+		calendar.clear();
+		calendar.set(2020, Calendar.AUGUST, 28, 12, 30, 0);
+		return calendar.getTime();
+	}
+}
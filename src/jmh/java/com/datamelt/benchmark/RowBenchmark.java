@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.datamelt.util.HeaderRow;
+import com.datamelt.util.RowFieldCollection;
+import com.datamelt.util.Splitter;
+
+/**
+ * measures splitting a line of a csv file into its fields and accessing the fields
+ * of a RowFieldCollection by name and by index.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowBenchmark
+{
+	private static final String[] FIELD_NAMES 	= {"id", "name", "age", "city", "country", "amount", "date", "code", "status", "comment"};
+	private static final String LINE 			= "1042;peter;42;Berlin;Germany;1234.56;2020-08-28;X7;new;regular customer since 2008";
+
+	private Splitter splitter;
+	private RowFieldCollection row;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		splitter = new Splitter(Splitter.TYPE_COMMA_SEPERATED, ";");
+		row = new RowFieldCollection(new HeaderRow(FIELD_NAMES), splitter.getFields(LINE));
+	}
+
+	@Benchmark
+	public Object[] splitterGetFields() throws Exception
+	{
+		return splitter.getFields(LINE);
+	}
+
+	@Benchmark
+	public Object getFieldValueByName() throws Exception
+	{
+		return row.getFieldValue("status");
+	}
+
+	@Benchmark
+	public Object getFieldValueByIndex() throws Exception
+	{
+		return row.getFieldValue(8);
+	}
+
+	@Benchmark
+	public void setFieldValueByName() throws Exception
+	{
+		row.setFieldValue("status", "checked");
+	}
+
+	@Benchmark
+	public void setFieldValueByIndex() throws Exception
+	{
+		row.setFieldValue(8, "checked");
+	}
+}
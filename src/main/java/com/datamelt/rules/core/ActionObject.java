@@ -21,6 +21,9 @@ package com.datamelt.rules.core;
 import java.io.Serializable;
 import java.util.ArrayList;
 
+import com.datamelt.util.ClassUtility;
+import com.datamelt.util.FieldIndex;
+
 /**
  * 	a RuleObject identifies an object that will be instantiated and one of its methods
  *  will be run. The result will later in the process be compared to another value
@@ -35,11 +38,16 @@ public class ActionObject implements Serializable
 	public static final int METHOD_GETTER = 0;
 	public static final int METHOD_SETTER = 1;
 	
+	public static final String FIELD_VALUE_GETTER = "getFieldValue";
+	public static final String FIELD_VALUE_SETTER = "setFieldValue";
+	
     private String className;
     private String methodName; 
     private String returnType;
     private int isGetter;
     private ArrayList <Parameter>parameters = new ArrayList<Parameter>();
+    // the index of the field, if the method gets or sets the value of a field by its name
+    private transient volatile FieldIndex fieldIndex;
     
     public static final long serialVersionUID = 1964070322;
     
@@ -94,6 +102,7 @@ public class ActionObject implements Serializable
     public void setMethodName(String methodName)
     {
         this.methodName = methodName;
+        this.fieldIndex = null;
     }
     
  
@@ -106,6 +115,7 @@ public class ActionObject implements Serializable
     public void setParameters(ArrayList<Parameter> parameters)
     {
         this.parameters = parameters;
+        this.fieldIndex = null;
     }
     
     /**
@@ -116,6 +126,7 @@ public class ActionObject implements Serializable
     public void addParameter(Parameter parameter)
     {
         parameters.add(parameter);
+        fieldIndex = null;
     }
 
 	/**
@@ -176,4 +187,42 @@ public class ActionObject implements Serializable
 	{
 		this.returnType = returnType;
 	}
+
+	/**
+	 * returns the index of the field, if the method of the action object gets the value of a field
+	 * using getFieldValue(String) or sets it using setFieldValue(String, value) and the name of the field
+	 * is defined as a parameter. returns null otherwise.
+	 * 
+	 * the index is used to get or set the value of the field of a RowFieldCollection without looking up
+	 * the field by its name for every row.
+	 * 
+	 * @return		the index of the field or null
+	 */
+	public FieldIndex getFieldIndex()
+	{
+		FieldIndex index = fieldIndex;
+		if(index==null && isFieldValueMethod())
+		{
+			index = new FieldIndex(parameters.get(0).getValue());
+			fieldIndex = index;
+		}
+		return index;
+	}
+	
+	private boolean isFieldValueMethod()
+	{
+		if(parameters.size()==0 || parameters.get(0).isSetterValue() || !ClassUtility.TYPE_STRING.equalsIgnoreCase(parameters.get(0).getType()) || parameters.get(0).getValue()==null)
+		{
+			return false;
+		}
+		if(FIELD_VALUE_GETTER.equals(methodName))
+		{
+			return parameters.size()==1;
+		}
+		else if(FIELD_VALUE_SETTER.equals(methodName))
+		{
+			return parameters.size()==2 && parameters.get(1).isSetterValue();
+		}
+		return false;
+	}
 }
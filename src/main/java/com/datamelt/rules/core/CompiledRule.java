@@ -0,0 +1,1005 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.regex.PatternSyntaxException;
+
+import com.datamelt.rules.core.util.ColognePhoneticCode;
+import com.datamelt.rules.core.util.LongValueSet;
+import com.datamelt.rules.core.util.MetaphoneCode;
+import com.datamelt.rules.core.util.PhoneticCode;
+import com.datamelt.rules.core.util.RegexPattern;
+import com.datamelt.rules.core.util.SoundexCode;
+import com.datamelt.rules.core.util.StringValueSet;
+import com.datamelt.rules.implementation.GenericCheck;
+import com.datamelt.util.ClassUtility;
+import com.datamelt.util.FieldIndex;
+import com.datamelt.util.FieldNotFoundException;
+import com.datamelt.util.RowFieldCollection;
+import com.datamelt.util.TypedRow;
+
+/**
+ * the compiled execution plan of a XmlRule.
+ *
+ * everything that only depends on the definition of the rule is done once, when the
+ * rule is compiled: the evaluate method of the check is resolved, the expected value and
+ * the parameters are converted from their xml representation into objects of the correct type.
+ * when the rule runs against an object only the method of the object and the evaluate method
+ * of the check are invoked - both using method handles.
+ *
+ * the method of the object is resolved when the first object of a given class is passed
+ * to the rule and is then kept for all other objects of the same class.
+ *
+ * errors detected while compiling the rule are kept and thrown when the rule is run, so
+ * that a rule behaves the same way as it did before it was compiled.
+ *
+ */
+public class CompiledRule
+{
+	private static final String CHECK_IS_NULL 	= "com.datamelt.rules.implementation.CheckIsNull";
+	private static final String CHECK_IS_EMPTY 	= "com.datamelt.rules.implementation.CheckIsEmpty";
+
+	private static final String FIELD_VALUE_METHOD = "getFieldValue";
+
+	private static final MethodType CHECK_METHOD_TYPE 	= MethodType.methodType(boolean.class, Object[].class);
+	private static final MethodType GETTER_METHOD_TYPE 	= MethodType.methodType(Object.class, Object.class);
+	private static final MethodType RULE_METHOD_TYPE 	= MethodType.methodType(boolean.class, Object.class);
+
+	// methods used to compose the method handle that evaluates the rule for an object
+	private static final MethodHandle CONVERT_METHOD;
+	private static final MethodHandle IS_NULL_METHOD;
+	private static final MethodHandle REQUIRE_VALUE_METHOD;
+	private static final MethodHandle TEST_METHOD;
+	private static final MethodHandle RETHROW_METHOD;
+	private static final MethodHandle FIELD_INDEX_VALUE_METHOD;
+
+	static
+	{
+		try
+		{
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			CONVERT_METHOD = lookup.findStatic(CompiledRule.class, "convert", MethodType.methodType(Object.class, Object.class, String.class));
+			IS_NULL_METHOD = lookup.findStatic(CompiledRule.class, "isNull", MethodType.methodType(boolean.class, Object.class));
+			REQUIRE_VALUE_METHOD = lookup.findStatic(CompiledRule.class, "requireValue", MethodType.methodType(Object.class, Object.class));
+			TEST_METHOD = lookup.findVirtual(CompiledRule.class, "test", MethodType.methodType(boolean.class, Object.class, RuleExpressionCache.class));
+			RETHROW_METHOD = lookup.findVirtual(CompiledRule.class, "rethrow", MethodType.methodType(boolean.class, Exception.class, Object.class));
+			FIELD_INDEX_VALUE_METHOD = lookup.findVirtual(FieldIndex.class, "getFieldValue", MethodType.methodType(Object.class, RowFieldCollection.class));
+		}
+		catch(Exception ex)
+		{
+			throw new ExceptionInInitializerError(ex);
+		}
+	}
+
+	// the types in which the expected value - a list of values, a pattern or a phonetic code - can be passed to the evaluatePrepared method of a check
+	private static final Class<?>[] PREPARED_VALUE_TYPES = { StringValueSet.class, LongValueSet.class, RegexPattern.class, SoundexCode.class, MetaphoneCode.class, ColognePhoneticCode.class };
+
+	// the rule this plan was compiled from
+	private final XmlRule rule;
+	// access to the methods of the first and - if defined - second object of the rule
+	private final ObjectAccessor firstObject;
+	private final ObjectAccessor secondObject;
+
+	// arguments for the evaluate method of the check. the expected value and the parameters are
+	// already converted, the values of the object(s) are filled in when the rule runs
+	private final Object[] arguments;
+
+	// the evaluate method of the check, taking the arguments as an array
+	private final MethodHandle checkMethod;
+	// error message in case the evaluate method could not be resolved
+	private final String checkMethodError;
+	// indicator if the evaluate method does not return a boolean
+	private final boolean invalidReturnType;
+	// the evaluate method of the check with the expected value and the parameters bound to it,
+	// taking the value(s) of the object(s). null if the rule can not be evaluated this way
+	private final MethodHandle boundCheckMethod;
+	// the method handle evaluating the rule for objects of a given class
+	private volatile BoundMethod ruleMethod;
+	// the check bound to a functional interface taking primitive values, used for typed rows. null
+	// if the rule can not be evaluated this way
+	private final TypedCheck typedCheck;
+
+	// a rule that checks for null or empty values passes if the value is null
+	private final boolean nullValuePasses;
+
+	// identifies the check together with the value(s), expected value and parameters it is run with
+	private final String expressionKey;
+	// the slots for the values of the object(s) and the result of the check shared with other
+	// rules, as assigned by the RuleExpressionIndex. -1 if the rule does not share them
+	private int firstObjectSlot = RuleExpressionIndex.NO_SLOT;
+	private int secondObjectSlot = RuleExpressionIndex.NO_SLOT;
+	private int resultSlot = RuleExpressionIndex.NO_SLOT;
+
+	/**
+	 * compiles the given rule
+	 *
+	 * @param rule	the rule to compile
+	 */
+	public CompiledRule(XmlRule rule)
+	{
+		this.rule = rule;
+
+		RuleObjectCollection ruleObjects = rule.getRuleObjects();
+		this.firstObject = new ObjectAccessor(ruleObjects.get(0));
+		if(ruleObjects.size()>1)
+		{
+			this.secondObject = new ObjectAccessor(ruleObjects.get(1));
+		}
+		else
+		{
+			this.secondObject = null;
+		}
+
+		this.arguments = createArguments(rule);
+
+		MethodHandle handle = null;
+		MethodHandle boundHandle = null;
+		String error = null;
+		boolean invalidType = false;
+		TypedCheck typed = null;
+		try
+		{
+			Method method = getCheckMethod(rule);
+			// if the check offers a method for the expected value prepared as a set or a compiled pattern, it is used instead
+			Method preparedMethod = getPreparedCheckMethod(rule, method);
+			Object preparedValue = null;
+			if(preparedMethod!=null)
+			{
+				preparedValue = createPreparedValue(preparedMethod.getParameterTypes()[1], rule.getExpectedValueRule());
+			}
+			if(preparedValue!=null)
+			{
+				arguments[1] = preparedValue;
+				method = preparedMethod;
+			}
+			else if(firstObject.fieldName!=null && secondObject==null && hasExpectedValue(rule) && rule.getParameters().size()==0)
+			{
+				typed = TypedCheck.create(method, firstObject.methodReturnType, arguments[1]);
+			}
+			if(method.getReturnType()==boolean.class || method.getReturnType()==Boolean.class)
+			{
+				handle = MethodHandles.publicLookup().unreflect(method).asSpreader(Object[].class, arguments.length).asType(CHECK_METHOD_TYPE);
+				boundHandle = bindCheckMethod(MethodHandles.publicLookup().unreflect(method));
+			}
+			else
+			{
+				invalidType = true;
+			}
+		}
+		catch(Exception ex)
+		{
+			error = ex.getMessage();
+		}
+		this.checkMethod = handle;
+		this.boundCheckMethod = boundHandle;
+		this.checkMethodError = error;
+		this.invalidReturnType = invalidType;
+		this.typedCheck = typed;
+
+		this.nullValuePasses = CHECK_IS_NULL.equals(rule.getCheckToExecute()) || CHECK_IS_EMPTY.equals(rule.getCheckToExecute());
+		this.expressionKey = createExpressionKey();
+	}
+
+	/**
+	 * creates a copy of the given compiled rule. the copy shares everything that was resolved
+	 * when the rule was compiled, but it does not share the slots of the values and results
+	 * that are shared with other rules, which are assigned again for each ruleset.
+	 *
+	 * @param compiledRule	the compiled rule to copy
+	 */
+	public CompiledRule(CompiledRule compiledRule)
+	{
+		this.rule = compiledRule.rule;
+		this.firstObject = compiledRule.firstObject;
+		this.secondObject = compiledRule.secondObject;
+		this.arguments = compiledRule.arguments;
+		this.checkMethod = compiledRule.checkMethod;
+		this.checkMethodError = compiledRule.checkMethodError;
+		this.invalidReturnType = compiledRule.invalidReturnType;
+		this.boundCheckMethod = compiledRule.boundCheckMethod;
+		this.ruleMethod = compiledRule.ruleMethod;
+		this.typedCheck = compiledRule.typedCheck;
+		this.nullValuePasses = compiledRule.nullValuePasses;
+		this.expressionKey = compiledRule.expressionKey;
+	}
+
+	/**
+	 * returns the rule this plan was compiled from
+	 *
+	 * @return	the xml rule
+	 */
+	public XmlRule getRule()
+	{
+		return rule;
+	}
+
+	/**
+	 * indicates if the rule compares the first object against a second object
+	 *
+	 * @return	indicator if the rule has a second object
+	 */
+	public boolean hasSecondObject()
+	{
+		return secondObject!=null;
+	}
+
+	/**
+	 * retrieves the value for the first rule object from the given object
+	 *
+	 * @param object		the object the rule runs against
+	 * @return				the value of the first rule object
+	 * @throws Exception	exception if the value can not be retrieved
+	 */
+	public Object getFirstObject(Object object) throws Exception
+	{
+		return getObject(firstObject, object, "first");
+	}
+
+	/**
+	 * retrieves the value for the second rule object from the given object. returns
+	 * null if the rule has no second object.
+	 *
+	 * @param object		the object the rule runs against
+	 * @return				the value of the second rule object
+	 * @throws Exception	exception if the value can not be retrieved
+	 */
+	public Object getSecondObject(Object object) throws Exception
+	{
+		if(secondObject!=null)
+		{
+			return getObject(secondObject, object, "second");
+		}
+		else
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * retrieves the value for the first rule object from the given object. if other rules read
+	 * the same value, it is taken from the cache or stored in the cache for the other rules.
+	 *
+	 * @param object		the object the rule runs against
+	 * @param cache			the cache for the current object. may be null
+	 * @return				the value of the first rule object
+	 * @throws Exception	exception if the value can not be retrieved
+	 */
+	public Object getFirstObject(Object object, RuleExpressionCache cache) throws Exception
+	{
+		if(cache==null || firstObjectSlot==RuleExpressionIndex.NO_SLOT)
+		{
+			return getFirstObject(object);
+		}
+		if(!cache.hasValue(firstObjectSlot))
+		{
+			cache.setValue(firstObjectSlot, getFirstObject(object));
+		}
+		return cache.getValue(firstObjectSlot);
+	}
+
+	/**
+	 * retrieves the value for the second rule object from the given object. if other rules read
+	 * the same value, it is taken from the cache or stored in the cache for the other rules.
+	 *
+	 * @param object		the object the rule runs against
+	 * @param cache			the cache for the current object. may be null
+	 * @return				the value of the second rule object
+	 * @throws Exception	exception if the value can not be retrieved
+	 */
+	public Object getSecondObject(Object object, RuleExpressionCache cache) throws Exception
+	{
+		if(cache==null || secondObjectSlot==RuleExpressionIndex.NO_SLOT)
+		{
+			return getSecondObject(object);
+		}
+		if(!cache.hasValue(secondObjectSlot))
+		{
+			cache.setValue(secondObjectSlot, getSecondObject(object));
+		}
+		return cache.getValue(secondObjectSlot);
+	}
+
+	/**
+	 * runs the check of the rule using the values that were retrieved from the object. if an
+	 * identical rule already ran against the object, its result is taken from the cache.
+	 *
+	 * @param result1		the value of the first rule object
+	 * @param result2		the value of the second rule object
+	 * @param cache			the cache for the current object. may be null
+	 * @return				true if the rule passed, false if it failed
+	 * @throws Exception	exception if the check can not be executed
+	 */
+	public boolean evaluate(Object result1, Object result2, RuleExpressionCache cache) throws Exception
+	{
+		if(cache==null || resultSlot==RuleExpressionIndex.NO_SLOT)
+		{
+			return evaluate(result1, result2);
+		}
+		if(!cache.hasResult(resultSlot))
+		{
+			cache.setResult(resultSlot, evaluate(result1, result2));
+		}
+		return cache.getResult(resultSlot);
+	}
+
+	/**
+	 * runs the check of the rule using the values that were retrieved from the object.
+	 *
+	 * if the first value is null - because it is null or it could not be converted to the
+	 * type defined in the rule - the rule fails. except for the CheckIsNull and the CheckIsEmpty
+	 * checks where the rule passes.
+	 *
+	 * @param result1		the value of the first rule object
+	 * @param result2		the value of the second rule object
+	 * @return				true if the rule passed, false if it failed
+	 * @throws Exception	exception if the check can not be executed
+	 */
+	public boolean evaluate(Object result1, Object result2) throws Exception
+	{
+		if(checkMethodError!=null)
+		{
+			throw new Exception("error rule: [" + rule.getId() + "] creating method from xml rule " + checkMethodError);
+		}
+
+		Object[] values;
+		try
+		{
+			values = getArguments(result1, result2);
+		}
+		catch(Exception ex)
+		{
+			throw new Exception("error rule: [" + rule.getId() + "] creating method arguments from xml rule " + ex.getMessage());
+		}
+
+		if(values[0]==null)
+		{
+			return nullValuePasses;
+		}
+		if(invalidReturnType)
+		{
+			throw new Exception("error rule: [" + rule.getId() + "] return type of rule result must always be of type boolean");
+		}
+		try
+		{
+			return (boolean) checkMethod.invokeExact(values);
+		}
+		catch(Throwable ex)
+		{
+			throw new Exception("error invoking method on rule: [" + rule.getId() + "]: " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * evaluates the rule for the given object: retrieves the value(s) from the object and runs the check.
+	 *
+	 * the outcome is the same as calling the evaluate method with the values retrieved by getFirstObject and
+	 * getSecondObject, but the values are not returned and the rule is evaluated using a single method handle
+	 * composed for the class of the object. if the rule can not be evaluated this way, the values are retrieved
+	 * and the evaluate method is called.
+	 *
+	 * @param object		the object the rule runs against
+	 * @return				true if the rule passed, false if it failed
+	 * @throws Exception	exception if the rule can not be evaluated
+	 */
+	public boolean test(Object object) throws Exception
+	{
+		if(typedCheck!=null && object instanceof TypedRow)
+		{
+			try
+			{
+				return testTyped((TypedRow)object);
+			}
+			catch(Exception ex)
+			{
+				throw wrapException(ex);
+			}
+		}
+		MethodHandle handle = null;
+		if(object!=null)
+		{
+			handle = getRuleMethod(object.getClass());
+		}
+		if(handle==null)
+		{
+			return evaluate(getFirstObject(object), getSecondObject(object));
+		}
+		try
+		{
+			return (boolean) handle.invokeExact(object);
+		}
+		catch(Exception ex)
+		{
+			throw wrapException(ex);
+		}
+		catch(Error error)
+		{
+			throw error;
+		}
+		catch(Throwable ex)
+		{
+			throw new Exception("error rule: [" + rule.getId() + "] evaluating rule: " + ex);
+		}
+	}
+
+	/**
+	 * evaluates the rule for a typed row: the value of the field is retrieved using the getter of
+	 * the type and the check is invoked with primitive values.
+	 */
+	private boolean testTyped(TypedRow row) throws Exception
+	{
+		if(row.isNull(firstObject.fieldName, typedCheck.getType()))
+		{
+			return nullValuePasses;
+		}
+		return typedCheck.evaluate(row, firstObject.fieldName);
+	}
+
+	/**
+	 * indicates if the rule is evaluated using primitive values for objects that implement
+	 * the TypedRow interface
+	 *
+	 * @return	indicator if the rule has a typed check
+	 */
+	public boolean hasTypedCheck()
+	{
+		return typedCheck!=null;
+	}
+
+	/**
+	 * evaluates the rule for the given object. if an identical rule already ran against the
+	 * object, its result is taken from the cache.
+	 *
+	 * @param object		the object the rule runs against
+	 * @param cache			the cache for the current object. may be null
+	 * @return				true if the rule passed, false if it failed
+	 * @throws Exception	exception if the rule can not be evaluated
+	 */
+	public boolean test(Object object, RuleExpressionCache cache) throws Exception
+	{
+		if(cache==null || resultSlot==RuleExpressionIndex.NO_SLOT)
+		{
+			return test(object);
+		}
+		if(!cache.hasResult(resultSlot))
+		{
+			cache.setResult(resultSlot, test(object));
+		}
+		return cache.getResult(resultSlot);
+	}
+
+	/**
+	 * returns a method handle of the type (Object,RuleExpressionCache)boolean which evaluates the rule
+	 * for objects of the given class. the handle retrieves the value(s) from the object, converts them to
+	 * the type defined in the rule and invokes the evaluate method of the check. exceptions thrown
+	 * by the handle carry the id of the rule - the same way as for the test method.
+	 *
+	 * if the rule can not be evaluated by a single method handle - e.g. because the check
+	 * method is invalid - or if the result of the rule is shared with other rules, a handle is
+	 * returned which invokes the test method of this rule.
+	 *
+	 * @param objectClass	the class of the objects
+	 * @return				a method handle evaluating the rule
+	 */
+	public MethodHandle getRuleHandle(Class<?> objectClass)
+	{
+		MethodHandle handle = getRuleMethod(objectClass);
+		if(handle==null || resultSlot!=RuleExpressionIndex.NO_SLOT)
+		{
+			return TEST_METHOD.bindTo(this);
+		}
+		handle = MethodHandles.catchException(handle, Exception.class, RETHROW_METHOD.bindTo(this));
+		return MethodHandles.dropArguments(handle, 1, RuleExpressionCache.class);
+	}
+
+	/**
+	 * adds the id of the rule to the message of an exception thrown while evaluating the rule
+	 */
+	private Exception wrapException(Exception ex)
+	{
+		if(ex instanceof FieldNotFoundException)
+		{
+			return new FieldNotFoundException("error rule: [" + rule.getId() + "] - field not found: "+ ex.getMessage());
+		}
+		return new Exception("error rule: [" + rule.getId() + "] evaluating rule: " + ex.getMessage());
+	}
+
+	/**
+	 * used by the method handle of the rule to rethrow an exception with the id of the rule
+	 */
+	private boolean rethrow(Exception ex, Object object) throws Exception
+	{
+		throw wrapException(ex);
+	}
+
+	private MethodHandle getRuleMethod(Class<?> objectClass)
+	{
+		BoundMethod method = ruleMethod;
+		if(method==null || method.objectClass!=objectClass)
+		{
+			method = new BoundMethod(objectClass, composeRuleMethod(objectClass));
+			ruleMethod = method;
+		}
+		return method.handle;
+	}
+
+	/**
+	 * composes the method handle that evaluates the rule for objects of the given class.
+	 * returns null if that is not possible.
+	 */
+	private MethodHandle composeRuleMethod(Class<?> objectClass)
+	{
+		// if a rule has a second object and an expected value, the value of the second object
+		// is retrieved but not used. such rules are left to the test method
+		if(boundCheckMethod==null || (secondObject!=null && hasExpectedValue(rule)))
+		{
+			return null;
+		}
+		// typed rows are evaluated by the test method using the typed check
+		if(typedCheck!=null && TypedRow.class.isAssignableFrom(objectClass))
+		{
+			return null;
+		}
+		try
+		{
+			MethodHandle value1 = MethodHandles.filterReturnValue(firstObject.getMethod(objectClass), MethodHandles.insertArguments(CONVERT_METHOD, 1, firstObject.methodReturnType));
+			MethodHandle check = boundCheckMethod;
+			// if the first value is null the check is not run
+			MethodHandle nullValue = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, nullValuePasses), 0, check.type().parameterList());
+			check = MethodHandles.guardWithTest(IS_NULL_METHOD, nullValue, check);
+			if(secondObject==null)
+			{
+				return MethodHandles.filterArguments(check, 0, value1);
+			}
+			else
+			{
+				MethodHandle value2 = MethodHandles.filterReturnValue(secondObject.getMethod(objectClass), REQUIRE_VALUE_METHOD);
+				value2 = MethodHandles.filterReturnValue(value2, MethodHandles.insertArguments(CONVERT_METHOD, 1, secondObject.methodReturnType));
+				check = MethodHandles.filterArguments(check, 0, value1, value2);
+				return MethodHandles.permuteArguments(check, RULE_METHOD_TYPE, 0, 0);
+			}
+		}
+		catch(Exception ex)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * binds the expected value and the parameters to the evaluate method of the check. the
+	 * resulting method handle takes the value(s) of the object(s) as arguments.
+	 */
+	private MethodHandle bindCheckMethod(MethodHandle method)
+	{
+		try
+		{
+			int numberOfValues = 1;
+			if(secondObject!=null && !hasExpectedValue(rule))
+			{
+				numberOfValues = 2;
+			}
+			for(int i=arguments.length-1;i>=numberOfValues;i--)
+			{
+				method = MethodHandles.insertArguments(method, i, arguments[i]);
+			}
+			if(numberOfValues==1)
+			{
+				return method.asType(MethodType.methodType(boolean.class, Object.class));
+			}
+			else
+			{
+				return method.asType(MethodType.methodType(boolean.class, Object.class, Object.class));
+			}
+		}
+		catch(Exception ex)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * identifies the value of the first rule object: rules with the same key read the same value
+	 */
+	String getFirstObjectKey()
+	{
+		return firstObject.key;
+	}
+
+	/**
+	 * identifies the value of the second rule object. null if the rule has no second object
+	 */
+	String getSecondObjectKey()
+	{
+		if(secondObject!=null)
+		{
+			return secondObject.key;
+		}
+		else
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * identifies the check of the rule: rules with the same key have the same result for an object
+	 */
+	String getExpressionKey()
+	{
+		return expressionKey;
+	}
+
+	int getFirstObjectSlot()
+	{
+		return firstObjectSlot;
+	}
+
+	int getSecondObjectSlot()
+	{
+		return secondObjectSlot;
+	}
+
+	int getResultSlot()
+	{
+		return resultSlot;
+	}
+
+	void setSlots(int firstObjectSlot, int secondObjectSlot, int resultSlot)
+	{
+		this.firstObjectSlot = firstObjectSlot;
+		this.secondObjectSlot = secondObjectSlot;
+		this.resultSlot = resultSlot;
+	}
+
+	/**
+	 * creates the key of the check from the check, the values it is run with - including the
+	 * types they are converted to - the expected value and the parameters
+	 */
+	private String createExpressionKey()
+	{
+		StringBuffer buffer = new StringBuffer();
+		appendKey(buffer, rule.getCheckToExecute());
+		appendKey(buffer, firstObject.key);
+		appendKey(buffer, firstObject.methodReturnType);
+		if(secondObject!=null)
+		{
+			appendKey(buffer, secondObject.key);
+			appendKey(buffer, secondObject.methodReturnType);
+		}
+		if(hasExpectedValue(rule))
+		{
+			appendKey(buffer, rule.getExpectedValueRuleType());
+			appendKey(buffer, rule.getExpectedValueRule());
+		}
+		for(int i=0;i<rule.getParameters().size();i++)
+		{
+			Parameter parameter = rule.getParameters().get(i);
+			appendKey(buffer, parameter.getType());
+			appendKey(buffer, parameter.getValue());
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * appends a part of a key. each part is prefixed with its length, so that
+	 * different parts can never form the same key
+	 */
+	private static void appendKey(StringBuffer buffer, String value)
+	{
+		if(value==null)
+		{
+			buffer.append("-;");
+		}
+		else
+		{
+			buffer.append(value.length()).append(':').append(value).append(';');
+		}
+	}
+
+	private static boolean isNull(Object value)
+	{
+		return value==null;
+	}
+
+	private static Object requireValue(Object value) throws Exception
+	{
+		if(value==null)
+		{
+			throw new Exception("value of the second object is null");
+		}
+		return value;
+	}
+
+	private Object getObject(ObjectAccessor accessor, Object object, String position) throws Exception
+	{
+		MethodHandle getter;
+		try
+		{
+			getter = accessor.getMethod(object.getClass());
+		}
+		catch(Exception ex)
+		{
+			throw new Exception("error rule: [" + rule.getId() + "] creating " + position + " object from xml object");
+		}
+
+		try
+		{
+			return getter.invokeExact(object);
+		}
+		catch(FieldNotFoundException fnfe)
+		{
+			throw new FieldNotFoundException("error rule: [" + rule.getId() + "] - field not found: "+ fnfe.getMessage());
+		}
+		catch(Throwable ex)
+		{
+			throw new Exception("error rule: [" + rule.getId() + "] invoking method for " + position + " object: "+ ex);
+		}
+	}
+
+	/**
+	 * fills the values of the object(s) into a copy of the precompiled arguments.
+	 *
+	 * if the actual type of a value and the type defined in the rule are
+	 * different then the value is converted.
+	 */
+	private Object[] getArguments(Object result1, Object result2) throws Exception
+	{
+		Object[] values = arguments.clone();
+		values[0] = convert(result1, firstObject.methodReturnType);
+
+		if(secondObject!=null && !hasExpectedValue(rule))
+		{
+			if(result2==null)
+			{
+				throw new Exception("value of the second object is null");
+			}
+			values[1] = convert(result2, secondObject.methodReturnType);
+		}
+		return values;
+	}
+
+	private static Object convert(Object value, String type) throws Exception
+	{
+		String valueType = ClassUtility.getObjectType(value);
+		if(valueType!=null && !valueType.equals(type))
+		{
+			return ClassUtility.getObject(type,(String)value);
+		}
+		else
+		{
+			return value;
+		}
+	}
+
+	private static boolean hasExpectedValue(XmlRule rule)
+	{
+		return rule.getExpectedValueRuleType()!=null && rule.getExpectedValueRule()!=null;
+	}
+
+	/**
+	 * creates the arguments for the evaluate method of the check. the expected value and all additional
+	 * parameters are converted here, the slot(s) for the value(s) of the object(s) are left empty.
+	 */
+	private static Object[] createArguments(XmlRule rule)
+	{
+		int numberOfObjects = rule.getRuleObjects().size();
+		if(hasExpectedValue(rule))
+		{
+			numberOfObjects++;
+		}
+
+		Object[] objects = new Object[numberOfObjects + rule.getParameters().size()];
+		if(hasExpectedValue(rule))
+		{
+			objects[1] = ClassUtility.getObject(rule.getExpectedValueRuleType(),rule.getExpectedValueRule());
+		}
+		for (int i=0;i<rule.getParameters().size();i++)
+		{
+			Parameter parameter = rule.getParameters().get(i);
+			objects[numberOfObjects+i]= ClassUtility.getObject(parameter.getType(),parameter.getValue());
+		}
+		return objects;
+	}
+
+	/**
+	 * resolves the evaluate method of the check using the types of the
+	 * rule objects, the expected value and the parameters
+	 */
+	private static Method getCheckMethod(XmlRule rule) throws Exception
+	{
+		int numberOfObjects;
+		if(hasExpectedValue(rule) || rule.getRuleObjects().size()>1)
+		{
+			numberOfObjects = 2;
+		}
+		else
+		{
+			numberOfObjects = 1;
+		}
+
+		Class<?>[] classes = new Class<?>[numberOfObjects + rule.getParameters().size()];
+		classes[0] = ClassUtility.getClass(rule.getRuleObjects().get(0).getMethodReturnType());
+		if(hasExpectedValue(rule))
+		{
+			classes[1] = ClassUtility.getClass(rule.getExpectedValueRuleType());
+		}
+		else if(numberOfObjects==2)
+		{
+			classes[1] = ClassUtility.getClass(rule.getRuleObjects().get(1).getMethodReturnType());
+		}
+		for (int i=0;i<rule.getParameters().size();i++)
+		{
+			Parameter parameter = rule.getParameters().get(i);
+			classes[numberOfObjects+i] = ClassUtility.getClass(parameter.getType());
+		}
+
+		GenericCheck check = rule.getExecuteCheck();
+		return check.getClass().getMethod(GenericCheck.GENERIC_CHECK_METHOD_EVALUATE,classes);
+	}
+
+	/**
+	 * resolves the evaluatePrepared method of the check, which takes the expected value - a list of values
+	 * separated by comma, a regular expression or a value to encode phonetically - as a set of values, a compiled
+	 * pattern or a phonetic code. the other parameters are the same as for the evaluate method. returns null
+	 * if the check has no such method.
+	 */
+	private static Method getPreparedCheckMethod(XmlRule rule, Method method)
+	{
+		Class<?>[] classes = method.getParameterTypes();
+		if(!hasExpectedValue(rule) || classes.length<2 || classes[1]!=String.class)
+		{
+			return null;
+		}
+		for(int i=0;i<PREPARED_VALUE_TYPES.length;i++)
+		{
+			classes[1] = PREPARED_VALUE_TYPES[i];
+			try
+			{
+				return rule.getExecuteCheck().getClass().getMethod(GenericCheck.GENERIC_CHECK_METHOD_EVALUATE_PREPARED,classes);
+			}
+			catch(NoSuchMethodException ex)
+			{
+				// try the next type
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * creates the prepared value of the given type from the expected value. returns null if the expected value
+	 * is an invalid pattern: then the evaluate method is used, which fails when the rule runs - as it did before.
+	 * each phonetic code has a constructor taking the value to encode.
+	 */
+	private static Object createPreparedValue(Class<?> type, String value) throws Exception
+	{
+		if(type==LongValueSet.class)
+		{
+			return new LongValueSet(value);
+		}
+		else if(type==RegexPattern.class)
+		{
+			try
+			{
+				return new RegexPattern(value);
+			}
+			catch(PatternSyntaxException ex)
+			{
+				return null;
+			}
+		}
+		else if(PhoneticCode.class.isAssignableFrom(type))
+		{
+			return type.getConstructor(String.class).newInstance(value);
+		}
+		return new StringValueSet(value);
+	}
+
+	/**
+	 * gives access to the method of an object as it is defined by a rule object.
+	 *
+	 * the method is resolved for the class of the object the first time it is used
+	 * and is then kept as long as objects of the same class are passed.
+	 */
+	private static class ObjectAccessor
+	{
+		private final String methodName;
+		private final String methodReturnType;
+		private final Class<?>[] parameterTypes;
+		private final Object parameterValue;
+		// the name of the field, if the value is read using getFieldValue(String). null otherwise
+		private final String fieldName;
+		// the index of the field in the header row of a RowFieldCollection. null if there is no field name
+		private final FieldIndex fieldIndex;
+		// identifies the value read from an object, before it is converted
+		private final String key;
+
+		private volatile BoundMethod boundMethod;
+
+		private ObjectAccessor(RuleObject ruleObject)
+		{
+			this.methodName = ruleObject.getMethodName();
+			this.methodReturnType = ruleObject.getMethodReturnType();
+			if(ruleObject.getParameterType()!=null)
+			{
+				this.parameterTypes = new Class<?>[] { ClassUtility.getClass(ruleObject.getParameterType()) };
+				this.parameterValue = ClassUtility.getObject(ruleObject.getParameterType(), ruleObject.getParameter());
+			}
+			else
+			{
+				this.parameterTypes = null;
+				this.parameterValue = null;
+			}
+			if(FIELD_VALUE_METHOD.equals(methodName) && parameterTypes!=null && parameterTypes[0]==String.class)
+			{
+				this.fieldName = (String)parameterValue;
+				this.fieldIndex = new FieldIndex(fieldName);
+			}
+			else
+			{
+				this.fieldName = null;
+				this.fieldIndex = null;
+			}
+			StringBuffer buffer = new StringBuffer();
+			appendKey(buffer, ruleObject.getMethodName());
+			appendKey(buffer, ruleObject.getParameterType());
+			appendKey(buffer, ruleObject.getParameter());
+			this.key = buffer.toString();
+		}
+
+		private MethodHandle getMethod(Class<?> objectClass) throws Exception
+		{
+			BoundMethod method = boundMethod;
+			if(method==null || method.objectClass!=objectClass)
+			{
+				method = new BoundMethod(objectClass, bind(objectClass));
+				boundMethod = method;
+			}
+			return method.handle;
+		}
+
+		private MethodHandle bind(Class<?> objectClass) throws Exception
+		{
+			// the value of a RowFieldCollection is read by the index of the field instead of its name
+			if(fieldIndex!=null && objectClass==RowFieldCollection.class)
+			{
+				return FIELD_INDEX_VALUE_METHOD.bindTo(fieldIndex).asType(GETTER_METHOD_TYPE);
+			}
+			MethodHandle handle = MethodHandles.publicLookup().unreflect(objectClass.getMethod(methodName, parameterTypes));
+			if(parameterTypes!=null)
+			{
+				handle = MethodHandles.insertArguments(handle, 1, parameterValue);
+			}
+			return handle.asType(GETTER_METHOD_TYPE);
+		}
+	}
+
+	private static class BoundMethod
+	{
+		private final Class<?> objectClass;
+		private final MethodHandle handle;
+
+		private BoundMethod(Class<?> objectClass, MethodHandle handle)
+		{
+			this.objectClass = objectClass;
+			this.handle = handle;
+		}
+	}
+}
@@ -0,0 +1,377 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+
+/**
+ * the compiled form of a rulegroup, which evaluates all rules of the group for a given object.
+ *
+ * for each class of objects the rules of all subgroups are composed into a single method handle: each rule
+ * retrieves its value(s) from the object and invokes the check with the expected value and parameters already
+ * bound to it. the rules of a subgroup and the subgroups are combined according to their logical operators - the
+ * same way as RuleGroup.getFailed() does. the outcome of each rule is recorded in an array by the position of
+ * the rule in the group, so that the subgroups can update their counters and results from it.
+ *
+ * two handles are composed: one that evaluates all rules and one that stops as soon as the outcome of a subgroup
+ * or of the group is decided - which is possible because running a check does not change anything. rules that
+ * were not evaluated keep the outcome RuleExecutionResult.NOT_EVALUATED.
+ *
+ * the compiled group is used by the RuleGroup when the values retrieved from the object are not needed for the
+ * results of the rules. the group can also be evaluated rule by rule, without the composed method handle, for
+ * comparison.
+ *
+ * a compiled group does not keep any state of an evaluation, so it can be used by multiple threads.
+ */
+public class CompiledRuleGroup
+{
+	private static final MethodType GROUP_METHOD_TYPE = MethodType.methodType(boolean.class, Object.class, RuleExpressionCache.class, int[].class);
+
+	private static final MethodHandle PASSED = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, true), 0, GROUP_METHOD_TYPE.parameterList());
+	private static final MethodHandle FAILED = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, false), 0, GROUP_METHOD_TYPE.parameterList());
+
+	// methods used to compose the method handle that evaluates the group for an object
+	private static final MethodHandle RECORD_METHOD;
+	private static final MethodHandle AND_METHOD;
+	private static final MethodHandle OR_METHOD;
+
+	static
+	{
+		try
+		{
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			RECORD_METHOD = lookup.findStatic(CompiledRuleGroup.class, "record", MethodType.methodType(boolean.class, boolean.class, int[].class, int.class));
+			AND_METHOD = lookup.findStatic(CompiledRuleGroup.class, "and", MethodType.methodType(boolean.class, boolean.class, boolean.class));
+			OR_METHOD = lookup.findStatic(CompiledRuleGroup.class, "or", MethodType.methodType(boolean.class, boolean.class, boolean.class));
+		}
+		catch(Exception ex)
+		{
+			throw new ExceptionInInitializerError(ex);
+		}
+	}
+
+	private final String groupId;
+	// the compiled rules of the subgroups
+	private final CompiledRule[][] rules;
+	// the position of the first rule of each subgroup in the array of outcomes
+	private final int[] offsets;
+	private final int numberOfRules;
+	// the operators connecting the rules of each subgroup and the subgroups
+	private final int[] logicalOperatorRules;
+	private final int[] logicalOperatorSubGroup;
+
+	// the method handles evaluating the group for objects of a given class
+	private volatile GroupMethod groupMethod;
+
+	/**
+	 * compiles the given rulegroup using the compiled rules of its subgroups
+	 *
+	 * @param group		the rulegroup to compile
+	 */
+	public CompiledRuleGroup(RuleGroup group)
+	{
+		this.groupId = group.getId();
+		RuleSubGroupCollection subGroups = group.getSubGroupCollection();
+		this.rules = new CompiledRule[subGroups.size()][];
+		this.offsets = new int[subGroups.size()];
+		this.logicalOperatorRules = new int[subGroups.size()];
+		this.logicalOperatorSubGroup = new int[subGroups.size()];
+		int count = 0;
+		for(int i=0;i<subGroups.size();i++)
+		{
+			RuleSubGroup subGroup = subGroups.get(i);
+			rules[i] = subGroup.getCompiledRules();
+			offsets[i] = count;
+			count = count + rules[i].length;
+			logicalOperatorRules[i] = subGroup.getLogicalOperatorRules();
+			logicalOperatorSubGroup[i] = subGroup.getLogicalOperatorSubGroup();
+		}
+		this.numberOfRules = count;
+	}
+
+	/**
+	 * indicates if this group was compiled from the current compiled rules and operators of the given subgroups
+	 *
+	 * @param subGroups		the subgroups of a rulegroup
+	 * @return				indicator if the compiled group is still valid for the subgroups
+	 */
+	public boolean isCompiledFrom(RuleSubGroupCollection subGroups)
+	{
+		if(subGroups.size()!=rules.length)
+		{
+			return false;
+		}
+		for(int i=0;i<rules.length;i++)
+		{
+			RuleSubGroup subGroup = subGroups.get(i);
+			if(subGroup.getCompiledRules()!=rules[i] || subGroup.getLogicalOperatorRules()!=logicalOperatorRules[i] || subGroup.getLogicalOperatorSubGroup()!=logicalOperatorSubGroup[i])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * returns the number of rules of all subgroups, which is the size of the array of outcomes
+	 *
+	 * @return	the number of rules
+	 */
+	public int getNumberOfRules()
+	{
+		return numberOfRules;
+	}
+
+	/**
+	 * returns the position of the outcome of the first rule of the given subgroup in the array of outcomes
+	 *
+	 * @param index		the position of the subgroup in the group
+	 * @return			the position of the first rule of the subgroup
+	 */
+	public int getOffset(int index)
+	{
+		return offsets[index];
+	}
+
+	/**
+	 * evaluates the rules of the group for the given object. the outcome of each rule is recorded in the given
+	 * array: [0] if the rule passed, [1] if it failed and RuleExecutionResult.NOT_EVALUATED if the rule was not
+	 * evaluated because the outcome of its subgroup or of the group was already decided.
+	 *
+	 * the results of checks that are shared with other rules are taken from the given cache - or stored in it.
+	 *
+	 * @param object		the object to run the rules against
+	 * @param cache			the cache of shared values and results for the object. may be null
+	 * @param outcomes		array for the outcome of the rules, with at least getNumberOfRules() elements
+	 * @param shortCircuit	indicator if the evaluation shall stop once the outcome is decided
+	 * @return				true if the group passed, false if it failed
+	 * @throws Exception	exception if a rule can not be evaluated
+	 */
+	public boolean evaluate(Object object, RuleExpressionCache cache, int[] outcomes, boolean shortCircuit) throws Exception
+	{
+		if(shortCircuit)
+		{
+			Arrays.fill(outcomes, 0, numberOfRules, RuleExecutionResult.NOT_EVALUATED);
+		}
+		MethodHandle handle = getGroupMethod(object.getClass(), shortCircuit);
+		try
+		{
+			return (boolean) handle.invokeExact(object, cache, outcomes);
+		}
+		catch(Exception ex)
+		{
+			throw ex;
+		}
+		catch(Error error)
+		{
+			throw error;
+		}
+		catch(Throwable ex)
+		{
+			throw new Exception("error evaluating rulegroup: [" + groupId + "]: " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * evaluates the rules of the group for the given object and returns if the group failed
+	 *
+	 * @param object		the object to run the rules against
+	 * @return				[1] if the group failed or [0] if the group passed
+	 * @throws Exception	exception if a rule can not be evaluated
+	 */
+	public int getFailed(Object object) throws Exception
+	{
+		if(evaluate(object, null, new int[numberOfRules], true))
+		{
+			return 0;
+		}
+		else
+		{
+			return 1;
+		}
+	}
+
+	/**
+	 * evaluates all rules of the group one by one - without using the composed method handle - and
+	 * returns if the group failed. the result is the same as the one of the getFailed method.
+	 *
+	 * @param object		the object to run the rules against
+	 * @return				[1] if the group failed or [0] if the group passed
+	 * @throws Exception	exception if a rule can not be evaluated
+	 */
+	public int getFailedInterpreted(Object object) throws Exception
+	{
+		int failed = 0;
+		for(int i=0;i<rules.length;i++)
+		{
+			int rulesFailed = 0;
+			for(int j=0;j<rules[i].length;j++)
+			{
+				CompiledRule rule = rules[i][j];
+				if(!rule.evaluate(rule.getFirstObject(object), rule.getSecondObject(object)))
+				{
+					rulesFailed++;
+				}
+			}
+			int subGroupFailed;
+			if(logicalOperatorRules[i] == RuleSubGroup.OPERATOR_AND)
+			{
+				subGroupFailed = rulesFailed>0 ? 1 : 0;
+			}
+			else
+			{
+				subGroupFailed = rules[i].length-rulesFailed==0 ? 1 : 0;
+			}
+			if(i==0)
+			{
+				failed = subGroupFailed;
+			}
+			else if(logicalOperatorSubGroup[i] == RuleSubGroup.OPERATOR_AND)
+			{
+				failed = failed==0 && subGroupFailed==0 ? 0 : 1;
+			}
+			else
+			{
+				failed = failed==0 || subGroupFailed==0 ? 0 : 1;
+			}
+		}
+		return failed;
+	}
+
+	private MethodHandle getGroupMethod(Class<?> objectClass, boolean shortCircuit)
+	{
+		GroupMethod method = groupMethod;
+		if(method==null || method.objectClass!=objectClass)
+		{
+			method = new GroupMethod(objectClass, composeGroupMethod(objectClass, false), composeGroupMethod(objectClass, true));
+			groupMethod = method;
+		}
+		return shortCircuit ? method.shortCircuitHandle : method.handle;
+	}
+
+	/**
+	 * composes the method handle of the type (Object,RuleExpressionCache,int[])boolean which evaluates the group for objects
+	 * of the given class. the subgroups are chained from the first to the last subgroup using the
+	 * operator of each subgroup.
+	 */
+	private MethodHandle composeGroupMethod(Class<?> objectClass, boolean shortCircuit)
+	{
+		// a group without subgroups passes
+		MethodHandle handle = PASSED;
+		for(int i=0;i<rules.length;i++)
+		{
+			MethodHandle subGroup = composeSubGroupMethod(i, objectClass, shortCircuit);
+			if(i==0)
+			{
+				handle = subGroup;
+			}
+			else
+			{
+				handle = combine(handle, subGroup, logicalOperatorSubGroup[i], shortCircuit);
+			}
+		}
+		return handle;
+	}
+
+	/**
+	 * composes the method handle which evaluates the rules of one subgroup. a subgroup with
+	 * rules connected by [and] passes if it has no rules, with rules connected by [or] it fails.
+	 */
+	private MethodHandle composeSubGroupMethod(int index, Class<?> objectClass, boolean shortCircuit)
+	{
+		int operator = logicalOperatorRules[index];
+		if(rules[index].length==0)
+		{
+			return operator == RuleSubGroup.OPERATOR_AND ? PASSED : FAILED;
+		}
+		MethodHandle handle = composeRuleMethod(index, 0, objectClass);
+		for(int i=1;i<rules[index].length;i++)
+		{
+			handle = combine(handle, composeRuleMethod(index, i, objectClass), operator, shortCircuit);
+		}
+		return handle;
+	}
+
+	/**
+	 * composes the method handle which evaluates one rule and records its outcome
+	 */
+	private MethodHandle composeRuleMethod(int index, int ruleIndex, Class<?> objectClass)
+	{
+		// the handle of the rule is invoked first and its result is passed on to the record method
+		MethodHandle record = MethodHandles.insertArguments(RECORD_METHOD, 2, offsets[index] + ruleIndex);
+		record = MethodHandles.dropArguments(record, 1, Object.class, RuleExpressionCache.class);
+		return MethodHandles.foldArguments(record, rules[index][ruleIndex].getRuleHandle(objectClass));
+	}
+
+	/**
+	 * combines two method handles of the type (Object,RuleExpressionCache,int[])boolean using a logical [and] or [or]. if
+	 * shortCircuit is true, the second handle is only invoked if the first one does not decide the result.
+	 */
+	private static MethodHandle combine(MethodHandle first, MethodHandle second, int operator, boolean shortCircuit)
+	{
+		if(shortCircuit)
+		{
+			if(operator == RuleSubGroup.OPERATOR_AND)
+			{
+				return MethodHandles.guardWithTest(first, second, FAILED);
+			}
+			else
+			{
+				return MethodHandles.guardWithTest(first, PASSED, second);
+			}
+		}
+		// both handles are invoked: the result of the first one is passed on together with the arguments
+		// to a handle that invokes the second one and combines both results
+		MethodHandle handle = MethodHandles.collectArguments(operator == RuleSubGroup.OPERATOR_AND ? AND_METHOD : OR_METHOD, 1, second);
+		return MethodHandles.foldArguments(handle, first);
+	}
+
+	private static boolean record(boolean passed, int[] outcomes, int position)
+	{
+		outcomes[position] = passed ? 0 : 1;
+		return passed;
+	}
+
+	private static boolean and(boolean first, boolean second)
+	{
+		return first && second;
+	}
+
+	private static boolean or(boolean first, boolean second)
+	{
+		return first || second;
+	}
+
+	private static class GroupMethod
+	{
+		private final Class<?> objectClass;
+		private final MethodHandle handle;
+		private final MethodHandle shortCircuitHandle;
+
+		private GroupMethod(Class<?> objectClass, MethodHandle handle, MethodHandle shortCircuitHandle)
+		{
+			this.objectClass = objectClass;
+			this.handle = handle;
+			this.shortCircuitHandle = shortCircuitHandle;
+		}
+	}
+}
@@ -21,6 +21,8 @@ package com.datamelt.rules.core;
 import java.io.Serializable;
 import java.util.ArrayList;
 
+import com.datamelt.rules.engine.BusinessRulesEngine;
+
 /**
  * is used to collect the results in form of RuleExecutionResult objects.
  * 
@@ -35,6 +37,9 @@ public class RuleExecutionCollection implements Serializable
     private long rulesFailedCount = 0;
     // carries the number of rules that passed
     private long rulesPassedCount = 0;
+    // carries the number of rules that were not evaluated because the outcome
+    // of their subgroup or rulegroup was already decided
+    private long rulesNotEvaluatedCount = 0;
     // carries the number of failed groups
     private long failedGroupsCount = 0;
     // carries the number of passed groups
@@ -46,6 +51,8 @@ public class RuleExecutionCollection implements Serializable
     private long actionsExecutedCount = 0;
     // flag if rule execution results should be preserved
     private boolean preserveRuleExcecutionResults=true;
+    // the results that are kept: failed, passed, both or none
+    private int outputType = BusinessRulesEngine.OUTPUT_TYPE_FAILED_AND_PASSED;
     
     public static final long serialVersionUID = 1964070329;
     
@@ -53,17 +60,49 @@ public class RuleExecutionCollection implements Serializable
      * add one result of the executing of the business rule engine
      * to the collection of results
      * 
+     * the result is only added if preserveRuleExcecutionResults is set to true and
+     * the output type of the collection includes the result - e.g. only failed results
+     * are kept for the output type OUTPUT_TYPE_FAILED_ONLY.
+     * 
      * @param result	the result of the execution of a rule
      */
     public void add(RuleExecutionResult result)
     {
-        // only add the result if preserveRuleExcecutionResults is set to true
-    	if(preserveRuleExcecutionResults)
+    	if(isRetained(result.getFailed()))
         {
         	results.add(result);
         }
     }
     
+    /**
+     * indicates if a result of a rule which failed, passed or was not evaluated is added to
+     * the collection. this can be used to avoid creating results which are not kept.
+     * 
+     * results of rules that were not evaluated are only kept for the output type
+     * OUTPUT_TYPE_FAILED_AND_PASSED.
+     * 
+     * @param failed	indicator if the rule failed (1), passed (0) or was not evaluated
+     * @return			indicator if the result is added to the collection
+     */
+    public boolean isRetained(int failed)
+    {
+    	if(!preserveRuleExcecutionResults)
+    	{
+    		return false;
+    	}
+    	switch(outputType)
+    	{
+    		case BusinessRulesEngine.OUTPUT_TYPE_FAILED_ONLY:
+    			return failed==RuleGroup.TYPE_FAILED;
+    		case BusinessRulesEngine.OUTPUT_TYPE_PASSED_ONLY:
+    			return failed==RuleGroup.TYPE_PASSED;
+    		case BusinessRulesEngine.OUTPUT_TYPE_NO_OUTPUT:
+    			return false;
+    		default:
+    			return true;
+    	}
+    }
+    
     /**
      * add results to the collection in form of an arraylist.
      * the results will be merged with existing results if there are
@@ -81,6 +120,28 @@ public class RuleExecutionCollection implements Serializable
         }
     }
     
+    /**
+     * merges the results and counters of the given collection into this collection.
+     *
+     * results are appended to the existing results - unless preserveRuleExcecutionResults
+     * is set to false for this collection - and the counters are added up. this way the
+     * collections created by multiple threads or for multiple objects can be combined.
+     *
+     * @param collection	the collection to merge into this collection
+     */
+    public void merge(RuleExecutionCollection collection)
+    {
+    	addAll(collection.getResults());
+    	rulesRunCount = rulesRunCount + collection.rulesRunCount;
+    	rulesFailedCount = rulesFailedCount + collection.rulesFailedCount;
+    	rulesPassedCount = rulesPassedCount + collection.rulesPassedCount;
+    	rulesNotEvaluatedCount = rulesNotEvaluatedCount + collection.rulesNotEvaluatedCount;
+    	failedGroupsCount = failedGroupsCount + collection.failedGroupsCount;
+    	passedGroupsCount = passedGroupsCount + collection.passedGroupsCount;
+    	skippedGroupsCount = skippedGroupsCount + collection.skippedGroupsCount;
+    	actionsExecutedCount = actionsExecutedCount + collection.actionsExecutedCount;
+    }
+
     /**
      * returns the (array)list of results that were collected when the
      * business rule engine executed rules
@@ -164,6 +225,7 @@ public class RuleExecutionCollection implements Serializable
         rulesRunCount = 0;
         rulesFailedCount = 0;
         rulesPassedCount = 0;
+        rulesNotEvaluatedCount = 0;
         passedGroupsCount=0;
         failedGroupsCount = 0;
         skippedGroupsCount=0;
@@ -203,6 +265,18 @@ public class RuleExecutionCollection implements Serializable
     	return rulesPassedCount;
     }
     
+    /**
+     * returns the number of rules that were not evaluated during execution
+     * of the business rule engine, because the outcome of their subgroup or
+     * rulegroup was already decided
+     * 
+     * @return the number of rules that were not evaluated during execution
+     */
+    public long getRulesNotEvaluatedCount()
+    {
+    	return rulesNotEvaluatedCount;
+    }
+    
     /**
      * returns the total number of groups that failed 
      * during execution of the business rule engine
@@ -309,6 +383,15 @@ public class RuleExecutionCollection implements Serializable
     	rulesPassedCount ++;
     }
 
+    /**
+     * increases the count of rules that were not evaluated by one (1)
+     * 
+     */
+    public void increaseRulesNotEvaluatedCount()
+    {
+    	rulesNotEvaluatedCount ++;
+    }
+
     /**
      * add the number of actions executed by a rulegroup to the counter
      * 
@@ -350,6 +433,17 @@ public class RuleExecutionCollection implements Serializable
     	rulesPassedCount =  rulesPassedCount + number;
     }
 
+    /**
+     * add the number of rules that were not evaluated to the counter
+     * 
+     * @param number	the number to add to the count of rules not evaluated
+     * 
+     */
+    public void addNumberOfRulesNotEvaluated(long number)
+    {
+    	rulesNotEvaluatedCount =  rulesNotEvaluatedCount + number;
+    }
+
     /**
      * Gets the indicator if the results of the rule execution should be preserved
      * 
@@ -370,5 +464,27 @@ public class RuleExecutionCollection implements Serializable
 		this.preserveRuleExcecutionResults = preserveRuleExcecutionResults;
 	}
     
+	/**
+     * Gets the output type, which defines which results are kept: only failed results (0),
+     * only passed results (1), all results (2) or none (3). default is 2.
+     * 
+     * @return	the output type
+     */
+	public int getOutputType()
+	{
+		return outputType;
+	}
+
+	/**
+     * Sets the output type, which defines which results are kept: only failed results (0),
+     * only passed results (1), all results (2) or none (3).
+     * 
+     * @param outputType	the output type
+     */
+	public void setOutputType(int outputType)
+	{
+		this.outputType = outputType;
+	}
+    
     
 }
@@ -43,6 +43,17 @@ public class RuleExecutionResult implements Serializable
     private String objectLabel;
     private String timestamp;
     private String subgroupId;
+    // time of the execution. formatted only if the timestamp is requested
+    private long executionTime;
+    private String timestampFormat;
+    // 1 means failed, 0 means passed. undefined if the result refers to the rule for this information
+    private int failed = FAILED_UNDEFINED;
+
+    private static final int FAILED_UNDEFINED = -1;
+    
+    // the rule was not evaluated, because the outcome of the subgroup or rulegroup was already decided
+    public static final int NOT_EVALUATED = 2;
+    public static final String NOT_EVALUATED_EXPRESSION = "not evaluated";
     
     public static final long serialVersionUID = 1964070330;
     
@@ -73,6 +84,30 @@ public class RuleExecutionResult implements Serializable
         this.subgroupId = subgroupId;
     }
 
+    /**
+     * constructor for this class using the time of the execution, the rule, a label
+     * for the rule used during output and the indicator if the rule failed.
+     *
+     * the rule is not modified, so the rule of the ruleset may be used. the timestamp is only
+     * formatted when it is requested.
+     *
+     * @param executionTime		the time of the execution in milliseconds
+     * @param timestampFormat	the format of the timestamp, following the rules of the java.text.SimpleDateFormat class
+     * @param rule				the rule belonging to the execution result
+     * @param objectLabel		the label for the object
+     * @param subgroupId		the id of the subgroup
+     * @param failed			indicator if the rule failed (1), passed (0) or was not evaluated (2)
+     */
+    public RuleExecutionResult(long executionTime, String timestampFormat, XmlRule rule, String objectLabel, String subgroupId, int failed)
+    {
+        this.executionTime = executionTime;
+        this.timestampFormat = timestampFormat;
+        this.rule = rule;
+        this.objectLabel = objectLabel;
+        this.subgroupId = subgroupId;
+        this.failed = failed;
+    }
+
     /**
      * returns the rule that was executed 
      * 
@@ -143,6 +178,10 @@ public class RuleExecutionResult implements Serializable
     public String getMessage()
     {
         String messageText="";
+        if(!isEvaluated())
+        {
+        	return "[" + NOT_EVALUATED_EXPRESSION + "]";
+        }
         // get message for failed rule
         try
         {
@@ -284,6 +323,11 @@ public class RuleExecutionResult implements Serializable
      */
     public String getTimestamp()
     {
+        if(timestamp==null && timestampFormat!=null)
+        {
+        	SimpleDateFormat sdf = new SimpleDateFormat(timestampFormat);
+        	timestamp = sdf.format(new Date(executionTime));
+        }
         return timestamp;
     }
     
@@ -295,7 +339,11 @@ public class RuleExecutionResult implements Serializable
      */
     public int getFailed()
     {
-        return rule.getFailed();  // ruleFailed;
+        if(failed==FAILED_UNDEFINED)
+        {
+        	return rule.getFailed();
+        }
+        return failed;
     }
     
     /**
@@ -306,7 +354,19 @@ public class RuleExecutionResult implements Serializable
      */
     public boolean isFailed()
     {
-        return rule.getFailed()==1;  // ruleFailed;
+        return getFailed()==1;
+    }
+    
+    /**
+     * returns if the rule that belongs to this result was evaluated. a rule is not
+     * evaluated when the outcome of its subgroup or rulegroup was already decided
+     * by other rules and short-circuit evaluation is used.
+     * 
+     * @return	indicator if the rule was evaluated
+     */
+    public boolean isEvaluated()
+    {
+        return getFailed()!=NOT_EVALUATED;
     }
     
     /** returns a string expression meaning [true] or [false]
@@ -316,7 +376,11 @@ public class RuleExecutionResult implements Serializable
      */
     public String getFailedAsString()
     {
-        return "[" + Converter.convertIntegerToBooleanString(rule.getFailed()) + "]";
+        if(!isEvaluated())
+        {
+        	return "[" + NOT_EVALUATED_EXPRESSION + "]";
+        }
+        return "[" + Converter.convertIntegerToBooleanString(getFailed()) + "]";
         
     }
 
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core;
+
+import java.util.Arrays;
+
+/**
+ * holds the values read from an object and the results of the checks that are shared by
+ * multiple rules, while the rules run against one object.
+ * <p>
+ * the slots are assigned by the RuleExpressionIndex of the ruleset. the cache must be cleared
+ * before the rules run against the next object and whenever the object might have been changed,
+ * e.g. by the actions of a rulegroup. clearing the cache does not touch the slots: each slot
+ * remembers the version of the cache it was filled in, so only slots of the current version
+ * are valid.
+ * <p>
+ * a cache must only be used by one thread at a time.
+ *
+ * @see RuleExpressionIndex
+ */
+public class RuleExpressionCache
+{
+	private final Object[] values;
+	private final int[] valueVersions;
+	private final boolean[] results;
+	private final int[] resultVersions;
+
+	// the current version. slots filled in an older version are not valid
+	private int version = 1;
+
+	/**
+	 * creates a cache with the slots defined by the given index
+	 *
+	 * @param index	the index of the shared expressions of the ruleset
+	 */
+	public RuleExpressionCache(RuleExpressionIndex index)
+	{
+		this.values = new Object[index.getNumberOfValueSlots()];
+		this.valueVersions = new int[values.length];
+		this.results = new boolean[index.getNumberOfResultSlots()];
+		this.resultVersions = new int[results.length];
+	}
+
+	/**
+	 * invalidates all values and results
+	 */
+	public void clear()
+	{
+		version++;
+		if(version==0)
+		{
+			// the version wrapped around: reset the slots, so that no old slot becomes valid again
+			Arrays.fill(valueVersions, 0);
+			Arrays.fill(resultVersions, 0);
+			Arrays.fill(values, null);
+			version = 1;
+		}
+	}
+
+	boolean hasValue(int slot)
+	{
+		return valueVersions[slot]==version;
+	}
+
+	Object getValue(int slot)
+	{
+		return values[slot];
+	}
+
+	void setValue(int slot, Object value)
+	{
+		values[slot] = value;
+		valueVersions[slot] = version;
+	}
+
+	boolean hasResult(int slot)
+	{
+		return resultVersions[slot]==version;
+	}
+
+	boolean getResult(int slot)
+	{
+		return results[slot];
+	}
+
+	void setResult(int slot, boolean result)
+	{
+		results[slot] = result;
+		resultVersions[slot] = version;
+	}
+}
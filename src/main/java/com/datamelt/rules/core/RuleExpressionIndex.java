@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * index of the expressions that are used by more than one rule of a ruleset.
+ * <p>
+ * many rules read the same field of an object - e.g. getFieldValue("customer_id") - and often
+ * the same check is run on the same field with the same expected value and parameters in
+ * different groups. the index is created once, when the ruleset is compiled: it assigns a slot to
+ * each value of an object that is read by more than one rule and to each combination of check,
+ * value(s), expected value and parameters that is used by more than one rule.
+ * <p>
+ * when the rules run, the value or the result of the check is stored in the slot of a
+ * RuleExpressionCache the first time it is needed. all other rules using the same slot take it from
+ * there, as long as the cache is not cleared. expressions that are used by only one rule do not get
+ * a slot and are always evaluated.
+ *
+ * @see RuleExpressionCache
+ */
+public class RuleExpressionIndex
+{
+	public static final int NO_SLOT = -1;
+
+	private int numberOfValueSlots;
+	private int numberOfResultSlots;
+	// the number of rules that use a result of another rule
+	private int numberOfSharedResults;
+
+	/**
+	 * creates the index for the compiled rules of the given rulegroups and assigns the
+	 * slots to the rules
+	 *
+	 * @param groups	list of rulegroups with compiled rules
+	 */
+	public RuleExpressionIndex(List<RuleGroup> groups)
+	{
+		HashMap<String,Integer> valueCount = new HashMap<String,Integer>();
+		HashMap<String,Integer> resultCount = new HashMap<String,Integer>();
+		for(int i=0;i<groups.size();i++)
+		{
+			RuleSubGroupCollection subGroups = groups.get(i).getSubGroupCollection();
+			for(int j=0;j<subGroups.size();j++)
+			{
+				CompiledRule[] rules = subGroups.get(j).getCompiledRules();
+				for(int k=0;k<rules.length;k++)
+				{
+					count(valueCount, rules[k].getFirstObjectKey());
+					count(valueCount, rules[k].getSecondObjectKey());
+					count(resultCount, rules[k].getExpressionKey());
+				}
+			}
+		}
+
+		// only expressions used by more than one rule get a slot
+		HashMap<String,Integer> valueSlots = new HashMap<String,Integer>();
+		HashMap<String,Integer> resultSlots = new HashMap<String,Integer>();
+		for(int i=0;i<groups.size();i++)
+		{
+			RuleSubGroupCollection subGroups = groups.get(i).getSubGroupCollection();
+			for(int j=0;j<subGroups.size();j++)
+			{
+				CompiledRule[] rules = subGroups.get(j).getCompiledRules();
+				for(int k=0;k<rules.length;k++)
+				{
+					CompiledRule rule = rules[k];
+					int firstObjectSlot = getSlot(valueSlots, valueCount, rule.getFirstObjectKey());
+					int secondObjectSlot = getSlot(valueSlots, valueCount, rule.getSecondObjectKey());
+					int numberOfSlots = resultSlots.size();
+					int resultSlot = getSlot(resultSlots, resultCount, rule.getExpressionKey());
+					if(resultSlot!=NO_SLOT && resultSlots.size()==numberOfSlots)
+					{
+						numberOfSharedResults++;
+					}
+					rule.setSlots(firstObjectSlot, secondObjectSlot, resultSlot);
+				}
+			}
+		}
+		numberOfValueSlots = valueSlots.size();
+		numberOfResultSlots = resultSlots.size();
+	}
+
+	private static void count(HashMap<String,Integer> counts, String key)
+	{
+		if(key!=null)
+		{
+			Integer count = counts.get(key);
+			counts.put(key, count==null ? 1 : count + 1);
+		}
+	}
+
+	private static int getSlot(HashMap<String,Integer> slots, HashMap<String,Integer> counts, String key)
+	{
+		if(key==null || counts.get(key)<2)
+		{
+			return NO_SLOT;
+		}
+		Integer slot = slots.get(key);
+		if(slot==null)
+		{
+			slot = slots.size();
+			slots.put(key, slot);
+		}
+		return slot;
+	}
+
+	/**
+	 * returns the number of values of an object that are read by more than one rule
+	 *
+	 * @return	the number of value slots
+	 */
+	public int getNumberOfValueSlots()
+	{
+		return numberOfValueSlots;
+	}
+
+	/**
+	 * returns the number of distinct checks that are run by more than one rule
+	 *
+	 * @return	the number of result slots
+	 */
+	public int getNumberOfResultSlots()
+	{
+		return numberOfResultSlots;
+	}
+
+	/**
+	 * returns the number of rules that can use the result of an identical rule,
+	 * instead of running the check again
+	 *
+	 * @return	the number of rules sharing a result
+	 */
+	public int getNumberOfSharedResults()
+	{
+		return numberOfSharedResults;
+	}
+}
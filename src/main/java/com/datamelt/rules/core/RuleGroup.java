@@ -19,15 +19,14 @@
 package com.datamelt.rules.core;
 
 import java.io.Serializable;
-import java.text.SimpleDateFormat;
+import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Date;
 
 import com.datamelt.rules.core.RuleSubGroupCollection;
 import com.datamelt.rules.core.action.Action;
 import com.datamelt.rules.core.util.Converter;
 import com.datamelt.rules.core.util.MappingCollection;
+import com.datamelt.util.DateUtility;
 
 /**
  * Rules are organized in groups and subgroups. Subgroups can contain multiple rules
@@ -47,6 +46,11 @@ public class RuleGroup implements Serializable
     private boolean outputAfterActions=false;
     private String validFrom;
     private String validUntil;
+    // the valid from and valid until dates in milliseconds. they are converted once, when
+    // the validity of the group is checked for the first time
+    private transient long validFromMillis;
+    private transient long validUntilMillis;
+    private transient boolean validityConverted;
     private int outputType;
     private String timestampFormat;
     private String dependentRuleGroupId;
@@ -54,6 +58,8 @@ public class RuleGroup implements Serializable
     private boolean preserveRuleExcecutionResults=true;
     private int numberOfActionsExecuted;
     private int skipped;
+    // stop evaluating rules and subgroups once the outcome of the group is decided
+    private boolean shortCircuit=false;
 
     // list of all subgroups belonging to this group
     private RuleSubGroupCollection subGroupCollection = new RuleSubGroupCollection();
@@ -61,6 +67,14 @@ public class RuleGroup implements Serializable
     private ArrayList <XmlAction>actions = new ArrayList<XmlAction>();
     // mapping collection containing maps of key/values pairs
     private MappingCollection mappingCollection;
+    // the rules of all subgroups compiled into a single method handle
+    private transient volatile CompiledRuleGroup compiledGroup;
+    // outcome of the rules of all subgroups for the last object - by position of the rule in the group
+    private transient int[] outcomes;
+    // the counters and results of all subgroups of the last run. the counters are added up while the
+    // subgroups run, the results are collected from the subgroups the first time they are requested
+    private RuleExecutionCollection executionCollection = new RuleExecutionCollection();
+    private boolean resultsCollected = true;
     
     private static final int OPERATOR_AND = 0;
     
@@ -80,7 +94,39 @@ public class RuleGroup implements Serializable
         this.id = id;
         this.description = description;
     }
-    
+
+    /**
+     * constructor which creates a copy of the given rule group, which can be run
+     * independently of the original group.
+     *
+     * the definition of the group - the rules and the actions - is shared with the original
+     * group, but each subgroup of the copy collects its own execution results. this way
+     * multiple copies of the same rule group can be run in parallel by different threads.
+     *
+     * @param	group		the rulegroup to copy
+     */
+    public RuleGroup(RuleGroup group)
+    {
+    	this.id = group.id;
+    	this.description = group.description;
+    	this.outputAfterActions = group.outputAfterActions;
+    	this.validFrom = group.validFrom;
+    	this.validUntil = group.validUntil;
+    	this.outputType = group.outputType;
+    	this.timestampFormat = group.timestampFormat;
+    	this.dependentRuleGroupId = group.dependentRuleGroupId;
+    	this.dependentRuleGroupExecuteIf = group.dependentRuleGroupExecuteIf;
+    	this.preserveRuleExcecutionResults = group.preserveRuleExcecutionResults;
+    	this.shortCircuit = group.shortCircuit;
+    	this.actions = group.actions;
+    	this.mappingCollection = group.mappingCollection;
+    	this.compiledGroup = group.compiledGroup;
+    	for(int i=0;i<group.subGroupCollection.size();i++)
+    	{
+    		subGroupCollection.add(new RuleSubGroup(group.subGroupCollection.get(i)));
+    	}
+    }
+
     /**
      * returns the description of the group 
      * 
@@ -119,6 +165,7 @@ public class RuleGroup implements Serializable
     public void setValidFrom(String validFrom)
     {
         this.validFrom = validFrom;
+        this.validityConverted = false;
     }
     
     /**
@@ -130,37 +177,29 @@ public class RuleGroup implements Serializable
      */
     public boolean isValid() throws Exception
 	{
-		SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-		Date dateFrom = sdf.parse(validFrom);
-		Date dateUntil = sdf.parse(validUntil);
-		
-		Calendar today = Calendar.getInstance();
-		today.set(Calendar.HOUR_OF_DAY, 0);
-		today.set(Calendar.MINUTE, 0);
-		today.set(Calendar.SECOND, 0);
-		today.set(Calendar.MILLISECOND, 0);
-
-		Calendar from = Calendar.getInstance();
-		from.setTime(dateFrom);
-		from.set(Calendar.HOUR_OF_DAY, 0);
-		from.set(Calendar.MINUTE, 0);
-		from.set(Calendar.SECOND, 0);
-		from.set(Calendar.MILLISECOND, 0);
-		
-		Calendar until = Calendar.getInstance();
-		until.setTime(dateUntil);
-		until.set(Calendar.HOUR_OF_DAY, 0);
-		until.set(Calendar.MINUTE, 0);
-		until.set(Calendar.SECOND, 0);
-		until.set(Calendar.MILLISECOND, 0);
-
-		// from javadoc:
-		// ... the value 0 if the time represented by the argument is equal to the time represented by this Calendar
-		// a value less than 0 if the time of this Calendar is before the time represented by the argument
-		// and a value greater than 0 if the time of this Calendar is after the time represented by the argument.
-		//
-		return today.compareTo(from)>=0 && today.compareTo(until)<=0;
+		if(!validityConverted)
+		{
+			validFromMillis = getMillis(validFrom);
+			validUntilMillis = getMillis(validUntil);
+			validityConverted = true;
+		}
+		// the days are compared in the current time zone
+		long today = DateUtility.getDay(System.currentTimeMillis());
+		return today>=DateUtility.getDay(validFromMillis) && today<=DateUtility.getDay(validUntilMillis);
 	}
+		
+    /**
+     * converts the date in the format yyyy-MM-dd to milliseconds
+     */
+    private static long getMillis(String value) throws ParseException
+    {
+    	long millis = DateUtility.getMillis(value, DateUtility.DEFAULT_DATE_FORMAT);
+    	if(millis==DateUtility.NO_DATE)
+    	{
+    		throw new ParseException("Unparseable date: \"" + value + "\"", 0);
+    	}
+    	return millis;
+    }
     
     /**
      * returns the valid until string of the group 
@@ -180,6 +219,7 @@ public class RuleGroup implements Serializable
     public void setValidUntil(String validUntil)
     {
         this.validUntil = validUntil;
+        this.validityConverted = false;
     }
     
     /**
@@ -232,6 +272,51 @@ public class RuleGroup implements Serializable
         this.subGroupCollection = collection;
     }
     
+    /**
+     * compiles the rules of all subgroups into execution plans and the
+     * group into a single method handle evaluating all rules
+     */
+    public void compileRules()
+    {
+        for(int i=0;i<subGroupCollection.size();i++)
+        {
+            RuleSubGroup subGroup = (RuleSubGroup)subGroupCollection.get(i);
+            subGroup.compileRules();
+        }
+        compiledGroup = new CompiledRuleGroup(this);
+    }
+    
+    /**
+     * returns the compiled form of this group. the group is compiled again if that
+     * was not done before or if the rules or operators of the subgroups changed since.
+     * 
+     * @return	the compiled rulegroup
+     */
+    public CompiledRuleGroup getCompiledGroup()
+    {
+    	CompiledRuleGroup group = compiledGroup;
+    	if(group==null || !group.isCompiledFrom(subGroupCollection))
+    	{
+    		group = new CompiledRuleGroup(this);
+    		compiledGroup = group;
+    	}
+    	return group;
+    }
+    
+    /**
+     * compiles the rules of all subgroups into execution plans. execution plans that
+     * exist already - because the group is a copy of a group that was compiled before -
+     * are reused.
+     */
+    public void compileChangedRules()
+    {
+        for(int i=0;i<subGroupCollection.size();i++)
+        {
+            RuleSubGroup subGroup = (RuleSubGroup)subGroupCollection.get(i);
+            subGroup.compileChangedRules();
+        }
+    }
+    
     /**
      * this method is used to run all rules in all subgroups.
      * 
@@ -241,13 +326,90 @@ public class RuleGroup implements Serializable
      */
     public void runRules(String objectLabel,Object object)throws Exception
     {
+    	runRules(objectLabel, object, shortCircuit);
+    }
+    
+    /**
+     * this method is used to run the rules in the subgroups.
+     * 
+     * if shortCircuit is true, the rules of a subgroup are only evaluated until the outcome of the
+     * subgroup is decided. a subgroup is not run at all, if the outcome of the chain of the previous
+     * subgroups already decides the result in combination with the operator of the subgroup: a
+     * failed chain connected with 'and' or a passed chain connected with 'or'. rules that did not
+     * run are marked as not evaluated.
+     * 
+     * @param	objectLabel		the label used for the object
+     * @param	object			the object to use
+     * @param	shortCircuit	indicator if the evaluation shall stop once the outcome is decided
+     * @throws	Exception		throws an exception if the rulegroup or action can not be executed
+     */
+    public void runRules(String objectLabel,Object object, boolean shortCircuit)throws Exception
+    {
+    	runRules(objectLabel, object, shortCircuit, null);
+    }
+    
+    /**
+     * this method is used to run the rules in the subgroups.
+     * 
+     * values of the object and results of checks that are shared by multiple rules are only retrieved
+     * or evaluated once, using the given cache. if actions were executed, the cache is cleared
+     * because the actions may have changed the object.
+     * 
+     * if the execution results are not preserved, the values retrieved from the object are not
+     * needed. the rules of all subgroups are then evaluated at once by the compiled group and
+     * the subgroups take over the outcome of their rules.
+     * 
+     * @param	objectLabel		the label used for the object
+     * @param	object			the object to use
+     * @param	shortCircuit	indicator if the evaluation shall stop once the outcome is decided
+     * @param	cache			the cache of shared values and results for the object. may be null
+     * @throws	Exception		throws an exception if the rulegroup or action can not be executed
+     */
+    public void runRules(String objectLabel,Object object, boolean shortCircuit, RuleExpressionCache cache)throws Exception
+    {
+        executionCollection.clear();
+        executionCollection.setOutputType(outputType);
+        executionCollection.setPreserveRuleExcecutionResults(preserveRuleExcecutionResults);
+        resultsCollected = false;
+        
+        CompiledRuleGroup group = null;
+        if(!preserveRuleExcecutionResults)
+        {
+        	group = getCompiledGroup();
+        	if(outcomes==null || outcomes.length!=group.getNumberOfRules())
+        	{
+        		outcomes = new int[group.getNumberOfRules()];
+        	}
+        	group.evaluate(object, cache, outcomes, shortCircuit);
+        }
+        // the result of the chain of subgroups that ran so far
+        int failed = 0;
         for(int i=0;i<subGroupCollection.size();i++)
         {
             RuleSubGroup subGroup = (RuleSubGroup)subGroupCollection.get(i);
             subGroup.setTimestampFormat(timestampFormat);
             subGroup.setOutputType(outputType);
             subGroup.setPreserveRuleExcecutionResults(preserveRuleExcecutionResults);
-            subGroup.runRules(objectLabel, object);
+            if(i==0)
+            {
+            	runSubGroup(group, i, subGroup, objectLabel, object, shortCircuit, cache);
+            	failed = subGroup.getFailed();
+            	addCounters(subGroup);
+            }
+            else
+            {
+            	int logicalOperator = subGroup.getLogicalOperatorSubGroup();
+            	if(shortCircuit && isDecided(failed, logicalOperator))
+            	{
+            		subGroup.skipRules(objectLabel);
+            	}
+            	else
+            	{
+            		runSubGroup(group, i, subGroup, objectLabel, object, shortCircuit, cache);
+            		failed = getFailed(failed, subGroup.getFailed(), logicalOperator);
+            	}
+            	addCounters(subGroup);
+            }
         }
         // execute all actions on this object
         Action action = new Action(this.getFailed(), object, outputAfterActions);
@@ -255,6 +417,21 @@ public class RuleGroup implements Serializable
         action.setMappingCollection(mappingCollection);
         // the method gives back the number of actions that were executed
         numberOfActionsExecuted = action.executeActions(actions);
+        if(numberOfActionsExecuted>0 && cache!=null)
+        {
+        	cache.clear();
+        }
+    }
+    
+    /**
+     * adds the counters of the given subgroup - which ran before - to the counters of the group
+     */
+    private void addCounters(RuleSubGroup subGroup)
+    {
+        executionCollection.addNumberOfRulesRun(subGroup.getNumberOfRulesRun());
+        executionCollection.addNumberOfRulesPassed(subGroup.getNumberOfRulesPassed());
+        executionCollection.addNumberOfRulesFailed(subGroup.getNumberOfRulesFailed());
+        executionCollection.addNumberOfRulesNotEvaluated(subGroup.getNumberOfRulesNotEvaluated());
     }
     
     /**
@@ -301,13 +478,7 @@ public class RuleGroup implements Serializable
      */
     public long getNumberOfRulesRun()
     {
-        long count = 0;
-        for(int i=0;i<subGroupCollection.size();i++)
-        {
-            RuleSubGroup subGroup = (RuleSubGroup)subGroupCollection.get(i);
-            count = count + subGroup.getNumberOfRulesRun();
-        }
-        return count;
+        return executionCollection.getRulesRunCount();
     }
     
     /**
@@ -317,13 +488,7 @@ public class RuleGroup implements Serializable
      */
     public long getNumberOfRulesFailed()
     {
-        long count = 0;
-        for(int i=0;i<subGroupCollection.size();i++)
-        {
-            RuleSubGroup subGroup = (RuleSubGroup)subGroupCollection.get(i);
-            count = count + subGroup.getNumberOfRulesFailed();
-        }
-        return count;
+        return executionCollection.getRulesFailedCount();
     }
     
     /**
@@ -333,32 +498,39 @@ public class RuleGroup implements Serializable
      */
     public long getNumberOfRulesPassed()
     {
-        long count = 0;
-        for(int i=0;i<subGroupCollection.size();i++)
-        {
-            RuleSubGroup subGroup = (RuleSubGroup)subGroupCollection.get(i);
-            count = count + subGroup.getNumberOfRulesPassed();
-        }
-        return count;
+        return executionCollection.getRulesPassedCount();
+    }
+    
+    /**
+     * returns the number of rules that were not evaluated over all subgroups
+     * 
+     * @return		the number of rules that were not evaluated
+     */
+    public long getNumberOfRulesNotEvaluated()
+    {
+        return executionCollection.getRulesNotEvaluatedCount();
     }
     
     /**
-     * returns a collection of results from all subgroups and rules that ran
+     * returns a collection of results from all subgroups and rules that ran.
+     * 
+     * the collection is kept by the group and is reset when the rules run again. the results
+     * of the subgroups are added the first time the collection is requested after a run.
      * 
      * @return	the collection of rule execution results
      */
     public RuleExecutionCollection getExecutionCollection()
     {
-        RuleExecutionCollection collection = new RuleExecutionCollection();
-        for(int i=0;i<subGroupCollection.size();i++)
+        if(!resultsCollected)
         {
-            RuleSubGroup subGroup = (RuleSubGroup)subGroupCollection.get(i);
-            collection.addAll(subGroup.getExecutionCollection().getResults());
-            collection.addNumberOfRulesRun(subGroup.getNumberOfRulesRun());
-            collection.addNumberOfRulesPassed(subGroup.getNumberOfRulesPassed());
-            collection.addNumberOfRulesFailed(subGroup.getNumberOfRulesFailed());
+            resultsCollected = true;
+            for(int i=0;i<subGroupCollection.size();i++)
+            {
+                RuleSubGroup subGroup = (RuleSubGroup)subGroupCollection.get(i);
+                executionCollection.addAll(subGroup.getExecutionCollection().getResults());
+            }
         }
-        return collection;
+        return executionCollection;
     }
     
     /**
@@ -485,6 +657,43 @@ public class RuleGroup implements Serializable
         }
     }
     
+    /**
+     * runs the rules of the subgroup at the given position. if the rules were already evaluated
+     * by the compiled group, the subgroup takes over their outcome.
+     */
+    private void runSubGroup(CompiledRuleGroup group, int index, RuleSubGroup subGroup, String objectLabel, Object object, boolean shortCircuit, RuleExpressionCache cache) throws Exception
+    {
+    	if(group!=null)
+    	{
+    		subGroup.applyOutcomes(objectLabel, outcomes, group.getOffset(index));
+    	}
+    	else
+    	{
+    		subGroup.runRules(objectLabel, object, shortCircuit, cache);
+    	}
+    }
+    
+    /**
+     * returns if the result of a chain of subgroups is already decided when it is connected
+     * to the next subgroup using the given operator: a failed chain can not pass when it is connected
+     * with [and] and a passed chain can not fail when it is connected with [or]
+     * 
+     * @param	failed		indicator if the chain of subgroups failed
+     * @param	operator	the operator how the next subgroup is connected to the chain
+     * @return				indicator if the result is decided regardless of the next subgroup
+     */
+    private static boolean isDecided(int failed, int operator)
+    {
+    	if(operator == OPERATOR_AND)
+    	{
+    		return failed==1;
+    	}
+    	else
+    	{
+    		return failed==0;
+    	}
+    }
+    
     /**
      * creates a string representation of the logic of a rulegroup
      * 
@@ -619,6 +828,16 @@ public class RuleGroup implements Serializable
 		this.preserveRuleExcecutionResults = preserveRuleExcecutionResults;
 	}
 
+	public boolean getShortCircuit()
+	{
+		return shortCircuit;
+	}
+
+	public void setShortCircuit(boolean shortCircuit)
+	{
+		this.shortCircuit = shortCircuit;
+	}
+
 	public int getSkipped()
 	{
 		return skipped;
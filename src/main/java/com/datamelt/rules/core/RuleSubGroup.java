@@ -19,16 +19,10 @@
 package com.datamelt.rules.core;
 
 import java.io.Serializable;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 
 import com.datamelt.rules.core.util.Converter;
 import com.datamelt.rules.implementation.GenericCheck;
-import com.datamelt.util.ClassUtility;
-import com.datamelt.util.FieldNotFoundException;
 
 /**
  * @author uwe geercken
@@ -61,6 +55,22 @@ public class RuleSubGroup implements Serializable
     private RuleCollection rulesCollection = new RuleCollection();
     //  list of errors that occurred in this subgroup
     private RuleExecutionCollection executionCollection = new RuleExecutionCollection();
+    // the compiled execution plans of the rules
+    private transient volatile CompiledRule[] compiledRules;
+    
+    // outcome of the rules of the last run - by position of the rule: 1 means failed, 0 means passed
+    private transient int[] rulesFailed;
+    // the values retrieved from the object for the rules of the last run
+    private transient Object[] resultObjects1;
+    private transient Object[] resultObjects2;
+    // the rules, label and time of the last run
+    private transient CompiledRule[] evaluatedRules;
+    private transient String evaluatedObjectLabel;
+    private transient long evaluatedTime;
+    // indicates that the result objects of the last run have not been created yet
+    private transient boolean resultsPending;
+    // indicates that the rules of the subgroup were not evaluated in the last run
+    private transient boolean skipped;
     
     private String timestampFormat;
     private boolean preserveRuleExcecutionResults=true;
@@ -72,7 +82,27 @@ public class RuleSubGroup implements Serializable
         this.setLogicalOperatorRules(operatorRules);
         this.setLogicalOperatorSubGroup(operatorSubGroup);
     }
-    
+
+    /**
+     * constructor which creates a copy of the given subgroup. the rules and their
+     * compiled execution plans are shared with the original subgroup, but the copy
+     * collects its own execution results.
+     *
+     * @param	subGroup	the subgroup to copy
+     */
+    public RuleSubGroup(RuleSubGroup subGroup)
+    {
+    	this.id = subGroup.id;
+    	this.description = subGroup.description;
+    	this.logicalOperatorRules = subGroup.logicalOperatorRules;
+    	this.logicalOperatorSubGroup = subGroup.logicalOperatorSubGroup;
+    	this.setOutputType(subGroup.outputType);
+    	this.timestampFormat = subGroup.timestampFormat;
+    	this.rulesCollection = subGroup.rulesCollection;
+    	this.compiledRules = subGroup.compiledRules;
+    	this.setPreserveRuleExcecutionResults(subGroup.preserveRuleExcecutionResults);
+    }
+
     public String getDescription()
     {
         return description;
@@ -103,23 +133,83 @@ public class RuleSubGroup implements Serializable
         this.rulesCollection = rulesCollection;
     }
     
+    /**
+     * compiles the rules of the subgroup into execution plans. everything that
+     * only depends on the definition of a rule - the method of the check, the
+     * expected value and the parameters - is resolved here once, so that running
+     * the rules against an object only invokes the prepared methods.
+     * 
+     * the rules are compiled automatically the first time the subgroup runs, if this
+     * method was not called before.
+     */
+    public void compileRules()
+    {
+    	CompiledRule[] rules = new CompiledRule[rulesCollection.size()];
+    	for(int i=0;i<rules.length;i++)
+    	{
+    		rules[i] = new CompiledRule(rulesCollection.get(i));
+    	}
+    	compiledRules = rules;
+    }
+    
+    /**
+     * compiles the rules of the subgroup into execution plans, reusing the execution plans
+     * that exist already - e.g. because the subgroup is a copy of a subgroup that was compiled
+     * before. those are copied instead of compiled again, so that the execution plans of the
+     * original subgroup are not modified.
+     * 
+     * rules that are not the same rules as the ones the existing execution plans were compiled
+     * from, are compiled.
+     */
+    public void compileChangedRules()
+    {
+    	CompiledRule[] previousRules = compiledRules;
+    	CompiledRule[] rules = new CompiledRule[rulesCollection.size()];
+    	for(int i=0;i<rules.length;i++)
+    	{
+    		if(previousRules!=null && i<previousRules.length && previousRules[i].getRule()==rulesCollection.get(i))
+    		{
+    			rules[i] = new CompiledRule(previousRules[i]);
+    		}
+    		else
+    		{
+    			rules[i] = new CompiledRule(rulesCollection.get(i));
+    		}
+    	}
+    	compiledRules = rules;
+    }
+    
+    /**
+     * returns the compiled rules of this subgroup. the rules are compiled
+     * if that was not done before or if rules were added since.
+     * 
+     * @return	array of compiled rules
+     */
+    public CompiledRule[] getCompiledRules()
+    {
+    	if(compiledRules==null || compiledRules.length!=rulesCollection.size())
+    	{
+    		compileRules();
+    	}
+    	return compiledRules;
+    }
+    
     /**
      * method runs all rules against the object that the rule has to be
      * checked against.
      * 
-     * first the class and method are created using reflection and the relevant
-     * value from the object is retrieved.
-     * next an object from the business rule (from the xml file) is created using reflection
-     * and the value is retrieved.
-     * then any additional parameters from the rule are transformed into objects, again
-     * using reflection.
-     * lastly, both values (objects) plus the additional parameters (objects) are passed to the [evaluate] method
-     * of an object that extends the GenericCheck class.
+     * the rules are compiled before they run for the first time: the method of the check
+     * is resolved and the expected value and additional parameters are converted into objects.
+     * for each rule the value(s) from the object are retrieved, converted to the type defined
+     * in the rule if required and passed together with the expected value and the
+     * parameters to the [evaluate] method of an object that extends the GenericCheck class.
      * 
      * the result will be a boolean true or false, depending if the rule passed the test or not. if the result of
      * the rule is not a boolean, an exception is thrown.
      * 
-     * all results running the rule engine are put in a collection, containing the rule that was run and the object the rule ran against.
+     * the outcome of each rule is recorded by the position of the rule in the subgroup and the counters are
+     * updated. the results in the form of RuleExecutionResult objects - containing the rule that was run and the
+     * object the rule ran against - are only created when they are requested and if the results shall be preserved.
      * 
      * @param	objectLabel		the label of the object
      * @param	object			the object to use
@@ -127,351 +217,225 @@ public class RuleSubGroup implements Serializable
      */	
     public void runRules(String objectLabel, Object object) throws Exception
     {
-        // clear the list of errors
-        executionCollection.clear();
-
-        SimpleDateFormat sdf = new SimpleDateFormat(timestampFormat);
+    	runRules(objectLabel, object, false);
+    }
+        
+    /**
+     * method runs the rules against the object that the rule has to be
+     * checked against.
+     * 
+     * if shortCircuit is true, the evaluation stops as soon as the outcome of the subgroup
+     * is decided: for rules connected with 'and' when the first rule failed and for rules
+     * connected with 'or' when the first rule passed. the remaining rules are marked as
+     * not evaluated.
+     * 
+     * @param	objectLabel		the label of the object
+     * @param	object			the object to use
+     * @param	shortCircuit	indicator if the evaluation shall stop once the outcome of the subgroup is decided
+     * @throws	Exception		exception if the rules can not be run
+     */
+    public void runRules(String objectLabel, Object object, boolean shortCircuit) throws Exception
+    {
+    	runRules(objectLabel, object, shortCircuit, null);
+    }
+    
+    /**
+     * method runs the rules against the object that the rule has to be
+     * checked against.
+     * 
+     * values of the object and results of checks that are shared with other rules are taken
+     * from the given cache - or stored in it - so that they are only retrieved or evaluated once
+     * for the object. the cache must have been cleared if the object changed since it was used.
+     * 
+     * @param	objectLabel		the label of the object
+     * @param	object			the object to use
+     * @param	shortCircuit	indicator if the evaluation shall stop once the outcome of the subgroup is decided
+     * @param	cache			the cache of shared values and results for the object. may be null
+     * @throws	Exception		exception if the rules can not be run
+     */
+    public void runRules(String objectLabel, Object object, boolean shortCircuit, RuleExpressionCache cache) throws Exception
+    {
+        CompiledRule[] rules = prepareRun(objectLabel);
+        
+        // the result of a rule which decides the outcome of the subgroup
+        boolean decidingResult = logicalOperatorRules != OPERATOR_AND;
+        
+        // the number of rules that were evaluated
+        int numberOfRulesEvaluated = rules.length;
+        
+        // the values from the object are only needed if results of passed or failed rules are kept
+        boolean keepValues = executionCollection.isRetained(RuleGroup.TYPE_PASSED) || executionCollection.isRetained(RuleGroup.TYPE_FAILED);
         
         // process all rules from all parsed xml files
-        for(int i=0;i<rulesCollection.getRules().size();i++)
+        for(int i=0;i<rules.length;i++)
         {
-            // get a xmlrule
-            // this is the xml rule/business rule as defined in the external xml file
-            XmlRule rule = (XmlRule)rulesCollection.getRules().get(i).clone(); 
-            
-            // we pass the value cache to the generic check
-            rule.getExecuteCheck();
-            GenericCheck.setValueCache(rule.getValueCache());
+            CompiledRule compiledRule = rules[i];
             
-            // create object from the object as defined in the xml file
-            Object result1=null;
-            try
+            boolean result;
+            if(keepValues)
             {
-            	result1 = createObjectFromXmlObject(rule.getRuleObjects().get(0),object);
+                // get the value(s) from the object as defined in the xml file
+                Object result1 = compiledRule.getFirstObject(object, cache);
+                Object result2 = compiledRule.getSecondObject(object, cache);
+            
+                // run the check. if the value of the first object is null or could not be converted
+                // to the requested type, the rule fails - except for the CheckIsNull and CheckIsEmpty checks
+                result = compiledRule.evaluate(result1, result2, cache);
+            
+                // the results from the data object
+                resultObjects1[i] = result1;
+                resultObjects2[i] = result2;
             }
-            catch(FieldNotFoundException fnfe)
+            else
             {
-            	throw new FieldNotFoundException("error rule: [" + rule.getId() + "] - field not found: "+ fnfe.getMessage());
+                // the values from the object are not needed for the results, so the
+                // rule is evaluated in one step
+                result = compiledRule.test(object, cache);
             }
-            catch(InvocationTargetException ite)
+            
+            if(result==true)
             {
-            	throw new Exception("error rule: [" + rule.getId() + "] invoking method for first object: "+ ite.getTargetException());
+                // the execution of the rule was sucessful                    
+                rulesFailed[i] = 0;
+                executionCollection.increaseRulesPassedCount();
             }
-            catch(Exception ex)
+            else // the execution of the rule was unsucessful
             {
-            	throw new Exception("error rule: [" + rule.getId() + "] creating first object from xml object");
+                rulesFailed[i] = 1;
+                executionCollection.increaseRulesFailedCount();
             }
             
-            // create second object from the object if we compare two objects
-            // and when defined in the xml file
-            Object result2 = null;
-            if(rule.getRuleObjects().size()>1)
-            {
-            	try
-            	{
-            		result2 = createObjectFromXmlObject(rule.getRuleObjects().get(1),object);
-            	}
-            	catch(FieldNotFoundException fnfe)
-                {
-                	throw new FieldNotFoundException("error rule: [" + rule.getId() + "] - field not found: "+ fnfe.getMessage());
-                }
-                catch(InvocationTargetException ite)
-                {
-                	throw new Exception("error rule: [" + rule.getId() + "] invoking method for second object: "+ ite.getTargetException());
-                }
-            	catch(Exception ex)
-            	{
-            		throw new Exception("error rule: [" + rule.getId() + "] creating second object from xml object");
-            	}
-
-            }
+            executionCollection.increaseRulesRunCount();
             
-            // create the method for the rule that is to be executed
-            Method ruleMethodToExecute;
-            try
-            {
-            	ruleMethodToExecute = createMethodFromXmlRule(rule);
-            }
-            catch(Exception ex)
+            // the outcome of the subgroup is decided, so the remaining rules do not have to run
+            if(shortCircuit && result==decidingResult)
             {
-            	throw new Exception("error rule: [" + rule.getId() + "] creating method from xml rule " + ex.getMessage());
+            	numberOfRulesEvaluated = i + 1;
+            	break;
             }
-
-            // create the objects that will be used for the method
-            Object[] arguments;
-            try
-            {
-            	arguments = createRuleMethodArguments(rule,result1,result2);
-            }
-            catch(Exception ex)
+        }
+        markNotEvaluated(numberOfRulesEvaluated);
+        // results are only created if they shall be preserved
+        resultsPending = preserveRuleExcecutionResults;
+    }
+    
+    /**
+     * sets the outcome of the rules of the subgroup for the object with the given label from
+     * the outcomes that were determined by the compiled rulegroup - instead of running the rules.
+     * the counters are updated the same way as when running the rules.
+     * 
+     * @param	objectLabel		the label of the object
+     * @param	outcomes		the outcomes of the rules of the group: [0] passed, [1] failed or not evaluated (2)
+     * @param	offset			the position of the outcome of the first rule of the subgroup
+     * @see		CompiledRuleGroup#evaluate(Object, int[], boolean)
+     */
+    public void applyOutcomes(String objectLabel, int[] outcomes, int offset)
+    {
+        CompiledRule[] rules = prepareRun(objectLabel);
+        
+        // the number of rules that were evaluated
+        int numberOfRulesEvaluated = rules.length;
+        
+        for(int i=0;i<rules.length;i++)
+        {
+            int outcome = outcomes[offset + i];
+            if(outcome==RuleExecutionResult.NOT_EVALUATED)
             {
-            	throw new Exception("error rule: [" + rule.getId() + "] creating method arguments from xml rule " + ex.getMessage());
+            	numberOfRulesEvaluated = i;
+            	break;
             }
-            
-            if(arguments[0]!=null)
+            rulesFailed[i] = outcome;
+            if(outcome==0)
             {
-	            // invoke the rule
-	            // attention: all of these methods are deemed to be static, that is why <null> is used as first parameter here
-            	Object executeRuleResult;
-            	try
-            	{
-            		executeRuleResult = ruleMethodToExecute.invoke(null,arguments);
-            	}
-            	catch(Exception ex)
-            	{
-            		throw new Exception("error invoking method on rule: [" + rule.getId() + "]: " + ex.getMessage());
-            	}
-	            
-	            // the result of the invocation must be a boolean
-	            if(executeRuleResult instanceof Boolean)
-	            {
-	            	// create a result object
-	                RuleExecutionResult executionResult = new RuleExecutionResult(sdf.format(new Date()), rule,objectLabel,getId());
-	                // the result from the data object
-	                executionResult.setResultObject1(result1);
-	                // the result from the data object
-	                executionResult.setResultObject2(result2);
-	                
-	                // so its a boolean we need to cast it to use it further on
-	                Boolean b = (Boolean)executeRuleResult;
-	                boolean result = b.booleanValue();
-	                if(result==true)
-	                {
-	                    // the execution of the rule was sucessful                    
-	                    executionResult.getRule().setFailed(0);
-	                    executionCollection.increaseRulesPassedCount();
-	                }
-	                else // the execution of the rule was unsucessful
-	                {
-	                    // set the rule failed indicator of the xmlrule
-	                    executionResult.getRule().setFailed(1);
-	                    executionCollection.increaseRulesFailedCount();
-	                }
-	                
-                	executionCollection.add(executionResult);
-	            }
-	            else
-	            {
-	                // throw an error if the return type is not a boolean
-	                throw new Exception("error rule: [" + rule.getId() + "] return type of rule result must always be of type boolean");
-	            }
+                executionCollection.increaseRulesPassedCount();
             }
             else
             {
-            	// if the arguments object is null then this means that the conversion of the value/field to the requested type
-            	// ended in an exception. meaning it is of the wrong type.
-            	// so we mark the rule as failed, because we cannot compare the value to the rule.
-            	
-            	// attention: this is not true if we explicitly check for a null value with the "com.datamelt.rules.implementation.CheckIsNull" check.
-            	// in this case the rule has passed.
-            	
-            	// create a result object
-                RuleExecutionResult executionResult = new RuleExecutionResult(sdf.format(new Date()), rule,objectLabel, getId());
-                // the result from the data object
-              
-                executionResult.setResultObject1(result1);
-                // the result from the data object
-                executionResult.setResultObject2(result2);
-                
-                // here is the exception
-                if (rule.getCheckToExecute().equals("com.datamelt.rules.implementation.CheckIsNull") || rule.getCheckToExecute().equals("com.datamelt.rules.implementation.CheckIsEmpty"))
-                {
-                	executionResult.getRule().setFailed(0);
-                	executionCollection.increaseRulesPassedCount();
-                }
-                else
-                {
-                	executionResult.getRule().setFailed(1);
-                	executionCollection.increaseRulesFailedCount();
-                }
-                
-                // add result to list.
-               	executionCollection.add(executionResult);
+                executionCollection.increaseRulesFailedCount();
             }
             executionCollection.increaseRulesRunCount();
         }
+        markNotEvaluated(numberOfRulesEvaluated);
+        resultsPending = preserveRuleExcecutionResults;
     }
     
-    private Object createObjectFromXmlObject(RuleObject ruleObject,Object object)throws Exception
+    /**
+     * marks all rules of the subgroup as not evaluated for the object with the given label.
+     * 
+     * this is used when the outcome of the rulegroup is already decided by the previous subgroups,
+     * so that the rules of this subgroup do not have to run.
+     * 
+     * @param	objectLabel		the label of the object
+     */
+    public void skipRules(String objectLabel)
     {
-        //  create the classes array corresponding to the parameters/arguments of the method
-        Class<?> parameters[]=null;
-		if(ruleObject.getParameterType()!=null)
-		{
-		    parameters = new Class[1];
-		    parameters[0]= ClassUtility.getClass(ruleObject.getParameterType());
-		}
-        
-        // create the actual value of the method parameter/argument
-        Object parameterValues[] = null;
-        if(ruleObject.getParameterType()!=null)
-        {
-            parameterValues = new Object[1];
-            parameterValues[0] = ClassUtility.getObject(ruleObject.getParameterType(), ruleObject.getParameter());
-        }
-        
-        // get the data from the object in question
-        Method method = object.getClass().getMethod(ruleObject.getMethodName(),parameters);
-        Object result = method.invoke(object,parameterValues);
-        
-        return result;
+    	prepareRun(objectLabel);
+    	markNotEvaluated(0);
+    	skipped = true;
+    	resultsPending = preserveRuleExcecutionResults;
     }
     
-    private Method createMethodFromXmlRule(XmlRule rule) throws Exception
+    /**
+     * resets the results of the last run and prepares the arrays that carry
+     * the outcome of the rules
+     */
+    private CompiledRule[] prepareRun(String objectLabel)
     {
-        Class<?>[] classes;
-        // when [expected value] und [type] of the rule are empty, then this means that no (expected) value
-        // is required. meaning that the rule does not compare two values against each other, but one value will
-        // be checked only.
-        //
-        // example: test for <null> of a value.
-        //
-        if(rule.getExpectedValueRuleType()!=null && rule.getExpectedValueRule()!=null)
-        {
+        // clear the list of errors
+        executionCollection.clear();
+        resultsPending = false;
+        skipped = false;
         
-	        // create an array of classes
-	        // based on the number of parameters
-	        classes = new Class[2 + rule.getParameters().size()];
-	
-	        // get the correct class for the actual value
-	        classes[0] = ClassUtility.getClass(rule.getRuleObjects().get(0).getMethodReturnType());
-	        
-	        // get the correct class for the expected value
-	        classes[1] = ClassUtility.getClass(rule.getExpectedValueRuleType());
-	        
-	        // get all additional parameters of the method
-	        // and create an equivalent class
-	        for (int i=0;i<rule.getParameters().size();i++)
-	        {
-	            Parameter parameter = (Parameter)rule.getParameters().get(i);
-	            classes[2+i]= ClassUtility.getClass(parameter.getType());
-	        }
-        }
-        else
-        {
-	        if(rule.getRuleObjects().size()==1)
-	        {
-	            // create an array of classes
-		        // based on the number of parameters
-		        classes = new Class[1 + rule.getParameters().size()];
-		
-	            // get the correct class for the actual value
-	            classes[0] = ClassUtility.getClass(rule.getRuleObjects().get(0).getMethodReturnType());
-	        }
-	        else
-	        {
-	            // create an array of classes
-		        // based on the number of parameters
-		        classes = new Class[2 + rule.getParameters().size()];
-		
-	            // get the correct class for the actual value
-	            classes[0] = ClassUtility.getClass(rule.getRuleObjects().get(0).getMethodReturnType());
-	            
-	            // get the correct class for the actual value
-	            classes[1] = ClassUtility.getClass(rule.getRuleObjects().get(1).getMethodReturnType());
-	        }
-	        
-	        // get all additional parameters of the method
-	        // and create an equivalent class
-	        for (int i=0;i<rule.getParameters().size();i++)
-	        {
-	            Parameter parameter = (Parameter)rule.getParameters().get(i);
-	            classes[classes.length-rule.getParameters().size()+i] = ClassUtility.getClass(parameter.getType());
-	        }
-        }
-        Method m = null;
-        GenericCheck gc = null;
-        try
+        CompiledRule[] rules = getCompiledRules();
+        if(rulesFailed==null || rulesFailed.length!=rules.length)
         {
-        	 gc = rule.getExecuteCheck();
+        	rulesFailed = new int[rules.length];
+        	resultObjects1 = new Object[rules.length];
+        	resultObjects2 = new Object[rules.length];
         }
-        catch (Exception sue)
-        {
-        	sue.printStackTrace();
-        }
-       	m = gc.getClass().getMethod(GenericCheck.GENERIC_CHECK_METHOD_EVALUATE,classes);
-        return m;
+        evaluatedRules = rules;
+        evaluatedObjectLabel = objectLabel;
+        evaluatedTime = System.currentTimeMillis();
+        return rules;
     }
     
     /**
-     * before the method can be invoked, an array of objects has to be created. these will be passed into
-     * the method and with these objects/values the method will be executed.
-     * 
-     * @param	rule			the rule to use
-     * @param	result			the first object to use
-     * @param	result2			the second object to use
-     * @return					an array of objects/arguments to pass to the method
-     * @throws	Exception		exception if the arguments of the rule method can not be created
+     * marks the rules starting at the given position as not evaluated
      */
-    private Object[] createRuleMethodArguments(XmlRule rule, Object result, Object result2) throws Exception
+    private void markNotEvaluated(int start)
     {
-        // if the expected type/value are null/empty and the number of objects of the rule is 1
-        // then we are not comparing two values but only one: e.g. a test for <null> of a given value.
-
-    	Object[] objects = null;
-    	
-        // check how many objects we have defined in the rule
-        int numberOfObjects = rule.getRuleObjects().size();
-        // check if we have an expected value
-        if(rule.getExpectedValueRuleType()!=null && rule.getExpectedValueRule()!=null)
-        {
-        	numberOfObjects++;
-        }
-        
-        // total number of objects is the number of objects plus the additional parameters
-        objects = new Object[numberOfObjects + rule.getParameters().size()];
-        
-        // get the actual type of the first object
-        String resultType = ClassUtility.getObjectType(result);
-        
-        // we always have at least one object.
-        // if the actual type and the type defined in the rule are different
-        // then convert/cast the object
-        if(resultType!=null && !resultType.equals(rule.getRuleObjects().get(0).getMethodReturnType()))
-        {
-        	objects[0] = ClassUtility.getObject(rule.getRuleObjects().get(0).getMethodReturnType(),(String)result);	
-        }
-        else
-        {
-        	objects[0] = result;
-        }
-
-        // if we have an expected value
-        if(rule.getExpectedValueRuleType()!=null && rule.getExpectedValueRule()!=null)
-        {
-            // get the object for the expected value
-            objects[1] = ClassUtility.getObject(rule.getExpectedValueRuleType(),rule.getExpectedValueRule());
-        }
-        else
-        {
-            if(rule.getRuleObjects().size()==2)
-	        {
-            	// get the actual type of the second object
-                String resultType2 = ClassUtility.getObjectType(result2);
-                
-                // if the actual type and the type defined in the rule are different
-                // then convert/cast the object
-                if(!resultType2.equals(rule.getRuleObjects().get(1).getMethodReturnType()))
-                {
-                	objects[1] = ClassUtility.getObject(rule.getRuleObjects().get(1).getMethodReturnType(),(String)result2);
-                }
-                else
-                {
-                	objects[1] = result2;
-                }
-            }
-        }
-        
-        // get all additional parameters of the rule 
-        // and create an equivalent class for each of them
-        for (int i=0;i<rule.getParameters().size();i++)
-        {
-            Parameter parameter = (Parameter)rule.getParameters().get(i);
-            objects[numberOfObjects+i]= ClassUtility.getObject(parameter.getType(),parameter.getValue());
-        }
-        return objects;
+    	for(int i=start;i<evaluatedRules.length;i++)
+    	{
+    		rulesFailed[i] = RuleExecutionResult.NOT_EVALUATED;
+    		resultObjects1[i] = null;
+    		resultObjects2[i] = null;
+    		executionCollection.increaseRulesNotEvaluatedCount();
+    	}
     }
     
+    /**
+     * creates the result objects for the rules of the last run and adds them to the
+     * execution collection, if that was not done before.
+     */
+    private void createResults()
+    {
+    	if(resultsPending)
+    	{
+    		resultsPending = false;
+    		for(int i=0;i<evaluatedRules.length;i++)
+    		{
+    			// results which are not kept according to the output type are not created
+    			if(!executionCollection.isRetained(rulesFailed[i]))
+    			{
+    				continue;
+    			}
+    			RuleExecutionResult executionResult = new RuleExecutionResult(evaluatedTime, timestampFormat, evaluatedRules[i].getRule(), evaluatedObjectLabel, getId(), rulesFailed[i]);
+    			executionResult.setResultObject1(resultObjects1[i]);
+    			executionResult.setResultObject2(resultObjects2[i]);
+    			executionCollection.add(executionResult);
+    		}
+    	}
+    }
     
     /**
      * the rules of one subgroup can be joined using either a logical 'and' or a logical 'or'.
@@ -533,12 +497,13 @@ public class RuleSubGroup implements Serializable
      */
     public RuleExecutionCollection getExecutionCollection()
     {
+        createResults();
         return executionCollection;
     }
     
     public ArrayList <RuleExecutionResult>getResults()
     {
-        return executionCollection.getResults();
+        return getExecutionCollection().getResults();
     }
     
     /**
@@ -572,6 +537,45 @@ public class RuleSubGroup implements Serializable
     {
         return executionCollection.getRulesRunCount();
     }
+    
+    /**
+     * returns the number of rules that were not evaluated in the last run, because the
+     * outcome of the subgroup or of the rulegroup was already decided
+     * 
+     * @return	the number of rules that were not evaluated in the subgroup
+     */
+    public long getNumberOfRulesNotEvaluated()
+    {
+        return executionCollection.getRulesNotEvaluatedCount();
+    }
+    
+    /**
+     * returns the outcome of the rule at the given position in the last run: failed (1),
+     * passed (0) or not evaluated (2). if the subgroup did not run yet, the rule is reported
+     * as not evaluated.
+     * 
+     * @param	index	the position of the rule in the subgroup
+     * @return	the outcome of the rule
+     */
+    public int getRuleFailed(int index)
+    {
+        if(rulesFailed==null || index>=rulesFailed.length)
+        {
+            return RuleExecutionResult.NOT_EVALUATED;
+        }
+        return rulesFailed[index];
+    }
+    
+    /**
+     * indicates if the rules of the subgroup were skipped in the last run, because the
+     * outcome of the rulegroup was already decided by the previous subgroups
+     * 
+     * @return	indicator if the subgroup was skipped
+     */
+    public boolean isSkipped()
+    {
+        return skipped;
+    }
 
     /**
      * returns the integer representation of how
@@ -733,6 +737,7 @@ public class RuleSubGroup implements Serializable
     public void setOutputType(int outputType)
     {
         this.outputType = outputType;
+        this.executionCollection.setOutputType(outputType);
     }
     
     /**
@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.datamelt.util.TypedRow;
+
+/**
+ * evaluates a check that compares the value of a field against an expected value of the same
+ * type, using the primitive values.
+ * <p>
+ * the evaluate methods of the checks are static methods which take the values as primitives, e.g.
+ * evaluate(long,long). for each combination of types - the operand shape - there is a functional
+ * interface, which is bound to the evaluate method of the check when the rule is compiled. the expected
+ * value is converted once and kept as a primitive. the value of the field is retrieved from a TypedRow
+ * using the getter of the type, so the check runs without boxing the values.
+ * <p>
+ * a typed check is only available if the evaluate method of the check has exactly the two parameters
+ * of one of the shapes and returns a boolean.
+ *
+ * @see TypedRow
+ */
+public abstract class TypedCheck
+{
+	/** evaluate method taking two int values */
+	public interface IntCheck
+	{
+		boolean evaluate(int value, int compareValue);
+	}
+
+	/** evaluate method taking two long values */
+	public interface LongCheck
+	{
+		boolean evaluate(long value, long compareValue);
+	}
+
+	/** evaluate method taking two double values */
+	public interface DoubleCheck
+	{
+		boolean evaluate(double value, double compareValue);
+	}
+
+	/** evaluate method taking two strings */
+	public interface StringCheck
+	{
+		boolean evaluate(String value, String compareValue);
+	}
+
+	/** evaluate method taking two dates */
+	public interface DateCheck
+	{
+		boolean evaluate(Date value, Date compareValue);
+	}
+
+	// the functional interfaces bound to the evaluate methods. the same method is used by many rules
+	private static final ConcurrentHashMap<Method,Object> functions = new ConcurrentHashMap<Method,Object>();
+
+	// the type of the values as used in the rule definition
+	private final String type;
+
+	private TypedCheck(String type)
+	{
+		this.type = type;
+	}
+
+	/**
+	 * returns the type of the values as used in the rule definition - e.g. integer or long
+	 *
+	 * @return	the type of the values
+	 */
+	public String getType()
+	{
+		return type;
+	}
+
+	/**
+	 * retrieves the value of the field from the row and runs the check against the expected value.
+	 * the caller has to make sure, that the field has a value of the type - see TypedRow.isNull().
+	 *
+	 * @param row			the row
+	 * @param fieldName		the name of the field
+	 * @return				the result of the check
+	 * @throws Exception	exception if the value can not be retrieved
+	 */
+	public abstract boolean evaluate(TypedRow row, String fieldName) throws Exception;
+
+	/**
+	 * creates the typed check for the given evaluate method of a check and the expected value. returns
+	 * null if the method does not match one of the operand shapes or the expected value is null.
+	 *
+	 * @param method			the evaluate method of the check
+	 * @param type				the type of the values as used in the rule definition
+	 * @param expectedValue		the expected value, converted to the type
+	 * @return					the typed check or null
+	 */
+	public static TypedCheck create(Method method, String type, Object expectedValue)
+	{
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		if(expectedValue==null || !Modifier.isStatic(method.getModifiers()) || method.getReturnType()!=boolean.class || parameterTypes.length!=2 || parameterTypes[0]!=parameterTypes[1])
+		{
+			return null;
+		}
+		Class<?> parameterType = parameterTypes[0];
+		try
+		{
+			if(parameterType==int.class && expectedValue instanceof Integer)
+			{
+				return new IntTypedCheck(type, (IntCheck)getFunction(method, IntCheck.class), (Integer)expectedValue);
+			}
+			else if(parameterType==long.class && expectedValue instanceof Long)
+			{
+				return new LongTypedCheck(type, (LongCheck)getFunction(method, LongCheck.class), (Long)expectedValue);
+			}
+			else if(parameterType==double.class && expectedValue instanceof Double)
+			{
+				return new DoubleTypedCheck(type, (DoubleCheck)getFunction(method, DoubleCheck.class), (Double)expectedValue);
+			}
+			else if(parameterType==String.class && expectedValue instanceof String)
+			{
+				return new StringTypedCheck(type, (StringCheck)getFunction(method, StringCheck.class), (String)expectedValue);
+			}
+			else if(parameterType==Date.class && expectedValue instanceof Date)
+			{
+				return new DateTypedCheck(type, (DateCheck)getFunction(method, DateCheck.class), (Date)expectedValue);
+			}
+		}
+		catch(Throwable ex)
+		{
+			// the method can not be bound to the interface. the rule is evaluated the regular way
+		}
+		return null;
+	}
+
+	/**
+	 * returns the functional interface of the given type bound to the static evaluate method. the
+	 * interface is created using the LambdaMetafactory, the same way as for a method reference.
+	 */
+	private static Object getFunction(Method method, Class<?> functionType) throws Throwable
+	{
+		Object function = functions.get(method);
+		if(function==null)
+		{
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle implementation = lookup.unreflect(method);
+			MethodType methodType = implementation.type();
+			function = LambdaMetafactory.metafactory(lookup, "evaluate", MethodType.methodType(functionType), methodType, implementation, methodType).getTarget().invoke();
+			functions.put(method, function);
+		}
+		return function;
+	}
+
+	private static final class IntTypedCheck extends TypedCheck
+	{
+		private final IntCheck check;
+		private final int expectedValue;
+
+		private IntTypedCheck(String type, IntCheck check, int expectedValue)
+		{
+			super(type);
+			this.check = check;
+			this.expectedValue = expectedValue;
+		}
+
+		public boolean evaluate(TypedRow row, String fieldName) throws Exception
+		{
+			return check.evaluate(row.getInt(fieldName), expectedValue);
+		}
+	}
+
+	private static final class LongTypedCheck extends TypedCheck
+	{
+		private final LongCheck check;
+		private final long expectedValue;
+
+		private LongTypedCheck(String type, LongCheck check, long expectedValue)
+		{
+			super(type);
+			this.check = check;
+			this.expectedValue = expectedValue;
+		}
+
+		public boolean evaluate(TypedRow row, String fieldName) throws Exception
+		{
+			return check.evaluate(row.getLong(fieldName), expectedValue);
+		}
+	}
+
+	private static final class DoubleTypedCheck extends TypedCheck
+	{
+		private final DoubleCheck check;
+		private final double expectedValue;
+
+		private DoubleTypedCheck(String type, DoubleCheck check, double expectedValue)
+		{
+			super(type);
+			this.check = check;
+			this.expectedValue = expectedValue;
+		}
+
+		public boolean evaluate(TypedRow row, String fieldName) throws Exception
+		{
+			return check.evaluate(row.getDouble(fieldName), expectedValue);
+		}
+	}
+
+	private static final class StringTypedCheck extends TypedCheck
+	{
+		private final StringCheck check;
+		private final String expectedValue;
+
+		private StringTypedCheck(String type, StringCheck check, String expectedValue)
+		{
+			super(type);
+			this.check = check;
+			this.expectedValue = expectedValue;
+		}
+
+		public boolean evaluate(TypedRow row, String fieldName) throws Exception
+		{
+			return check.evaluate(row.getString(fieldName), expectedValue);
+		}
+	}
+
+	private static final class DateTypedCheck extends TypedCheck
+	{
+		private final DateCheck check;
+		private final Date expectedValue;
+
+		private DateTypedCheck(String type, DateCheck check, Date expectedValue)
+		{
+			super(type);
+			this.check = check;
+			this.expectedValue = expectedValue;
+		}
+
+		public boolean evaluate(TypedRow row, String fieldName) throws Exception
+		{
+			return check.evaluate(row.getDate(fieldName), expectedValue);
+		}
+	}
+}
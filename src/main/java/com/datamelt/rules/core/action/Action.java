@@ -23,12 +23,15 @@ import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.datamelt.rules.core.ActionObject;
 import com.datamelt.rules.core.XmlAction;
 import com.datamelt.rules.core.util.MappingCollection;
 import com.datamelt.util.ClassUtility;
+import com.datamelt.util.FieldIndex;
 import com.datamelt.util.FieldNotFoundException;
+import com.datamelt.util.RowFieldCollection;
 /**
  * class to execute one or a list of actions. An action is executed against a given object.
  * 
@@ -47,6 +50,10 @@ public class Action implements Serializable
 	
 	public static final long serialVersionUID = 1964070320;
 	
+	// the setter methods of the RowFieldCollection taking the index of the field, by the corresponding
+	// setter method taking the name of the field
+	private static final ConcurrentHashMap<Method,Method> indexSetterMethods = new ConcurrentHashMap<Method,Method>();
+	
 	/**
 	 * constructor to define the object used for the action and additional settings
      *
@@ -76,7 +83,12 @@ public class Action implements Serializable
 				XmlAction action = actions.get(i);
 				if(ruleGroupFailed==action.getExecuteIf() || action.getExecuteIf()==XmlAction.TYPE_ALWAYS)
 				{
-					action.setMappingCollection(mappingCollection);
+					// the actions are shared by all sessions of the rule engine, so they are
+					// only modified if a different mapping collection is used
+					if(action.getMappingCollection()!=mappingCollection)
+					{
+						action.setMappingCollection(mappingCollection);
+					}
 					executeAction(action);
 					counter++;
 				}
@@ -107,15 +119,15 @@ public class Action implements Serializable
         {
         	getterObjects = new Object[action.getActionGetterObjects().size()];
         	// construct the setter method to execute on the object from the xml action
-    		methodSetterObject = ClassUtility.getObjectMethod(action,action.getActionSetterObject());
+    		methodSetterObject = getMethodForObject(ClassUtility.getObjectMethod(action,action.getActionSetterObject()));
     		
     		// create the actual object
         	try
         	{
         		for(int i=0;i<actionGetterObjects.size();i++)
         		{
-        			Method methodGetterObject = ClassUtility.getObjectMethod(action,actionGetterObjects.get(i));
-        			getterObjects[i] = ClassUtility.invokeObjectMethod(object, methodGetterObject, actionGetterObjects.get(i).getParameters());
+        			Method methodGetterObject = getMethodForObject(ClassUtility.getObjectMethod(action,actionGetterObjects.get(i)));
+        			getterObjects[i] = invokeGetterMethod(actionGetterObjects.get(i), methodGetterObject);
         		}
         	}
         	catch(ActionInvocationException aie)
@@ -137,7 +149,7 @@ public class Action implements Serializable
         	// construct the setter method to execute on the object from the xml action
     		try
     		{
-    			methodSetterObject = ClassUtility.getObjectMethod(action,action.getActionSetterObject());
+    			methodSetterObject = getMethodForObject(ClassUtility.getObjectMethod(action,action.getActionSetterObject()));
     		}
     		catch(NoSuchMethodException nsm)
     		{
@@ -180,7 +192,7 @@ public class Action implements Serializable
         {
         	try
         	{
-        		ClassUtility.invokeObjectSetterMethod(object, actionClassResult, methodSetterObject,action.getActionSetterObject().getParameters());
+        		invokeSetterMethod(actionSetterObject, actionClassResult, methodSetterObject);
         	}
         	catch(ActionInvocationException aie)
         	{
@@ -201,6 +213,89 @@ public class Action implements Serializable
         }
 	}
 	
+	/**
+	 * invokes the getter method of the action object on the object. if the object is a RowFieldCollection
+	 * and the method gets the value of a field by its name, the value is retrieved using the index of the field.
+	 */
+	private Object invokeGetterMethod(ActionObject actionObject, Method method) throws Exception
+	{
+		FieldIndex fieldIndex = actionObject.getFieldIndex();
+		if(fieldIndex!=null && object!=null && object.getClass()==RowFieldCollection.class && method.getName().equals(ActionObject.FIELD_VALUE_GETTER))
+		{
+			try
+			{
+				return fieldIndex.getFieldValue((RowFieldCollection)object);
+			}
+			catch(Exception ex)
+			{
+				// invoke the method again to report the error
+			}
+		}
+		return ClassUtility.invokeObjectMethod(object, method, actionObject.getParameters());
+	}
+	
+	/**
+	 * invokes the setter method of the action object on the object. if the object is a RowFieldCollection
+	 * and the method sets the value of a field by its name, the setter method taking the index of the field
+	 * is used.
+	 */
+	private void invokeSetterMethod(ActionObject actionObject, Object value, Method method) throws Exception
+	{
+		FieldIndex fieldIndex = actionObject.getFieldIndex();
+		if(fieldIndex!=null && object!=null && object.getClass()==RowFieldCollection.class && method.getName().equals(ActionObject.FIELD_VALUE_SETTER))
+		{
+			try
+			{
+				RowFieldCollection row = (RowFieldCollection)object;
+				int index = fieldIndex.getIndex(row.getHeader());
+				// the header row has to point to the field with the name
+				if(index<row.getNumberOfFields() && row.getField(index).getName().equals(fieldIndex.getFieldName()))
+				{
+					getIndexSetterMethod(method).invoke(row, index, value);
+					return;
+				}
+			}
+			catch(Exception ex)
+			{
+				// invoke the method again to report the error
+			}
+		}
+		ClassUtility.invokeObjectSetterMethod(object, value, method, actionObject.getParameters());
+	}
+	
+	/**
+	 * returns the setter method of the RowFieldCollection that takes the index of the field and
+	 * a value of the same type as the given setter method
+	 */
+	private static Method getIndexSetterMethod(Method method) throws Exception
+	{
+		Method indexMethod = indexSetterMethods.get(method);
+		if(indexMethod==null)
+		{
+			indexMethod = RowFieldCollection.class.getMethod(ActionObject.FIELD_VALUE_SETTER, int.class, method.getParameterTypes()[1]);
+			indexSetterMethods.put(method, indexMethod);
+		}
+		return indexMethod;
+	}
+	
+	/**
+	 * returns the method to invoke on the object. if the object is not an instance of the class
+	 * defined for the action object - e.g. a cursor of a RowBatch instead of a RowFieldCollection -
+	 * the method with the same name and parameters of the class of the object is used.
+	 * 
+	 * @param	method		the method of the class defined for the action object
+	 * @return				the method to invoke on the object
+	 * @throws	Exception	exception if the class of the object does not have the method
+	 */
+	private Method getMethodForObject(Method method) throws Exception
+	{
+		if(object!=null && !method.getDeclaringClass().isInstance(object))
+		{
+			return object.getClass().getMethod(method.getName(), method.getParameterTypes());
+		}
+		return method;
+	}
+	
 	/**
 	 * gets the object that is used for this action 
 	 * 
@@ -23,6 +23,8 @@ import javax.crypto.spec.SecretKeySpec;
 import javax.xml.bind.DatatypeConverter;
 
 import com.datamelt.rules.core.XmlAction;
+import com.datamelt.rules.core.util.RegexPattern;
+import com.datamelt.rules.core.util.ValueList;
 import com.datamelt.util.ActionAnnotation;
 import com.datamelt.util.ActionMethodAnnotation;
 
@@ -69,7 +71,8 @@ public class StringAction extends GenericAction
 		{
 			replacement="";
 		}
-		return value.replaceAll(regex, replacement);
+		// the pattern is compiled once and then taken from the cache
+		return RegexPattern.get(regex).replaceAll(value, replacement);
 	}
 	
 	@ActionAnnotation(description= "Replace value from mapping file",methodDisplayname="replace value from map")
@@ -99,10 +102,11 @@ public class StringAction extends GenericAction
 		{
 			list="";
 		}
-		String values[] = list.split(",");
-		if(values!=null && values.length>0 && index < values.length)
+		// the list is split once and then taken from the cache
+		ValueList values = ValueList.get(list);
+		if(values.size()>0 && index < values.size())
 		{
-			return values[index].trim();
+			return values.getValue(index);
 		}
 		else
 		{
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * a cache for values that are expensive to create - e.g. a compiled regular expression - from
+ * a key that is only known when a rule runs, because it is the value of a field.
+ * <p>
+ * the cache can be used by multiple threads. it holds at most the given number of entries: when
+ * the limit is reached, all entries are removed before the new one is added. so the memory used
+ * stays bounded, even if the keys are different for every row of data.
+ *
+ * @param <K>	the type of the keys
+ * @param <V>	the type of the values
+ */
+public final class BoundedCache<K,V>
+{
+	public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+	private final int maximumSize;
+	private final ConcurrentHashMap<K,V> values;
+
+	/**
+	 * creates a cache holding at most the default number of entries
+	 */
+	public BoundedCache()
+	{
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * creates a cache holding at most the given number of entries
+	 *
+	 * @param maximumSize	the maximum number of entries
+	 */
+	public BoundedCache(int maximumSize)
+	{
+		this.maximumSize = maximumSize;
+		this.values = new ConcurrentHashMap<K,V>();
+	}
+
+	/**
+	 * returns the value for the given key or null if the cache does not contain the key
+	 *
+	 * @param key	the key
+	 * @return		the value or null
+	 */
+	public V get(K key)
+	{
+		return values.get(key);
+	}
+
+	/**
+	 * adds the value for the given key to the cache. if the cache is full, all
+	 * entries are removed first.
+	 *
+	 * @param key	the key
+	 * @param value	the value
+	 * @return		the value
+	 */
+	public V put(K key, V value)
+	{
+		if(values.size()>=maximumSize)
+		{
+			values.clear();
+		}
+		values.put(key, value);
+		return value;
+	}
+
+	/**
+	 * returns the number of entries in the cache
+	 *
+	 * @return	the number of entries
+	 */
+	public int size()
+	{
+		return values.size();
+	}
+
+	/**
+	 * removes all entries from the cache
+	 */
+	public void clear()
+	{
+		values.clear();
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core.util;
+
+import java.util.Locale;
+
+/**
+ * converts a given value to its code according to the cologne phonetics (Koelner Phonetik) by Hans Joachim Postel.
+ * <p>
+ * the cologne phonetics is designed for german words and names: each letter is converted to a digit
+ * depending on the letters before and after it - e.g. "Meier", "Maier" and "Mayer" all result in "67".
+ * the umlauts are converted to their vowels and the sharp s to "S". all other characters except the letters
+ * A to Z separate the parts of the value. the code has no maximum length.
+ */
+public class ColognePhonetic
+{
+	/**
+	 * converts the value to its code according to the cologne phonetics
+	 *
+	 * @param value		the value to convert
+	 * @return			the code or an empty string if the value does not contain any letters
+	 */
+	public static String colognePhonetic(String value)
+	{
+		String word = value.toUpperCase(Locale.GERMAN);
+		int length = word.length();
+		StringBuffer code = new StringBuffer(length);
+		// the previous character and code. the code is a slash at the beginning and a hyphen after characters without a code
+		char previous = '-';
+		char previousCode = '/';
+		for(int i=0;i<length;i++)
+		{
+			char character = getLetter(word.charAt(i));
+			char next = i+1<length ? getLetter(word.charAt(i+1)) : '-';
+			char letterCode;
+			if(character=='H' || character<'A' || character>'Z')
+			{
+				if(previousCode=='/')
+				{
+					// characters without a code at the beginning are ignored
+					continue;
+				}
+				letterCode = '-';
+			}
+			else if(character=='A' || character=='E' || character=='I' || character=='J' || character=='O' || character=='U' || character=='Y')
+			{
+				letterCode = '0';
+			}
+			else if(character=='B' || (character=='P' && next!='H'))
+			{
+				letterCode = '1';
+			}
+			else if((character=='D' || character=='T') && !(next=='C' || next=='S' || next=='Z'))
+			{
+				letterCode = '2';
+			}
+			else if(character=='F' || character=='P' || character=='V' || character=='W')
+			{
+				letterCode = '3';
+			}
+			else if(character=='G' || character=='K' || character=='Q')
+			{
+				letterCode = '4';
+			}
+			else if(character=='X' && !(previous=='C' || previous=='K' || previous=='Q'))
+			{
+				// X is encoded as "48"
+				code.append('4');
+				letterCode = '8';
+			}
+			else if(character=='S' || character=='Z')
+			{
+				letterCode = '8';
+			}
+			else if(character=='C')
+			{
+				if(previousCode=='/')
+				{
+					// at the beginning of the word
+					letterCode = "AHKLOQRUX".indexOf(next)>=0 ? '4' : '8';
+				}
+				else
+				{
+					letterCode = previous=='S' || previous=='Z' || "AHKOQUX".indexOf(next)<0 ? '8' : '4';
+				}
+			}
+			else if(character=='D' || character=='T' || character=='X')
+			{
+				letterCode = '8';
+			}
+			else if(character=='L')
+			{
+				letterCode = '5';
+			}
+			else if(character=='M' || character=='N')
+			{
+				letterCode = '6';
+			}
+			else
+			{
+				// R
+				letterCode = '7';
+			}
+
+			// codes are not repeated and zeros are only kept at the beginning
+			if(letterCode!='-' && letterCode!=previousCode && (letterCode!='0' || previousCode=='/'))
+			{
+				code.append(letterCode);
+			}
+			previous = character;
+			previousCode = letterCode;
+		}
+		return code.toString();
+	}
+
+	/**
+	 * converts the umlauts to their vowels and the sharp s to S
+	 */
+	private static char getLetter(char character)
+	{
+		switch(character)
+		{
+			case '\u00C4':
+				return 'A';
+			case '\u00D6':
+				return 'O';
+			case '\u00DC':
+				return 'U';
+			case '\u00DF':
+				return 'S';
+			default:
+				return character;
+		}
+	}
+}
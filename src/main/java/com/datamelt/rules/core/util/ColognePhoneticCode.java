@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core.util;
+
+/**
+ * immutable code of a value according to the cologne phonetics (Koelner Phonetik).
+ * <p>
+ * the codes of the values of the fields are kept in a bounded cache, so that values which are
+ * used again and again - such as names - are only encoded once.
+ */
+public final class ColognePhoneticCode extends PhoneticCode
+{
+	public static final long serialVersionUID = 1964070910;
+
+	private static final BoundedCache<String,String> cache = new BoundedCache<String,String>();
+
+	/**
+	 * creates the code of the value according to the cologne phonetics
+	 *
+	 * @param value		the value to encode
+	 */
+	public ColognePhoneticCode(String value)
+	{
+		super(getCachedCode(value));
+	}
+
+	/**
+	 * returns the code of the value according to the cologne phonetics. the code is taken from the cache or
+	 * created and added to the cache.
+	 *
+	 * @param value		the value to encode
+	 * @return			the code of the value or an empty string if the value can not be encoded
+	 */
+	public static String getCachedCode(String value)
+	{
+		String code = cache.get(value);
+		if(code==null)
+		{
+			code = cache.put(value, ColognePhonetic.colognePhonetic(value));
+		}
+		return code;
+	}
+
+	@Override
+	protected String encode(String value)
+	{
+		return getCachedCode(value);
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core.util;
+
+/**
+ * calculates the Levenshtein distance between two strings: the minimum number of characters
+ * that have to be inserted, deleted or replaced to change one string into the other.
+ * <p>
+ * the checks of the distance only need to know if the distance is above or below a given value. so the
+ * distance is calculated up to a maximum value only: only the cells of the matrix which are not
+ * more than the maximum away from the diagonal are calculated - using two rows of the matrix - and
+ * the calculation stops as soon as all cells of a row are greater than the maximum.
+ * <p>
+ * the rows are kept per thread and reused, so that no memory is allocated for each calculation.
+ */
+public final class LevenshteinDistance
+{
+	// rows up to this length are kept per thread. longer rows are allocated for each calculation
+	private static final int MAXIMUM_BUFFER_LENGTH = 1024;
+
+	private static final ThreadLocal<int[][]> buffers = new ThreadLocal<int[][]>()
+	{
+		@Override
+		protected int[][] initialValue()
+		{
+			return new int[][] { new int[64], new int[64] };
+		}
+	};
+
+	private LevenshteinDistance()
+	{
+	}
+
+	/**
+	 * returns the Levenshtein distance between the two strings
+	 *
+	 * @param first		the first string
+	 * @param second	the second string
+	 * @return			the distance between the strings
+	 */
+	public static int getDistance(String first, String second)
+	{
+		return getDistance(first, second, Math.max(first.length(), second.length()));
+	}
+
+	/**
+	 * returns the Levenshtein distance between the two strings, if it is not greater than the
+	 * given maximum. otherwise the maximum plus one is returned.
+	 *
+	 * @param first		the first string
+	 * @param second	the second string
+	 * @param maximum	the maximum distance of interest
+	 * @return			the distance between the strings or the maximum plus one
+	 */
+	public static int getDistance(String first, String second, int maximum)
+	{
+		// the shorter string is used for the columns of the matrix
+		if(first.length()>second.length())
+		{
+			String temp = first;
+			first = second;
+			second = temp;
+		}
+		int firstLength = first.length();
+		int secondLength = second.length();
+		if(maximum<0)
+		{
+			return maximum + 1;
+		}
+		// the distance is never greater than the length of the longer string
+		if(maximum>secondLength)
+		{
+			maximum = secondLength;
+		}
+
+		// characters which are the same at the beginning and the end do not change the distance
+		int start = 0;
+		while(start<firstLength && first.charAt(start)==second.charAt(start))
+		{
+			start++;
+		}
+		while(firstLength>start && first.charAt(firstLength-1)==second.charAt(secondLength-1))
+		{
+			firstLength--;
+			secondLength--;
+		}
+		int columns = firstLength - start;
+		int rows = secondLength - start;
+
+		// at least the difference of the lengths has to be inserted
+		if(rows-columns>maximum)
+		{
+			return maximum + 1;
+		}
+		if(columns==0)
+		{
+			return rows;
+		}
+
+		int[] previous;
+		int[] current;
+		if(columns<MAXIMUM_BUFFER_LENGTH)
+		{
+			int[][] buffer = buffers.get();
+			if(buffer[0].length<=columns)
+			{
+				buffer[0] = new int[columns+1];
+				buffer[1] = new int[columns+1];
+			}
+			previous = buffer[0];
+			current = buffer[1];
+		}
+		else
+		{
+			previous = new int[columns+1];
+			current = new int[columns+1];
+		}
+
+		// cells which are not calculated are greater than the maximum
+		int exceeded = maximum + 1;
+		for(int column=0;column<=columns;column++)
+		{
+			previous[column] = column<=maximum ? column : exceeded;
+		}
+		for(int row=1;row<=rows;row++)
+		{
+			char character = second.charAt(start+row-1);
+			int from = Math.max(1, row-maximum);
+			int to = Math.min(columns, row+maximum);
+			current[0] = row<=maximum ? row : exceeded;
+			if(from>1)
+			{
+				current[from-1] = exceeded;
+			}
+			int minimum = current[0];
+			for(int column=from;column<=to;column++)
+			{
+				int cost;
+				if(first.charAt(start+column-1)==character)
+				{
+					cost = previous[column-1];
+				}
+				else
+				{
+					cost = 1 + Math.min(previous[column-1], Math.min(previous[column], current[column-1]));
+				}
+				current[column] = cost>exceeded ? exceeded : cost;
+				if(current[column]<minimum)
+				{
+					minimum = current[column];
+				}
+			}
+			if(to<columns)
+			{
+				current[to+1] = exceeded;
+			}
+			// the distance can not get smaller than the smallest value of a row
+			if(minimum>maximum)
+			{
+				return exceeded;
+			}
+			int[] temp = previous;
+			previous = current;
+			current = temp;
+		}
+		return previous[columns];
+	}
+}
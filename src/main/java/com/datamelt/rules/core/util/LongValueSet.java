@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * immutable set of integer or long values created from a list of values separated by comma.
+ * <p>
+ * the values are kept as sorted primitive values, so checking if a value is contained in
+ * the set does not require to convert the value to a string or an object. only values
+ * that are written in their plain form - without spaces, leading zeros or a plus sign - are
+ * taken over from the list, because only those are equal to the value converted to a string.
+ * <p>
+ * if the list does not contain more than one value, the complete list is used as the only value.
+ */
+public final class LongValueSet implements Serializable
+{
+	public static final long serialVersionUID = 1964070902;
+
+	private final long[] values;
+
+	/**
+	 * creates the set from a list of values separated by comma
+	 *
+	 * @param list	list of values separated by comma
+	 */
+	public LongValueSet(String list)
+	{
+		String[] listValues = StringValueSet.getValues(list);
+		long[] numbers = new long[listValues.length];
+		int count = 0;
+		for(int i=0;i<listValues.length;i++)
+		{
+			try
+			{
+				long number = Long.parseLong(listValues[i]);
+				if(String.valueOf(number).equals(listValues[i]))
+				{
+					numbers[count++] = number;
+				}
+			}
+			catch(NumberFormatException ex)
+			{
+				// a value which is not a number can never match
+			}
+		}
+		values = Arrays.copyOf(numbers, count);
+		Arrays.sort(values);
+	}
+
+	/**
+	 * checks if the value is contained in the set
+	 *
+	 * @param value		the value to check
+	 * @return			indicator if the value is contained in the set
+	 */
+	public boolean contains(long value)
+	{
+		return Arrays.binarySearch(values, value)>=0;
+	}
+
+	/**
+	 * returns the number of values in the set
+	 *
+	 * @return	the number of values
+	 */
+	public int size()
+	{
+		return values.length;
+	}
+}
@@ -20,8 +20,8 @@
 package com.datamelt.rules.core.util;
 
 import java.io.Serializable;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
 * collection containing maps of key/value pairs.
@@ -35,8 +35,9 @@ public class MappingCollection implements Serializable
 {
 	public static final long serialVersionUID = 1964070879;
 	
-	// a hashmap of KeyValueMaps
-	private Map <String,KeyValueMap> maps = new HashMap<String,KeyValueMap>();
+	// a hashmap of KeyValueMaps. the collection is shared by all sessions of the
+	// rule engine, so it may be accessed by multiple threads
+	private Map <String,KeyValueMap> maps = new ConcurrentHashMap<String,KeyValueMap>();
 	
 	/*
 	 * gets a KeyValueMap from a hashmap
@@ -50,9 +51,17 @@ public class MappingCollection implements Serializable
 		// in case the map is null we load it
 		if(map==null)
 		{
-			map = new KeyValueMap(filename);
-			// add it to the maps
-			maps.put(filename, map);
+			synchronized(maps)
+			{
+				// another thread might have loaded the map in the meantime
+				map = maps.get(filename);
+				if(map==null)
+				{
+					map = new KeyValueMap(filename);
+					// add it to the maps
+					maps.put(filename, map);
+				}
+			}
 		}
 		return map;
 	}
@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core.util;
+
+import java.util.Locale;
+
+/**
+ * converts a given value to its Metaphone code, using the original algorithm by Lawrence Philips.
+ * <p>
+ * Metaphone is more accurate than Soundex for english words and names, because it knows the
+ * rules of english pronunciation - e.g. "PH" sounds like "F" and "KN" at the beginning like "N".
+ * only the letters A to Z are encoded, all other characters are ignored. the code has a maximum
+ * length of four characters.
+ */
+public class Metaphone
+{
+	public static final int MAXIMUM_CODE_LENGTH = 4;
+
+	private static final String VOWELS 					= "AEIOU";
+	private static final String FRONT_VOWELS 			= "EIY";
+	// letters after which an H is silent
+	private static final String H_SILENT_AFTER 			= "CSPTG";
+
+	/**
+	 * converts the value to its Metaphone code
+	 *
+	 * @param value		the value to convert
+	 * @return			the Metaphone code or an empty string if the value does not contain any letters
+	 */
+	public static String metaphone(String value)
+	{
+		String word = getLetters(value);
+		if(word.length()<=1)
+		{
+			return word;
+		}
+
+		// letters at the beginning of the word which are silent or sound different
+		char first = word.charAt(0);
+		char second = word.charAt(1);
+		if(((first=='K' || first=='G' || first=='P') && second=='N') || (first=='A' && second=='E') || (first=='W' && second=='R'))
+		{
+			word = word.substring(1);
+		}
+		else if(first=='W' && second=='H')
+		{
+			word = "W" + word.substring(2);
+		}
+		else if(first=='X')
+		{
+			word = "S" + word.substring(1);
+		}
+
+		int length = word.length();
+		StringBuffer code = new StringBuffer(MAXIMUM_CODE_LENGTH + 1);
+		for(int i=0;i<length && code.length()<MAXIMUM_CODE_LENGTH;i++)
+		{
+			char letter = word.charAt(i);
+			// double letters are encoded once - except for C
+			if(letter!='C' && isPrevious(word, i, letter))
+			{
+				continue;
+			}
+			switch(letter)
+			{
+				case 'A':
+				case 'E':
+				case 'I':
+				case 'O':
+				case 'U':
+					// vowels are only kept at the beginning
+					if(i==0)
+					{
+						code.append(letter);
+					}
+					break;
+				case 'B':
+					// silent in "MB" at the end
+					if(!(isPrevious(word, i, 'M') && i==length-1))
+					{
+						code.append('B');
+					}
+					break;
+				case 'C':
+					if(isPrevious(word, i, 'S') && isFrontVowel(word, i+1))
+					{
+						// silent in "SCI", "SCE" and "SCY"
+					}
+					else if(word.startsWith("CIA", i))
+					{
+						code.append('X');
+					}
+					else if(isFrontVowel(word, i+1))
+					{
+						code.append('S');
+					}
+					else if(isPrevious(word, i, 'S') && isNext(word, i, 'H'))
+					{
+						code.append('K');
+					}
+					else if(isNext(word, i, 'H'))
+					{
+						code.append(i==0 && length>=3 && isVowel(word, 2) ? 'K' : 'X');
+					}
+					else
+					{
+						code.append('K');
+					}
+					break;
+				case 'D':
+					if(isNext(word, i, 'G') && isFrontVowel(word, i+2))
+					{
+						// "DGE", "DGI" and "DGY" sound like "J"
+						code.append('J');
+						i = i + 2;
+					}
+					else
+					{
+						code.append('T');
+					}
+					break;
+				case 'G':
+					if(isNext(word, i, 'H') && (i+2==length || !isVowel(word, i+2)))
+					{
+						// silent in "GH" at the end or before a consonant
+					}
+					else if(i>0 && word.startsWith("GN", i) && (i+2==length || (i+4==length && word.startsWith("GNED", i))))
+					{
+						// silent in "GN" and "GNED" at the end
+					}
+					else if(isFrontVowel(word, i+1) && !isPrevious(word, i, 'G'))
+					{
+						code.append('J');
+					}
+					else
+					{
+						code.append('K');
+					}
+					break;
+				case 'H':
+					// only encoded before a vowel, if it is not silent after the previous letter
+					if(i<length-1 && !(i>0 && H_SILENT_AFTER.indexOf(word.charAt(i-1))>=0) && isVowel(word, i+1))
+					{
+						code.append('H');
+					}
+					break;
+				case 'K':
+					if(!isPrevious(word, i, 'C'))
+					{
+						code.append('K');
+					}
+					break;
+				case 'P':
+					code.append(isNext(word, i, 'H') ? 'F' : 'P');
+					break;
+				case 'Q':
+					code.append('K');
+					break;
+				case 'S':
+					code.append(word.startsWith("SH", i) || word.startsWith("SIO", i) || word.startsWith("SIA", i) ? 'X' : 'S');
+					break;
+				case 'T':
+					if(word.startsWith("TIA", i) || word.startsWith("TIO", i))
+					{
+						code.append('X');
+					}
+					else if(word.startsWith("TCH", i))
+					{
+						// silent in "TCH"
+					}
+					else if(isNext(word, i, 'H'))
+					{
+						// "TH" is encoded as zero
+						code.append('0');
+					}
+					else
+					{
+						code.append('T');
+					}
+					break;
+				case 'V':
+					code.append('F');
+					break;
+				case 'W':
+				case 'Y':
+					// only encoded before a vowel
+					if(isVowel(word, i+1))
+					{
+						code.append(letter);
+					}
+					break;
+				case 'X':
+					code.append("KS");
+					break;
+				case 'Z':
+					code.append('S');
+					break;
+				default:
+					// F, J, L, M, N and R
+					code.append(letter);
+			}
+		}
+		if(code.length()>MAXIMUM_CODE_LENGTH)
+		{
+			code.setLength(MAXIMUM_CODE_LENGTH);
+		}
+		return code.toString();
+	}
+
+	/**
+	 * returns the letters A to Z of the value in upper case
+	 */
+	private static String getLetters(String value)
+	{
+		String upperCase = value.toUpperCase(Locale.ENGLISH);
+		StringBuffer letters = new StringBuffer(upperCase.length());
+		for(int i=0;i<upperCase.length();i++)
+		{
+			char character = upperCase.charAt(i);
+			if(character>='A' && character<='Z')
+			{
+				letters.append(character);
+			}
+		}
+		return letters.toString();
+	}
+
+	private static boolean isPrevious(String word, int index, char letter)
+	{
+		return index>0 && word.charAt(index-1)==letter;
+	}
+
+	private static boolean isNext(String word, int index, char letter)
+	{
+		return index+1<word.length() && word.charAt(index+1)==letter;
+	}
+
+	private static boolean isVowel(String word, int index)
+	{
+		return index<word.length() && VOWELS.indexOf(word.charAt(index))>=0;
+	}
+
+	private static boolean isFrontVowel(String word, int index)
+	{
+		return index<word.length() && FRONT_VOWELS.indexOf(word.charAt(index))>=0;
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core.util;
+
+import java.io.Serializable;
+
+/**
+ * immutable phonetic code of a value, created using a phonetic algorithm.
+ * <p>
+ * the code of the expected value of a rule is created once - when the rule is compiled - and is then
+ * compared to the codes of the values of the field. each algorithm is implemented by a subclass,
+ * which has a constructor taking the value to encode.
+ * <p>
+ * the codes of values that are used again and again - such as names - are kept in a bounded cache
+ * by the subclasses, if creating the code is more expensive than looking it up.
+ */
+public abstract class PhoneticCode implements Serializable
+{
+	public static final long serialVersionUID = 1964070907;
+
+	// the code of the value. an empty string if the value can not be encoded
+	private final String code;
+
+	/**
+	 * creates the phonetic code
+	 *
+	 * @param code	the code of the value
+	 */
+	protected PhoneticCode(String code)
+	{
+		this.code = code;
+	}
+
+	/**
+	 * returns the code of the value or an empty string if the value can not be encoded
+	 *
+	 * @return	the code of the value
+	 */
+	public String getCode()
+	{
+		return code;
+	}
+
+	/**
+	 * encodes a value using the algorithm of this phonetic code
+	 *
+	 * @param value		the value to encode
+	 * @return			the code of the value or an empty string if the value can not be encoded
+	 */
+	protected abstract String encode(String value);
+
+	/**
+	 * checks if the value sounds like the value of this code: if both have the same
+	 * code. values that can not be encoded do not sound like any other value.
+	 *
+	 * @param value		the value to check
+	 * @return			indicator if the value sounds like the value of this code
+	 */
+	public boolean soundsLike(String value)
+	{
+		return value!=null && code.length()>0 && encode(value).equals(code);
+	}
+}
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core.util;
+
+import java.io.Serializable;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * immutable, compiled regular expression.
+ * <p>
+ * the pattern is compiled once - when the rule is compiled - and can then be used by multiple
+ * threads. patterns which are only known when a rule runs - because they are the value of a field -
+ * are kept in a bounded cache, so that they are not compiled again for every row.
+ * <p>
+ * patterns that do not need the regular expression engine are recognized and evaluated
+ * using the methods of the String class: a literal value, optionally anchored using ^ and $,
+ * and a literal value starting and/or ending with .* - e.g. "abc.*" is evaluated
+ * as startsWith("abc"). the result is always the same as the one of the compiled pattern.
+ */
+public final class RegexPattern implements Serializable
+{
+	public static final long serialVersionUID = 1964070905;
+
+	private static final int TYPE_REGEX 			= 0;
+	private static final int TYPE_EQUALS 			= 1;
+	private static final int TYPE_STARTS_WITH 		= 2;
+	private static final int TYPE_ENDS_WITH 		= 3;
+	private static final int TYPE_CONTAINS 			= 4;
+
+	private static final String ANY_CHARACTERS 		= ".*";
+	private static final String METACHARACTERS 		= "\\^$.|?*+()[]{}";
+
+	private static final BoundedCache<String,RegexPattern> cache = new BoundedCache<String,RegexPattern>();
+
+	private final String regex;
+	private final Pattern pattern;
+	private final int matchType;
+	// the literal value used instead of the pattern
+	private final String literal;
+	// indicates if the pattern is a literal value without anchors, so that it can be replaced as such
+	private final boolean replaceLiteral;
+
+	/**
+	 * compiles the regular expression
+	 *
+	 * @param regex						the regular expression
+	 * @throws PatternSyntaxException	if the syntax of the expression is invalid
+	 */
+	public RegexPattern(String regex) throws PatternSyntaxException
+	{
+		this.regex = regex;
+		this.pattern = Pattern.compile(regex);
+
+		int start = 0;
+		int end = regex.length();
+		if(regex.startsWith("^"))
+		{
+			start = 1;
+		}
+		if(end>start && regex.charAt(end-1)=='$' && !isEscaped(regex, end-1))
+		{
+			end--;
+		}
+		boolean leadingAny = false;
+		boolean trailingAny = false;
+		if(regex.startsWith(ANY_CHARACTERS, start))
+		{
+			leadingAny = true;
+			start = start + ANY_CHARACTERS.length();
+		}
+		if(end-ANY_CHARACTERS.length()>=start && regex.startsWith(ANY_CHARACTERS, end-ANY_CHARACTERS.length()) && !isEscaped(regex, end-ANY_CHARACTERS.length()))
+		{
+			trailingAny = true;
+			end = end - ANY_CHARACTERS.length();
+		}
+		String literalValue = getLiteral(regex, start, end);
+		if(literalValue==null)
+		{
+			matchType = TYPE_REGEX;
+		}
+		else if(leadingAny && trailingAny)
+		{
+			matchType = TYPE_CONTAINS;
+		}
+		else if(leadingAny)
+		{
+			matchType = TYPE_ENDS_WITH;
+		}
+		else if(trailingAny)
+		{
+			matchType = TYPE_STARTS_WITH;
+		}
+		else
+		{
+			matchType = TYPE_EQUALS;
+		}
+		this.literal = literalValue;
+		this.replaceLiteral = literalValue!=null && literalValue.length()>0 && start==0 && end==regex.length() && !leadingAny && !trailingAny;
+	}
+
+	/**
+	 * returns the compiled pattern for the regular expression. the pattern is taken from
+	 * the cache or compiled and added to the cache.
+	 *
+	 * @param regex						the regular expression
+	 * @return							the compiled pattern
+	 * @throws PatternSyntaxException	if the syntax of the expression is invalid
+	 */
+	public static RegexPattern get(String regex) throws PatternSyntaxException
+	{
+		RegexPattern regexPattern = cache.get(regex);
+		if(regexPattern==null)
+		{
+			regexPattern = cache.put(regex, new RegexPattern(regex));
+		}
+		return regexPattern;
+	}
+
+	/**
+	 * checks if the complete value matches the pattern - the same as String.matches()
+	 *
+	 * @param value		the value to check
+	 * @return			indicator if the value matches the pattern
+	 */
+	public boolean matches(String value)
+	{
+		switch(matchType)
+		{
+			case TYPE_EQUALS:
+				return value.equals(literal);
+			case TYPE_STARTS_WITH:
+				if(!hasLineTerminator(value))
+				{
+					return value.startsWith(literal);
+				}
+				break;
+			case TYPE_ENDS_WITH:
+				if(!hasLineTerminator(value))
+				{
+					return value.endsWith(literal);
+				}
+				break;
+			case TYPE_CONTAINS:
+				if(!hasLineTerminator(value))
+				{
+					return value.contains(literal);
+				}
+				break;
+		}
+		// the dot does not match line terminators, so the pattern is used for such values
+		return pattern.matcher(value).matches();
+	}
+
+	/**
+	 * replaces all parts of the value that match the pattern - the same as String.replaceAll()
+	 *
+	 * @param value			the value
+	 * @param replacement	the replacement, which may contain references to captured groups
+	 * @return				the value with all matching parts replaced
+	 */
+	public String replaceAll(String value, String replacement)
+	{
+		if(replaceLiteral && replacement.indexOf('$')<0 && replacement.indexOf('\\')<0)
+		{
+			int index = value.indexOf(literal);
+			if(index<0)
+			{
+				return value;
+			}
+			StringBuffer buffer = new StringBuffer(value.length());
+			int last = 0;
+			while(index>=0)
+			{
+				buffer.append(value, last, index).append(replacement);
+				last = index + literal.length();
+				index = value.indexOf(literal, last);
+			}
+			return buffer.append(value, last, value.length()).toString();
+		}
+		return pattern.matcher(value).replaceAll(replacement);
+	}
+
+	/**
+	 * returns the regular expression
+	 *
+	 * @return	the regular expression
+	 */
+	public String getRegex()
+	{
+		return regex;
+	}
+
+	/**
+	 * returns the literal value between start and end - with escaped characters unescaped -
+	 * or null if the expression contains characters which have a special meaning.
+	 */
+	private static String getLiteral(String regex, int start, int end)
+	{
+		StringBuffer buffer = new StringBuffer(end-start);
+		for(int i=start;i<end;i++)
+		{
+			char character = regex.charAt(i);
+			if(character=='\\')
+			{
+				// a backslash before a letter or digit is a construct such as \d, \Q or \1
+				if(i+1>=end || Character.isLetterOrDigit(regex.charAt(i+1)))
+				{
+					return null;
+				}
+				i++;
+				buffer.append(regex.charAt(i));
+			}
+			else if(METACHARACTERS.indexOf(character)>=0)
+			{
+				return null;
+			}
+			else
+			{
+				buffer.append(character);
+			}
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * checks if the character at the given index is escaped by an odd number of backslashes
+	 */
+	private static boolean isEscaped(String regex, int index)
+	{
+		int backslashes = 0;
+		for(int i=index-1;i>=0 && regex.charAt(i)=='\\';i--)
+		{
+			backslashes++;
+		}
+		return backslashes % 2 == 1;
+	}
+
+	private static boolean hasLineTerminator(String value)
+	{
+		for(int i=0;i<value.length();i++)
+		{
+			char character = value.charAt(i);
+			if(character=='\n' || character=='\r' || character=='\u0085' || character=='\u2028' || character=='\u2029')
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core.util;
+
+import java.util.Locale;
+
+/**
+ * immutable soundex code of a value.
+ * <p>
+ * the four characters of a soundex code are packed into an int value. the codes of the values
+ * of the fields are created the same way, without creating any objects, so comparing two codes
+ * is a comparison of two int values. this is cheaper than looking up the code in a cache, so
+ * the codes are not cached.
+ * <p>
+ * the result is the same as the one of comparing the codes created by Soundex.soundex().
+ */
+public final class SoundexCode extends PhoneticCode
+{
+	public static final long serialVersionUID = 1964070908;
+
+	private static final int CODE_LENGTH = 4;
+
+	private final int packedCode;
+
+	/**
+	 * creates the soundex code of the value
+	 *
+	 * @param value		the value to encode
+	 */
+	public SoundexCode(String value)
+	{
+		this(getPackedCode(value));
+	}
+
+	private SoundexCode(int packedCode)
+	{
+		super(toString(packedCode));
+		this.packedCode = packedCode;
+	}
+
+	/**
+	 * returns the soundex code of the value - with its four characters packed into an int value -
+	 * or zero, if the value does not contain any letter that can be mapped.
+	 *
+	 * @param value		the value to encode
+	 * @return			the packed soundex code
+	 */
+	public static int getPackedCode(String value)
+	{
+		// upper case conversion of other characters may result in multiple or different characters.
+		// in this case - and for locales which convert the ascii letters differently - the string is converted
+		String language = Locale.getDefault().getLanguage();
+		if(language.equals("tr") || language.equals("az"))
+		{
+			return pack(Soundex.soundex(value));
+		}
+		int code = 0;
+		int length = 0;
+		char previous = '?';
+		for(int i=0;i<value.length() && length<CODE_LENGTH;i++)
+		{
+			char character = value.charAt(i);
+			if(character==',')
+			{
+				break;
+			}
+			else if(character>=0x80)
+			{
+				return pack(Soundex.soundex(value));
+			}
+			else if(character>='a' && character<='z')
+			{
+				character = (char)(character - 'a' + 'A');
+			}
+			if(character>='A' && character<='Z' && character!=previous)
+			{
+				previous = character;
+				if(i==0)
+				{
+					code = (code << 8) | character;
+					length++;
+				}
+				else
+				{
+					char mapped = Soundex.MAP[character - 'A'];
+					if(mapped!='0')
+					{
+						code = (code << 8) | mapped;
+						length++;
+					}
+				}
+			}
+		}
+		if(length==0)
+		{
+			return 0;
+		}
+		for(;length<CODE_LENGTH;length++)
+		{
+			code = (code << 8) | '0';
+		}
+		return code;
+	}
+
+	@Override
+	protected String encode(String value)
+	{
+		return toString(getPackedCode(value));
+	}
+
+	/**
+	 * checks if the value sounds like the value of this code. as with Soundex.soundex(), a value that
+	 * does not contain any letter that can be mapped results in a NullPointerException.
+	 *
+	 * @param value		the value to check
+	 * @return			indicator if the value sounds like the value of this code
+	 */
+	@Override
+	public boolean soundsLike(String value)
+	{
+		int valueCode = getPackedCode(value);
+		if(valueCode==0)
+		{
+			throw new NullPointerException("the value can not be converted to a soundex code: [" + value + "]");
+		}
+		return valueCode==packedCode;
+	}
+
+	private static int pack(String code)
+	{
+		int packed = 0;
+		if(code!=null)
+		{
+			for(int i=0;i<code.length();i++)
+			{
+				packed = (packed << 8) | code.charAt(i);
+			}
+		}
+		return packed;
+	}
+
+	private static String toString(int packedCode)
+	{
+		if(packedCode==0)
+		{
+			return "";
+		}
+		char[] characters = new char[CODE_LENGTH];
+		for(int i=CODE_LENGTH-1;i>=0;i--)
+		{
+			characters[i] = (char)(packedCode & 0xff);
+			packedCode = packedCode >>> 8;
+		}
+		return new String(characters);
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core.util;
+
+import java.io.Serializable;
+import java.util.HashSet;
+
+/**
+ * immutable set of string values created from a list of values separated by comma.
+ * <p>
+ * the set is created once - when the rule is compiled - and can then be used by multiple
+ * threads to check if a value is contained in the list. the values are kept as they are
+ * and additionally in lower case, for comparisons ignoring the case.
+ * <p>
+ * if the list does not contain more than one value, the complete list is used as the only value.
+ */
+public final class StringValueSet implements Serializable
+{
+	public static final long serialVersionUID = 1964070901;
+
+	public static final String SEPERATOR = ",";
+
+	private final HashSet<String> values = new HashSet<String>();
+	private final HashSet<String> valuesLowerCase = new HashSet<String>();
+
+	/**
+	 * creates the set from a list of values separated by comma
+	 *
+	 * @param list	list of values separated by comma
+	 */
+	public StringValueSet(String list)
+	{
+		String[] listValues = getValues(list);
+		for(int i=0;i<listValues.length;i++)
+		{
+			values.add(listValues[i]);
+			valuesLowerCase.add(listValues[i].toLowerCase());
+		}
+	}
+
+	/**
+	 * splits the list into its individual values. if the list does not contain more
+	 * than one value, the list itself is returned as the only value. if the list is null,
+	 * an empty array is returned.
+	 *
+	 * @param list	list of values separated by comma
+	 * @return		array of values
+	 */
+	public static String[] getValues(String list)
+	{
+		if(list==null)
+		{
+			return new String[0];
+		}
+		String[] listValues = list.split(SEPERATOR);
+		if(listValues.length>1)
+		{
+			return listValues;
+		}
+		else
+		{
+			return new String[] { list };
+		}
+	}
+
+	/**
+	 * checks if the value is contained in the set
+	 *
+	 * @param value		the value to check
+	 * @return			indicator if the value is contained in the set
+	 */
+	public boolean contains(String value)
+	{
+		return values.contains(value);
+	}
+
+	/**
+	 * checks if the value is contained in the set, ignoring the case of the values
+	 *
+	 * @param value		the value to check
+	 * @return			indicator if the value is contained in the set
+	 */
+	public boolean containsIgnoreCase(String value)
+	{
+		return value!=null && valuesLowerCase.contains(value.toLowerCase());
+	}
+
+	/**
+	 * returns the number of values in the set
+	 *
+	 * @return	the number of values
+	 */
+	public int size()
+	{
+		return values.size();
+	}
+}
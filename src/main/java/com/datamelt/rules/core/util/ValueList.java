@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.core.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * immutable list of values created from a list of values separated by comma. spaces at the
+ * beginning and the end of the individual values are removed.
+ * <p>
+ * the values are kept in the order of the list - to access them by their index - and in a set, to
+ * check if a value is contained in the list. the values in lower case and as integer or long
+ * values are created when they are used for the first time.
+ * <p>
+ * lists which are only known when a rule or action runs - because they are the value of a field -
+ * are kept in a bounded cache, so that they are not split again for every row.
+ */
+public final class ValueList implements Serializable
+{
+	public static final long serialVersionUID = 1964070906;
+
+	public static final String SEPERATOR = ",";
+
+	private static final BoundedCache<String,ValueList> cache = new BoundedCache<String,ValueList>();
+
+	private final String[] values;
+	private final HashSet<String> valueSet;
+	private transient volatile HashSet<String> valuesLowerCase;
+	private transient volatile NumberValues integerValues;
+	private transient volatile NumberValues longValues;
+
+	/**
+	 * creates the list from a list of values separated by comma
+	 *
+	 * @param list	list of values separated by comma
+	 */
+	public ValueList(String list)
+	{
+		values = list.split(SEPERATOR);
+		valueSet = new HashSet<String>();
+		for(int i=0;i<values.length;i++)
+		{
+			values[i] = values[i].trim();
+			valueSet.add(values[i]);
+		}
+	}
+
+	/**
+	 * returns the list of values for the given list separated by comma. the list of values is taken from
+	 * the cache or created and added to the cache.
+	 *
+	 * @param list	list of values separated by comma
+	 * @return		the list of values
+	 */
+	public static ValueList get(String list)
+	{
+		ValueList valueList = cache.get(list);
+		if(valueList==null)
+		{
+			valueList = cache.put(list, new ValueList(list));
+		}
+		return valueList;
+	}
+
+	/**
+	 * returns the value at the given index
+	 *
+	 * @param index		the index of the value
+	 * @return			the value
+	 */
+	public String getValue(int index)
+	{
+		return values[index];
+	}
+
+	/**
+	 * returns the number of values in the list
+	 *
+	 * @return	the number of values
+	 */
+	public int size()
+	{
+		return values.length;
+	}
+
+	/**
+	 * checks if the value - without spaces at the beginning and the end - is contained in the list
+	 *
+	 * @param value		the value to check
+	 * @return			indicator if the value is contained in the list
+	 */
+	public boolean contains(String value)
+	{
+		return values.length>0 && valueSet.contains(value.trim());
+	}
+
+	/**
+	 * checks if the value - without spaces at the beginning and the end - is contained in the list,
+	 * ignoring the case of the values
+	 *
+	 * @param value		the value to check
+	 * @return			indicator if the value is contained in the list
+	 */
+	public boolean containsIgnoreCase(String value)
+	{
+		if(values.length==0)
+		{
+			return false;
+		}
+		HashSet<String> lowerCase = valuesLowerCase;
+		if(lowerCase==null)
+		{
+			lowerCase = new HashSet<String>();
+			for(int i=0;i<values.length;i++)
+			{
+				lowerCase.add(values[i].toLowerCase());
+			}
+			valuesLowerCase = lowerCase;
+		}
+		return lowerCase.contains(value.trim().toLowerCase());
+	}
+
+	/**
+	 * checks if the integer value is contained in the list. the values of the list are
+	 * converted to integer values in the order of the list.
+	 *
+	 * @param value						the value to check
+	 * @return							indicator if the value is contained in the list
+	 * @throws NumberFormatException	if the value is not contained in the values before the first one which is not an integer value
+	 */
+	public boolean containsInteger(int value) throws NumberFormatException
+	{
+		NumberValues numbers = integerValues;
+		if(numbers==null)
+		{
+			numbers = new NumberValues(values, true);
+			integerValues = numbers;
+		}
+		return numbers.contains(value);
+	}
+
+	/**
+	 * checks if the long value is contained in the list. the values of the list are
+	 * converted to long values in the order of the list.
+	 *
+	 * @param value						the value to check
+	 * @return							indicator if the value is contained in the list
+	 * @throws NumberFormatException	if the value is not contained in the values before the first one which is not a long value
+	 */
+	public boolean containsLong(long value) throws NumberFormatException
+	{
+		NumberValues numbers = longValues;
+		if(numbers==null)
+		{
+			numbers = new NumberValues(values, false);
+			longValues = numbers;
+		}
+		return numbers.contains(value);
+	}
+
+	/**
+	 * the values of the list as sorted numbers - up to the first value that is not a number.
+	 *
+	 * a value that is not contained in the numbers results in the same exception as converting
+	 * the values in the order of the list would.
+	 */
+	private static final class NumberValues
+	{
+		private final long[] numbers;
+		// the message of the exception converting the first value that is not a number
+		private final String error;
+
+		private NumberValues(String[] values, boolean integer)
+		{
+			long[] converted = new long[values.length];
+			String message = null;
+			int count = 0;
+			for(int i=0;i<values.length && message==null;i++)
+			{
+				try
+				{
+					converted[count] = integer ? Integer.parseInt(values[i]) : Long.parseLong(values[i]);
+					count++;
+				}
+				catch(NumberFormatException ex)
+				{
+					message = ex.getMessage();
+				}
+			}
+			numbers = Arrays.copyOf(converted, count);
+			Arrays.sort(numbers);
+			error = message;
+		}
+
+		private boolean contains(long value) throws NumberFormatException
+		{
+			if(Arrays.binarySearch(numbers, value)>=0)
+			{
+				return true;
+			}
+			else if(error!=null)
+			{
+				throw new NumberFormatException(error);
+			}
+			return false;
+		}
+	}
+}
@@ -19,7 +19,11 @@
 package com.datamelt.rules.core.util;
 
 import java.io.FileInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Properties;
+import java.util.TreeSet;
 
 /**
  * class does simple replacement of one value with the other.
@@ -108,4 +112,42 @@ public class VariableReplacer
     		return 0;
     	}
     }
+    
+    /**
+     * returns a SHA-256 digest of the variables and their values, sorted by
+     * the names of the variables. replacers with the same variables and values
+     * return the same digest, independent of the order in the file.
+     * 
+     * @return		hex string of the digest of the variables and values
+     * @throws		Exception	if the digest algorithm is not available
+     */
+    public String getVariablesDigest() throws Exception
+    {
+    	MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    	if(properties!=null)
+    	{
+    		for(String key : new TreeSet<String>(properties.stringPropertyNames()))
+    		{
+    			updateDigest(digest, key);
+    			updateDigest(digest, properties.getProperty(key));
+    		}
+    	}
+    	StringBuilder buffer = new StringBuilder();
+    	for(byte value : digest.digest())
+    	{
+    		buffer.append(String.format("%02x", value));
+    	}
+    	return buffer.toString();
+    }
+    
+    /**
+     * adds the length and the bytes of the value to the digest. because of the
+     * length, different variables and values never result in the same input.
+     */
+    private static void updateDigest(MessageDigest digest, String value)
+    {
+    	byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    	digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+    	digest.update(bytes);
+    }
 }
@@ -19,18 +19,20 @@
 
 package com.datamelt.rules.engine;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileReader;
-import java.io.InputStream;
-import java.text.DecimalFormat;
+import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Enumeration;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -43,7 +45,7 @@ import com.datamelt.rules.core.RuleGroup;
 import com.datamelt.rules.core.util.MappingCollection;
 import com.datamelt.rules.core.util.VariableReplacer;
 import com.datamelt.util.FileUtility;
-import com.datamelt.util.RowFieldCollection;
+import com.datamelt.util.RowBatch;
 import com.datamelt.util.RuleGroupPrioritizer;
 import com.datamelt.util.Splitter;
 
@@ -105,13 +107,16 @@ public class BusinessRulesEngine
 	private static final String REVISION 	= "3";
 	private static final String LAST_UPDATE = "2020-08-28";
 	
-    // contains all groups, subgroups and rules that have been parsed from one or more files
-    private ArrayList<RuleGroup> groups = new ArrayList<RuleGroup>();
-    // contains all groups, subgroups and rules that have been parsed from one or more files
-    private ArrayList<ReferenceField> referenceFields = new ArrayList<ReferenceField>();
-    
-    // indicator if the rule engine ran
-    private int status;
+    // the compiled rules. shared by all sessions. empty until the rules are loaded. when the rules
+    // are reloaded, a new ruleset is created and replaces the current one as a whole
+    private volatile CompiledRuleSet ruleSet = new CompiledRuleSet(new ArrayList<RuleGroup>(), new ArrayList<ReferenceField>());
+    // the session used by the run methods of the engine
+    private volatile RuleEngineSession session = ruleSet.createSession();
+    // the rule files of the current ruleset by their name. files that did not change
+    // are not parsed again when the rules are reloaded
+    private HashMap<String,ParsedRuleFile> parsedRuleFiles = new HashMap<String,ParsedRuleFile>();
+    // the replacer that was used to parse the rule files
+    private VariableReplacer parsedRuleFilesReplacer;
     
     // used to replace variables in xml rule files by actual values from a file
     private VariableReplacer replacer = null;
@@ -125,6 +130,8 @@ public class BusinessRulesEngine
     
     // type of output that is written
     private int outputType = OUTPUT_TYPE_FAILED_ONLY;
+    // indicates if the output type was set. only then the results are filtered when they are collected
+    private boolean outputTypeSet = false;
     
     // used for putting a timestamp in the output file name
     private String timestampFormat = TIMESTAMP_FORMAT_DEFAULT;
@@ -135,6 +142,9 @@ public class BusinessRulesEngine
     private static final String OBJECT_LABEL_DEFAULT              = "object"; 
     private static final String OBJECT_LABEL_NUMBERFORMAT_DEFAULT = "0000000000"; 
     
+    // number of chunks per thread when running objects in parallel
+    private static final int CHUNKS_PER_THREAD                    = 4;
+    
     // default is failed rules only
     public static final int OUTPUT_TYPE_FAILED_ONLY               = 0;
     public static final int OUTPUT_TYPE_PASSED_ONLY               = 1;
@@ -150,9 +160,6 @@ public class BusinessRulesEngine
     public static final int RULEGROUP_STATUS_MODE_ALL_PASSED 			= 5;
     public static final int RULEGROUP_STATUS_MODE_NOT_ALL_PASSED		= 6;
     
-    // status of the engine
-    private static final int STATUS_ENGINE_EXECUTED               = 1;
-    
     private static final String PROPERTY_REPLACEMENTS_FILE			 = "replacements_file";
     private static final String PROPERTY_OUPUT_TYPE 				 = "output_type";
     private static final String PROPERTY_OBJECT_LABEL 				 = "object_label";
@@ -164,10 +171,18 @@ public class BusinessRulesEngine
     private String replacementsFile;
     // the collection of mappings. contains key/values from multiple mapping files
     private MappingCollection mappingCollection = new MappingCollection();
-    // contains the results of the execution of the rules
-    private RuleExecutionCollection executionCollection = new RuleExecutionCollection();
     // indicated if the results of the rule execution should be kept
     private boolean preserveRuleExcecutionResults=true;
+    // stop evaluating the rules of all groups once the outcome of a group is decided
+    private boolean shortCircuit=false;
+    // only count the outcome of the rules and groups instead of keeping results
+    private boolean statisticsOnly=false;
+    // executor to run independent groups for one object at the same time
+    private ExecutorService groupExecutor;
+    // collects the counters of all sessions of the engine
+    private final RuleEngineMonitor monitor = new RuleEngineMonitor();
+    // indicates if the sessions pass their counters to the monitor
+    private boolean monitoring=true;
 
     /** 
      * returns the version and revision of the business rule engine
@@ -267,6 +282,27 @@ public class BusinessRulesEngine
         reloadZipFile(zipFile);
     }
     
+    /**
+     * engine can be instantiated by passing a zip file containing xml
+     * rule files.
+     * the files will be parsed and all rules from all files
+     * will be collected
+     * 
+     * Rulegroups are prioritized to execute those groups first, that
+     * other groups depend on.
+     * 
+     * the parsed rules are taken from the snapshot file - as far as the entries of the
+     * zip file did not change - and the snapshot is written if the rules had to be parsed.
+     * 
+     * @param		zipFile			path and name of the zip file
+     * @param		snapshotFile	the snapshot file of the parsed rules
+     * @exception	Exception		exception when the file could not be located or parsed
+     */
+    public BusinessRulesEngine(ZipFile zipFile, File snapshotFile) throws Exception
+    {
+        reloadZipFile(zipFile, snapshotFile);
+    }
+    
     /**
      * engine can be instantiated by passing a zip file containing xml
      * rule files.
@@ -307,22 +343,33 @@ public class BusinessRulesEngine
      */
     public BusinessRulesEngine(ZipFile zipFile, String[] ruleFiles) throws Exception
     {
-        for(Enumeration<?> entries = zipFile.entries();entries.hasMoreElements();)
-        {
-            ZipEntry entry = (ZipEntry)entries.nextElement();
-            if(!entry.isDirectory())
-            {
-            	for(int i=0;i<ruleFiles.length;i++)
-            	{
-            		if(ruleFiles[i].equals(entry.getName()))
-            		{
-            			parseXmlInputStream(zipFile.getInputStream(entry));
-            		}
-            	}
-            }
-        }
-        zipFile.close();
-        prioritizeRuleGroups();
+    	long start = System.nanoTime();
+    	ArrayList<ParsedRuleFile> parsedFiles;
+    	try
+    	{
+	    	ArrayList<Callable<ParsedRuleFile>> tasks = new ArrayList<Callable<ParsedRuleFile>>();
+	        for(Enumeration<?> entries = zipFile.entries();entries.hasMoreElements();)
+	        {
+	            ZipEntry entry = (ZipEntry)entries.nextElement();
+	            if(!entry.isDirectory())
+	            {
+	            	for(int i=0;i<ruleFiles.length;i++)
+	            	{
+	            		if(ruleFiles[i].equals(entry.getName()))
+	            		{
+	            			tasks.add(createParseTask(zipFile, entry));
+	            		}
+	            	}
+	            }
+	        }
+	        parsedFiles = parseRuleFiles(tasks);
+    	}
+    	finally
+    	{
+    		zipFile.close();
+    	}
+        prioritizeRuleGroups(parsedFiles);
+        monitor.addReload(System.nanoTime() - start);
     }
     
     /**
@@ -359,18 +406,7 @@ public class BusinessRulesEngine
      */
     public void run(String objectLabel, Object object)throws Exception
     {
-        status = STATUS_ENGINE_EXECUTED;
-        
-        for(int i=0;i<groups.size();i++)
-        {
-        	// get the next group
-            RuleGroup group = groups.get(i);
-            
-            // apply settings of ruleengine to the group
-            applyGroupSettings(group);
-            // run the group
-            run(group,objectLabel,object);            
-        }
+        session.run(objectLabel, object);
     }
     
     /**
@@ -389,22 +425,7 @@ public class BusinessRulesEngine
      */
     public void run(String rulegroupName, String objectLabel, Object object)throws Exception
     {
-        status = STATUS_ENGINE_EXECUTED;
-        
-        for(int i=0;i<groups.size();i++)
-        {
-        	// get the next group
-            RuleGroup group = groups.get(i);
-            
-            // check if the name of the group corresponds to the specified name
-            if(group.getId().toLowerCase().equals(rulegroupName.toLowerCase()))
-            {
-            	// apply settings of ruleengine to the group
-            	applyGroupSettings(group);
-            	// run the group
-            	run(group,objectLabel,object);
-            }
-        }
+        session.run(rulegroupName, objectLabel, object);
     }
     
     /**
@@ -426,27 +447,7 @@ public class BusinessRulesEngine
      */
     public void run(String[] rulegroupNames, String objectLabel, Object object)throws Exception
     {
-        status = STATUS_ENGINE_EXECUTED;
-        
-        for(int i=0;i<groups.size();i++)
-        {
-        	// get the next group
-            RuleGroup group = groups.get(i);
-            
-            // loop over the array of rule groups
-            for(int j=0;j<rulegroupNames.length;j++)
-            {
-	            String rulegroupName = rulegroupNames[j];
-	            // check if the name of the group corresponds to the specified name
-	            if(group.getId().toLowerCase().equals(rulegroupName.toLowerCase()))
-	            {
-	            	// apply settings of ruleengine to the group
-	            	applyGroupSettings(group);
-	            	// run the group
-	            	run(group,objectLabel,object);
-	            }
-            }
-        }
+        session.run(rulegroupNames, objectLabel, object);
     }
 
     /**
@@ -464,53 +465,7 @@ public class BusinessRulesEngine
      */
     public void run(RuleGroup group, String objectLabel, Object object)throws Exception
     {
-        // we reset the skipped flag of the group here
-    	// a group may be skipped if it depends on another rulegroup
-    	// and that groups execution result is not as expected
-        group.setSkipped(0);
-        
-        // set the collection of maps containing key/value pairs
-        group.setMappingCollection(mappingCollection);
-        
-        // per default each rulegroup will be run
-        boolean runGroup = true;
-        // check if we have a dependent rulegroup
-        if(group.getDependentRuleGroupId()!=null && !group.getDependentRuleGroupId().equals(""))
-        {
-        	// get the dependent group from the list of groups
-        	RuleGroup dependentRuleGroup = getGroupById(group.getDependentRuleGroupId());
-        	// don't run the group if the dependent group does not exist or does not have the correct status (passed/failed)
-        	if(dependentRuleGroup!=null && dependentRuleGroup.getFailed()!=group.getDependentRuleGroupExecuteIf())
-        	{
-        		runGroup= false;
-        		group.setSkipped(1);
-        		// increase the counter for the skipped rule groups
-        		executionCollection.increaseSkippedGroupCount();
-        	}
-        }
-        if(runGroup)
-        {
-            applyGroupSettings(group);
-        	group.runRules(objectLabel, object);
-            if(group.getFailed()==1) // group failed
-            {
-            	// increase the counter of failed groups
-            	executionCollection.increaseFailedGroupCount();
-            }
-            else
-            {
-            	// increase the counter of failed groups
-            	executionCollection.increasePassedGroupCount();
-            	
-            }
-            // execution results will be added unless the preserveRuleExcecutionResults is set to false
-            executionCollection.addAll(group.getExecutionCollection().getResults());
-            // add the number of executed actions by the rulegroup
-            executionCollection.addNumberOfActionsExecuted(group.getNumberOfActionsExecuted());
-            executionCollection.addNumberOfRulesRun(group.getNumberOfRulesRun());
-            executionCollection.addNumberOfRulesFailed(group.getNumberOfRulesFailed());
-            executionCollection.addNumberOfRulesPassed(group.getNumberOfRulesPassed());
-        }
+        session.run(group, objectLabel, object);
     }
     
     /**
@@ -524,79 +479,292 @@ public class BusinessRulesEngine
      */
     public void run(Collection<Object> objects) throws Exception
     {
-        status = STATUS_ENGINE_EXECUTED;
-        DecimalFormat df = new DecimalFormat(objectsLabelNumberFormat);
-        int i=0;
-        for(Iterator<Object> iterator = objects.iterator(); iterator.hasNext(); )
-        {
-            Object object = iterator.next();
-	        String label = objectsLabel;
-	        if(label !=null && !label.trim().equals(""))
-	        {
-	            label = label + " [" + df.format(i) + "]";
-	        }
-            run(label, object);
-            i++;
-        }
+        session.run(objects);
     }
     
+    /**
+     * method runs the rules for all groups and subgroups
+     * for all rows of the batch. rules that compare a field against
+     * an expected value use the primitive values of the batch.
+     * 
+     * @param		batch			a batch of rows to run the rules against
+     * @throws		Exception		exception running the rule against a row
+     */
+    public void run(RowBatch batch) throws Exception
+    {
+        session.run(batch);
+    }
+
+    /**
+     * method runs the rules for all groups and subgroups for all objects of the collection,
+     * using as many threads as there are processors available.
+     *
+     * @param		objects			a collection of objects to run the rule against
+     * @return						list of the execution results for each object, in the order of the collection
+     * @throws		Exception		exception running the rule against the object
+     * @see			#runParallel(Collection, int)
+     */
+    public ArrayList<RuleExecutionCollection> runParallel(Collection<Object> objects) throws Exception
+    {
+    	return runParallel(objects, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * method runs the rules for all groups and subgroups for all objects of the collection
+     * in parallel, using the given number of threads.
+     *
+     * the collection is divided into consecutive chunks of objects, which are run on a fork/join pool.
+     * each chunk is run by its own session, so the rulegroups and actions must not depend on the order in
+     * which the objects are processed. the objects are labeled the same way as when running
+     * the collection using the run(Collection) method.
+     *
+     * for each object a collection containing its execution results and counters is returned, in the
+     * order of the objects in the collection. additionally the results and counters of all objects are
+     * merged into the execution collection of the engine, so that the methods returning the number of rules
+     * or groups failed, passed, etc. can be used the same way as after running the objects sequentially.
+     *
+     * note that the rulegroups returned by getGroups() do not reflect the state of the last object,
+     * because the objects are run by separate sessions.
+     *
+     * @param		objects			a collection of objects to run the rule against
+     * @param		parallelism		the number of threads to use
+     * @return						list of the execution results for each object, in the order of the collection
+     * @throws		Exception		exception running the rule against the object
+     */
+    public ArrayList<RuleExecutionCollection> runParallel(Collection<Object> objects, int parallelism) throws Exception
+    {
+    	if(parallelism<1)
+    	{
+    		throw new Exception("the parallelism must be at least 1: " + parallelism);
+    	}
+    	session.setExecuted();
+    	final Object[] objectsArray = objects.toArray();
+
+    	// use more chunks than threads, so that threads which are done early can take over work
+    	int numberOfChunks = Math.min(objectsArray.length, parallelism * CHUNKS_PER_THREAD);
+    	ArrayList<Future<RuleExecutionCollection[]>> chunks = new ArrayList<Future<RuleExecutionCollection[]>>(numberOfChunks);
+    	ArrayList<RuleEngineSession> chunkSessions = new ArrayList<RuleEngineSession>(numberOfChunks);
+    	ForkJoinPool pool = new ForkJoinPool(parallelism);
+    	try
+    	{
+	    	for(int i=0;i<numberOfChunks;i++)
+	    	{
+	    		final int start = (int)((long)objectsArray.length * i / numberOfChunks);
+	    		final int end = (int)((long)objectsArray.length * (i + 1) / numberOfChunks);
+	    		final RuleEngineSession chunkSession = createSession();
+	    		chunkSessions.add(chunkSession);
+	    		chunks.add(pool.submit(new Callable<RuleExecutionCollection[]>()
+	    		{
+	    			public RuleExecutionCollection[] call() throws Exception
+	    			{
+	    				return runChunk(chunkSession, objectsArray, start, end);
+	    			}
+	    		}));
+	    	}
+
+	    	ArrayList<RuleExecutionCollection> results = new ArrayList<RuleExecutionCollection>(objectsArray.length);
+	    	RuleExecutionCollection executionCollection = session.getRuleExecutionCollection();
+	    	for(int i=0;i<chunks.size();i++)
+	    	{
+	    		RuleExecutionCollection[] chunkResults;
+	    		try
+	    		{
+	    			chunkResults = chunks.get(i).get();
+	    		}
+	    		catch(ExecutionException ex)
+	    		{
+	    			if(ex.getCause() instanceof Exception)
+	    			{
+	    				throw (Exception)ex.getCause();
+	    			}
+	    			throw ex;
+	    		}
+	    		for(int j=0;j<chunkResults.length;j++)
+	    		{
+	    			results.add(chunkResults[j]);
+	    			executionCollection.merge(chunkResults[j]);
+	    		}
+	    		// the statistics of the chunks are added to those of the session of the engine
+	    		if(session.getStatistics()!=null && chunkSessions.get(i).getStatistics()!=null)
+	    		{
+	    			session.getStatistics().merge(chunkSessions.get(i).getStatistics());
+	    		}
+	    	}
+	    	return results;
+    	}
+    	finally
+    	{
+    		pool.shutdownNow();
+    	}
+    }
+
+    /**
+     * runs the rules for a range of objects using the given session. the results
+     * of each object are moved to a separate collection.
+     *
+     * @param		chunkSession	the session to use
+     * @param		objects			array of objects
+     * @param		start			the index of the first object to run
+     * @param		end				the index after the last object to run
+     * @return						the execution results for each object of the range
+     * @throws		Exception		exception running the rule against the object
+     */
+    private static RuleExecutionCollection[] runChunk(RuleEngineSession chunkSession, Object[] objects, int start, int end) throws Exception
+    {
+    	RuleExecutionCollection[] results = new RuleExecutionCollection[end - start];
+    	for(int i=start;i<end;i++)
+    	{
+    		chunkSession.run(chunkSession.getObjectLabel(i), objects[i]);
+
+    		RuleExecutionCollection objectResults = new RuleExecutionCollection();
+    		objectResults.merge(chunkSession.getRuleExecutionCollection());
+    		results[i - start] = objectResults;
+    		chunkSession.clear();
+    	}
+    	chunkSession.flushMonitor();
+    	return results;
+    }
+
     /**
      * reloads the rule project zip file for a running BusinessRulesEngine instance.
      * 
+     * the rules are parsed and compiled into a new ruleset, which then replaces the current ruleset
+     * in one step. sessions that are running objects at that time finish them using the previous
+     * ruleset. if the file can not be parsed, the current ruleset is kept.
+     * 
+     * only the entries of the zip file that changed since the rules were loaded the last time - according
+     * to their size, time and checksum - are parsed and compiled again. the entries are parsed
+     * concurrently.
+     * 
+     * @param zipFile		path and name of the zip file
+     * @throws Exception	exception when the file could not be located or parsed
+     */
+    public synchronized void reloadZipFile(ZipFile zipFile) throws Exception
+    {
+    	reloadZipFile(zipFile, null);
+    }
+    
+    /**
+     * reloads the rules from the zip file for a running BusinessRulesEngine instance using
+     * a snapshot of the parsed rules.
+     * 
+     * the entries of the zip file that did not change since the snapshot was written are not parsed
+     * but taken from the snapshot. if any entry had to be parsed, the snapshot is written again. the
+     * snapshot is not used at all, if it was written on a different day or using different variables
+     * for the replacer. if the snapshot can not be read or written, the rules are parsed from the zip file
+     * as usual.
+     * 
      * @param zipFile		path and name of the zip file
+     * @param snapshotFile	the snapshot file or null to not use a snapshot
      * @throws Exception	exception when the file could not be located or parsed
      */
-    public void reloadZipFile(ZipFile zipFile) throws Exception
+    public synchronized void reloadZipFile(ZipFile zipFile, File snapshotFile) throws Exception
     {
-    	clear();
-    	groups.clear();
-        referenceFields.clear();
+    	long start = System.nanoTime();
+    	String replacerDigest = replacer==null ? null : replacer.getVariablesDigest();
+    	HashMap<String,ParsedRuleFile> snapshotFiles = null;
+    	if(snapshotFile!=null)
+    	{
+	    	try
+	    	{
+	    		snapshotFiles = RuleSetSnapshot.read(snapshotFile, replacerDigest);
+	    	}
+	    	catch(Exception ex)
+	    	{
+	    		logger.warn("could not read the snapshot file: " + snapshotFile.getPath() + " - " + ex.getMessage());
+	    	}
+    	}
+    	boolean snapshotChanged = snapshotFiles==null;
+    	ArrayList<ParsedRuleFile> parsedFiles;
+    	try
+    	{
+    		ArrayList<Callable<ParsedRuleFile>> tasks = new ArrayList<Callable<ParsedRuleFile>>();
+	    	for(Enumeration<?> entries = zipFile.entries();entries.hasMoreElements();)
+	        {
+	            ZipEntry entry = (ZipEntry)entries.nextElement();
+	            if(!entry.isDirectory())
+	            {
+	            	ParsedRuleFile parsedFile = getUnchangedRuleFile(entry.getName(), entry.getSize(), entry.getTime(), entry.getCrc());
+	            	if(parsedFile==null && snapshotFiles!=null)
+	            	{
+	            		parsedFile = snapshotFiles.get(entry.getName());
+	            		if(parsedFile!=null && (entry.getCrc()==-1 || !parsedFile.isUnchanged(entry.getSize(), entry.getTime(), entry.getCrc())))
+	            		{
+	            			parsedFile = null;
+	            		}
+	            	}
+	            	if(parsedFile==null)
+	            	{
+	            		tasks.add(createParseTask(zipFile, entry));
+	            		snapshotChanged = true;
+	            	}
+	            	else
+	            	{
+	            		tasks.add(createParsedTask(parsedFile));
+	            	}
+	            }
+	        }
+	    	parsedFiles = parseRuleFiles(tasks);
+    	}
+    	finally
+    	{
+    		zipFile.close();
+    	}
+        prioritizeRuleGroups(parsedFiles);
         
-    	for(Enumeration<?> entries = zipFile.entries();entries.hasMoreElements();)
+        if(snapshotFile!=null && (snapshotChanged || snapshotFiles.size()!=parsedFiles.size()))
         {
-            ZipEntry entry = (ZipEntry)entries.nextElement();
-            if(!entry.isDirectory())
-            {
-            	parseXmlInputStream(zipFile.getInputStream(entry));
-            }
+        	try
+        	{
+        		RuleSetSnapshot.write(snapshotFile, parsedFiles, replacerDigest);
+        	}
+        	catch(Exception ex)
+        	{
+        		logger.warn("could not write the snapshot file: " + snapshotFile.getPath() + " - " + ex.getMessage());
+        	}
         }
-        zipFile.close();
-        prioritizeRuleGroups();
+        monitor.addReload(System.nanoTime() - start);
     }
     
     /**
-     * reloads the rule xml file for a running BusinessRulesEngine instance
+     * reloads the rule xml file for a running BusinessRulesEngine instance.
+     * 
+     * the current ruleset is replaced once the file has been parsed and compiled. if the file
+     * did not change since the rules were loaded the last time, it is not parsed again.
      * 
      * @param rulesFilename		path and name of the xml rule file
      * @throws Exception		exception when the file could not be located or parsed
      */
-    public void reloadRuleFile(String rulesFilename) throws Exception
+    public synchronized void reloadRuleFile(String rulesFilename) throws Exception
     {
-    	clear();
-    	groups.clear();
-        referenceFields.clear();
+    	long start = System.nanoTime();
+    	ArrayList<ParsedRuleFile> parsedFiles = new ArrayList<ParsedRuleFile>();
         
-        parseXmlFile(rulesFilename);
-        prioritizeRuleGroups();
+    	parsedFiles.add(parseXmlFile(new File(rulesFilename)));
+        prioritizeRuleGroups(parsedFiles);
+        monitor.addReload(System.nanoTime() - start);
     }
     
     /**
-     * reloads the rule xml file for a running BusinessRulesEngine instance
+     * reloads the rule xml file for a running BusinessRulesEngine instance.
+     * 
+     * the current ruleset is replaced once all files have been parsed and compiled. only the
+     * files that changed since the rules were loaded the last time are parsed again - concurrently.
      * 
      * @param rulesFiles		array of rule files with path and name of the xml rule file
      * @throws Exception		exception when the file could not be located or parsed
      */
-    public void reloadRuleFile(File[] rulesFiles) throws Exception
+    public synchronized void reloadRuleFile(File[] rulesFiles) throws Exception
     {
-    	clear();
-    	groups.clear();
-        referenceFields.clear();
+    	long start = System.nanoTime();
+    	ArrayList<Callable<ParsedRuleFile>> tasks = new ArrayList<Callable<ParsedRuleFile>>();
         
         for(int i=0;i<rulesFiles.length;i++)
         {
-            parseXmlFile(rulesFiles[i].getPath());
+        	tasks.add(createParseTask(rulesFiles[i]));
         }
-        prioritizeRuleGroups();
+        prioritizeRuleGroups(parseRuleFiles(tasks));
+        monitor.addReload(System.nanoTime() - start);
     }
     
     /**
@@ -604,31 +772,32 @@ public class BusinessRulesEngine
      * if the folder contains a single file and it's a zip file then reloads all xml files
      * from this zip file.
      * 
+     * the current ruleset is replaced once all files have been parsed and compiled. only the
+     * files that changed since the rules were loaded the last time are parsed again.
+     * 
      * @param folderName		path and name of the folder containing the xml rule file(s) or a single zip file
      * @throws Exception		exception when the file could not be located or parsed
      */
-    public void reloadRuleFileFolder(String folderName) throws Exception
+    public synchronized void reloadRuleFileFolder(String folderName) throws Exception
     {
-    	clear();
-    	groups.clear();
-        referenceFields.clear();
-        
         File folder = new File(folderName);
         if(folder.exists() && folder.isDirectory())
         {
         	String[] files = folder.list();
         	if(files.length==1 && files[0].endsWith(".zip"))
         	{
-        		reloadZipFile(new ZipFile(files[0]));
+        		reloadZipFile(new ZipFile(new File(folder, files[0])));
         	}
         	else
         	{
+        		long start = System.nanoTime();
+        		ArrayList<Callable<ParsedRuleFile>> tasks = new ArrayList<Callable<ParsedRuleFile>>();
         		for(int i=0;i<files.length;i++)
                 {
-            		File file = new File(files[i]);
-                    parseXmlFile(file.getPath());
+        			tasks.add(createParseTask(new File(folder, files[i])));
                 }
-        		prioritizeRuleGroups();
+        		prioritizeRuleGroups(parseRuleFiles(tasks));
+        		monitor.addReload(System.nanoTime() - start);
         	}
         }
         else
@@ -648,45 +817,109 @@ public class BusinessRulesEngine
      */
     public void run(String csvfileName,String fieldSeperator) throws Exception
     {
-    	status = STATUS_ENGINE_EXECUTED;
-    	// reader for the data file
-	    BufferedReader reader = new BufferedReader(new FileReader(csvfileName));
-    	String line;
-    	
-    	// counts number of lines in data file
-	    long counter=0;
-    	
-	    // splitter object will split the row from the datafile into
-        // its fields using the default semicolon (;) separator
-        Splitter splitter = new Splitter(Splitter.TYPE_COMMA_SEPERATED, fieldSeperator);
-
-    	while ((line=reader.readLine())!=null)
-	    {
-        	// only if the line is not empty 
-        	// and does not start with a hash sign (comment).
-        	// otherwise the line will be NOT be processed nor counted!
-	        if(!line.trim().equals("") && !line.startsWith("#"))
-	        {
-	        	line = line.replace("\"","");
-		        // get a row object containing the fields and data
-	        	RowFieldCollection row = splitter.getRowFieldCollection(line); 
-		        // run rules on this data
-		        run("row: " + counter, row);
-		        counter++;
-	        }
-	    }	
-    	reader.close();
+        session.run(csvfileName, fieldSeperator);
     }
     
     /**
      *  the prioritizer will make sure that all rulegroups that other rulegroups
      *  depend on will be executed first.
+     *  
+     *  the prioritized rulegroups are then compiled into a new ruleset - which sorts the groups
+     *  according to their chains of dependencies - and a new default session is created from it.
+     *  the new session takes over the results and counters of the previous default session.
      *	   
+     *  the new ruleset is complete before it replaces the current ruleset, so other threads either
+     *  see the previous or the new ruleset. the version of the new ruleset is one higher than the
+     *  version of the current one.
+     *	   
+     *  the parsed files are kept, so that files which do not change are not parsed again when the
+     *  rules are reloaded.
+     *	   
+     *  @param	parsedFiles		the parsed rule files
+     *  @throws	Exception		exception if the dependencies between the rulegroups form a cycle
      */
-    private void prioritizeRuleGroups()
+    private void prioritizeRuleGroups(ArrayList<ParsedRuleFile> parsedFiles) throws Exception
     {
+    	ArrayList<RuleGroup> groups = new ArrayList<RuleGroup>();
+    	ArrayList<ReferenceField> referenceFields = new ArrayList<ReferenceField>();
+    	HashMap<String,ParsedRuleFile> files = new HashMap<String,ParsedRuleFile>();
+    	for(int i=0;i<parsedFiles.size();i++)
+    	{
+    		ParsedRuleFile parsedFile = parsedFiles.get(i);
+    		groups.addAll(parsedFile.getGroups());
+    		referenceFields.addAll(parsedFile.getReferenceFields());
+    		files.put(parsedFile.getName(), parsedFile);
+    	}
         RuleGroupPrioritizer prioritizer = new RuleGroupPrioritizer(groups);
-        groups = prioritizer.getPrioritizedList();
+        
+        ruleSet = new CompiledRuleSet(prioritizer.getPrioritizedList(), referenceFields, ruleSet.getVersion() + 1);
+        // the new default session continues with the results and counters of the previous one
+        RuleEngineSession newSession = createSession();
+        newSession.takeOver(session);
+        session = newSession;
+        
+        parsedRuleFiles = files;
+        parsedRuleFilesReplacer = replacer;
+    }
+    
+    /**
+     * creates a new session to run the rules of the engine. the session
+     * uses the settings of the engine - output type, timestamp format, object label, etc. - and
+     * shares the collection of mappings with the engine.
+     * 
+     * the compiled rules are shared by all sessions, but each session collects its
+     * own execution results. to run the rules from multiple threads, create one session
+     * for each thread.
+     * 
+     * @return		a new session for the current ruleset of the engine
+     */
+    public RuleEngineSession createSession()
+    {
+    	RuleEngineSession newSession = ruleSet.createSession();
+    	if(outputTypeSet)
+    	{
+    		newSession.setOutputType(outputType);
+    	}
+    	newSession.setTimestampFormat(timestampFormat);
+    	newSession.setObjectsLabel(objectsLabel);
+    	newSession.setObjectLabelNumberFormat(objectsLabelNumberFormat);
+    	newSession.setMappingCollection(mappingCollection);
+    	newSession.setPreserveRuleExcecutionResults(preserveRuleExcecutionResults);
+    	newSession.setShortCircuit(shortCircuit);
+    	newSession.setGroupExecutor(groupExecutor);
+    	if(statisticsOnly)
+    	{
+    		newSession.setStatisticsOnly(true);
+    	}
+    	if(monitoring)
+    	{
+    		newSession.setMonitor(monitor);
+    	}
+    	return newSession;
+    }
+    
+    /**
+     * returns the compiled ruleset of the engine. the ruleset is
+     * replaced when the rules are reloaded: sessions created before
+     * keep running the previous ruleset. compare the ruleset of a session
+     * to this one to find out if the session has to be created again.
+     * 
+     * @return		the compiled ruleset
+     */
+    public CompiledRuleSet getRuleSet()
+    {
+    	return ruleSet;
+    }
+    
+    /**
+     * returns the default session of the engine, which is used by the run
+     * methods of the engine.
+     * 
+     * @return		the default session
+     */
+    public RuleEngineSession getSession()
+    {
+    	return session;
     }
     
     /**
@@ -698,7 +931,7 @@ public class BusinessRulesEngine
      */
     public void clear()
     {
-        executionCollection.clear();
+        session.clear();
     } 
     
     /**
@@ -711,58 +944,165 @@ public class BusinessRulesEngine
      */
     public void run(Object object)throws Exception
     {
-        status = STATUS_ENGINE_EXECUTED;
-        DecimalFormat df = new DecimalFormat(objectsLabelNumberFormat);
-        String label = objectsLabel;
-        if(label !=null && !label.trim().equals(""))
-        {
-            label = label + " [" + df.format(0) + "]";
-        }
-        run(label, object);
+        session.run(object);
     }
     
     /**
-     * applies settings of the ruleengine to one rulegroup
+     * method is used to parse the given xml file. if the file did not change since it was
+     * parsed the last time, copies of the groups parsed then are returned.
      * 
-     * @param	group	a rulegroup
+     * @param		file		the xml file
+     * @return					the parsed rule file
+     * @exception	Exception	exception when the xml file could not be parsed
      */
-    private void applyGroupSettings(RuleGroup group)
+    private ParsedRuleFile parseXmlFile(File file)throws Exception
     {
-    		group.setTimestampFormat(timestampFormat);
-            group.setOutputType(outputType);
-            group.setPreserveRuleExcecutionResults(preserveRuleExcecutionResults);
+    	if(!file.exists())
+    	{
+    		throw new FileNotFoundException("file not found: " + file.getPath());
+    	}
+    	long crc = FileUtility.getCrc32(file);
+    	ParsedRuleFile parsedFile = getUnchangedRuleFile(file.getPath(), file.length(), file.lastModified(), crc);
+    	if(parsedFile==null)
+    	{
+	        // create a parser object to parse the xml file
+	        Parser parser = new Parser(replacer);
+	        parser.parse(file.getPath()); 
+        
+	        parsedFile = new ParsedRuleFile(file.getPath(), file.length(), file.lastModified(), crc, parser.getGroups(), parser.getReferenceFields());
+    	}
+    	return parsedFile;
     }
     
     /**
-     * method is used to parse the given xml file
+     * method is used to parse the given entry of a zip file. if the entry did not change since
+     * it was parsed the last time, copies of the groups parsed then are returned.
      * 
-     * @param		filename	path and name of the xml file
-     * @exception	Exception	exception when the xml file could not be parsed
+     * @param		zipFile		the zip file
+     * @param		entry		the entry of the zip file
+     * @return					the parsed rule file
+     * @exception	Exception	exception when the entry could not be parsed
      */
-    private void parseXmlFile(String filename)throws Exception
+    private ParsedRuleFile parseZipEntry(ZipFile zipFile, ZipEntry entry)throws Exception
     {
-        // create a parser object to parse the xml file
-        Parser parser = new Parser(replacer);
-        parser.parse(filename); 
+    	ParsedRuleFile parsedFile = getUnchangedRuleFile(entry.getName(), entry.getSize(), entry.getTime(), entry.getCrc());
+    	if(parsedFile==null)
+    	{
+	        // create a parser object to parse the xml input stream
+	        Parser parser = new Parser(replacer);
+	        parser.parse(zipFile.getInputStream(entry)); 
         
-        groups.addAll(parser.getGroups());
-        referenceFields.addAll(parser.getReferenceFields());
+	        parsedFile = new ParsedRuleFile(entry.getName(), entry.getSize(), entry.getTime(), entry.getCrc(), parser.getGroups(), parser.getReferenceFields());
+    	}
+    	return parsedFile;
     }
     
     /**
-     * method is used to parse the given xml input stream
-     * 
-     * @param		stream		the input stream to parse from
-     * @exception	Exception	exception when the inputstream could not be parsed
+     * runs the given tasks - each parsing one rule file - and returns the parsed files in the order
+     * of the tasks. if there is more than one task, the tasks are run concurrently on the common
+     * fork/join pool, because the rule files are independent of each other. the order of the tasks
+     * determines the order of the groups and reference fields of the ruleset, so it does not depend
+     * on which file was parsed first.
+     * 
+     * @param		tasks		list of tasks to parse the rule files
+     * @return					list of the parsed rule files
+     * @exception	Exception	exception when a rule file could not be parsed
      */
-    private void parseXmlInputStream(InputStream stream)throws Exception
+    private static ArrayList<ParsedRuleFile> parseRuleFiles(ArrayList<Callable<ParsedRuleFile>> tasks) throws Exception
     {
-        // create a parser object to parse the xml input stream
-        Parser parser = new Parser(replacer);
-        parser.parse(stream); 
-        
-        groups.addAll(parser.getGroups());
-        referenceFields.addAll(parser.getReferenceFields());
+    	ArrayList<ParsedRuleFile> parsedFiles = new ArrayList<ParsedRuleFile>(tasks.size());
+    	if(tasks.size()<2)
+    	{
+    		for(int i=0;i<tasks.size();i++)
+    		{
+    			parsedFiles.add(tasks.get(i).call());
+    		}
+    		return parsedFiles;
+    	}
+    	
+    	ArrayList<Future<ParsedRuleFile>> results = new ArrayList<Future<ParsedRuleFile>>(tasks.size());
+    	try
+    	{
+    		for(int i=0;i<tasks.size();i++)
+    		{
+    			results.add(ForkJoinPool.commonPool().submit(tasks.get(i)));
+    		}
+    		for(int i=0;i<results.size();i++)
+    		{
+    			try
+	    		{
+	    			parsedFiles.add(results.get(i).get());
+	    		}
+	    		catch(ExecutionException ex)
+	    		{
+	    			if(ex.getCause() instanceof Exception)
+	    			{
+	    				throw (Exception)ex.getCause();
+	    			}
+	    			throw ex;
+	    		}
+    		}
+    		return parsedFiles;
+    	}
+    	finally
+    	{
+    		// if a file could not be parsed, the files that were not parsed yet are not needed any more
+    		for(int i=0;i<results.size();i++)
+    		{
+    			results.get(i).cancel(false);
+    		}
+    	}
+    }
+    
+    private Callable<ParsedRuleFile> createParseTask(final File file)
+    {
+    	return new Callable<ParsedRuleFile>()
+		{
+			public ParsedRuleFile call() throws Exception
+			{
+				return parseXmlFile(file);
+			}
+		};
+    }
+    
+    private Callable<ParsedRuleFile> createParseTask(final ZipFile zipFile, final ZipEntry entry)
+    {
+    	return new Callable<ParsedRuleFile>()
+		{
+			public ParsedRuleFile call() throws Exception
+			{
+				return parseZipEntry(zipFile, entry);
+			}
+		};
+    }
+    
+    /**
+     * creates a task for a rule file that does not have to be parsed
+     */
+    private static Callable<ParsedRuleFile> createParsedTask(final ParsedRuleFile parsedFile)
+    {
+    	return new Callable<ParsedRuleFile>()
+		{
+			public ParsedRuleFile call() throws Exception
+			{
+				return parsedFile;
+			}
+		};
+    }
+    
+    /**
+     * returns a copy of the rule file with the given name that was parsed when the rules were loaded the
+     * last time, if the file still has the same fingerprint, was parsed today and the same replacer is
+     * used. otherwise returns null.
+     */
+    private ParsedRuleFile getUnchangedRuleFile(String name, long size, long time, long crc)
+    {
+    	ParsedRuleFile parsedFile = parsedRuleFiles.get(name);
+    	if(parsedFile!=null && replacer==parsedRuleFilesReplacer && crc!=-1 && parsedFile.isUnchanged(size, time, crc))
+    	{
+    		return parsedFile.copy();
+    	}
+    	return null;
     }
     
     /**
@@ -772,7 +1112,7 @@ public class BusinessRulesEngine
      */
     public RuleExecutionCollection getRuleExecutionCollection()
     {
-        return executionCollection;
+        return session.getRuleExecutionCollection();
     }
     
     /**
@@ -787,24 +1127,7 @@ public class BusinessRulesEngine
      */
     public boolean getRuleGroupFailed(String groupId)
     {
-    	boolean failed = false;
-    	for(int i=0;i<groups.size();i++)
-    	{
-    		RuleGroup group = groups.get(i);
-    		if(group.getId().toLowerCase().equals(groupId.toLowerCase()))
-    		{
-    			if(group.getFailed()==1)
-    			{
-    				failed = true;
-    			}
-    			else
-    			{
-    				failed = false;
-    			}
-    			break;
-    		}
-    	}
-    	return failed;
+        return session.getRuleGroupFailed(groupId);
     }
     
     /**
@@ -821,17 +1144,7 @@ public class BusinessRulesEngine
      */
     public boolean getRuleGroupsFailed(String[] groupIds)
     {
-    	boolean failed = false;
-    	for(int i=0;i<groupIds.length;i++)
-    	{
-    		boolean groupFailed = getRuleGroupFailed(groupIds[i]);
-    		
-    		if(groupFailed)
-    		{
-    			failed = true;
-    		}
-    	}
-    	return failed;
+        return session.getRuleGroupsFailed(groupIds);
     }
     
     /**
@@ -842,17 +1155,7 @@ public class BusinessRulesEngine
      */
     public boolean getRuleGroupExists(String groupId)
     {
-    	boolean exists = false;
-    	for(int i=0;i<groups.size();i++)
-    	{
-    		RuleGroup group = groups.get(i);
-    		if(group.getId().toLowerCase().equals(groupId.toLowerCase()))
-    		{
-   				exists = true;
-    			break;
-    		}
-    	}
-    	return exists;
+        return session.getRuleGroupExists(groupId);
     }
 
     /**
@@ -862,7 +1165,7 @@ public class BusinessRulesEngine
      */
     public boolean getPreserveRuleExcecutionResults()
     {
-    	return executionCollection.getPreserveRuleExcecutionResults();
+        return session.getPreserveRuleExcecutionResults();
     }
     
     /**
@@ -873,7 +1176,46 @@ public class BusinessRulesEngine
     public void setPreserveRuleExcecutionResults(boolean preserveRuleExcecutionResults)
     {
     	this.preserveRuleExcecutionResults = preserveRuleExcecutionResults;
-    	executionCollection.setPreserveRuleExcecutionResults(preserveRuleExcecutionResults);
+    	session.setPreserveRuleExcecutionResults(preserveRuleExcecutionResults);
+    }
+    
+    /**
+     * indicator if only statistics are collected
+     * 
+     * @return indicator if only statistics are collected
+     */
+    public boolean getStatisticsOnly()
+    {
+        return statisticsOnly;
+    }
+    
+    /**
+     * sets if only statistics are collected when the rules run. in this mode no results are kept
+     * for the rules, but the number of passed, failed and skipped rules and groups and the number of
+     * executed actions are counted for each rule and group. this way the memory used does not grow with
+     * the number of rows processed.
+     * 
+     * the totals are available using the getNumberOf... methods, the counters of the individual rules and
+     * groups using getStatistics().
+     * 
+     * @param	statisticsOnly indicator if only statistics are collected
+     */
+    public void setStatisticsOnly(boolean statisticsOnly)
+    {
+    	this.statisticsOnly = statisticsOnly;
+    	this.preserveRuleExcecutionResults = !statisticsOnly;
+    	session.setStatisticsOnly(statisticsOnly);
+    }
+    
+    /**
+     * returns the statistics of the rules and groups, which are collected if only statistics are
+     * collected. when running objects in parallel, the statistics of all threads are added up.
+     * 
+     * @return	the statistics or null, if only statistics are not collected
+     */
+    public RuleStatistics getStatistics()
+    {
+        return session.getStatistics();
     }
     
     /**
@@ -883,7 +1225,7 @@ public class BusinessRulesEngine
      */
     public ArrayList<RuleGroup> getGroups()
     {
-        return groups;
+        return session.getGroups();
     }
     
     /**
@@ -893,7 +1235,7 @@ public class BusinessRulesEngine
      */
     public ArrayList<ReferenceField> getReferenceFields()
     {
-        return referenceFields;
+        return ruleSet.getReferenceFields();
     }
     
     /**
@@ -905,24 +1247,7 @@ public class BusinessRulesEngine
      */
     public RuleGroup getGroupById(String groupId)
     {
-    	int found=-1;
-    	for(int i=0;i< groups.size();i++)
-    	{
-    		RuleGroup group = groups.get(i);
-    		if(group.getId().equals(groupId))
-    		{
-    			found=i;
-    			break;
-    		}
-    	}
-    	if(found > -1)
-    	{
-    		return groups.get(found);
-    	}
-    	else
-    	{
-    		return null;
-    	}
+        return session.getGroupById(groupId);
     }
     
     /**
@@ -932,13 +1257,7 @@ public class BusinessRulesEngine
      */
     public long getNumberOfRules()
     {
-        int count = 0;
-        for(int i=0;i<groups.size();i++)
-        {
-            RuleGroup group = (RuleGroup)groups.get(i);
-            count = count + group.getNumberOfRules();
-        }
-        return count;
+        return session.getNumberOfRules();
     }
     
     /**
@@ -948,18 +1267,12 @@ public class BusinessRulesEngine
      */
     public long getNumberOfActions()
     {
-        int count = 0;
-        for(int i=0;i<groups.size();i++)
-        {
-            RuleGroup group = (RuleGroup)groups.get(i);
-            count = count + group.getNumberOfActions();
-        }
-        return count;
+        return session.getNumberOfActions();
     }
     
     public long getNumberOfActionsExecuted()
     {
-    	return executionCollection.getActionsExecutedCount();
+        return session.getNumberOfActionsExecuted();
     }
     
     /**
@@ -969,7 +1282,7 @@ public class BusinessRulesEngine
      */
     public long getNumberOfRulesFailed()
     {
-        return executionCollection.getRulesFailedCount();
+        return session.getNumberOfRulesFailed();
     }
     
     /**
@@ -979,7 +1292,18 @@ public class BusinessRulesEngine
      */
     public long getNumberOfRulesPassed()
     {
-        return executionCollection.getRulesPassedCount();
+        return session.getNumberOfRulesPassed();
+    }
+    
+    /**
+     * method returns the number of rules from all groups and subgroups that were not
+     * evaluated, because the outcome of their subgroup or group was already decided
+     * 
+     * @return number of rules not evaluated
+     */
+    public long getNumberOfRulesNotEvaluated()
+    {
+        return session.getNumberOfRulesNotEvaluated();
     }
     
     /**
@@ -989,7 +1313,7 @@ public class BusinessRulesEngine
      */
     public long getNumberOfGroupsFailed()
     {
-    	return executionCollection.getFailedGroupsCount();
+        return session.getNumberOfGroupsFailed();
     }
     
     /**
@@ -1001,7 +1325,7 @@ public class BusinessRulesEngine
      */
     public boolean compareNumberOfGroupsFailedGreaterThan(int value)
     {
-    	return executionCollection.getFailedGroupsCount()> value;
+    	return session.getNumberOfGroupsFailed()> value;
     }
     
     /**
@@ -1011,7 +1335,7 @@ public class BusinessRulesEngine
      */
     public long getNumberOfGroupsPassed() 
     {
-    	return executionCollection.getPassedGroupsCount();
+        return session.getNumberOfGroupsPassed();
     }
 
     /**
@@ -1023,7 +1347,7 @@ public class BusinessRulesEngine
      */
     public boolean compareNumberOfGroupsPassedGreaterThan(int value)
     {
-    	return executionCollection.getPassedGroupsCount()> value;
+    	return session.getNumberOfGroupsPassed()> value;
     }
     
     /**
@@ -1047,41 +1371,7 @@ public class BusinessRulesEngine
      */
     public boolean getRuleGroupsStatus(int mode)
     {
-    	if(getNumberOfGroups()>0)
-    	{
-	    	if(mode==RULEGROUP_STATUS_MODE_AT_LEAST_ONE_FAILED)
-	    	{
-	    		return getNumberOfGroupsFailed()>0;
-	    	}
-	    	else if(mode==RULEGROUP_STATUS_MODE_ALL_FAILED)
-	    	{
-	    		return getNumberOfGroupsPassed()==0;
-	    	}
-	    	else if(mode==RULEGROUP_STATUS_MODE_NOT_ALL_FAILED)
-	    	{
-	    		return getNumberOfGroupsFailed()<getNumberOfGroups();
-	    	}
-	    	else if(mode==RULEGROUP_STATUS_MODE_AT_LEAST_ONE_PASSED)
-	    	{
-	    		return getNumberOfGroupsPassed()>0;
-	    	}
-	    	else if(mode==RULEGROUP_STATUS_MODE_ALL_PASSED)
-	    	{
-	    		return getNumberOfGroupsFailed()==0;
-	    	}
-	    	else if(mode==RULEGROUP_STATUS_MODE_NOT_ALL_PASSED)
-	    	{
-	    		return getNumberOfGroupsPassed()<getNumberOfGroups();
-	    	}
-	    	else
-	    	{
-	    		return false;
-	    	}
-    	}
-    	else
-    	{
-    		return true;
-    	}
+        return session.getRuleGroupsStatus(mode);
     }
     
     /**
@@ -1106,7 +1396,7 @@ public class BusinessRulesEngine
      */
     public long getNumberOfGroupsSkipped()
     {
-    	return executionCollection.getSkippedGroupsCount();
+        return session.getNumberOfGroupsSkipped();
     }
 
     /**
@@ -1116,7 +1406,7 @@ public class BusinessRulesEngine
      */
     public long getNumberOfGroups()
     {
-    	return groups.size();
+        return session.getNumberOfGroups();
     }
     
     /**
@@ -1126,7 +1416,7 @@ public class BusinessRulesEngine
      */
     public long getNumberOfExecutedGroups()
     {
-    	return groups.size() - getNumberOfGroupsSkipped();
+        return session.getNumberOfExecutedGroups();
     }
     
     /**
@@ -1137,7 +1427,7 @@ public class BusinessRulesEngine
      */
     public boolean getStatus()
     {
-        return status==STATUS_ENGINE_EXECUTED;
+        return session.getStatus();
     }
     
     /**
@@ -1152,24 +1442,7 @@ public class BusinessRulesEngine
      */
     public String getRuleLogic(String groupId) throws Exception
     {
-        int foundGroupIndex = -1;
-        for(int i=0;i<groups.size();i++)
-        {
-            RuleGroup group = (RuleGroup)groups.get(i);
-            if(group.getId().equals(groupId))
-            {
-                foundGroupIndex = i;
-                break;
-            }
-        }
-        if(foundGroupIndex>-1)
-        {
-            return getRuleLogic(foundGroupIndex);
-        }
-        else
-        {
-            return null;
-        }
+        return session.getRuleLogic(groupId);
     }
     
     /**
@@ -1184,6 +1457,7 @@ public class BusinessRulesEngine
      */
     public String getRuleLogic(int index)throws Exception
     {
+        ArrayList<RuleGroup> groups = session.getGroups();
         if(index>-1 && groups.get(index)!=null)
         {
        		RuleGroup group = (RuleGroup)groups.get(index);
@@ -1239,6 +1513,7 @@ public class BusinessRulesEngine
     public void setObjectsLabel(String objectsLabel)
     {
         this.objectsLabel = objectsLabel;
+        session.setObjectsLabel(objectsLabel);
     }
     
     /**
@@ -1263,6 +1538,7 @@ public class BusinessRulesEngine
     public void setObjectLabelNumberFormat(String format)
     {
         this.objectsLabelNumberFormat = format;
+        session.setObjectLabelNumberFormat(format);
     }
     
     /**
@@ -1280,11 +1556,17 @@ public class BusinessRulesEngine
      * sets if all rule results should be output (2), only for failed rules (0),
      * only for passed rules (1). default is 0.
      * 
+     * once the output type is set, the results of the rules that are not selected by the
+     * output type are not kept in the rule execution collection. as long as the output type
+     * is not set, the results of all rules are kept.
+     * 
      * @param	outputType	the selected output type
      */
     public void setOutputType(int outputType)
     {
         this.outputType = outputType;
+        this.outputTypeSet = true;
+        session.setOutputType(outputType);
     }
     
     /**
@@ -1306,6 +1588,96 @@ public class BusinessRulesEngine
     public void setTimestampFormat(String timestampFormat)
     {
         this.timestampFormat = timestampFormat;
+        session.setTimestampFormat(timestampFormat);
+    }
+    
+    /**
+     * returns the executor used to run groups for one object at the same time
+     * 
+     * @return		the executor for the groups or null if the groups run sequentially
+     */
+    public ExecutorService getGroupExecutor()
+    {
+        return groupExecutor;
+    }
+    
+    /**
+     * sets the executor used to run the groups for one object at the same time. groups are
+     * sorted by their dependencies when the rules are loaded. consecutive groups that do not
+     * depend on each other and do not have actions - which could change the object - are then run
+     * in parallel using the executor. the results are still collected in the order of the groups.
+     * 
+     * this reduces the time to process a single object when there are many groups. the executor
+     * is not shut down by the engine. set to null to run the groups sequentially, which is the default.
+     * 
+     * @param	groupExecutor	the executor for the groups
+     */
+    public void setGroupExecutor(ExecutorService groupExecutor)
+    {
+        this.groupExecutor = groupExecutor;
+        session.setGroupExecutor(groupExecutor);
+    }
+    
+    /**
+     * indicator if the evaluation of the rules of a group stops once the outcome
+     * of the group is decided
+     * 
+     * @return		indicator if short-circuit evaluation is used for all groups
+     */
+    public boolean getShortCircuit()
+    {
+        return shortCircuit;
+    }
+    
+    /**
+     * sets if the evaluation of the rules stops once the outcome of a subgroup or group is decided.
+     * for subgroups with rules connected by [and] this is the first rule that fails, for [or] the first
+     * rule that passes. the remaining rules are marked as not evaluated.
+     * 
+     * if set to false, short-circuit evaluation is only used for the groups that have it defined
+     * in the xml file. default is false.
+     * 
+     * @param	shortCircuit	indicator if short-circuit evaluation is used for all groups
+     */
+    public void setShortCircuit(boolean shortCircuit)
+    {
+        this.shortCircuit = shortCircuit;
+        session.setShortCircuit(shortCircuit);
+    }
+    
+    /**
+     * returns the monitor of the engine, which collects the counters of all sessions created by
+     * the engine - the number of rows processed, the outcome of the groups and rules, the time it
+     * takes to run the rules for a row and to reload the rules. register the monitor to make the
+     * counters available via JMX.
+     * 
+     * @return		the monitor of the engine
+     */
+    public RuleEngineMonitor getMonitor()
+    {
+    	return monitor;
+    }
+    
+    /**
+     * indicator if the sessions of the engine pass their counters to the monitor
+     * 
+     * @return		indicator if the sessions are monitored
+     */
+    public boolean getMonitoring()
+    {
+    	return monitoring;
+    }
+    
+    /**
+     * sets if the sessions of the engine pass their counters to the monitor. applies to the default
+     * session and to sessions created afterwards. default is true.
+     * 
+     * @param	monitoring	indicator if the sessions are monitored
+     */
+    public void setMonitoring(boolean monitoring)
+    {
+    	this.monitoring = monitoring;
+    	session.setMonitor(monitoring ? monitor : null);
     }
     
     /**
@@ -1326,6 +1698,7 @@ public class BusinessRulesEngine
 	    replacementsFile = props.getProperty(PROPERTY_REPLACEMENTS_FILE);
 	    
 	    outputType = Integer.parseInt(props.getProperty(PROPERTY_OUPUT_TYPE));
+	    outputTypeSet = true;
 	    
 	    objectsLabel = props.getProperty(PROPERTY_OBJECT_LABEL);
 	    objectsLabelNumberFormat = props.getProperty(PROPERTY_OBJECT_LABEL_FORMAT); 
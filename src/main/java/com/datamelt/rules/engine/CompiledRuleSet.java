@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.datamelt.rules.core.ReferenceField;
+import com.datamelt.rules.core.RuleExpressionIndex;
+import com.datamelt.rules.core.RuleGroup;
+import com.datamelt.util.RuleGroupDependencyGraph;
+
+/**
+ * the compiled form of the rulegroups, subgroups and rules that have been parsed
+ * from one or more rule files.
+ * <p>
+ * the rules of all groups are compiled into execution plans when the ruleset is
+ * created. after that the ruleset is not modified anymore, so a single instance can
+ * be shared by multiple threads.
+ * <p>
+ * the ruleset itself is not run. it is used to create sessions: each session holds its
+ * own copy of the rulegroups - sharing the compiled rules - and collects its own execution
+ * results. a session must only be used by one thread at a time.
+ *
+ * @see RuleEngineSession
+ */
+public class CompiledRuleSet
+{
+	// the prioritized and compiled rulegroups
+	private final List<RuleGroup> groups;
+	// the dependencies between the rulegroups
+	private final RuleGroupDependencyGraph dependencyGraph;
+	// the values and checks shared by multiple rules
+	private final RuleExpressionIndex expressionIndex;
+	// the reference fields parsed from the rule files
+	private final ArrayList<ReferenceField> referenceFields;
+	// the version of the ruleset and the time it was created
+	private final long version;
+	private final long loadTime;
+
+	/**
+	 * creates a ruleset from the given list of rulegroups and compiles
+	 * the rules of all groups.
+	 *
+	 * groups that are copies of the groups of another ruleset reuse the compiled rules of
+	 * those groups, without modifying them.
+	 *
+	 * the groups are sorted so that each group comes after the group it depends on. the order of
+	 * the given list is kept otherwise, so the groups are expected to be prioritized already.
+	 *
+	 * values of an object and checks that are used by more than one rule - in any group - are
+	 * identified, so that the sessions retrieve or evaluate them only once per object.
+	 *
+	 * @param groups			list of prioritized rulegroups
+	 * @param referenceFields	list of reference fields
+	 * @throws Exception		exception if the dependencies between the rulegroups form a cycle
+	 */
+	public CompiledRuleSet(ArrayList<RuleGroup> groups, ArrayList<ReferenceField> referenceFields) throws Exception
+	{
+		this(groups, referenceFields, 0);
+	}
+
+	/**
+	 * creates a ruleset with the given version from the given list of rulegroups and compiles
+	 * the rules of all groups.
+	 *
+	 * the version identifies the ruleset when the rules are reloaded: each reload creates a new
+	 * ruleset with a higher version.
+	 *
+	 * @param groups			list of prioritized rulegroups
+	 * @param referenceFields	list of reference fields
+	 * @param version			the version of the ruleset
+	 * @throws Exception		exception if the dependencies between the rulegroups form a cycle
+	 */
+	public CompiledRuleSet(ArrayList<RuleGroup> groups, ArrayList<ReferenceField> referenceFields, long version) throws Exception
+	{
+		this.version = version;
+		this.dependencyGraph = new RuleGroupDependencyGraph(groups);
+		ArrayList<RuleGroup> sortedGroups = dependencyGraph.getSortedGroups();
+		for(int i=0;i<sortedGroups.size();i++)
+		{
+			sortedGroups.get(i).compileChangedRules();
+		}
+		this.groups = Collections.unmodifiableList(new ArrayList<RuleGroup>(sortedGroups));
+		this.expressionIndex = new RuleExpressionIndex(sortedGroups);
+		this.referenceFields = new ArrayList<ReferenceField>(referenceFields);
+		this.loadTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * creates a new session to run the rules of this ruleset.
+	 *
+	 * @return	a new session
+	 */
+	public RuleEngineSession createSession()
+	{
+		return new RuleEngineSession(this);
+	}
+
+	/**
+	 * returns the list of rulegroups of the ruleset. the list can not be modified.
+	 *
+	 * the groups are the templates from which the groups of the sessions are created,
+	 * they do not contain any execution results.
+	 *
+	 * @return	list of rulegroups
+	 */
+	public List<RuleGroup> getGroups()
+	{
+		return groups;
+	}
+
+	/**
+	 * returns the index of the values and checks that are shared by multiple rules of the
+	 * ruleset. each session uses it to create its cache of shared values and results.
+	 *
+	 * @return	the index of the shared expressions
+	 */
+	public RuleExpressionIndex getExpressionIndex()
+	{
+		return expressionIndex;
+	}
+
+	/**
+	 * returns the graph of the dependencies between the rulegroups. the indexes used
+	 * by the graph correspond to the list of groups of the ruleset.
+	 *
+	 * @return	the dependency graph of the rulegroups
+	 */
+	public RuleGroupDependencyGraph getDependencyGraph()
+	{
+		return dependencyGraph;
+	}
+
+	/**
+	 * method returns the list of reference fields as defined in the xml file
+	 *
+	 * @return	list of reference fields
+	 */
+	public ArrayList<ReferenceField> getReferenceFields()
+	{
+		return referenceFields;
+	}
+
+	/**
+	 * returns the version of the ruleset. the ruleset of an engine that did not load any
+	 * rules has version 0, each time the rules are loaded the version is increased by one.
+	 *
+	 * @return	the version of the ruleset
+	 */
+	public long getVersion()
+	{
+		return version;
+	}
+
+	/**
+	 * returns the time when the ruleset was created, after the rules were parsed and compiled
+	 *
+	 * @return	the time in milliseconds
+	 */
+	public long getLoadTime()
+	{
+		return loadTime;
+	}
+
+	/**
+	 * method returns the total number of groups
+	 *
+	 * @return	number of groups
+	 */
+	public int getNumberOfGroups()
+	{
+		return groups.size();
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.engine;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+
+import com.datamelt.rules.core.ReferenceField;
+import com.datamelt.rules.core.RuleGroup;
+
+/**
+ * the rulegroups and reference fields parsed from a single rule file or entry of a
+ * zip file, together with the fingerprint of the file at the time it was parsed.
+ * <p>
+ * the fingerprint consists of the size, the time of the last modification and the CRC-32
+ * checksum of the file. when the rules are reloaded and the fingerprint of a file did not
+ * change, the file does not have to be parsed again: copies of its groups - which share
+ * the compiled rules of the groups - are used instead.
+ * <p>
+ * the parser only keeps the rulegroups that are valid on the day the file is parsed. so the
+ * day is stored as well and a file that was parsed on a different day is regarded as changed.
+ */
+public class ParsedRuleFile
+{
+	private static final String DAY_FORMAT = "yyyyMMdd";
+
+	private final String name;
+	private final long size;
+	private final long time;
+	private final long crc;
+	private final int day;
+
+	private final ArrayList<RuleGroup> groups;
+	private final ArrayList<ReferenceField> referenceFields;
+
+	/**
+	 * creates a parsed rule file with the given fingerprint, groups and reference fields
+	 *
+	 * @param name				the name of the file or zip entry
+	 * @param size				the size of the file
+	 * @param time				the time the file was last modified
+	 * @param crc				the CRC-32 checksum of the file
+	 * @param groups			the rulegroups parsed from the file
+	 * @param referenceFields	the reference fields parsed from the file
+	 */
+	public ParsedRuleFile(String name, long size, long time, long crc, ArrayList<RuleGroup> groups, ArrayList<ReferenceField> referenceFields)
+	{
+		this(name, size, time, crc, getCurrentDay(), groups, referenceFields);
+	}
+
+	ParsedRuleFile(String name, long size, long time, long crc, int day, ArrayList<RuleGroup> groups, ArrayList<ReferenceField> referenceFields)
+	{
+		this.name = name;
+		this.size = size;
+		this.time = time;
+		this.crc = crc;
+		this.day = day;
+		this.groups = groups;
+		this.referenceFields = referenceFields;
+	}
+
+	/**
+	 * checks if the file has the given fingerprint and was parsed today
+	 *
+	 * @param size		the size of the file
+	 * @param time		the time the file was last modified
+	 * @param crc		the CRC-32 checksum of the file
+	 * @return			indicator if the file did not change
+	 */
+	public boolean isUnchanged(long size, long time, long crc)
+	{
+		return this.size==size && this.time==time && this.crc==crc && day==getCurrentDay();
+	}
+
+	/**
+	 * returns the current day in the form yyyyMMdd
+	 *
+	 * @return	the current day
+	 */
+	static int getCurrentDay()
+	{
+		return Integer.parseInt(new SimpleDateFormat(DAY_FORMAT).format(new Date()));
+	}
+
+	/**
+	 * creates a copy of the parsed file with copies of the rulegroups. the copies share the
+	 * definition and the compiled rules with the original groups, so they can be used for a
+	 * new ruleset without parsing the file again.
+	 *
+	 * @return	a copy of the parsed file
+	 */
+	public ParsedRuleFile copy()
+	{
+		ArrayList<RuleGroup> copiedGroups = new ArrayList<RuleGroup>();
+		for(int i=0;i<groups.size();i++)
+		{
+			copiedGroups.add(new RuleGroup(groups.get(i)));
+		}
+		return new ParsedRuleFile(name, size, time, crc, day, copiedGroups, referenceFields);
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public long getSize()
+	{
+		return size;
+	}
+
+	public long getTime()
+	{
+		return time;
+	}
+
+	public long getCrc()
+	{
+		return crc;
+	}
+
+	public ArrayList<RuleGroup> getGroups()
+	{
+		return groups;
+	}
+
+	public ArrayList<ReferenceField> getReferenceFields()
+	{
+		return referenceFields;
+	}
+}
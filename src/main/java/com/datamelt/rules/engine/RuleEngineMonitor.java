@@ -0,0 +1,503 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.engine;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.datamelt.rules.core.RuleGroup;
+import com.datamelt.util.LatencyHistogram;
+
+/**
+ * collects the counters of all sessions of a BusinessRulesEngine - the number of rows processed,
+ * the outcome of the groups and rules, the number of actions executed, the time it took to run the
+ * rules for a row and the time it took to reload the rules - and exposes them as a standard MBean.
+ * <p>
+ * the sessions do not update the monitor for each row. each session counts the rows in a recorder
+ * of its own, without any synchronization, and passes the counters to the monitor after 1024 rows
+ * or after one second - whatever comes first - and at the end of a collection or batch of rows. the
+ * counters of the monitor may therefore lag behind by that many rows per session.
+ * <p>
+ * the counters of the individual groups and rules are kept for the latest ruleset. when the rules are
+ * reloaded, they are carried over as long as the groups and rules did not change.
+ */
+public class RuleEngineMonitor implements RuleEngineMonitorMBean
+{
+	// the recorders pass their counters to the monitor after this number of rows
+	static final int FLUSH_ROWS 					= 1024;
+	// or after this time in nanoseconds
+	static final long FLUSH_INTERVAL 				= 1000000000L;
+
+	private static final String OBJECT_NAME_PREFIX	= "com.datamelt.rules:type=BusinessRulesEngine,name=";
+
+	private long ruleSetVersion = -1;
+	private RuleStatistics statistics;
+	private final LatencyHistogram latencies = new LatencyHistogram();
+
+	private long rowsProcessed;
+	private long groupsPassed;
+	private long groupsFailed;
+	private long groupsSkipped;
+	private long rulesPassed;
+	private long rulesFailed;
+	private long rulesNotEvaluated;
+	private long actionsExecuted;
+
+	// start of the counting and of the current interval for the rows per second
+	private long start = System.nanoTime();
+	private long intervalStart = start;
+	private long intervalRows;
+	private double rowsPerSecond;
+
+	private long reloadCount;
+	private long lastReloadNanos;
+	private long maxReloadNanos;
+
+	private ObjectName objectName;
+
+	/**
+	 * creates a recorder for a session, which runs the given groups of the ruleset with the given version
+	 *
+	 * @param version	the version of the ruleset of the session
+	 * @param groups	the rulegroups of the session
+	 * @return			the recorder
+	 */
+	Recorder createRecorder(long version, List<RuleGroup> groups)
+	{
+		return new Recorder(this, version, new RuleStatistics(groups));
+	}
+
+	/**
+	 * adds the counters of the given recorder to the counters of the monitor
+	 *
+	 * @param recorder	the recorder of a session
+	 */
+	private synchronized void add(Recorder recorder)
+	{
+		RuleStatistics recorded = recorder.statistics;
+		if(statistics==null || recorder.ruleSetVersion>ruleSetVersion)
+		{
+			RuleStatistics previous = statistics;
+			statistics = new RuleStatistics(recorded);
+			ruleSetVersion = recorder.ruleSetVersion;
+			if(previous!=null)
+			{
+				mergeStatistics(previous);
+			}
+		}
+		mergeStatistics(recorded);
+
+		for(int i=0;i<recorded.getNumberOfGroups();i++)
+		{
+			groupsPassed = groupsPassed + recorded.getGroupPassedCount(i);
+			groupsFailed = groupsFailed + recorded.getGroupFailedCount(i);
+			groupsSkipped = groupsSkipped + recorded.getGroupSkippedCount(i);
+			actionsExecuted = actionsExecuted + recorded.getActionsExecutedCount(i);
+		}
+		for(int i=0;i<recorded.getNumberOfRules();i++)
+		{
+			rulesPassed = rulesPassed + recorded.getRulePassedCount(i);
+			rulesFailed = rulesFailed + recorded.getRuleFailedCount(i);
+			rulesNotEvaluated = rulesNotEvaluated + recorded.getRuleSkippedCount(i);
+		}
+		latencies.add(recorder.latencies);
+		rowsProcessed = rowsProcessed + recorder.rows;
+		updateRowsPerSecond(System.nanoTime());
+	}
+
+	private void mergeStatistics(RuleStatistics recorded)
+	{
+		try
+		{
+			statistics.merge(recorded);
+		}
+		catch(Exception ex)
+		{
+			// the counters were collected for a previous ruleset with different groups or rules.
+			// they are only added to the totals
+		}
+	}
+
+	private void updateRowsPerSecond(long now)
+	{
+		if(now - intervalStart>=FLUSH_INTERVAL)
+		{
+			rowsPerSecond = (double)(rowsProcessed - intervalRows) * 1000000000L / (now - intervalStart);
+			intervalStart = now;
+			intervalRows = rowsProcessed;
+		}
+	}
+
+	/**
+	 * adds the time it took to reload the rules
+	 *
+	 * @param nanos		the time in nanoseconds
+	 */
+	synchronized void addReload(long nanos)
+	{
+		reloadCount++;
+		lastReloadNanos = nanos;
+		if(nanos>maxReloadNanos)
+		{
+			maxReloadNanos = nanos;
+		}
+	}
+
+	/**
+	 * registers the monitor with the platform MBean server, so that the counters are available
+	 * via JMX. the object name of the monitor is "com.datamelt.rules:type=BusinessRulesEngine,name="
+	 * followed by the given name.
+	 *
+	 * @param name			the name of the engine
+	 * @throws Exception	exception if the name is not valid or a monitor with the same name is already registered
+	 */
+	public synchronized void register(String name) throws Exception
+	{
+		ObjectName newObjectName = new ObjectName(OBJECT_NAME_PREFIX + name);
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, newObjectName);
+		objectName = newObjectName;
+	}
+
+	/**
+	 * removes the monitor from the platform MBean server, if it was registered
+	 *
+	 * @throws Exception	exception if the monitor can not be removed
+	 */
+	public synchronized void unregister() throws Exception
+	{
+		if(objectName!=null)
+		{
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if(server.isRegistered(objectName))
+			{
+				server.unregisterMBean(objectName);
+			}
+			objectName = null;
+		}
+	}
+
+	public synchronized long getRuleSetVersion()
+	{
+		return ruleSetVersion;
+	}
+
+	public synchronized long getRowsProcessed()
+	{
+		return rowsProcessed;
+	}
+
+	/**
+	 * returns the number of rows processed per second during the last second - or since the
+	 * rate was calculated the last time, if no rows were processed since then.
+	 *
+	 * @return	the number of rows per second
+	 */
+	public synchronized double getRowsPerSecond()
+	{
+		updateRowsPerSecond(System.nanoTime());
+		return rowsPerSecond;
+	}
+
+	/**
+	 * returns the number of rows processed per second since the monitor was created or reset
+	 *
+	 * @return	the number of rows per second
+	 */
+	public synchronized double getAverageRowsPerSecond()
+	{
+		long elapsed = System.nanoTime() - start;
+		if(elapsed<=0)
+		{
+			return 0;
+		}
+		return (double)rowsProcessed * 1000000000L / elapsed;
+	}
+
+	public synchronized long getGroupsPassed()
+	{
+		return groupsPassed;
+	}
+
+	public synchronized long getGroupsFailed()
+	{
+		return groupsFailed;
+	}
+
+	public synchronized long getGroupsSkipped()
+	{
+		return groupsSkipped;
+	}
+
+	/**
+	 * returns the ratio of the groups that failed to all groups that ran. skipped
+	 * groups are not taken into account.
+	 *
+	 * @return	the ratio between 0 and 1
+	 */
+	public synchronized double getGroupFailureRatio()
+	{
+		return getRatio(groupsFailed, groupsPassed);
+	}
+
+	public synchronized long getRulesPassed()
+	{
+		return rulesPassed;
+	}
+
+	public synchronized long getRulesFailed()
+	{
+		return rulesFailed;
+	}
+
+	public synchronized long getRulesNotEvaluated()
+	{
+		return rulesNotEvaluated;
+	}
+
+	/**
+	 * returns the ratio of the rules that failed to all rules that were evaluated
+	 *
+	 * @return	the ratio between 0 and 1
+	 */
+	public synchronized double getRuleFailureRatio()
+	{
+		return getRatio(rulesFailed, rulesPassed);
+	}
+
+	public synchronized long getActionsExecuted()
+	{
+		return actionsExecuted;
+	}
+
+	public synchronized double getLatencyMeanMicros()
+	{
+		return latencies.getMean() / 1000;
+	}
+
+	public synchronized double getLatencyMedianMicros()
+	{
+		return latencies.getValueAtPercentile(50) / 1000.0;
+	}
+
+	public synchronized double getLatency90thPercentileMicros()
+	{
+		return latencies.getValueAtPercentile(90) / 1000.0;
+	}
+
+	public synchronized double getLatency99thPercentileMicros()
+	{
+		return latencies.getValueAtPercentile(99) / 1000.0;
+	}
+
+	public synchronized double getLatency999thPercentileMicros()
+	{
+		return latencies.getValueAtPercentile(99.9) / 1000.0;
+	}
+
+	public synchronized double getLatencyMaxMicros()
+	{
+		return latencies.getMaxValue() / 1000.0;
+	}
+
+	/**
+	 * returns the number of times the rules were loaded. the engine loads the rules the same
+	 * way when it is created, so the first load is counted as well.
+	 *
+	 * @return	the number of times the rules were loaded
+	 */
+	public synchronized long getReloadCount()
+	{
+		return reloadCount;
+	}
+
+	public synchronized double getLastReloadMillis()
+	{
+		return lastReloadNanos / 1000000.0;
+	}
+
+	public synchronized double getMaxReloadMillis()
+	{
+		return maxReloadNanos / 1000000.0;
+	}
+
+	/**
+	 * returns one line for each group of the latest ruleset with the number of times the group
+	 * passed, failed and was skipped, the failure ratio and the number of actions executed
+	 *
+	 * @return	the counters of the groups
+	 */
+	public synchronized String[] getGroupStatistics()
+	{
+		if(statistics==null)
+		{
+			return new String[0];
+		}
+		String[] lines = new String[statistics.getNumberOfGroups()];
+		for(int i=0;i<lines.length;i++)
+		{
+			lines[i] = "group [" + statistics.getGroupId(i) + "] passed: " + statistics.getGroupPassedCount(i)
+				+ ", failed: " + statistics.getGroupFailedCount(i)
+				+ ", skipped: " + statistics.getGroupSkippedCount(i)
+				+ ", failure ratio: " + getRatio(statistics.getGroupFailedCount(i), statistics.getGroupPassedCount(i))
+				+ ", actions executed: " + statistics.getActionsExecutedCount(i);
+		}
+		return lines;
+	}
+
+	/**
+	 * returns one line for each rule of the latest ruleset with the number of times the rule
+	 * passed, failed and was not evaluated and the failure ratio
+	 *
+	 * @return	the counters of the rules
+	 */
+	public synchronized String[] getRuleStatistics()
+	{
+		if(statistics==null)
+		{
+			return new String[0];
+		}
+		String[] lines = new String[statistics.getNumberOfRules()];
+		for(int i=0;i<lines.length;i++)
+		{
+			lines[i] = "group [" + statistics.getGroupId(statistics.getGroupOfRule(i)) + "] subgroup [" + statistics.getSubgroupId(i) + "] rule [" + statistics.getRuleId(i) + "] passed: " + statistics.getRulePassedCount(i)
+				+ ", failed: " + statistics.getRuleFailedCount(i)
+				+ ", not evaluated: " + statistics.getRuleSkippedCount(i)
+				+ ", failure ratio: " + getRatio(statistics.getRuleFailedCount(i), statistics.getRulePassedCount(i));
+		}
+		return lines;
+	}
+
+	/**
+	 * returns the counters of the groups and rules of the latest ruleset as a report
+	 *
+	 * @return	the report
+	 */
+	public synchronized String getReport()
+	{
+		if(statistics==null)
+		{
+			return "";
+		}
+		return statistics.getReport();
+	}
+
+	/**
+	 * resets all counters to zero. counters which the sessions did not pass to the monitor yet
+	 * are counted after the reset.
+	 */
+	public synchronized void reset()
+	{
+		if(statistics!=null)
+		{
+			statistics.clear();
+		}
+		latencies.clear();
+		rowsProcessed = 0;
+		groupsPassed = 0;
+		groupsFailed = 0;
+		groupsSkipped = 0;
+		rulesPassed = 0;
+		rulesFailed = 0;
+		rulesNotEvaluated = 0;
+		actionsExecuted = 0;
+		start = System.nanoTime();
+		intervalStart = start;
+		intervalRows = 0;
+		rowsPerSecond = 0;
+		reloadCount = 0;
+		lastReloadNanos = 0;
+		maxReloadNanos = 0;
+	}
+
+	private static double getRatio(long failed, long passed)
+	{
+		if(failed + passed==0)
+		{
+			return 0;
+		}
+		return (double)failed / (failed + passed);
+	}
+
+	/**
+	 * counts the rows and the outcome of the groups and rules of one session. the recorder is
+	 * used by the thread of the session only and passes its counters to the monitor from time to time.
+	 */
+	static final class Recorder
+	{
+		private final RuleEngineMonitor monitor;
+		private final long ruleSetVersion;
+		private final RuleStatistics statistics;
+		private final LatencyHistogram latencies = new LatencyHistogram();
+		private long rows;
+		private long lastFlush = System.nanoTime();
+
+		private Recorder(RuleEngineMonitor monitor, long ruleSetVersion, RuleStatistics statistics)
+		{
+			this.monitor = monitor;
+			this.ruleSetVersion = ruleSetVersion;
+			this.statistics = statistics;
+		}
+
+		RuleEngineMonitor getMonitor()
+		{
+			return monitor;
+		}
+
+		void addGroup(RuleGroup group)
+		{
+			statistics.addGroup(group);
+		}
+
+		void addSkippedGroup(RuleGroup group)
+		{
+			statistics.addSkippedGroup(group);
+		}
+
+		/**
+		 * counts a row the rules ran for
+		 *
+		 * @param start		the time the rules started to run in nanoseconds
+		 * @param end		the time the rules finished in nanoseconds
+		 */
+		void addRow(long start, long end)
+		{
+			latencies.record(end - start);
+			rows++;
+			if(rows>=FLUSH_ROWS || end - lastFlush>=FLUSH_INTERVAL)
+			{
+				flush();
+			}
+		}
+
+		/**
+		 * passes the counters to the monitor and resets them
+		 */
+		void flush()
+		{
+			monitor.add(this);
+			statistics.clear();
+			latencies.clear();
+			rows = 0;
+			lastFlush = System.nanoTime();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.engine;
+
+/**
+ * management interface of the RuleEngineMonitor, which exposes the counters of a
+ * BusinessRulesEngine and all its sessions via JMX.
+ *
+ * @see RuleEngineMonitor
+ */
+public interface RuleEngineMonitorMBean
+{
+	long getRuleSetVersion();
+
+	long getRowsProcessed();
+
+	double getRowsPerSecond();
+
+	double getAverageRowsPerSecond();
+
+	long getGroupsPassed();
+
+	long getGroupsFailed();
+
+	long getGroupsSkipped();
+
+	double getGroupFailureRatio();
+
+	long getRulesPassed();
+
+	long getRulesFailed();
+
+	long getRulesNotEvaluated();
+
+	double getRuleFailureRatio();
+
+	long getActionsExecuted();
+
+	double getLatencyMeanMicros();
+
+	double getLatencyMedianMicros();
+
+	double getLatency90thPercentileMicros();
+
+	double getLatency99thPercentileMicros();
+
+	double getLatency999thPercentileMicros();
+
+	double getLatencyMaxMicros();
+
+	long getReloadCount();
+
+	double getLastReloadMillis();
+
+	double getMaxReloadMillis();
+
+	String[] getGroupStatistics();
+
+	String[] getRuleStatistics();
+
+	String getReport();
+
+	void reset();
+}
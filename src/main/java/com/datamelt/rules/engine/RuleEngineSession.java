@@ -0,0 +1,1266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.engine;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.datamelt.rules.core.RuleExecutionCollection;
+import com.datamelt.rules.core.RuleExpressionCache;
+import com.datamelt.rules.core.RuleGroup;
+import com.datamelt.rules.core.util.MappingCollection;
+import com.datamelt.util.RowBatch;
+import com.datamelt.util.RowFieldCollection;
+import com.datamelt.util.RuleGroupDependencyGraph;
+import com.datamelt.util.Splitter;
+
+/**
+ * a session runs the rules of a compiled ruleset against objects.
+ * <p>
+ * the session holds its own copies of the rulegroups and subgroups of the ruleset,
+ * the results of the execution of the rules and the counters. the compiled rules
+ * themselves are shared with the ruleset and all other sessions created from it.
+ * <p>
+ * a session is not thread-safe and must only be used by one thread at a time. to run
+ * rules from multiple threads, create one session per thread - either from the
+ * ruleset or from the BusinessRulesEngine.
+ *
+ * @see CompiledRuleSet
+ * @see BusinessRulesEngine#createSession()
+ */
+public class RuleEngineSession
+{
+	// the ruleset this session was created from
+	private CompiledRuleSet ruleSet;
+
+	// copies of the groups of the ruleset. these carry the execution results of the session
+	private ArrayList<RuleGroup> groups = new ArrayList<RuleGroup>();
+	// the group each group depends on - by the position of the group. null if there is none
+	private RuleGroup[] dependentGroups;
+	// stages of groups which can run at the same time
+	private int[][] stages;
+	// executor used to run the groups of a stage at the same time. null to run the groups sequentially
+	private ExecutorService groupExecutor;
+	// values and results shared by multiple rules for the current object
+	private RuleExpressionCache expressionCache;
+
+	// indicator if the session ran
+	private int status;
+
+	// this label will be used - together with a running number - for all objects (that are to be tested)
+	// to identify them in the output
+	private String objectsLabel = OBJECT_LABEL_DEFAULT;
+
+	// used for formatting the running number for the objectlabel during output
+	private String objectsLabelNumberFormat = OBJECT_LABEL_NUMBERFORMAT_DEFAULT;
+	// number of digits, if the number format only pads the number with zeros
+	private int objectsLabelNumberPadding = OBJECT_LABEL_NUMBERFORMAT_DEFAULT.length();
+	// used for formatting the running number, if it is not simply padded with zeros
+	private DecimalFormat objectsLabelDecimalFormat;
+
+	// type of output that is written
+	private int outputType = BusinessRulesEngine.OUTPUT_TYPE_FAILED_ONLY;
+	// indicates if the output type was set. only then the results are filtered when they are collected
+	private boolean outputTypeSet=false;
+
+	// used for putting a timestamp in the output
+	private String timestampFormat = TIMESTAMP_FORMAT_DEFAULT;
+
+	// the collection of mappings. contains key/values from multiple mapping files
+	private MappingCollection mappingCollection = new MappingCollection();
+	// contains the results of the execution of the rules
+	private RuleExecutionCollection executionCollection = new RuleExecutionCollection();
+	// indicated if the results of the rule execution should be kept
+	private boolean preserveRuleExcecutionResults=true;
+	// stop evaluating the rules of all groups once the outcome of a group is decided
+	private boolean shortCircuit=false;
+	// counters for the groups and rules, if only statistics are collected. null otherwise
+	private RuleStatistics statistics;
+	// counts the rows and passes the counters to the monitor of the engine. null if not monitored
+	private RuleEngineMonitor.Recorder monitorRecorder;
+
+	private static final String TIMESTAMP_FORMAT_DEFAULT          = "yyyy-MM-dd HH:mm:ss";
+	private static final String OBJECT_LABEL_DEFAULT              = "object";
+	private static final String OBJECT_LABEL_NUMBERFORMAT_DEFAULT = "0000000000";
+
+	// status of the session
+	private static final int STATUS_SESSION_EXECUTED              = 1;
+
+	/**
+	 * creates a new session for the given ruleset.
+	 *
+	 * @param ruleSet	the compiled ruleset
+	 */
+	public RuleEngineSession(CompiledRuleSet ruleSet)
+	{
+		this.ruleSet = ruleSet;
+		List<RuleGroup> ruleSetGroups = ruleSet.getGroups();
+		for(int i=0;i<ruleSetGroups.size();i++)
+		{
+			groups.add(new RuleGroup(ruleSetGroups.get(i)));
+		}
+		// resolve the dependencies between the groups of the session once
+		RuleGroupDependencyGraph dependencyGraph = ruleSet.getDependencyGraph();
+		dependentGroups = new RuleGroup[groups.size()];
+		for(int i=0;i<groups.size();i++)
+		{
+			int dependencyIndex = dependencyGraph.getDependencyIndex(i);
+			if(dependencyIndex!=RuleGroupDependencyGraph.NO_DEPENDENCY)
+			{
+				dependentGroups[i] = groups.get(dependencyIndex);
+			}
+		}
+		stages = dependencyGraph.getStages();
+		expressionCache = new RuleExpressionCache(ruleSet.getExpressionIndex());
+	}
+
+	/**
+	 * returns the ruleset this session was created from
+	 *
+	 * @return	the compiled ruleset
+	 */
+	public CompiledRuleSet getRuleSet()
+	{
+		return ruleSet;
+	}
+
+	/**
+	 * method runs the rules for all groups and subgroups
+	 * against the object with the given label
+	 *
+	 * if an executor for the groups is set, groups that do not depend on each other and do not
+	 * have actions are run at the same time. the results are collected in the order of the groups
+	 * in any case.
+	 *
+	 * @param		objectLabel		the label to use for the object
+	 * @param		object			the actual object to use
+	 * @throws		Exception		exception running the rule against the object
+	 */
+	public void run(String objectLabel, Object object)throws Exception
+	{
+		status = STATUS_SESSION_EXECUTED;
+		long start = monitorRecorder!=null ? System.nanoTime() : 0;
+		// values and results of the previous object are not valid anymore
+		expressionCache.clear();
+
+		if(groupExecutor==null)
+		{
+			for(int i=0;i<groups.size();i++)
+			{
+				// get the next group
+				RuleGroup group = groups.get(i);
+
+				// apply settings of the session to the group
+				applyGroupSettings(group);
+				// run the group
+				run(i,group,objectLabel,object);
+			}
+		}
+		else
+		{
+			for(int i=0;i<stages.length;i++)
+			{
+				runStage(stages[i],objectLabel,object);
+			}
+		}
+		if(monitorRecorder!=null)
+		{
+			monitorRecorder.addRow(start, System.nanoTime());
+		}
+	}
+
+	/**
+	 * runs the groups of one stage at the same time using the executor for the groups.
+	 * the groups of a stage do not depend on each other and do not have actions.
+	 *
+	 * @param		stage			the indexes of the groups of the stage
+	 * @param		objectLabel		the label to use for the object
+	 * @param		object			the actual object to use
+	 * @throws		Exception		exception running the rule against the object
+	 */
+	private void runStage(int[] stage, final String objectLabel, final Object object) throws Exception
+	{
+		if(stage.length==1)
+		{
+			RuleGroup group = groups.get(stage[0]);
+			applyGroupSettings(group);
+			run(stage[0],group,objectLabel,object);
+			return;
+		}
+
+		// check the dependencies first. the groups the groups of the stage depend on ran in a previous stage
+		ArrayList<RuleGroup> stageGroups = new ArrayList<RuleGroup>();
+		for(int i=0;i<stage.length;i++)
+		{
+			RuleGroup group = groups.get(stage[i]);
+			applyGroupSettings(group);
+			if(prepareGroup(group, dependentGroups[stage[i]]))
+			{
+				stageGroups.add(group);
+			}
+		}
+
+		// all groups except the first one are run by the executor, the first one by the current thread
+		ArrayList<Future<Object>> futures = new ArrayList<Future<Object>>();
+		for(int i=1;i<stageGroups.size();i++)
+		{
+			final RuleGroup group = stageGroups.get(i);
+			futures.add(groupExecutor.submit(new Callable<Object>()
+			{
+				public Object call() throws Exception
+				{
+					group.runRules(objectLabel, object, shortCircuit || group.getShortCircuit());
+					return null;
+				}
+			}));
+		}
+		Exception exception = null;
+		try
+		{
+			if(stageGroups.size()>0)
+			{
+				// only the current thread uses the cache of shared values and results
+				RuleGroup group = stageGroups.get(0);
+				group.runRules(objectLabel, object, shortCircuit || group.getShortCircuit(), expressionCache);
+			}
+		}
+		catch(Exception ex)
+		{
+			exception = ex;
+		}
+		// wait for all groups to finish - also in case of an exception - because they use the object
+		for(int i=0;i<futures.size();i++)
+		{
+			try
+			{
+				futures.get(i).get();
+			}
+			catch(ExecutionException ex)
+			{
+				if(exception==null)
+				{
+					exception = ex.getCause() instanceof Exception ? (Exception)ex.getCause() : ex;
+				}
+			}
+		}
+		if(exception!=null)
+		{
+			throw exception;
+		}
+
+		// collect the results in the order of the groups
+		for(int i=0;i<stageGroups.size();i++)
+		{
+			collectGroupResults(stageGroups.get(i));
+		}
+	}
+
+	/**
+	 * method runs the rules for a given rule group by specifying the group id.
+	 * against the object with the given label.
+	 *
+	 * Only the given rulegroup will be executed. Note that if the given rulegroup depends
+	 * on another group result (passed/failed), then that rulegroup shall be execute first.
+	 *
+	 * The compare of the rulegroup name is not case sensitive.
+	 *
+	 * @param		rulegroupName	the name of the rulegroup to run
+	 * @param		objectLabel		the label to use for the object
+	 * @param		object			the actual object to use
+	 * @throws		Exception		exception running the rule against the object
+	 */
+	public void run(String rulegroupName, String objectLabel, Object object)throws Exception
+	{
+		status = STATUS_SESSION_EXECUTED;
+		// values and results of the previous object are not valid anymore
+		expressionCache.clear();
+
+		for(int i=0;i<groups.size();i++)
+		{
+			// get the next group
+			RuleGroup group = groups.get(i);
+
+			// check if the name of the group corresponds to the specified name
+			if(group.getId().toLowerCase().equals(rulegroupName.toLowerCase()))
+			{
+				// apply settings of the session to the group
+				applyGroupSettings(group);
+				// run the group
+				run(i,group,objectLabel,object);
+			}
+		}
+	}
+
+	/**
+	 * method runs the rules for a given array of rule groups by specifying the group names.
+	 * against the object with the given label.
+	 *
+	 * The rulegroups will be executed in the order that they appear in the project zip file, but
+	 * in any case those groups other groups depend on are executed first.
+	 *
+	 * Only the given rulegroup will be executed. Note that if the given rulegroup depends
+	 * on another group result (passed/failed), then that rulegroup shall be execute first.
+	 *
+	 * The compare of the rulegroup name is not case sensitive.
+	 *
+	 * @param		rulegroupNames	array of names of the rulegroups to run
+	 * @param		objectLabel		the label to use for the object
+	 * @param		object			the actual object to use
+	 * @throws		Exception		exception running the rule against the object
+	 */
+	public void run(String[] rulegroupNames, String objectLabel, Object object)throws Exception
+	{
+		status = STATUS_SESSION_EXECUTED;
+		// values and results of the previous object are not valid anymore
+		expressionCache.clear();
+
+		for(int i=0;i<groups.size();i++)
+		{
+			// get the next group
+			RuleGroup group = groups.get(i);
+
+			// loop over the array of rule groups
+			for(int j=0;j<rulegroupNames.length;j++)
+			{
+				String rulegroupName = rulegroupNames[j];
+				// check if the name of the group corresponds to the specified name
+				if(group.getId().toLowerCase().equals(rulegroupName.toLowerCase()))
+				{
+					// apply settings of the session to the group
+					applyGroupSettings(group);
+					// run the group
+					run(i,group,objectLabel,object);
+				}
+			}
+		}
+	}
+
+	/**
+	 * method runs the rules for a given rule group against the object with the given label.
+	 *
+	 * if you run a single rule group and it is depending on another rule group
+	 * make sure that the rule group it depends on is run first - a check on the result
+	 * of the group it depends on (passed/failed) will be made in this method to determine if the
+	 * rule group should run.
+	 *
+	 * the group must be one of the groups of this session.
+	 *
+	 * @param		group			the rule group to run
+	 * @param		objectLabel		the label to use for the object
+	 * @param		object			the actual object to use
+	 * @throws		Exception		exception running the rule against the object
+	 */
+	public void run(RuleGroup group, String objectLabel, Object object)throws Exception
+	{
+		expressionCache.clear();
+		run(groups.indexOf(group),group,objectLabel,object);
+	}
+
+	/**
+	 * runs the given rule group, which is at the given position in the list of groups of the session
+	 *
+	 * @param		index			the position of the group. -1 if the group is not one of the groups of the session
+	 * @param		group			the rule group to run
+	 * @param		objectLabel		the label to use for the object
+	 * @param		object			the actual object to use
+	 * @throws		Exception		exception running the rule against the object
+	 */
+	private void run(int index, RuleGroup group, String objectLabel, Object object)throws Exception
+	{
+		// the dependency of the groups of the session is already resolved
+		RuleGroup dependentRuleGroup;
+		if(index>=0)
+		{
+			dependentRuleGroup = dependentGroups[index];
+		}
+		else
+		{
+			dependentRuleGroup = getGroupById(group.getDependentRuleGroupId());
+		}
+		if(prepareGroup(group, dependentRuleGroup))
+		{
+			applyGroupSettings(group);
+			group.runRules(objectLabel, object, shortCircuit || group.getShortCircuit(), expressionCache);
+			collectGroupResults(group);
+		}
+	}
+
+	/**
+	 * prepares the given group to run and checks if it shall run, depending on the
+	 * result of the group it depends on
+	 *
+	 * @param		group				the rule group to run
+	 * @param		dependentRuleGroup	the group the rule group depends on. null if there is none
+	 * @return							indicator if the group shall run
+	 */
+	private boolean prepareGroup(RuleGroup group, RuleGroup dependentRuleGroup)
+	{
+		// we reset the skipped flag of the group here
+		// a group may be skipped if it depends on another rulegroup
+		// and that groups execution result is not as expected
+		group.setSkipped(0);
+
+		// set the collection of maps containing key/value pairs
+		group.setMappingCollection(mappingCollection);
+
+		// per default each rulegroup will be run
+		boolean runGroup = true;
+		// check if we have a dependent rulegroup
+		if(group.getDependentRuleGroupId()!=null && !group.getDependentRuleGroupId().equals(""))
+		{
+			// don't run the group if the dependent group does not exist or does not have the correct status (passed/failed)
+			if(dependentRuleGroup!=null && dependentRuleGroup.getFailed()!=group.getDependentRuleGroupExecuteIf())
+			{
+				runGroup= false;
+				group.setSkipped(1);
+				// increase the counter for the skipped rule groups
+				executionCollection.increaseSkippedGroupCount();
+				if(statistics!=null)
+				{
+					statistics.addSkippedGroup(group);
+				}
+				if(monitorRecorder!=null)
+				{
+					monitorRecorder.addSkippedGroup(group);
+				}
+			}
+		}
+		return runGroup;
+	}
+
+	/**
+	 * adds the results and counters of the given group - which ran before - to the
+	 * execution collection of the session
+	 *
+	 * @param		group		the rule group that ran
+	 */
+	private void collectGroupResults(RuleGroup group)
+	{
+		if(group.getFailed()==1) // group failed
+		{
+			// increase the counter of failed groups
+			executionCollection.increaseFailedGroupCount();
+		}
+		else
+		{
+			// increase the counter of failed groups
+			executionCollection.increasePassedGroupCount();
+
+		}
+		// execution results will be added unless the preserveRuleExcecutionResults is set to false.
+		// the results are created by the subgroups only when requested here
+		if(preserveRuleExcecutionResults)
+		{
+			executionCollection.addAll(group.getResults());
+		}
+		if(statistics!=null)
+		{
+			statistics.addGroup(group);
+		}
+		if(monitorRecorder!=null)
+		{
+			monitorRecorder.addGroup(group);
+		}
+		// add the number of executed actions by the rulegroup
+		executionCollection.addNumberOfActionsExecuted(group.getNumberOfActionsExecuted());
+		executionCollection.addNumberOfRulesRun(group.getNumberOfRulesRun());
+		executionCollection.addNumberOfRulesFailed(group.getNumberOfRulesFailed());
+		executionCollection.addNumberOfRulesPassed(group.getNumberOfRulesPassed());
+		executionCollection.addNumberOfRulesNotEvaluated(group.getNumberOfRulesNotEvaluated());
+	}
+
+	/**
+	 * method runs the rules for all groups and subgroups
+	 * for all objects of the collection.
+	 * objectLabel is used to label the result of a rule in the output
+	 * so that it can be identified.
+	 *
+	 * @param		objects			a collection of objects to run the rule against
+	 * @throws		Exception		exception running the rule against the object
+	 */
+	public void run(Collection<Object> objects) throws Exception
+	{
+		status = STATUS_SESSION_EXECUTED;
+		int i=0;
+		for(Iterator<Object> iterator = objects.iterator(); iterator.hasNext(); )
+		{
+			Object object = iterator.next();
+			run(getObjectLabel(i), object);
+			i++;
+		}
+		flushMonitor();
+	}
+
+	/**
+	 * method runs the rules for all groups and subgroups
+	 * for all rows of the batch. the rules run against a cursor
+	 * of the batch, which is moved from row to row. the rows are
+	 * labeled the same way as the objects of a collection.
+	 *
+	 * @param		batch			a batch of rows to run the rules against
+	 * @throws		Exception		exception running the rule against a row
+	 */
+	public void run(RowBatch batch) throws Exception
+	{
+		status = STATUS_SESSION_EXECUTED;
+		RowBatch.Cursor cursor = batch.getCursor();
+		while(cursor.next())
+		{
+			run(getObjectLabel(cursor.getRow()), cursor);
+		}
+		flushMonitor();
+	}
+
+	/**
+	 * method runs the rules for all groups and subgroups
+	 * against the object.
+	 * a default label for the objects will be used.
+	 *
+	 * @param		object		the object to run the rule against
+	 * @exception	Exception	exception when the rule could not be run
+	 */
+	public void run(Object object)throws Exception
+	{
+		status = STATUS_SESSION_EXECUTED;
+		run(getObjectLabel(0), object);
+	}
+
+	/**
+	 * method runs the rules for all groups and subgroups.
+	 * the csv file is parsed, split into rows and fields
+	 * using the defined field separator.
+	 *
+	 * @param		csvfileName		the CSV file to use
+	 * @param		fieldSeperator	the separator between the fields/columns in the csv file
+	 * @throws		Exception		exception running the rule against the object
+	 */
+	public void run(String csvfileName,String fieldSeperator) throws Exception
+	{
+		status = STATUS_SESSION_EXECUTED;
+		// reader for the data file
+		BufferedReader reader = new BufferedReader(new FileReader(csvfileName));
+		String line;
+
+		// counts number of lines in data file
+		long counter=0;
+
+		// splitter object will split the row from the datafile into
+		// its fields using the default semicolon (;) separator
+		Splitter splitter = new Splitter(Splitter.TYPE_COMMA_SEPERATED, fieldSeperator);
+
+		while ((line=reader.readLine())!=null)
+		{
+			// only if the line is not empty
+			// and does not start with a hash sign (comment).
+			// otherwise the line will be NOT be processed nor counted!
+			if(!line.trim().equals("") && !line.startsWith("#"))
+			{
+				line = line.replace("\"","");
+				// get a row object containing the fields and data
+				RowFieldCollection row = splitter.getRowFieldCollection(line);
+				// run rules on this data
+				run("row: " + counter, row);
+				counter++;
+			}
+		}
+		reader.close();
+		flushMonitor();
+	}
+
+	/**
+	 * returns the label for the object with the given running number. the label
+	 * consists of the objects label and the running number, formatted using the
+	 * objects label number format.
+	 *
+	 * @param	number	the running number of the object
+	 * @return			the label of the object
+	 */
+	String getObjectLabel(long number)
+	{
+		String label = objectsLabel;
+		if(label !=null && !label.trim().equals(""))
+		{
+			label = label + " [" + formatObjectLabelNumber(number) + "]";
+		}
+		return label;
+	}
+
+	/**
+	 * formats the running number of an object label. if the number format only consists of
+	 * zeros - like the default format - the number is simply padded with leading zeros,
+	 * otherwise a DecimalFormat is used, which is created once for the session.
+	 *
+	 * @param	number	the running number of the object
+	 * @return			the formatted number
+	 */
+	private String formatObjectLabelNumber(long number)
+	{
+		if(objectsLabelNumberPadding>0 && number>=0)
+		{
+			String value = String.valueOf(number);
+			if(value.length()>=objectsLabelNumberPadding)
+			{
+				return value;
+			}
+			StringBuilder buffer = new StringBuilder(objectsLabelNumberPadding);
+			for(int i=value.length();i<objectsLabelNumberPadding;i++)
+			{
+				buffer.append('0');
+			}
+			return buffer.append(value).toString();
+		}
+		if(objectsLabelDecimalFormat==null)
+		{
+			objectsLabelDecimalFormat = new DecimalFormat(objectsLabelNumberFormat);
+		}
+		return objectsLabelDecimalFormat.format(number);
+	}
+
+	/**
+	 * returns the number of digits, if the number format consists of zeros only, otherwise -1
+	 *
+	 * @param	format	the number format
+	 * @return			number of digits or -1
+	 */
+	private static int getZeroPadding(String format)
+	{
+		if(format==null || format.length()==0)
+		{
+			return -1;
+		}
+		for(int i=0;i<format.length();i++)
+		{
+			if(format.charAt(i)!='0')
+			{
+				return -1;
+			}
+		}
+		return format.length();
+	}
+
+	/**
+	 * applies settings of the session to one rulegroup
+	 *
+	 * @param	group	a rulegroup
+	 */
+	private void applyGroupSettings(RuleGroup group)
+	{
+		group.setTimestampFormat(timestampFormat);
+		group.setOutputType(getRetainedOutputType());
+		group.setPreserveRuleExcecutionResults(preserveRuleExcecutionResults);
+	}
+
+	/**
+	 *  clears/empties the collection of execution results which are created when running the session.
+	 *
+	 *  also clears all statistics collected such as number of rules, number of groups and rules failed, etc.
+	 */
+	public void clear()
+	{
+		executionCollection.clear();
+	}
+
+	/**
+	 * takes over the execution results, the counters, the status and the statistics of the given session.
+	 * this is used when the rules are reloaded: the session for the new ruleset continues where
+	 * the session for the previous ruleset stopped.
+	 *
+	 * the statistics are carried over for the groups and rules which are also part of the new ruleset.
+	 *
+	 * @param	session		the session to take over the results and counters from
+	 */
+	public void takeOver(RuleEngineSession session)
+	{
+		// the counters the previous session did not pass to the monitor yet
+		session.flushMonitor();
+		// the settings of this session apply to the collection from now on
+		boolean preserveResults = getPreserveRuleExcecutionResults();
+		executionCollection = session.executionCollection;
+		executionCollection.setOutputType(getRetainedOutputType());
+		executionCollection.setPreserveRuleExcecutionResults(preserveResults);
+		status = session.status;
+		if(statistics!=null && session.statistics!=null)
+		{
+			statistics.addCounters(session.statistics);
+		}
+	}
+
+	/**
+	 * method returns a collection of results from all groups and subgroups
+	 *
+	 * @return	collection of rule execution results
+	 */
+	public RuleExecutionCollection getRuleExecutionCollection()
+	{
+		return executionCollection;
+	}
+
+	/**
+	 * method returns a boolean indicating if the rule group failed.
+	 * in case a group with the given id is not found returns false.
+	 *
+	 * @param	groupId		the id of the group
+	 * @return				indicator if the rule group failed
+	 */
+	public boolean getRuleGroupFailed(String groupId)
+	{
+		boolean failed = false;
+		for(int i=0;i<groups.size();i++)
+		{
+			RuleGroup group = groups.get(i);
+			if(group.getId().toLowerCase().equals(groupId.toLowerCase()))
+			{
+				failed = group.getFailed()==1;
+				break;
+			}
+		}
+		return failed;
+	}
+
+	/**
+	 * checks if any - at least one - of the groups in an array of rule group ids failed.
+	 *
+	 * @param	 groupIds	an array of group ids
+	 * @return				indicator if any of the groups failed
+	 */
+	public boolean getRuleGroupsFailed(String[] groupIds)
+	{
+		boolean failed = false;
+		for(int i=0;i<groupIds.length;i++)
+		{
+			if(getRuleGroupFailed(groupIds[i]))
+			{
+				failed = true;
+			}
+		}
+		return failed;
+	}
+
+	/**
+	 * method returns a boolean indicating if the rule group exists.
+	 *
+	 * @param	groupId		the id of the group
+	 * @return				indicator if the rule group exists
+	 */
+	public boolean getRuleGroupExists(String groupId)
+	{
+		boolean exists = false;
+		for(int i=0;i<groups.size();i++)
+		{
+			RuleGroup group = groups.get(i);
+			if(group.getId().toLowerCase().equals(groupId.toLowerCase()))
+			{
+				exists = true;
+				break;
+			}
+		}
+		return exists;
+	}
+
+	/**
+	 * method returns the list of groups of this session. after running the session
+	 * the groups carry the execution results.
+	 *
+	 * @return	list of rulegroups
+	 */
+	public ArrayList<RuleGroup> getGroups()
+	{
+		return groups;
+	}
+
+	/**
+	 * method returns the a group of this session identified by it's id
+	 *
+	 * @param	groupId	the id of the group
+	 * @return			the rulegroup
+	 */
+	public RuleGroup getGroupById(String groupId)
+	{
+		for(int i=0;i< groups.size();i++)
+		{
+			RuleGroup group = groups.get(i);
+			if(group.getId().equals(groupId))
+			{
+				return group;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * method returns the number of rules from all groups and subgroups
+	 *
+	 * @return	number of rules
+	 */
+	public long getNumberOfRules()
+	{
+		int count = 0;
+		for(int i=0;i<groups.size();i++)
+		{
+			count = count + groups.get(i).getNumberOfRules();
+		}
+		return count;
+	}
+
+	/**
+	 * method returns the number of actions from all groups
+	 *
+	 * @return	number of actions
+	 */
+	public long getNumberOfActions()
+	{
+		int count = 0;
+		for(int i=0;i<groups.size();i++)
+		{
+			count = count + groups.get(i).getNumberOfActions();
+		}
+		return count;
+	}
+
+	/**
+	 * method returns the number of actions that were executed
+	 *
+	 * @return	number of actions executed
+	 */
+	public long getNumberOfActionsExecuted()
+	{
+		return executionCollection.getActionsExecutedCount();
+	}
+
+	/**
+	 * method returns the number of failed rules from all groups and subgroups
+	 *
+	 * @return number of failed rules
+	 */
+	public long getNumberOfRulesFailed()
+	{
+		return executionCollection.getRulesFailedCount();
+	}
+
+	/**
+	 * method returns the number of passed rules from all groups and subgroups
+	 *
+	 * @return number of passed rules
+	 */
+	public long getNumberOfRulesPassed()
+	{
+		return executionCollection.getRulesPassedCount();
+	}
+
+	/**
+	 * method returns the number of rules from all groups and subgroups that were not
+	 * evaluated, because the outcome of their subgroup or group was already decided
+	 *
+	 * @return number of rules not evaluated
+	 */
+	public long getNumberOfRulesNotEvaluated()
+	{
+		return executionCollection.getRulesNotEvaluatedCount();
+	}
+
+	/**
+	 * method returns the number of groups that failed
+	 *
+	 * @return	number of groups failed
+	 */
+	public long getNumberOfGroupsFailed()
+	{
+		return executionCollection.getFailedGroupsCount();
+	}
+
+	/**
+	 * method returns the number of groups that passed
+	 *
+	 * @return 	number of passed groups
+	 */
+	public long getNumberOfGroupsPassed()
+	{
+		return executionCollection.getPassedGroupsCount();
+	}
+
+	/**
+	 * method returns the number of groups that were skipped.
+	 *
+	 * @return 	number of skipped groups
+	 */
+	public long getNumberOfGroupsSkipped()
+	{
+		return executionCollection.getSkippedGroupsCount();
+	}
+
+	/**
+	 * method returns the total number of groups
+	 *
+	 * @return 	number of groups
+	 */
+	public long getNumberOfGroups()
+	{
+		return groups.size();
+	}
+
+	/**
+	 * method returns the total number of executed groups - excluding the skipped groups
+	 *
+	 * @return 	number of executed groups
+	 */
+	public long getNumberOfExecutedGroups()
+	{
+		return groups.size() - getNumberOfGroupsSkipped();
+	}
+
+	/**
+	 * evaluates if the specified mode is true or false in regards to
+	 * the number of rulegroups passed or failed.
+	 *
+	 * returns always true when the number of rulegroups is zero.
+	 *
+	 * @param mode		the desired mode to compare to
+	 * @return			indicator if the mode is true or false
+	 * @see BusinessRulesEngine#getRuleGroupsStatus(int)
+	 */
+	public boolean getRuleGroupsStatus(int mode)
+	{
+		if(getNumberOfGroups()>0)
+		{
+			if(mode==BusinessRulesEngine.RULEGROUP_STATUS_MODE_AT_LEAST_ONE_FAILED)
+			{
+				return getNumberOfGroupsFailed()>0;
+			}
+			else if(mode==BusinessRulesEngine.RULEGROUP_STATUS_MODE_ALL_FAILED)
+			{
+				return getNumberOfGroupsPassed()==0;
+			}
+			else if(mode==BusinessRulesEngine.RULEGROUP_STATUS_MODE_NOT_ALL_FAILED)
+			{
+				return getNumberOfGroupsFailed()<getNumberOfGroups();
+			}
+			else if(mode==BusinessRulesEngine.RULEGROUP_STATUS_MODE_AT_LEAST_ONE_PASSED)
+			{
+				return getNumberOfGroupsPassed()>0;
+			}
+			else if(mode==BusinessRulesEngine.RULEGROUP_STATUS_MODE_ALL_PASSED)
+			{
+				return getNumberOfGroupsFailed()==0;
+			}
+			else if(mode==BusinessRulesEngine.RULEGROUP_STATUS_MODE_NOT_ALL_PASSED)
+			{
+				return getNumberOfGroupsPassed()<getNumberOfGroups();
+			}
+			else
+			{
+				return false;
+			}
+		}
+		else
+		{
+			return true;
+		}
+	}
+
+	/**
+	 * marks the session as executed. this is used when the objects were run by other sessions
+	 * and their results and counters were merged into the collection of this session.
+	 */
+	void setExecuted()
+	{
+		status = STATUS_SESSION_EXECUTED;
+	}
+
+	/**
+	 * returns if the method: 'run' has been invoked or not,
+	 * meaning if the session ran or not.
+	 *
+	 * @return the status of the session
+	 */
+	public boolean getStatus()
+	{
+		return status==STATUS_SESSION_EXECUTED;
+	}
+
+	/**
+	 * returns a string representing the rule logic for the specified group
+	 *
+	 * @param		groupId			the id of the group
+	 * @return 						the rule logic in a textual form
+	 * @exception	Exception		exception when the logic could not be constructed
+	 */
+	public String getRuleLogic(String groupId) throws Exception
+	{
+		RuleGroup group = getGroupById(groupId);
+		if(group!=null)
+		{
+			return group.getRuleLogic();
+		}
+		else
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * indicator if the execution results should be preserved or not
+	 *
+	 * @return indicator if results are preserved
+	 */
+	public boolean getPreserveRuleExcecutionResults()
+	{
+		return executionCollection.getPreserveRuleExcecutionResults();
+	}
+
+	/**
+	 * indicator if the execution results should be preserved or not
+	 *
+	 * @param	preserveRuleExcecutionResults indicator if results shall be preserved
+	 */
+	public void setPreserveRuleExcecutionResults(boolean preserveRuleExcecutionResults)
+	{
+		this.preserveRuleExcecutionResults = preserveRuleExcecutionResults;
+		executionCollection.setPreserveRuleExcecutionResults(preserveRuleExcecutionResults);
+	}
+
+	/**
+	 * indicator if only statistics are collected
+	 *
+	 * @return indicator if only statistics are collected
+	 */
+	public boolean getStatisticsOnly()
+	{
+		return statistics!=null;
+	}
+
+	/**
+	 * sets if only statistics are collected when the rules run. in this mode no results are kept
+	 * for the rules: the number of passed, failed and skipped rules and groups and the number of
+	 * executed actions are counted for each rule and group instead - see getStatistics().
+	 *
+	 * the counters of the execution collection are kept in both modes. if set to false, the
+	 * statistics are discarded and the results are kept again.
+	 *
+	 * @param	statisticsOnly	indicator if only statistics are collected
+	 */
+	public void setStatisticsOnly(boolean statisticsOnly)
+	{
+		if(statisticsOnly)
+		{
+			if(statistics==null)
+			{
+				statistics = new RuleStatistics(groups);
+			}
+		}
+		else
+		{
+			statistics = null;
+		}
+		setPreserveRuleExcecutionResults(!statisticsOnly);
+	}
+
+	/**
+	 * returns the statistics collected for the rules and groups of the session. the counters
+	 * are added up over all runs until they are cleared using the clear method of the statistics.
+	 *
+	 * @return	the statistics or null, if the session does not collect statistics
+	 */
+	public RuleStatistics getStatistics()
+	{
+		return statistics;
+	}
+
+	/**
+	 * returns the monitor the counters of the session are passed to
+	 *
+	 * @return	the monitor or null, if the session is not monitored
+	 */
+	public RuleEngineMonitor getMonitor()
+	{
+		return monitorRecorder!=null ? monitorRecorder.getMonitor() : null;
+	}
+
+	/**
+	 * sets the monitor the number of rows, the outcome of the groups and rules and the time it takes
+	 * to run the rules are passed to. the counters are passed to the monitor from time to time and
+	 * when flushMonitor() is called. set to null to stop monitoring the session.
+	 *
+	 * @param	monitor		the monitor or null
+	 */
+	public void setMonitor(RuleEngineMonitor monitor)
+	{
+		flushMonitor();
+		if(monitor!=null)
+		{
+			monitorRecorder = monitor.createRecorder(ruleSet.getVersion(), groups);
+		}
+		else
+		{
+			monitorRecorder = null;
+		}
+	}
+
+	/**
+	 * passes the counters collected since the last time to the monitor of the session. this
+	 * is done automatically after a number of rows and at the end of a collection or batch of rows.
+	 */
+	public void flushMonitor()
+	{
+		if(monitorRecorder!=null)
+		{
+			monitorRecorder.flush();
+		}
+	}
+
+	public String getObjectsLabel()
+	{
+		return objectsLabel;
+	}
+
+	public void setObjectsLabel(String objectsLabel)
+	{
+		this.objectsLabel = objectsLabel;
+	}
+
+	public String getObjectLabelNumberFormat()
+	{
+		return objectsLabelNumberFormat;
+	}
+
+	public void setObjectLabelNumberFormat(String format)
+	{
+		this.objectsLabelNumberFormat = format;
+		this.objectsLabelNumberPadding = getZeroPadding(format);
+		this.objectsLabelDecimalFormat = null;
+	}
+
+	public int getOutputType()
+	{
+		return outputType;
+	}
+
+	/**
+	 * sets if all rule results should be output (2), only for failed rules (0),
+	 * only for passed rules (1) or none (3).
+	 *
+	 * once the output type is set, only the results selected by the output type are kept in
+	 * the rule execution collection. as long as it is not set, all results are kept.
+	 *
+	 * @param	outputType	the selected output type
+	 */
+	public void setOutputType(int outputType)
+	{
+		this.outputType = outputType;
+		this.outputTypeSet = true;
+		executionCollection.setOutputType(outputType);
+	}
+
+	/**
+	 * returns the output type used to select the results that are kept in the rule execution
+	 * collection: the output type, if it was set, otherwise all results are kept.
+	 *
+	 * @return	the output type for the rule execution collection
+	 */
+	private int getRetainedOutputType()
+	{
+		if(outputTypeSet)
+		{
+			return outputType;
+		}
+		return BusinessRulesEngine.OUTPUT_TYPE_FAILED_AND_PASSED;
+	}
+
+	public String getTimestampFormat()
+	{
+		return timestampFormat;
+	}
+
+	/**
+	 * returns the executor used to run groups of the session at the same time
+	 *
+	 * @return	the executor for the groups or null if the groups run sequentially
+	 */
+	public ExecutorService getGroupExecutor()
+	{
+		return groupExecutor;
+	}
+
+	/**
+	 * sets the executor used to run the groups for one object at the same time. groups that do
+	 * not depend on each other and do not have actions - which could change the object - are run
+	 * in parallel using the executor. the results are still collected in the order of the groups.
+	 *
+	 * the executor is not shut down by the session. set to null to run the groups sequentially,
+	 * which is the default.
+	 *
+	 * @param	groupExecutor	the executor for the groups
+	 */
+	public void setGroupExecutor(ExecutorService groupExecutor)
+	{
+		this.groupExecutor = groupExecutor;
+	}
+
+	/**
+	 * indicator if the evaluation of the rules of a group stops once the outcome
+	 * of the group is decided
+	 *
+	 * @return	indicator if short-circuit evaluation is used for all groups
+	 */
+	public boolean getShortCircuit()
+	{
+		return shortCircuit;
+	}
+
+	/**
+	 * sets if the evaluation of the rules stops once the outcome of a subgroup or group is decided.
+	 * the remaining rules are marked as not evaluated. if set to false, short-circuit evaluation is
+	 * only used for the groups that have it defined in the xml file.
+	 *
+	 * @param	shortCircuit	indicator if short-circuit evaluation is used for all groups
+	 */
+	public void setShortCircuit(boolean shortCircuit)
+	{
+		this.shortCircuit = shortCircuit;
+	}
+
+	public void setTimestampFormat(String timestampFormat)
+	{
+		this.timestampFormat = timestampFormat;
+	}
+
+	public MappingCollection getMappingCollection()
+	{
+		return mappingCollection;
+	}
+
+	/**
+	 * sets the collection of mappings used by the actions. the collection may be
+	 * shared by multiple sessions.
+	 *
+	 * @param	mappingCollection	the collection of mappings
+	 */
+	public void setMappingCollection(MappingCollection mappingCollection)
+	{
+		this.mappingCollection = mappingCollection;
+	}
+}
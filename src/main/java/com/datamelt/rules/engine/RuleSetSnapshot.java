@@ -0,0 +1,460 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+import com.datamelt.rules.core.ActionObject;
+import com.datamelt.rules.core.Parameter;
+import com.datamelt.rules.core.ReferenceField;
+import com.datamelt.rules.core.RuleGroup;
+import com.datamelt.rules.core.RuleMessage;
+import com.datamelt.rules.core.RuleObject;
+import com.datamelt.rules.core.RuleSubGroup;
+import com.datamelt.rules.core.XmlAction;
+import com.datamelt.rules.core.XmlRule;
+
+/**
+ * reads and writes a binary snapshot of parsed rule files.
+ * <p>
+ * parsing the xml rule files is the most expensive part of loading the rules. the snapshot contains
+ * the rulegroups - with their subgroups, rules and actions - and the reference fields of each rule file
+ * in a compact binary form, which is read with a single sequential read. the fingerprint of each rule
+ * file is stored as well: when the rules are loaded using the snapshot, only the files whose fingerprint
+ * does not match any more are parsed from xml.
+ * <p>
+ * the snapshot as a whole is not used, if it was created with a different version of the format, with
+ * different variables of the replacer or on a different day - because the parser only keeps the
+ * rulegroups that are valid on the day the rules are parsed.
+ *
+ * @see ParsedRuleFile
+ */
+public class RuleSetSnapshot
+{
+	public static final String SNAPSHOT_FILE_EXTENSION 	= ".snapshot";
+
+	private static final int MAGIC_NUMBER 				= 0x4A415245;
+	private static final int FORMAT_VERSION 			= 1;
+
+	private static final int NULL_STRING 				= -1;
+
+	/**
+	 * returns the snapshot file that belongs to the given rule file: the snapshot is
+	 * located next to the rule file.
+	 *
+	 * @param ruleFile	the rule file
+	 * @return			the snapshot file
+	 */
+	public static File getSnapshotFile(File ruleFile)
+	{
+		return new File(ruleFile.getPath() + SNAPSHOT_FILE_EXTENSION);
+	}
+
+	/**
+	 * reads the parsed rule files from the given snapshot file. returns null if the file does
+	 * not exist, has a different format or was created with different variables or on a
+	 * different day.
+	 *
+	 * @param snapshotFile			the snapshot file
+	 * @param replacerDigest		the digest of the variables of the replacer used to parse the rule files or null
+	 * @return						the parsed rule files by their name or null if the snapshot can not be used
+	 * @throws Exception			exception if the snapshot file can not be read
+	 */
+	public static HashMap<String,ParsedRuleFile> read(File snapshotFile, String replacerDigest) throws Exception
+	{
+		if(!snapshotFile.isFile())
+		{
+			return null;
+		}
+		// the complete file is read at once
+		byte[] content = new byte[(int)snapshotFile.length()];
+		DataInputStream fileInput = new DataInputStream(new FileInputStream(snapshotFile));
+		try
+		{
+			fileInput.readFully(content);
+		}
+		finally
+		{
+			fileInput.close();
+		}
+
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(content));
+		if(content.length<16 || input.readInt()!=MAGIC_NUMBER || input.readInt()!=FORMAT_VERSION)
+		{
+			return null;
+		}
+		if(!Objects.equals(readString(input), replacerDigest) || input.readInt()!=ParsedRuleFile.getCurrentDay())
+		{
+			return null;
+		}
+		HashMap<String,ParsedRuleFile> parsedFiles = new HashMap<String,ParsedRuleFile>();
+		int numberOfFiles = input.readInt();
+		for(int i=0;i<numberOfFiles;i++)
+		{
+			ParsedRuleFile parsedFile = readParsedRuleFile(input);
+			parsedFiles.put(parsedFile.getName(), parsedFile);
+		}
+		return parsedFiles;
+	}
+
+	/**
+	 * writes the given parsed rule files to the snapshot file. the snapshot is written to a temporary
+	 * file first, which then replaces the snapshot file, so that a snapshot is never read partially.
+	 *
+	 * @param snapshotFile			the snapshot file
+	 * @param parsedFiles			the parsed rule files
+	 * @param replacerDigest		the digest of the variables of the replacer used to parse the rule files or null
+	 * @throws Exception			exception if the snapshot file can not be written
+	 */
+	public static void write(File snapshotFile, List<ParsedRuleFile> parsedFiles, String replacerDigest) throws Exception
+	{
+		File temporaryFile = new File(snapshotFile.getPath() + ".tmp");
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+		try
+		{
+			output.writeInt(MAGIC_NUMBER);
+			output.writeInt(FORMAT_VERSION);
+			writeString(output, replacerDigest);
+			output.writeInt(ParsedRuleFile.getCurrentDay());
+			output.writeInt(parsedFiles.size());
+			for(int i=0;i<parsedFiles.size();i++)
+			{
+				writeParsedRuleFile(output, parsedFiles.get(i));
+			}
+		}
+		finally
+		{
+			output.close();
+		}
+		Files.move(temporaryFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private static void writeParsedRuleFile(DataOutputStream output, ParsedRuleFile parsedFile) throws IOException
+	{
+		writeString(output, parsedFile.getName());
+		output.writeLong(parsedFile.getSize());
+		output.writeLong(parsedFile.getTime());
+		output.writeLong(parsedFile.getCrc());
+		ArrayList<RuleGroup> groups = parsedFile.getGroups();
+		output.writeInt(groups.size());
+		for(int i=0;i<groups.size();i++)
+		{
+			writeGroup(output, groups.get(i));
+		}
+		ArrayList<ReferenceField> referenceFields = parsedFile.getReferenceFields();
+		output.writeInt(referenceFields.size());
+		for(int i=0;i<referenceFields.size();i++)
+		{
+			ReferenceField field = referenceFields.get(i);
+			writeString(output, field.getName());
+			writeString(output, field.getNameDescriptive());
+			writeString(output, field.getDescription());
+			output.writeInt((int)field.getJavaTypeId());
+		}
+	}
+
+	private static ParsedRuleFile readParsedRuleFile(DataInputStream input) throws Exception
+	{
+		String name = readString(input);
+		long size = input.readLong();
+		long time = input.readLong();
+		long crc = input.readLong();
+		int numberOfGroups = input.readInt();
+		ArrayList<RuleGroup> groups = new ArrayList<RuleGroup>(numberOfGroups);
+		for(int i=0;i<numberOfGroups;i++)
+		{
+			groups.add(readGroup(input));
+		}
+		int numberOfFields = input.readInt();
+		ArrayList<ReferenceField> referenceFields = new ArrayList<ReferenceField>(numberOfFields);
+		for(int i=0;i<numberOfFields;i++)
+		{
+			ReferenceField field = new ReferenceField();
+			field.setName(readString(input));
+			field.setNameDescriptive(readString(input));
+			field.setDescription(readString(input));
+			field.setJavaTypeId(input.readInt());
+			referenceFields.add(field);
+		}
+		return new ParsedRuleFile(name, size, time, crc, groups, referenceFields);
+	}
+
+	private static void writeGroup(DataOutputStream output, RuleGroup group) throws IOException
+	{
+		writeString(output, group.getId());
+		writeString(output, group.getDescription());
+		writeString(output, group.getValidFrom());
+		writeString(output, group.getValidUntil());
+		writeString(output, group.getDependentRuleGroupId());
+		output.writeInt(group.getDependentRuleGroupExecuteIf());
+		output.writeBoolean(group.getOutputAfterActions());
+		output.writeBoolean(group.getShortCircuit());
+		writeActions(output, group.getActions());
+		output.writeInt(group.getSubGroupCollection().size());
+		for(int i=0;i<group.getSubGroupCollection().size();i++)
+		{
+			RuleSubGroup subGroup = group.getSubGroupCollection().get(i);
+			writeString(output, subGroup.getId());
+			writeString(output, subGroup.getDescription());
+			output.writeInt(subGroup.getLogicalOperatorSubGroup());
+			output.writeInt(subGroup.getLogicalOperatorRules());
+			output.writeInt(subGroup.getRulesCollection().size());
+			for(int j=0;j<subGroup.getRulesCollection().size();j++)
+			{
+				writeRule(output, subGroup.getRulesCollection().get(j));
+			}
+		}
+	}
+
+	private static RuleGroup readGroup(DataInputStream input) throws Exception
+	{
+		RuleGroup group = new RuleGroup(readString(input), readString(input));
+		group.setValidFrom(readString(input));
+		group.setValidUntil(readString(input));
+		group.setDependentRuleGroupId(readString(input));
+		group.setDependentRuleGroupExecuteIf(input.readInt());
+		group.setOutputAfterActions(input.readBoolean());
+		group.setShortCircuit(input.readBoolean());
+		ArrayList<XmlAction> actions = readActions(input);
+		for(int i=0;i<actions.size();i++)
+		{
+			group.addAction(actions.get(i));
+		}
+		int numberOfSubGroups = input.readInt();
+		for(int i=0;i<numberOfSubGroups;i++)
+		{
+			RuleSubGroup subGroup = new RuleSubGroup(readString(input), readString(input), null, RuleSubGroup.OPERATOR_AND_EXPRESSION);
+			subGroup.setLogicalOperatorSubGroup(input.readInt());
+			subGroup.setLogicalOperatorRules(input.readInt());
+			int numberOfRules = input.readInt();
+			for(int j=0;j<numberOfRules;j++)
+			{
+				subGroup.getRulesCollection().add(readRule(input));
+			}
+			group.getSubGroupCollection().add(subGroup);
+		}
+		return group;
+	}
+
+	private static void writeRule(DataOutputStream output, XmlRule rule) throws IOException
+	{
+		writeString(output, rule.getId());
+		writeString(output, rule.getDescription());
+		output.writeInt(rule.getRuleObjects().size());
+		for(int i=0;i<rule.getRuleObjects().size();i++)
+		{
+			RuleObject ruleObject = rule.getRuleObjects().get(i);
+			writeString(output, ruleObject.getClassName());
+			writeString(output, ruleObject.getMethodName());
+			writeString(output, ruleObject.getMethodReturnType());
+			writeString(output, ruleObject.getParameter());
+			writeString(output, ruleObject.getParameterType());
+		}
+		writeString(output, rule.getExpectedValueRule());
+		writeString(output, rule.getExpectedValueRuleType());
+		writeString(output, rule.getCheckToExecute());
+		writeParameters(output, rule.getParameters());
+		output.writeInt(rule.getMessages().size());
+		for(int i=0;i<rule.getMessages().size();i++)
+		{
+			RuleMessage message = rule.getMessages().get(i);
+			output.writeInt(message.getType());
+			writeString(output, message.getText());
+		}
+		ArrayList<XmlAction> actions = new ArrayList<XmlAction>();
+		for(int i=0;i<rule.getActions().size();i++)
+		{
+			actions.add(rule.getActions().get(i));
+		}
+		writeActions(output, actions);
+	}
+
+	private static XmlRule readRule(DataInputStream input) throws Exception
+	{
+		XmlRule rule = new XmlRule(readString(input), readString(input));
+		int numberOfObjects = input.readInt();
+		for(int i=0;i<numberOfObjects;i++)
+		{
+			rule.getRuleObjects().add(new RuleObject(readString(input), readString(input), readString(input), readString(input), readString(input)));
+		}
+		rule.setExpectedValueRule(readString(input));
+		rule.setExpectedValueRuleType(readString(input));
+		String checkToExecute = readString(input);
+		if(checkToExecute!=null)
+		{
+			// the check is instantiated here
+			rule.setCheckToExecute(checkToExecute);
+		}
+		ArrayList<Parameter> parameters = readParameters(input);
+		for(int i=0;i<parameters.size();i++)
+		{
+			rule.addParameter(parameters.get(i));
+		}
+		int numberOfMessages = input.readInt();
+		for(int i=0;i<numberOfMessages;i++)
+		{
+			rule.getMessages().add(new RuleMessage(input.readInt(), readString(input)));
+		}
+		ArrayList<XmlAction> actions = readActions(input);
+		for(int i=0;i<actions.size();i++)
+		{
+			rule.getActions().add(actions.get(i));
+		}
+		return rule;
+	}
+
+	private static void writeActions(DataOutputStream output, List<XmlAction> actions) throws IOException
+	{
+		output.writeInt(actions.size());
+		for(int i=0;i<actions.size();i++)
+		{
+			XmlAction action = actions.get(i);
+			writeString(output, action.getId());
+			writeString(output, action.getDescription());
+			writeString(output, action.getClassName());
+			writeString(output, action.getMethodName());
+			output.writeInt(action.getExecuteIf());
+			writeParameters(output, action.getParameters());
+			output.writeBoolean(action.getActionSetterObject()!=null);
+			if(action.getActionSetterObject()!=null)
+			{
+				writeActionObject(output, action.getActionSetterObject());
+			}
+			output.writeInt(action.getActionGetterObjects().size());
+			for(int j=0;j<action.getActionGetterObjects().size();j++)
+			{
+				writeActionObject(output, action.getActionGetterObjects().get(j));
+			}
+		}
+	}
+
+	private static ArrayList<XmlAction> readActions(DataInputStream input) throws Exception
+	{
+		int numberOfActions = input.readInt();
+		ArrayList<XmlAction> actions = new ArrayList<XmlAction>(numberOfActions);
+		for(int i=0;i<numberOfActions;i++)
+		{
+			XmlAction action = new XmlAction(readString(input), readString(input));
+			action.setClassName(readString(input));
+			action.setMethodName(readString(input));
+			action.setExecuteIf(input.readInt());
+			action.setParameters(readParameters(input));
+			if(input.readBoolean())
+			{
+				action.setActionSetterObject(readActionObject(input));
+			}
+			int numberOfGetterObjects = input.readInt();
+			for(int j=0;j<numberOfGetterObjects;j++)
+			{
+				action.addActionGetterObject(readActionObject(input));
+			}
+			actions.add(action);
+		}
+		return actions;
+	}
+
+	private static void writeActionObject(DataOutputStream output, ActionObject actionObject) throws IOException
+	{
+		writeString(output, actionObject.getClassName());
+		writeString(output, actionObject.getMethodName());
+		writeString(output, actionObject.getReturnType());
+		output.writeInt(actionObject.isGetter());
+		writeParameters(output, actionObject.getParameters());
+	}
+
+	private static ActionObject readActionObject(DataInputStream input) throws Exception
+	{
+		ActionObject actionObject = new ActionObject(readString(input), readString(input));
+		actionObject.setReturnType(readString(input));
+		actionObject.setIsGetter(input.readInt());
+		actionObject.setParameters(readParameters(input));
+		return actionObject;
+	}
+
+	private static void writeParameters(DataOutputStream output, List<Parameter> parameters) throws IOException
+	{
+		output.writeInt(parameters.size());
+		for(int i=0;i<parameters.size();i++)
+		{
+			Parameter parameter = parameters.get(i);
+			writeString(output, parameter.getType());
+			writeString(output, parameter.getValue());
+			output.writeBoolean(parameter.isSetterValue());
+		}
+	}
+
+	private static ArrayList<Parameter> readParameters(DataInputStream input) throws IOException
+	{
+		int numberOfParameters = input.readInt();
+		ArrayList<Parameter> parameters = new ArrayList<Parameter>(numberOfParameters);
+		for(int i=0;i<numberOfParameters;i++)
+		{
+			parameters.add(new Parameter(readString(input), readString(input), input.readBoolean()));
+		}
+		return parameters;
+	}
+
+	/**
+	 * writes a string as its length followed by the UTF-8 bytes. null is written as length -1.
+	 * unlike DataOutputStream.writeUTF, this is not limited to 64k bytes
+	 */
+	private static void writeString(DataOutputStream output, String value) throws IOException
+	{
+		if(value==null)
+		{
+			output.writeInt(NULL_STRING);
+		}
+		else
+		{
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			output.writeInt(bytes.length);
+			output.write(bytes);
+		}
+	}
+
+	private static String readString(DataInputStream input) throws IOException
+	{
+		int length = input.readInt();
+		if(length==NULL_STRING)
+		{
+			return null;
+		}
+		if(length<0 || length>input.available())
+		{
+			throw new IOException("invalid length of string in snapshot: " + length);
+		}
+		byte[] bytes = new byte[length];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
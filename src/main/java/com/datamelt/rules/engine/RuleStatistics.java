@@ -0,0 +1,410 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+
+import com.datamelt.rules.core.RuleExecutionResult;
+import com.datamelt.rules.core.RuleGroup;
+import com.datamelt.rules.core.RuleSubGroup;
+
+/**
+ * counts how often the rules and rulegroups of a session passed, failed or were skipped,
+ * without keeping a result for each execution of a rule.
+ * <p>
+ * the rulegroups and the rules are numbered in the order they are defined in the ruleset:
+ * the rules of the first subgroup of the first group come first. the counters are kept in
+ * arrays of a fixed size, indexed by these numbers, so counting the outcome of a row does not
+ * allocate any memory - no matter how many rows are processed.
+ * <p>
+ * a rule is counted as skipped if it was not evaluated because of short-circuit evaluation or
+ * because its rulegroup was skipped. the statistics of multiple sessions for the same ruleset -
+ * e.g. of multiple threads - can be combined using the merge method.
+ */
+public class RuleStatistics
+{
+	// the ids of the groups and the position of the first rule of each group. the last
+	// entry of the positions is the total number of rules
+	private final String[] groupIds;
+	private final int[] groupRuleStart;
+	// the ids of the rules and of their subgroups
+	private final String[] ruleIds;
+	private final String[] subgroupIds;
+
+	private final long[] groupsPassed;
+	private final long[] groupsFailed;
+	private final long[] groupsSkipped;
+	private final long[] actionsExecuted;
+	private final long[] rulesPassed;
+	private final long[] rulesFailed;
+	private final long[] rulesSkipped;
+
+	// the position of each group of the session
+	private final IdentityHashMap<RuleGroup,Integer> groupNumbers = new IdentityHashMap<RuleGroup,Integer>();
+
+	/**
+	 * creates the statistics for the given rulegroups. the groups are those of the session
+	 * the statistics are collected for.
+	 *
+	 * @param groups	the rulegroups
+	 */
+	public RuleStatistics(List<RuleGroup> groups)
+	{
+		ArrayList<String> rules = new ArrayList<String>();
+		ArrayList<String> subgroups = new ArrayList<String>();
+		groupIds = new String[groups.size()];
+		groupRuleStart = new int[groups.size() + 1];
+		for(int i=0;i<groups.size();i++)
+		{
+			RuleGroup group = groups.get(i);
+			groupIds[i] = group.getId();
+			groupRuleStart[i] = rules.size();
+			groupNumbers.put(group, i);
+			ArrayList<RuleSubGroup> groupSubgroups = group.getSubGroups();
+			for(int j=0;j<groupSubgroups.size();j++)
+			{
+				RuleSubGroup subGroup = groupSubgroups.get(j);
+				for(int k=0;k<subGroup.getRulesCollection().size();k++)
+				{
+					rules.add(subGroup.getRulesCollection().get(k).getId());
+					subgroups.add(subGroup.getId());
+				}
+			}
+		}
+		groupRuleStart[groups.size()] = rules.size();
+		ruleIds = rules.toArray(new String[rules.size()]);
+		subgroupIds = subgroups.toArray(new String[subgroups.size()]);
+
+		groupsPassed = new long[groupIds.length];
+		groupsFailed = new long[groupIds.length];
+		groupsSkipped = new long[groupIds.length];
+		actionsExecuted = new long[groupIds.length];
+		rulesPassed = new long[ruleIds.length];
+		rulesFailed = new long[ruleIds.length];
+		rulesSkipped = new long[ruleIds.length];
+	}
+
+	/**
+	 * creates empty statistics for the same rulegroups and rules as the given statistics. no groups
+	 * can be added to the new statistics, but statistics collected for the same ruleset can be merged.
+	 *
+	 * @param statistics	the statistics to take the rulegroups and rules from
+	 */
+	public RuleStatistics(RuleStatistics statistics)
+	{
+		groupIds = statistics.groupIds;
+		groupRuleStart = statistics.groupRuleStart;
+		ruleIds = statistics.ruleIds;
+		subgroupIds = statistics.subgroupIds;
+
+		groupsPassed = new long[groupIds.length];
+		groupsFailed = new long[groupIds.length];
+		groupsSkipped = new long[groupIds.length];
+		actionsExecuted = new long[groupIds.length];
+		rulesPassed = new long[ruleIds.length];
+		rulesFailed = new long[ruleIds.length];
+		rulesSkipped = new long[ruleIds.length];
+	}
+
+	/**
+	 * adds the outcome of the last run of the given group and its rules to the counters.
+	 * groups that are not part of the session are ignored.
+	 *
+	 * @param group		the rulegroup that ran
+	 */
+	public void addGroup(RuleGroup group)
+	{
+		Integer groupNumber = groupNumbers.get(group);
+		if(groupNumber==null)
+		{
+			return;
+		}
+		int number = groupNumber;
+		if(group.getFailed()==RuleGroup.TYPE_FAILED)
+		{
+			groupsFailed[number]++;
+		}
+		else
+		{
+			groupsPassed[number]++;
+		}
+		actionsExecuted[number] = actionsExecuted[number] + group.getNumberOfActionsExecuted();
+
+		int rule = groupRuleStart[number];
+		int end = groupRuleStart[number + 1];
+		ArrayList<RuleSubGroup> subGroups = group.getSubGroups();
+		for(int i=0;i<subGroups.size();i++)
+		{
+			RuleSubGroup subGroup = subGroups.get(i);
+			int numberOfRules = subGroup.getRulesCollection().size();
+			for(int j=0;j<numberOfRules && rule<end;j++)
+			{
+				int failed = subGroup.getRuleFailed(j);
+				if(failed==RuleGroup.TYPE_FAILED)
+				{
+					rulesFailed[rule]++;
+				}
+				else if(failed==RuleGroup.TYPE_PASSED)
+				{
+					rulesPassed[rule]++;
+				}
+				else
+				{
+					rulesSkipped[rule]++;
+				}
+				rule++;
+			}
+		}
+	}
+
+	/**
+	 * counts the given group and all its rules as skipped. groups that are not part of
+	 * the session are ignored.
+	 *
+	 * @param group		the rulegroup that was skipped
+	 */
+	public void addSkippedGroup(RuleGroup group)
+	{
+		Integer groupNumber = groupNumbers.get(group);
+		if(groupNumber==null)
+		{
+			return;
+		}
+		int number = groupNumber;
+		groupsSkipped[number]++;
+		for(int i=groupRuleStart[number];i<groupRuleStart[number + 1];i++)
+		{
+			rulesSkipped[i]++;
+		}
+	}
+
+	/**
+	 * adds the counters of the given statistics to the counters of these statistics. both
+	 * must have been collected for the same ruleset.
+	 *
+	 * @param statistics	the statistics to add
+	 * @throws Exception	exception if the statistics were collected for different rulegroups or rules
+	 */
+	public void merge(RuleStatistics statistics) throws Exception
+	{
+		if(!Arrays.equals(groupIds, statistics.groupIds) || !Arrays.equals(groupRuleStart, statistics.groupRuleStart) || !Arrays.equals(ruleIds, statistics.ruleIds))
+		{
+			throw new Exception("the statistics were collected for different rulegroups or rules");
+		}
+		add(groupsPassed, statistics.groupsPassed);
+		add(groupsFailed, statistics.groupsFailed);
+		add(groupsSkipped, statistics.groupsSkipped);
+		add(actionsExecuted, statistics.actionsExecuted);
+		add(rulesPassed, statistics.rulesPassed);
+		add(rulesFailed, statistics.rulesFailed);
+		add(rulesSkipped, statistics.rulesSkipped);
+	}
+
+	/**
+	 * adds the counters of the given statistics for the rulegroups and rules with the same ids to the
+	 * counters of these statistics. unlike merge, the statistics may have been collected for a different
+	 * ruleset - e.g. before the rules were reloaded. counters of groups and rules that are not part of
+	 * these statistics are ignored.
+	 *
+	 * @param statistics	the statistics to add
+	 */
+	public void addCounters(RuleStatistics statistics)
+	{
+		for(int i=0;i<groupIds.length;i++)
+		{
+			int group = indexOf(statistics.groupIds, groupIds[i]);
+			if(group<0)
+			{
+				continue;
+			}
+			groupsPassed[i] = groupsPassed[i] + statistics.groupsPassed[group];
+			groupsFailed[i] = groupsFailed[i] + statistics.groupsFailed[group];
+			groupsSkipped[i] = groupsSkipped[i] + statistics.groupsSkipped[group];
+			actionsExecuted[i] = actionsExecuted[i] + statistics.actionsExecuted[group];
+			// the rules of the group are matched by the ids of the subgroup and the rule, in the order they are defined
+			boolean[] used = new boolean[statistics.groupRuleStart[group + 1] - statistics.groupRuleStart[group]];
+			for(int rule=groupRuleStart[i];rule<groupRuleStart[i + 1];rule++)
+			{
+				for(int j=0;j<used.length;j++)
+				{
+					int otherRule = statistics.groupRuleStart[group] + j;
+					if(!used[j] && Objects.equals(ruleIds[rule], statistics.ruleIds[otherRule]) && Objects.equals(subgroupIds[rule], statistics.subgroupIds[otherRule]))
+					{
+						used[j] = true;
+						rulesPassed[rule] = rulesPassed[rule] + statistics.rulesPassed[otherRule];
+						rulesFailed[rule] = rulesFailed[rule] + statistics.rulesFailed[otherRule];
+						rulesSkipped[rule] = rulesSkipped[rule] + statistics.rulesSkipped[otherRule];
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	private static int indexOf(String[] ids, String id)
+	{
+		for(int i=0;i<ids.length;i++)
+		{
+			if(Objects.equals(ids[i], id))
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static void add(long[] counters, long[] values)
+	{
+		for(int i=0;i<counters.length;i++)
+		{
+			counters[i] = counters[i] + values[i];
+		}
+	}
+
+	/**
+	 * resets all counters to zero
+	 */
+	public void clear()
+	{
+		Arrays.fill(groupsPassed, 0);
+		Arrays.fill(groupsFailed, 0);
+		Arrays.fill(groupsSkipped, 0);
+		Arrays.fill(actionsExecuted, 0);
+		Arrays.fill(rulesPassed, 0);
+		Arrays.fill(rulesFailed, 0);
+		Arrays.fill(rulesSkipped, 0);
+	}
+
+	/**
+	 * returns a report of the counters: one line for each rulegroup, followed by one line
+	 * for each rule of the group.
+	 *
+	 * @return	the report
+	 */
+	public String getReport()
+	{
+		StringBuffer buffer = new StringBuffer();
+		for(int i=0;i<groupIds.length;i++)
+		{
+			buffer.append("group [").append(groupIds[i]).append("] passed: ").append(groupsPassed[i]);
+			buffer.append(", failed: ").append(groupsFailed[i]);
+			buffer.append(", skipped: ").append(groupsSkipped[i]);
+			buffer.append(", actions executed: ").append(actionsExecuted[i]).append("\n");
+			for(int j=groupRuleStart[i];j<groupRuleStart[i + 1];j++)
+			{
+				buffer.append("  subgroup [").append(subgroupIds[j]).append("] rule [").append(ruleIds[j]).append("] passed: ").append(rulesPassed[j]);
+				buffer.append(", failed: ").append(rulesFailed[j]);
+				buffer.append(", ").append(RuleExecutionResult.NOT_EVALUATED_EXPRESSION).append(": ").append(rulesSkipped[j]).append("\n");
+			}
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * returns the number of rulegroups
+	 *
+	 * @return	the number of rulegroups
+	 */
+	public int getNumberOfGroups()
+	{
+		return groupIds.length;
+	}
+
+	/**
+	 * returns the number of rules of all rulegroups
+	 *
+	 * @return	the number of rules
+	 */
+	public int getNumberOfRules()
+	{
+		return ruleIds.length;
+	}
+
+	public String getGroupId(int group)
+	{
+		return groupIds[group];
+	}
+
+	public long getGroupPassedCount(int group)
+	{
+		return groupsPassed[group];
+	}
+
+	public long getGroupFailedCount(int group)
+	{
+		return groupsFailed[group];
+	}
+
+	public long getGroupSkippedCount(int group)
+	{
+		return groupsSkipped[group];
+	}
+
+	public long getActionsExecutedCount(int group)
+	{
+		return actionsExecuted[group];
+	}
+
+	/**
+	 * returns the number of the rulegroup the rule with the given number belongs to
+	 *
+	 * @param rule	the number of the rule
+	 * @return		the number of the rulegroup
+	 */
+	public int getGroupOfRule(int rule)
+	{
+		for(int i=0;i<groupIds.length;i++)
+		{
+			if(rule<groupRuleStart[i + 1])
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public String getRuleId(int rule)
+	{
+		return ruleIds[rule];
+	}
+
+	public String getSubgroupId(int rule)
+	{
+		return subgroupIds[rule];
+	}
+
+	public long getRulePassedCount(int rule)
+	{
+		return rulesPassed[rule];
+	}
+
+	public long getRuleFailedCount(int rule)
+	{
+		return rulesFailed[rule];
+	}
+
+	public long getRuleSkippedCount(int rule)
+	{
+		return rulesSkipped[rule];
+	}
+}
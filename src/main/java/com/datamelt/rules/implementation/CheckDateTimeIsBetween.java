@@ -21,8 +21,7 @@ package com.datamelt.rules.implementation;
 import java.util.Date;
 
 import com.datamelt.util.CheckAnnotation;
-
-import java.util.Calendar;
+import com.datamelt.util.DateUtility;
 
 /**
  * Checks if the time part of a date is between two given times.
@@ -49,14 +48,7 @@ public class CheckDateTimeIsBetween extends GenericCheck
      */
     public static boolean evaluate(Date date, String timeValues)
     {
-    	Calendar cal1 = Calendar.getInstance();
-        cal1.setTime(date);
-        
-    	int dateHours = cal1.get(Calendar.HOUR_OF_DAY);
-    	int dateMinutes = cal1.get(Calendar.MINUTE);
-    	int dateSeconds = cal1.get(Calendar.SECOND);
-    	
-    	int totalDateSeconds = dateSeconds + dateMinutes * 60 + dateHours * 3600;
+    	int totalDateSeconds = DateUtility.getSecondOfDay(date.getTime());
     	
     	int totalTime1Seconds = 0;
     	int totalTime2Seconds = 0;
@@ -18,6 +18,7 @@
  */
 package com.datamelt.rules.implementation;
 
+import com.datamelt.rules.core.util.LevenshteinDistance;
 import com.datamelt.util.CheckAnnotation;
 import com.datamelt.util.CheckMethodAnnotation;
 
@@ -44,28 +45,8 @@ public class CheckDistanceIsGreaterOrEqual extends GenericCheck
 	@CheckMethodAnnotation(note="Levenshtein distance between two values",noteParameter={"The value for the distance between the two strings to be evaluated"})
     public static boolean evaluate(String originalString,String compareString, int value )
     {
-    	int[][] dp = new int[originalString.length() + 1][compareString.length() + 1];
-
-    	for (int i = 0; i < dp.length; i++)
-		{
-			for (int j = 0; j < dp[i].length; j++)
-			{
-				dp[i][j] = i == 0 ? j : j == 0 ? i : 0;
-				if (i > 0 && j > 0)
-				{
-					if (originalString.charAt(i - 1) == compareString.charAt(j - 1))
-					{
-						dp[i][j] = dp[i - 1][j - 1];
-					}
-					else
-					{
-						dp[i][j] = Math.min(dp[i][j - 1] + 1, Math.min(
-								dp[i - 1][j - 1] + 1, dp[i - 1][j] + 1));
-					}
-				}
-			}
-		}
-		return dp[originalString.length()][compareString.length()]>= value;
+    	// the distance is only calculated up to the value that decides the result
+    	return LevenshteinDistance.getDistance(originalString, compareString, value - 1) >= value;
     }
     
 }
@@ -18,13 +18,12 @@
  */
 package com.datamelt.rules.implementation;
 
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
 import java.util.Date;
 
 import com.datamelt.util.CheckAnnotation;
 import com.datamelt.util.CheckMethodAnnotation;
 import com.datamelt.util.ClassUtility;
+import com.datamelt.util.DateUtility;
 
 /**
  * Checks if a given string is equal to another string, if two numbers are equal or if two dates are equal.
@@ -361,30 +360,10 @@ public class CheckIsEqual extends GenericCheck
     @CheckMethodAnnotation(noteParameter={"Specify the date format of the values for the comparison"})
     public static boolean evaluate(String value1, String value2, String format)
     {
+        long millis1 = DateUtility.getMillis(value1, format);
+        long millis2 = DateUtility.getMillis(value2, format);
         
-        SimpleDateFormat sdf = new SimpleDateFormat(format);
-
-        boolean result = false;
-        
-        try
-        {
-	       	Date date1 = sdf.parse(value1);
-	        Date date2 = sdf.parse(value2);
-	        
-	        Calendar cal1 = Calendar.getInstance();
-	        cal1.setTime(date1);
-	        
-	        Calendar cal2 = Calendar.getInstance();
-	        cal2.setTime(date2);
-	        
-	        result = cal1.equals(cal2);
-        }
-        catch(Exception ex)
-        {
-        	
-        }
-        return result;
-    
+        return millis1!=DateUtility.NO_DATE && millis2!=DateUtility.NO_DATE && millis1==millis2;
     }
     
     /**
@@ -398,26 +377,9 @@ public class CheckIsEqual extends GenericCheck
     @CheckMethodAnnotation(note="Without parameter the String is converted to a Date using the format yyyy-MM-dd",noteParameter={"Provide a date format different from the default"})
     public static boolean evaluate(Date date1, String value2, String format)
     {
+        long millis2 = DateUtility.getMillis(value2, format);
         
-        SimpleDateFormat sdf = new SimpleDateFormat(format);
-
-        boolean result = false;
-        
-        try
-        {
-	        Date date2 = sdf.parse(value2);
-	        
-	        String date1String = sdf.format(date1);
-	        String date2String = sdf.format(date2);
-	        
-	        result = date1String.equals(date2String);
-        }
-        catch(Exception ex)
-        {
-        	
-        }
-        return result;
-    
+        return date1!=null && millis2!=DateUtility.NO_DATE && DateUtility.isEqual(date1.getTime(), millis2, format);
     }
     
     /**
@@ -430,26 +392,9 @@ public class CheckIsEqual extends GenericCheck
     @CheckMethodAnnotation(note="String is converted to a date and values are compared using the format yyyy-MM-dd")
     public static boolean evaluate(Date date1, String value2)
     {
+        long millis2 = DateUtility.getMillis(value2, CheckConstants.DEFAULT_DATE_FORMAT);
         
-        SimpleDateFormat sdf = new SimpleDateFormat(CheckConstants.DEFAULT_DATE_FORMAT);
-        
-        boolean result = false;
-        
-        try
-        {
-	        Date date2 = sdf.parse(value2);
-	        
-	        String date1String = sdf.format(date1);
-	        String date2String = sdf.format(date2);
-	        
-	        result = date1String.equals(date2String);
-        }
-        catch(Exception ex)
-        {
-        	
-        }
-        return result;
-    
+        return date1!=null && millis2!=DateUtility.NO_DATE && DateUtility.isEqual(date1.getTime(), millis2, CheckConstants.DEFAULT_DATE_FORMAT);
     }
     
     /**
@@ -461,20 +406,12 @@ public class CheckIsEqual extends GenericCheck
      */
     public static boolean evaluate(Date date1, Date date2)
     {
-    	SimpleDateFormat sdf = new SimpleDateFormat(CheckConstants.DEFAULT_DATE_FORMAT);
-        
-    	String date1String=null;
-    	String date2String=null;
-    	
-    	if(date1!=null)
-    	{
-    		date1String = sdf.format(date1);
-    	}
-    	if(date2!=null)
+    	if(date1!=null && date2!=null)
     	{
-    		date2String = sdf.format(date2);
+    		return DateUtility.isEqual(date1.getTime(), date2.getTime(), CheckConstants.DEFAULT_DATE_FORMAT);
     	}
-    	return date1String.equals(date2String);
+    	// throws an exception if the first date is undefined
+    	return date1.equals(date2);
     }
     
     /**
@@ -488,19 +425,11 @@ public class CheckIsEqual extends GenericCheck
     @CheckMethodAnnotation(noteParameter={"Provide a date format different from the default yyyy-MM-dd"})
     public static boolean evaluate(Date date1, Date date2, String format)
     {
-    	SimpleDateFormat sdf = new SimpleDateFormat(format);
-        
-    	String date1String=null;
-    	String date2String=null;
-    	
-    	if(date1!=null)
-    	{
-    		date1String = sdf.format(date1);
-    	}
-    	if(date2!=null)
+    	if(date1!=null && date2!=null)
     	{
-    		date2String = sdf.format(date2);
+    		return DateUtility.isEqual(date1.getTime(), date2.getTime(), format);
     	}
-    	return date1String.equals(date2String);
+    	// throws an exception if the first date is undefined
+    	return date1.equals(date2);
     }
 }
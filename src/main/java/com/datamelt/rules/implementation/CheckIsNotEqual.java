@@ -18,13 +18,12 @@
  */
 package com.datamelt.rules.implementation;
 
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
 import java.util.Date;
 
 import com.datamelt.util.CheckAnnotation;
 import com.datamelt.util.CheckMethodAnnotation;
 import com.datamelt.util.ClassUtility;
+import com.datamelt.util.DateUtility;
 
 /**
  * Checks if a given string is not equal to another string, if two numbers are not equal or if two dates are not equal.
@@ -324,30 +323,10 @@ public class CheckIsNotEqual extends GenericCheck
     @CheckMethodAnnotation(noteParameter={"Specify the date format of the values for the comparison"})
     public static boolean evaluate(String value1, String value2, String format)
     {
+        long millis1 = DateUtility.getMillis(value1, format);
+        long millis2 = DateUtility.getMillis(value2, format);
         
-        SimpleDateFormat sdf = new SimpleDateFormat(format);
-
-        boolean result = false;
-        
-        try
-        {
-	       	Date date1 = sdf.parse(value1);
-	        Date date2 = sdf.parse(value2);
-	        
-	        Calendar cal1 = Calendar.getInstance();
-	        cal1.setTime(date1);
-	        
-	        Calendar cal2 = Calendar.getInstance();
-	        cal2.setTime(date2);
-	        
-	        result = !cal1.equals(cal2);
-        }
-        catch(Exception ex)
-        {
-        	
-        }
-        return result;
-    
+        return millis1!=DateUtility.NO_DATE && millis2!=DateUtility.NO_DATE && millis1!=millis2;
     }
     
     /**
@@ -361,29 +340,9 @@ public class CheckIsNotEqual extends GenericCheck
     @CheckMethodAnnotation(note="Without parameter the String is converted to a Date using the format yyyy-MM-dd",noteParameter={"Provide a date format different from the default"})
     public static boolean evaluate(Date date1, String value2, String format)
     {
+        long millis2 = DateUtility.getMillis(value2, format);
         
-        SimpleDateFormat sdf = new SimpleDateFormat(format);
-
-        boolean result = false;
-        
-        try
-        {
-	        Date date2 = sdf.parse(value2);
-	        
-	        Calendar cal1 = Calendar.getInstance();
-	        cal1.setTime(date1);
-	        
-	        Calendar cal2 = Calendar.getInstance();
-	        cal2.setTime(date2);
-	        
-	        result = !cal1.equals(cal2);
-        }
-        catch(Exception ex)
-        {
-        	
-        }
-        return result;
-    
+        return date1!=null && millis2!=DateUtility.NO_DATE && date1.getTime()!=millis2;
     }
     
     /**
@@ -396,29 +355,9 @@ public class CheckIsNotEqual extends GenericCheck
     @CheckMethodAnnotation(note="String is converted to a date and values are compared using the format yyyy-MM-dd")
     public static boolean evaluate(Date date1, String value)
     {
+        long millis2 = DateUtility.getMillis(value, CheckConstants.DEFAULT_DATE_FORMAT);
         
-        SimpleDateFormat sdf = new SimpleDateFormat(CheckConstants.DEFAULT_DATE_FORMAT);
-
-        boolean result = false;
-        
-        try
-        {
-	        Date date2 = sdf.parse(value);
-	        
-	        Calendar cal1 = Calendar.getInstance();
-	        cal1.setTime(date1);
-	        
-	        Calendar cal2 = Calendar.getInstance();
-	        cal2.setTime(date2);
-	        
-	        result = !cal1.equals(cal2);
-        }
-        catch(Exception ex)
-        {
-        	
-        }
-        return result;
-    
+        return date1!=null && millis2!=DateUtility.NO_DATE && date1.getTime()!=millis2;
     }
     
     /**
@@ -432,20 +371,12 @@ public class CheckIsNotEqual extends GenericCheck
     @CheckMethodAnnotation(noteParameter={"Provide a date format different from the default yyyy-MM-dd"})
     public static boolean evaluate(Date date1, Date date2, String format)
     {
-    	SimpleDateFormat sdf = new SimpleDateFormat(format);
-        
-    	String date1String=null;
-    	String date2String=null;
-    	
-    	if(date1!=null)
-    	{
-    		date1String = sdf.format(date1);
-    	}
-    	if(date2!=null)
+    	if(date1!=null && date2!=null)
     	{
-    		date2String = sdf.format(date2);
+    		return !DateUtility.isEqual(date1.getTime(), date2.getTime(), format);
     	}
-    	return !date1String.equals(date2String);
+    	// throws an exception if the first date is undefined
+    	return !date1.equals(date2);
     }
     
     /**
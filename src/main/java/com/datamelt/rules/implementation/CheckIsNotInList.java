@@ -18,8 +18,8 @@
  */
 package com.datamelt.rules.implementation;
 
-import java.util.HashSet;
-
+import com.datamelt.rules.core.util.LongValueSet;
+import com.datamelt.rules.core.util.StringValueSet;
 import com.datamelt.util.CheckAnnotation;
 import com.datamelt.util.CheckMethodAnnotation;
 
@@ -27,8 +27,9 @@ import com.datamelt.util.CheckMethodAnnotation;
  * Checks if the given string value is not contained in a list of values separated by comma.
  * Spaces in the individual values are removed from the beginning and the end.
  * 
- * the list of expected values from the rule is cached into a HashSet for better performance
- * if there is more than one value to compare
+ * when the check is used in a rule, the list of expected values is converted once into an immutable
+ * set of values and the evaluatePrepared methods are called with this set, so that each check
+ * is a single lookup in the set
  * 
  * An example for a list would be:
  *
@@ -52,30 +53,7 @@ public class CheckIsNotInList extends GenericCheck
 	@CheckMethodAnnotation(note="Without parameter Strings are compared case sensitive",noteParameter={"Second string is a comma separated list of values"})
     public static boolean evaluate(String value,String list)
     {
-    	boolean matches = false;
-        if(value!=null)
-        {
-        	HashSet<String>cache = getValueCache();
-        	// if we have a value in the hashset, it means that we
-    		// have more than 1 value
-        	if(cache.size()>0)
-        	{
-        		if(cache.contains(value))
-        		{
-        			matches = true;
-        		}
-	    	}
-        	// if there is no value in the hashset then we have a single value only
-    		// and we do a simple compare of values
-        	else
-        	{
-        		if(value.equals(list))
-        		{
-        			matches = true;
-        		}
-        	}
-        }
-        return !matches;
+        return evaluatePrepared(value, new StringValueSet(list));
     }
     
     /**
@@ -89,52 +67,7 @@ public class CheckIsNotInList extends GenericCheck
 	@CheckMethodAnnotation(note="Without parameter Strings are compared case sensitive",noteParameter={"Define if the comparison ignores case differences"})
     public static boolean evaluate(String value,String list, boolean ignoreCase)
     {
-    	boolean matches = false;
-    	if(value!=null)
-    	{
-    		HashSet<String>cache = getValueCache();
-    		// if we have a value in the hashset, it means that we
-    		// have more than 1 value
-    		if(cache.size()>0)
-        	{
-	    		if(!ignoreCase)
-	    		{
-		        	if(cache.contains(value))
-		    		{
-		    			matches = true;
-		    		}
-	    		}
-	    		// if there is no value in the hashset then we have a single value only
-	    		// and we do a simple compare of values
-		        else
-		        {
-		        	if(cache.contains(value.toLowerCase())|| cache.contains(value.toUpperCase()))
-		    		{
-		    			matches = true;
-		    		}
-		        }
-        	}
-    		// if there is no value in the hashset then we have a single value only
-    		// and we do a simple compare of values
-    		else
-    		{
-    			if(!ignoreCase)
-	    		{
-		        	if(list.equals(value))
-		    		{
-		    			matches = true;
-		    		}
-	    		}
-		        else
-		        {
-		        	if(list.toLowerCase().contentEquals(value.toLowerCase()))
-		    		{
-		    			matches = true;
-		    		}
-		        }
-    		}
-    	}
-        return !matches;
+    	return evaluatePrepared(value, new StringValueSet(list), ignoreCase);
     }
     
     /**
@@ -149,29 +82,7 @@ public class CheckIsNotInList extends GenericCheck
     @CheckMethodAnnotation(noteParameter={"String is a comma separated list of values"})
     public static boolean evaluate(int value, String list)
     {
-    	boolean matches = false;
-    	HashSet<String>cache = getValueCache();
-    	// if we have a value in the hashset, it means that we
-		// have more than 1 value
-    	if(cache.size()>0)
-    	{
-	    	if(cache.contains(String.valueOf(value)))
-			{
-				matches = true;
-	
-	    	}
-    	}
-    	// if there is no value in the hashset then we have a single value only
-		// and we do a simple compare of values
-    	else
-    	{
-    		if(list.equals(String.valueOf(value)))
-			{
-				matches = true;
-	
-	    	}
-    	}
-        return !matches;
+    	return evaluatePrepared(value, new LongValueSet(list));
     }
     
     /**
@@ -185,29 +96,69 @@ public class CheckIsNotInList extends GenericCheck
      */
     @CheckMethodAnnotation(noteParameter={"String is a comma separated list of values"})
     public static boolean evaluate(long value, String list)
+    {
+    	return evaluatePrepared(value, new LongValueSet(list));
+    }
+    
+    /**
+     * Checks if the given string value is not contained in the prepared set of values.
+     * 
+     * @param value		the first value for the comparison
+     * @param values	the set of values created from the list of values
+     * @return			indication if the value is not contained in the set of values
+     */
+    public static boolean evaluatePrepared(String value, StringValueSet values)
+    {
+        boolean matches = value!=null && values.contains(value);
+        return !matches;
+    }
+    
+    /**
+     * Checks if the given string value is not contained in the prepared set of values.
+     * 
+     * @param value			the first value for the comparison
+     * @param values		the set of values created from the list of values
+     * @param ignoreCase	indication if the case of the values shall be ignored for comparison
+     * @return				indication if the value is not contained in the set of values
+     */
+    public static boolean evaluatePrepared(String value, StringValueSet values, boolean ignoreCase)
     {
     	boolean matches = false;
-    	HashSet<String>cache = getValueCache();
-    	// if we have a value in the hashset, it means that we
-		// have more than 1 value
-    	if(cache.size()>0)
-    	{
-	    	if(cache.contains(String.valueOf(value)))
-			{
-				matches = true;
-	
-	    	}
-    	}
-    	// if there is no value in the hashset then we have a single value only
-		// and we do a simple compare of values
-    	else
+    	if(value!=null)
     	{
-    		if(list.equals(String.valueOf(value)))
-			{
-				matches = true;
-	
-	    	}
+    		if(!ignoreCase)
+    		{
+    			matches = values.contains(value);
+    		}
+    		else
+    		{
+    			matches = values.containsIgnoreCase(value);
+    		}
     	}
         return !matches;
     }
+    
+    /**
+     * Checks if the given integer value is not contained in the prepared set of values.
+     * 
+     * @param value		the first value for the comparison
+     * @param values	the set of values created from the list of values
+     * @return			indication if the value is not contained in the set of values
+     */
+    public static boolean evaluatePrepared(int value, LongValueSet values)
+    {
+    	return !values.contains(value);
+    }
+    
+    /**
+     * Checks if the given long value is not contained in the prepared set of values.
+     * 
+     * @param value		the first value for the comparison
+     * @param values	the set of values created from the list of values
+     * @return			indication if the value is not contained in the set of values
+     */
+    public static boolean evaluatePrepared(long value, LongValueSet values)
+    {
+    	return !values.contains(value);
+    }
 }
@@ -18,12 +18,11 @@
  */
 package com.datamelt.rules.implementation;
 
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
 import java.util.Date;
 
 import com.datamelt.util.CheckAnnotation;
 import com.datamelt.util.CheckMethodAnnotation;
+import com.datamelt.util.DateUtility;
 
 /**
  * Checks if one value is smaller than the other value. In case a string value is used, it checks, if the length of the
@@ -311,30 +310,10 @@ public class CheckIsSmaller extends GenericCheck
     @CheckMethodAnnotation(note="Compare two String values that contain dates ",noteParameter={"Provide the date format of the string values"})
     public static boolean evaluate(String value1, String value2, String format)
     {
+        long millis1 = DateUtility.getMillis(value1, format);
+        long millis2 = DateUtility.getMillis(value2, format);
         
-        SimpleDateFormat sdf = new SimpleDateFormat(format);
-
-        boolean result = false;
-        
-        try
-        {
-	       	Date date1 = sdf.parse(value1);
-	        Date date2 = sdf.parse(value2);
-	        
-	        Calendar cal1 = Calendar.getInstance();
-	        cal1.setTime(date1);
-	        
-	        Calendar cal2 = Calendar.getInstance();
-	        cal2.setTime(date2);
-	        
-	        result = cal1.before(cal2);
-        }
-        catch(Exception ex)
-        {
-        	
-        }
-        return result;
-    
+        return millis1!=DateUtility.NO_DATE && millis2!=DateUtility.NO_DATE && millis1<millis2;
     }
     
     /**
@@ -348,29 +327,9 @@ public class CheckIsSmaller extends GenericCheck
     @CheckMethodAnnotation(note="Without parameter the String is converted to a Date using the format yyyy-MM-dd",noteParameter={"Provide a date format different from the default"})
     public static boolean evaluate(Date date1, String value2, String format)
     {
+        long millis2 = DateUtility.getMillis(value2, format);
         
-        SimpleDateFormat sdf = new SimpleDateFormat(format);
-
-        boolean result = false;
-        
-        try
-        {
-	        Date date2 = sdf.parse(value2);
-	        
-	        Calendar cal1 = Calendar.getInstance();
-	        cal1.setTime(date1);
-	        
-	        Calendar cal2 = Calendar.getInstance();
-	        cal2.setTime(date2);
-	        
-	        result = cal1.before(cal2);
-        }
-        catch(Exception ex)
-        {
-        	
-        }
-        return result;
-    
+        return date1!=null && millis2!=DateUtility.NO_DATE && date1.getTime()<millis2;
     }
     
     /**
@@ -382,29 +341,9 @@ public class CheckIsSmaller extends GenericCheck
      */
     public static boolean evaluate(Date date1, String value)
     {
+        long millis2 = DateUtility.getMillis(value, CheckConstants.DEFAULT_DATE_FORMAT);
         
-        SimpleDateFormat sdf = new SimpleDateFormat(CheckConstants.DEFAULT_DATE_FORMAT);
-
-        boolean result = false;
-        
-        try
-        {
-	        Date date2 = sdf.parse(value);
-	        
-	        Calendar cal1 = Calendar.getInstance();
-	        cal1.setTime(date1);
-	        
-	        Calendar cal2 = Calendar.getInstance();
-	        cal2.setTime(date2);
-	        
-	        result = cal1.before(cal2);
-        }
-        catch(Exception ex)
-        {
-        	
-        }
-        return result;
-    
+        return date1!=null && millis2!=DateUtility.NO_DATE && date1.getTime()<millis2;
     }
     
     /**
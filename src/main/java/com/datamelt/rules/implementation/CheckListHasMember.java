@@ -18,6 +18,7 @@
  */
 package com.datamelt.rules.implementation;
 
+import com.datamelt.rules.core.util.ValueList;
 import com.datamelt.util.CheckAnnotation;
 import com.datamelt.util.CheckMethodAnnotation;
 
@@ -26,6 +27,9 @@ import com.datamelt.util.CheckMethodAnnotation;
  * <p>
  * spaces between the individual values are removed (trim)
  * <p>
+ * the list is split once and kept in a cache, so that a list which is used again - e.g. the same value
+ * of a field in many rows - is not split and converted again.
+ * <p>
  * an example for a list would be:
  * <p>
  * 		"Rome, Paris, New York, Berlin"
@@ -48,20 +52,11 @@ public class CheckListHasMember extends GenericCheck
 	@CheckMethodAnnotation(note="First String is a comma separated list of values")
     public static boolean evaluate(String list, String value)
     {
-        boolean matches = false;
         if(list!=null)
         {
-        	String [] entries = list.split(",");
-	        for(int i=0;i< entries.length;i++)
-	    	{
-	        	if(entries[i].trim().equals(value.trim()))
-	    		{
-	        		matches = true;
-	    			break;
-	    		}
-	    	}
+        	return ValueList.get(list).contains(value);
         }
-        return matches;
+        return false;
     }
     
     /**
@@ -75,31 +70,13 @@ public class CheckListHasMember extends GenericCheck
 	@CheckMethodAnnotation(note="First String is a comma separated list of values",noteParameter={"Ignore case differences during comparison"})
     public static boolean evaluate(String list, String value, boolean ignoreCase)
     {
-    	boolean matches = false;
     	if(list!=null)
     	{
-	    	String [] entries = list.split(",");
-	        for(int i=0;i<entries.length;i++)
-	    	{
-	        	if(!ignoreCase)
-	    		{
-		        	if(entries[i].trim().equals(value.trim()))
-		    		{
-		    			matches = true;
-		    			break;
-		    		}
-	    		}
-		        else
-		        {
-		        	if(entries[i].trim().toLowerCase().equals(value.trim().toLowerCase()))
-		    		{
-		    			matches = true;
-		    			break;
-		    		}
-		        }
-	    	}
+    		ValueList values = ValueList.get(list);
+    		boolean matches = ignoreCase ? values.containsIgnoreCase(value) : values.contains(value);
+    		return matches;
     	}
-        return matches;
+        return false;
     }
     
     /**
@@ -112,17 +89,7 @@ public class CheckListHasMember extends GenericCheck
 	@CheckMethodAnnotation(note="First String is a comma separated list of values")
     public static boolean evaluate(String list, int value )
     {
-    	boolean matches = false;
-    	String [] entries = list.split(",");
-        for(int i=0;i<entries.length;i++)
-    	{
-        	if(Integer.parseInt(entries[i].trim()) == value)
-    		{
-    			matches = true;
-    			break;
-    		}
-    	}
-        return matches;
+    	return ValueList.get(list).containsInteger(value);
     }
     
     /**
@@ -135,16 +102,6 @@ public class CheckListHasMember extends GenericCheck
 	@CheckMethodAnnotation(note="First String is a comma separated list of values")
     public static boolean evaluate(String list, long value)
     {
-    	boolean matches = false;
-    	String [] entries = list.split(",");
-        for(int i=0;i<entries.length;i++)
-    	{
-        	if(Long.parseLong(entries[i].trim()) == value)
-    		{
-    			matches = true;
-    			break;
-    		}
-    	}
-        return matches;
+    	return ValueList.get(list).containsLong(value);
     }
 }
@@ -18,6 +18,7 @@
  */
 package com.datamelt.rules.implementation;
 
+import com.datamelt.rules.core.util.RegexPattern;
 import com.datamelt.util.CheckAnnotation;
 
 /**
@@ -25,6 +26,9 @@ import com.datamelt.util.CheckAnnotation;
  * <p>
  * the pattern is a regular expression as documented in the java api.
  * <p>
+ * when the check is used in a rule, the pattern is compiled once and the evaluatePrepared method is called
+ * with the compiled pattern. patterns given by the value of a field are compiled once and kept in a cache.
+ * <p>
  * The first parameter of a given method is always the value of the field that shall be checked. The second parameter is either another field to check against 
  * or an expected value (fixed value) to check against the first value.
  * 
@@ -44,7 +48,26 @@ public class CheckNotMatches extends GenericCheck
     {
         if(value!=null && pattern!=null)
         {
-        	return !value.matches(pattern);
+        	return !RegexPattern.get(pattern).matches(value);
+        }
+        else
+        {
+        	return false;
+        }
+    }
+    
+    /**
+     * Evaluates if the string does not match the compiled regular expression pattern
+     * 
+     * @param value		the value to compare
+     * @param pattern	the compiled pattern to compare against
+     * @return			indication if the string does not match the pattern
+     */
+    public static boolean evaluatePrepared(String value,RegexPattern pattern)
+    {
+        if(value!=null)
+        {
+        	return !pattern.matches(value);
         }
         else
         {
@@ -18,12 +18,15 @@
  */
 package com.datamelt.rules.implementation;
 
-import com.datamelt.rules.core.util.Soundex;
+import com.datamelt.rules.core.util.SoundexCode;
 import com.datamelt.util.CheckAnnotation;
 
 /**
  * checks if a string does not sound like a given string using the soundex algorithm. 
  * <p>
+ * when the check is used in a rule, the soundex code of the expected value is created once and the evaluatePrepared
+ * method is called with this code.
+ * <p>
  * The first parameter of a given method is always the value of the field that shall be checked. The second parameter is either another field to check against 
  * or an expected value (fixed value) to check against the first value.
  * 
@@ -43,7 +46,7 @@ public class CheckNotSoundsLike extends GenericCheck
     {
         if(value!=null && expectedValue!=null)
         {
-        	return !Soundex.soundex(value).equals(Soundex.soundex(expectedValue));
+        	return evaluatePrepared(value, new SoundexCode(expectedValue));
         }
         else
         {
@@ -51,4 +54,23 @@ public class CheckNotSoundsLike extends GenericCheck
         }
     }
 
+	/**
+	 * Checks if a string does not sound like the value of the given soundex code
+     * 
+     * @param value			the first value for comparison
+     * @param expectedCode	the soundex code of the second value - to compare against the first value
+     * @return				indication if the first value does not sound like the second value
+     */
+    public static boolean evaluatePrepared(String value, SoundexCode expectedCode)
+    {
+    	if(value!=null)
+        {
+    		return !expectedCode.soundsLike(value);
+        }
+    	else
+    	{
+    		return false;
+    	}
+    }
+
 }
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.rules.implementation;
+
+import com.datamelt.rules.core.util.ColognePhoneticCode;
+import com.datamelt.util.CheckAnnotation;
+
+/**
+ * checks if a string sounds like a given string using the cologne phonetics.
+ * <p>
+ * when the check is used in a rule, the code of the expected value is created once and the evaluatePrepared
+ * method is called with this code. the codes of the values of the fields are kept in a bounded cache.
+ * <p>
+ * The first parameter of a given method is always the value of the field that shall be checked. The second parameter is either another field to check against 
+ * or an expected value (fixed value) to check against the first value.
+ */
+@CheckAnnotation(name="Check Sounds Like Cologne", description="Checks if a string sounds like the other, using the cologne phonetics for german words and names",nameDescriptive="sounds like (cologne phonetics)",checkSingleField=0)
+public class CheckSoundsLikeCologne extends GenericCheck
+{
+	/**
+	 * Checks if a string sounds like a given string using the cologne phonetics
+     * 
+     * @param value			the first value for comparison
+     * @param expectedValue	the second value for comparison - to compare against the first value
+     * @return				indication if the first value sounds like the second value
+     */
+    public static boolean evaluate(String value, String expectedValue)
+    {
+    	if(value!=null && expectedValue!=null)
+        {
+    		return evaluatePrepared(value, new ColognePhoneticCode(expectedValue));
+        }
+    	else
+    	{
+    		return false;
+    	}
+    }
+
+	/**
+	 * Checks if a string sounds like the value of the given code
+     * 
+     * @param value			the first value for comparison
+     * @param expectedCode	the code of the second value - to compare against the first value
+     * @return				indication if the first value sounds like the second value
+     */
+    public static boolean evaluatePrepared(String value, ColognePhoneticCode expectedCode)
+    {
+    	if(value!=null)
+        {
+    		return expectedCode.soundsLike(value);
+        }
+    	else
+    	{
+    		return false;
+    	}
+    }
+}
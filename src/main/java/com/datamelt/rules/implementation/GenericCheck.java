@@ -19,7 +19,6 @@
 package com.datamelt.rules.implementation;
 
 import java.io.Serializable;
-import java.util.HashSet;
 
 /**
  * this class is the base class of all classes that check
@@ -31,16 +30,6 @@ public class GenericCheck implements Serializable
 {
 	public static final long serialVersionUID = 1964070325;
 	public static final String GENERIC_CHECK_METHOD_EVALUATE = "evaluate";
-	
-	private static HashSet<String> valueCache;
-	
-	public static void setValueCache(HashSet<String> cache)
-	{
-		valueCache = cache;
-	}
-	
-	public static HashSet<String> getValueCache()
-	{
-		return valueCache;
-	}
+	// name of the method that gets the list of expected values of a rule as a prepared set of values
+	public static final String GENERIC_CHECK_METHOD_EVALUATE_PREPARED = "evaluatePrepared";
 }
@@ -81,6 +81,7 @@ public class Parser extends DefaultHandler implements ContentHandler
     private static final String TAG_GROUP_VALID_UNTIL	  				= "validuntil";
     private static final String TAG_GROUP_DEPENDENT_GROUP_ID  			= "dependentgroupid";
     private static final String TAG_GROUP_DEPENDENT_GROUP_EXECUTE_IF 	= "dependentgroupexecuteif";
+    private static final String TAG_GROUP_SHORT_CIRCUIT 				= "shortcircuit";
     private static final String TAG_SUBGROUP	          				= "subgroup";
     private static final String TAG_SUBGROUP_ID          				= "id";
     private static final String TAG_SUBGROUP_DESCRIPTION  				= "description";
@@ -134,6 +135,10 @@ public class Parser extends DefaultHandler implements ContentHandler
     
     private static final String TAG_TYPE_SETTER = "setter";
     
+    // creating the factory and the SAX parser takes longer than parsing a small rule file,
+    // so each thread keeps its parser and reuses it for all files it parses
+    private static final ThreadLocal<SAXParser> saxParsers = new ThreadLocal<SAXParser>();
+    
 	/**
 	 * constructor for a parser object that is used to parse a rule definition
 	 * xml file. pass a VariableReplacer object to this constructor, which
@@ -160,10 +165,9 @@ public class Parser extends DefaultHandler implements ContentHandler
 		{
 			throw new FileNotFoundException("file not found: " + filename);
 		}
+        SAXParser saxParser = getSaxParser();
         try
         {
-        	SAXParserFactory factory = SAXParserFactory.newInstance();
-        	SAXParser saxParser = factory.newSAXParser();
         	saxParser.parse(filename,this);
         }
         catch(FileNotFoundException ex)
@@ -174,6 +178,10 @@ public class Parser extends DefaultHandler implements ContentHandler
         {
         	throw new SAXException("error parsing xml file: " + filename + " line: " + ex.getLineNumber());
         }
+        finally
+        {
+        	saxParser.reset();
+        }
     }
     
     /**
@@ -185,16 +193,37 @@ public class Parser extends DefaultHandler implements ContentHandler
      */
     public void parse(InputStream stream) throws Exception
     {
+    	SAXParser saxParser = getSaxParser();
     	try
     	{
-    		SAXParserFactory factory = SAXParserFactory.newInstance();
-    		SAXParser saxParser = factory.newSAXParser();
     		saxParser.parse(new org.xml.sax.InputSource(stream),this);
     	}
     	catch(SAXParseException ex)
         {
         	throw new SAXException("error parsing xml inputstream line: " + ex.getLineNumber());
         }
+    	finally
+    	{
+    		saxParser.reset();
+    	}
+    }
+    
+    /**
+     * returns the SAX parser of the current thread. the parser is created when
+     * the thread parses a file for the first time.
+     * 
+     * @return				the SAX parser of the current thread
+     * @throws Exception	exception if the parser can not be created
+     */
+    private static SAXParser getSaxParser() throws Exception
+    {
+    	SAXParser saxParser = saxParsers.get();
+    	if(saxParser==null)
+    	{
+    		saxParser = SAXParserFactory.newInstance().newSAXParser();
+    		saxParsers.set(saxParser);
+    	}
+    	return saxParser;
     }
     
     public void startDocument() throws SAXException
@@ -222,6 +251,10 @@ public class Parser extends DefaultHandler implements ContentHandler
             {
             	group.setOutputAfterActions(Boolean.TRUE);
             }
+            if(atts.getValue(TAG_GROUP_SHORT_CIRCUIT)!=null && atts.getValue(TAG_GROUP_SHORT_CIRCUIT).equals(TAG_TYPE_TRUE))
+            {
+            	group.setShortCircuit(true);
+            }
             if(atts.getValue(TAG_GROUP_VALID_FROM)!=null)
             {
             	group.setValidFrom(atts.getValue(TAG_GROUP_VALID_FROM));
@@ -35,6 +35,7 @@ import org.apache.log4j.Logger;
 
 import com.datamelt.rules.core.RuleGroup;
 import com.datamelt.rules.engine.BusinessRulesEngine;
+import com.datamelt.rules.engine.RuleEngineSession;
 import com.datamelt.server.transform.Transformer;
 
 public class ClientHandler extends Thread
@@ -42,18 +43,21 @@ public class ClientHandler extends Thread
 	private String processId;
 	private Socket socket;
     private BusinessRulesEngine ruleEngine;
+    // the session of this client. the rule engine is shared by all clients
+    private RuleEngineSession session;
     private String ruleFileFolder;
     private String ruleFile;
     private long clientStart;
     private long serverStart;
     private long rowsProcessed=0;
     private Transformer transformer;
+    private RuleEngineServerMonitor monitor;
     private ObjectOutputStream outputStream;
     private ObjectInputStream inputStream;
     
     // list of possible messages
     // the "exit" message is explicitly excluded here
-    public static final String[] MESSAGES					= {"uptime","rulefile","rowsprocessed","reload","processid","version","groups","hello"};
+    public static final String[] MESSAGES					= {"uptime","rulefile","rowsprocessed","reload","processid","version","groups","hello","rulesetversion","rulesetloaded"};
     
     public static final String RESPONSE_UPTIME 				= "uptime";
     public static final String RESPONSE_RULEFILE 			= "rulefile";
@@ -64,28 +68,27 @@ public class ClientHandler extends Thread
     public static final String RESPONSE_RULEENGINE_VERSION	= "version";
     public static final String RESPONSE_NUMBER_OF_GROUPS	= "groups";
     public static final String RESPONSE_HELLO				= "hello";
+    public static final String RESPONSE_RULESET_VERSION		= "rulesetversion";
+    public static final String RESPONSE_RULESET_LOADED		= "rulesetloaded";
     
     private static final String DEFAULT_DATETIME_FORMAT		= "yyyy-MM-dd HH:mm:ss";
-    private static SimpleDateFormat sdf						= new SimpleDateFormat(DEFAULT_DATETIME_FORMAT);
+    private SimpleDateFormat sdf							= new SimpleDateFormat(DEFAULT_DATETIME_FORMAT);
     
     final static Logger logger 								= Logger.getLogger(ClientHandler.class);
     
-    ClientHandler(String processId, Socket socket, BusinessRulesEngine ruleEngine, Transformer transformer, long serverStart) throws Exception
+    ClientHandler(String processId, Socket socket, BusinessRulesEngine ruleEngine, String ruleFileFolder, String ruleFile, Transformer transformer, long serverStart, RuleEngineServerMonitor monitor) throws Exception
     {
     	this.clientStart = System.currentTimeMillis();
     	this.serverStart = serverStart;
+    	this.monitor = monitor;
     	this.processId= processId;
         this.transformer = transformer;
         this.socket = socket;
+        this.ruleFileFolder = ruleFileFolder;
+        this.ruleFile = ruleFile;
         
         this.ruleEngine = ruleEngine;
-        
-        // if no transformer is defined then no detailed output is generated. so we don't need
-        // the detailed results of the rule engine. if one is defined, we keep them.
-        if(transformer!=null)
-        {
-        	ruleEngine.setPreserveRuleExcecutionResults(true);
-        }
+        createSession();
         
         this.outputStream = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
         // flush MUST be called after creating the output stream, otherwise the stream blocks
@@ -96,6 +99,7 @@ public class ClientHandler extends Thread
     @Override
     public void run()
     {
+    	monitor.clientConnected();
     	try
         {
     		boolean ok=true;
@@ -103,25 +107,28 @@ public class ClientHandler extends Thread
     		{
             	// waiting for a server object on the input stream
             	Object object = inputStream.readObject();
+            	
+            	// if the rules were reloaded - by this or any other client - the next row uses the new rules
+            	if(session.getRuleSet()!=ruleEngine.getRuleSet())
+            	{
+            		createSession();
+            	}
 
             	if(object instanceof RuleEngineServerObject)
             	{
 	            	RuleEngineServerObject serverObject = (RuleEngineServerObject) object;
-	            		
-	                // set the output type
-	                ruleEngine.setOutputType(serverObject.getOutputType());
 	                
 	                // run the rule engine
 	                try
 	                {
-	                	ruleEngine.run("row_" + rowsProcessed + "_" + sdf.format(new Date()), serverObject.getFields());
+	                	session.run("row_" + rowsProcessed + "_" + sdf.format(new Date()), serverObject.getFields());
 	                	// set the fields of the object by using the results from the rule engine
-		                serverObject.setTotalGroups(ruleEngine.getNumberOfGroups());
-		                serverObject.setGroupsFailed(ruleEngine.getNumberOfGroupsFailed());
-		                serverObject.setGroupsSkipped(ruleEngine.getNumberOfGroupsSkipped());
-		                serverObject.setTotalRules(ruleEngine.getNumberOfRules());
-		                serverObject.setRulesFailed(ruleEngine.getNumberOfRulesFailed());
-		                serverObject.setTotalActions(ruleEngine.getNumberOfActions());
+		                serverObject.setTotalGroups(session.getNumberOfGroups());
+		                serverObject.setGroupsFailed(session.getNumberOfGroupsFailed());
+		                serverObject.setGroupsSkipped(session.getNumberOfGroupsSkipped());
+		                serverObject.setTotalRules(session.getNumberOfRules());
+		                serverObject.setRulesFailed(session.getNumberOfRulesFailed());
+		                serverObject.setTotalActions(session.getNumberOfActions());
 		                serverObject.setObjectLabel(serverObject.getFields().getFieldValues());
 		                serverObject.setProcessId(processId);
 	                }
@@ -133,20 +140,21 @@ public class ClientHandler extends Thread
 	                
 	                // count the processed rows
 	                rowsProcessed++;
+	                monitor.addRow();
 	                
 	                outputStream.writeObject(serverObject);
 	                outputStream.flush();
 	                
 	                // add additional information of the rule engine to the server object for output purposes
 	                // we don't send these back to the client
-	                serverObject.setRuleGroups(ruleEngine.getGroups());
-	                serverObject.setRuleExecutionCollection(ruleEngine.getRuleExecutionCollection());
+	                serverObject.setRuleGroups(session.getGroups());
+	                serverObject.setRuleExecutionCollection(session.getRuleExecutionCollection());
 	                
 	                // output the results
-	                output(serverObject,ruleEngine.getGroups());
+	                output(serverObject,session.getGroups());
 	                
 	               	// clear the execution results, otherwise they get accumulated
-	               	ruleEngine.getRuleExecutionCollection().clear();
+	               	session.getRuleExecutionCollection().clear();
             	}
             	else if(object instanceof String)
             	{
@@ -167,9 +175,13 @@ public class ClientHandler extends Thread
             		}
             		else if(serverObject.equals(RESPONSE_RELOAD))
             		{
+            			// the new rules replace the current rules once they are completely loaded. other
+            			// clients continue to use the current rules until then
             			ruleEngine.reloadZipFile(new ZipFile(ruleFileFolder + ruleFile));
+            			// the session must be created again to use the reloaded rules
+            			createSession();
             			
-    	                String responseMessage = "reloaded rule file: " + ruleFileFolder + ruleFile;
+    	                String responseMessage = "reloaded rule file: " + ruleFileFolder + ruleFile + " - ruleset version: " + session.getRuleSet().getVersion();
     	                sendMessage(responseMessage);
     	                
     	                logger.info("reloaded rule file: " + responseMessage);
@@ -201,13 +213,23 @@ public class ClientHandler extends Thread
             		}
             		else if(serverObject.equals(RESPONSE_NUMBER_OF_GROUPS))
             		{
-    	                String responseMessage = "" + ruleEngine.getNumberOfGroups();
+    	                String responseMessage = "" + session.getNumberOfGroups();
     	                sendMessage(responseMessage);
             		}
             		else if(serverObject.equals(RESPONSE_HELLO))
             		{
     	                sendMessage(RESPONSE_HELLO + " client");
             		}
+            		else if(serverObject.equals(RESPONSE_RULESET_VERSION))
+            		{
+    	                String responseMessage = "" + session.getRuleSet().getVersion();
+    	                sendMessage(responseMessage);
+            		}
+            		else if(serverObject.equals(RESPONSE_RULESET_LOADED))
+            		{
+    	                String responseMessage = sdf.format(new Date(session.getRuleSet().getLoadTime()));
+    	                sendMessage(responseMessage);
+            		}
             		else
             		{
     	                String responseMessage = "unknown request: " + serverObject;
@@ -274,6 +296,35 @@ public class ClientHandler extends Thread
         	}
             e.printStackTrace();
         }
+    	finally
+    	{
+    		// pass the remaining counters of the session to the monitor of the engine
+    		session.flushMonitor();
+    		monitor.clientDisconnected();
+    	}
+    }
+    
+    /**
+     * creates the session of this client from the rule engine. the session is
+     * used to run the rules, so that multiple clients can run the rules at the same time.
+     */
+    private void createSession()
+    {
+    	if(session!=null)
+    	{
+    		session.flushMonitor();
+    	}
+    	session = ruleEngine.createSession();
+    	
+        // if no transformer is defined then no detailed output is generated. so we don't need
+        // the detailed results of the rule engine. if one is defined, we keep them.
+        if(transformer!=null)
+        {
+        	session.setPreserveRuleExcecutionResults(true);
+        	// the output type of the client selects the groups that are output, not the rules. so the
+        	// results of all rules are kept for the transformer
+        	session.setOutputType(BusinessRulesEngine.OUTPUT_TYPE_FAILED_AND_PASSED);
+        }
     }
     
     private void output(RuleEngineServerObject serverObject,ArrayList<RuleGroup> groups) throws Exception
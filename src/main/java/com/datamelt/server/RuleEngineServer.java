@@ -35,6 +35,7 @@ import org.apache.log4j.Logger;
 
 import com.datamelt.rules.core.ReferenceField;
 import com.datamelt.rules.engine.BusinessRulesEngine;
+import com.datamelt.rules.engine.RuleSetSnapshot;
 import com.datamelt.server.transform.Transformer;
 import com.datamelt.util.FileUtility;
 
@@ -43,17 +44,20 @@ public class RuleEngineServer extends Thread
 	private ServerSocket serverSocket;
     private String ruleFileFolder;
     private String ruleFile;
+    private boolean useSnapshot;
     private Properties properties = new Properties();
     private Transformer transformer;
     private int port;
     private String propertiesFileFullname;
     private long serverStart;
+    private RuleEngineServerMonitor monitor;
     
     private static final String PROPERTIES_FILE 			= "server.properties";
     
     private static final String PROPERTY_PORT 				= "server.port";
     private static final String PROPERTY_FOLDER_RULEFILE 	= "rulefile.folder";
     private static final String PROPERTY_RULEFILE 			= "rulefile.name";
+    private static final String PROPERTY_RULEFILE_SNAPSHOT = "rulefile.snapshot";
     private static final String PROPERTY_TRANSFORMER 		= "transformer.classname";
 
     private static final int 	DEFAULT_PORT 				= 9000;
@@ -125,6 +129,10 @@ public class RuleEngineServer extends Thread
     	{
     		ruleFile = DEFAULT_RULEFILE;
     	}
+    	if(getProperty(PROPERTY_RULEFILE_SNAPSHOT)!=null)
+    	{
+    		useSnapshot = Boolean.parseBoolean(getProperty(PROPERTY_RULEFILE_SNAPSHOT).trim());
+    	}
     }
     
     private void createSocket() throws IOException
@@ -167,11 +175,31 @@ public class RuleEngineServer extends Thread
     	}
     	
     	// initialize the ruleengine
-    	RuleEngineServer.ruleEngine = new BusinessRulesEngine(new ZipFile(server.ruleFileFolder + server.ruleFile));
+    	if(server.useSnapshot)
+    	{
+    		// the snapshot file of the parsed rules is located next to the zip file
+    		RuleEngineServer.ruleEngine = new BusinessRulesEngine(new ZipFile(server.ruleFileFolder + server.ruleFile), RuleSetSnapshot.getSnapshotFile(new File(server.ruleFileFolder + server.ruleFile)));
+    	}
+    	else
+    	{
+    		RuleEngineServer.ruleEngine = new BusinessRulesEngine(new ZipFile(server.ruleFileFolder + server.ruleFile));
+    	}
     	
     	server.serverStart = System.currentTimeMillis();
     	logger.info("server start...");
     	
+    	// make the counters of the server and the rule engine available via JMX
+    	server.monitor = new RuleEngineServerMonitor(server.port, server.ruleFile, server.serverStart);
+    	try
+    	{
+    		server.monitor.register();
+    		ruleEngine.getMonitor().register("server-" + server.port);
+    	}
+    	catch(Exception ex)
+    	{
+    		logger.warn("could not register the monitor of the server: " + ex.getMessage());
+    	}
+    	
     	if(FileUtility.fileExists(server.ruleFileFolder, server.ruleFile))
     	{
     		logger.info("using properties from: " + server.propertiesFileFullname);
@@ -187,6 +215,7 @@ public class RuleEngineServer extends Thread
     		logger.info("rule engine file: rule groups: " + ruleEngine.getNumberOfGroups());
     		logger.info("rule engine file: rules: " + ruleEngine.getNumberOfRules());
     		logger.info("rule engine file: actions: " + ruleEngine.getNumberOfActions());
+    		logger.info("rule engine file: ruleset version: " + ruleEngine.getRuleSet().getVersion());
             for(ReferenceField field : ruleEngine.getReferenceFields())
             {
             	logger.info("rule engine file: reference field: " + field.getName() + " - type: " + field.getJavaTypeName());
@@ -213,7 +242,7 @@ public class RuleEngineServer extends Thread
             {
                 final Socket socketToClient = serverSocket.accept();
                 logger.info("client connected from: " + socketToClient.getInetAddress());
-                ClientHandler clientHandler = new ClientHandler(getProcessId(socketToClient.getInetAddress().toString()),socketToClient,ruleEngine,transformer,serverStart);
+                ClientHandler clientHandler = new ClientHandler(getProcessId(socketToClient.getInetAddress().toString()),socketToClient,ruleEngine,ruleFileFolder,ruleFile,transformer,serverStart,monitor);
                 clientHandler.start();
             }
             catch (Exception e)
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.server;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ObjectName;
+
+/**
+ * counts the client connections of the RuleEngineServer and the rows processed by all clients.
+ * the counters of the rules and groups are available from the monitor of the BusinessRulesEngine
+ * of the server.
+ * <p>
+ * the counters are updated by the threads of the clients at the same time. the rows are counted
+ * using a LongAdder, so the clients do not compete for a single counter.
+ */
+public class RuleEngineServerMonitor implements RuleEngineServerMonitorMBean
+{
+	private static final String OBJECT_NAME_PREFIX	= "com.datamelt.server:type=RuleEngineServer,port=";
+
+	private final int port;
+	private final String ruleFile;
+	private final long serverStart;
+
+	private final AtomicInteger activeConnections = new AtomicInteger();
+	private final AtomicLong totalConnections = new AtomicLong();
+	private final LongAdder rowsProcessed = new LongAdder();
+
+	RuleEngineServerMonitor(int port, String ruleFile, long serverStart)
+	{
+		this.port = port;
+		this.ruleFile = ruleFile;
+		this.serverStart = serverStart;
+	}
+
+	/**
+	 * registers the monitor with the platform MBean server, so that the counters are available
+	 * via JMX. the object name of the monitor is "com.datamelt.server:type=RuleEngineServer,port="
+	 * followed by the port of the server.
+	 *
+	 * @throws Exception	exception if a monitor for the same port is already registered
+	 */
+	void register() throws Exception
+	{
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME_PREFIX + port));
+	}
+
+	void clientConnected()
+	{
+		activeConnections.incrementAndGet();
+		totalConnections.incrementAndGet();
+	}
+
+	void clientDisconnected()
+	{
+		activeConnections.decrementAndGet();
+	}
+
+	void addRow()
+	{
+		rowsProcessed.increment();
+	}
+
+	public int getPort()
+	{
+		return port;
+	}
+
+	public String getRuleFile()
+	{
+		return ruleFile;
+	}
+
+	public long getUptimeSeconds()
+	{
+		return (System.currentTimeMillis() - serverStart) / 1000;
+	}
+
+	public int getActiveConnections()
+	{
+		return activeConnections.get();
+	}
+
+	public long getTotalConnections()
+	{
+		return totalConnections.get();
+	}
+
+	public long getRowsProcessed()
+	{
+		return rowsProcessed.sum();
+	}
+}
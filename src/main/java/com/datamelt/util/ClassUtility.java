@@ -20,7 +20,6 @@ package com.datamelt.util;
 
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 
@@ -195,26 +194,13 @@ public class ClassUtility
         // try to convert the value to a datetime value first
         else if(type.toLowerCase().equals(TYPE_DATE))
         {
-        	SimpleDateFormat sdtf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        	try
-        	{
-        		Date d = sdtf.parse(value);
-                return  d;
-        	}
+        	Date d = DateUtility.getDate(value, DateUtility.DEFAULT_DATETIME_FORMAT);
         	// if it does not work, try to make a date from the value
-        	catch(Exception ex)
+        	if(d==null)
         	{
-        		SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-            	try
-            	{
-            		Date d = sdf.parse(value);
-                    return  d;
-            	}
-            	catch(Exception ex2)
-            	{
-            		return null;
-            	}
+        		d = DateUtility.getDate(value, DateUtility.DEFAULT_DATE_FORMAT);
         	}
+        	return d;
         }
         else
         {
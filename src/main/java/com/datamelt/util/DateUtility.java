@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.util;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * utility class to convert string values to dates and to compare dates, without creating a date format
+ * or a calendar for each value.
+ * <p>
+ * dates are handled as the number of milliseconds since the epoch. values in the default formats yyyy-MM-dd and
+ * yyyy-MM-dd HH:mm:ss are converted directly, all other values and formats are parsed using a SimpleDateFormat,
+ * which is created once per thread and format and then reused. the result is the same as the one of parsing the
+ * value using a new SimpleDateFormat in the default time zone and locale.
+ */
+public final class DateUtility
+{
+	public static final String DEFAULT_DATE_FORMAT 		= "yyyy-MM-dd";
+	public static final String DEFAULT_DATETIME_FORMAT 	= "yyyy-MM-dd HH:mm:ss";
+
+	// the result if a value can not be converted to a date
+	public static final long NO_DATE 					= Long.MIN_VALUE;
+
+	public static final long MILLIS_PER_DAY 			= 86400000L;
+
+	// values before this year are parsed using the date format: before the gregorian calendar
+	// was introduced, the date format uses the julian calendar
+	private static final int MINIMUM_YEAR 				= 1583;
+	private static final long MINIMUM_MILLIS 			= getEpochDay(MINIMUM_YEAR, 1, 2) * MILLIS_PER_DAY;
+
+	// the number of date formats kept per thread
+	private static final int MAXIMUM_FORMATS 			= 64;
+
+	private static final ThreadLocal<DateFormats> dateFormats = new ThreadLocal<DateFormats>()
+	{
+		@Override
+		protected DateFormats initialValue()
+		{
+			return new DateFormats();
+		}
+	};
+
+	private DateUtility()
+	{
+	}
+
+	/**
+	 * converts the value to the number of milliseconds since the epoch using the given format
+	 *
+	 * @param value		the value to convert
+	 * @param format	the format of the value according to the SimpleDateFormat class
+	 * @return			the milliseconds since the epoch or NO_DATE if the value can not be converted
+	 */
+	public static long getMillis(String value, String format)
+	{
+		SimpleDateFormat dateFormat = getDateFormat(format);
+		if(value==null)
+		{
+			return NO_DATE;
+		}
+		if(isGregorian(dateFormat))
+		{
+			long millis = NO_DATE;
+			if(format.equals(DEFAULT_DATE_FORMAT) || format.equals(DEFAULT_DATETIME_FORMAT))
+			{
+				millis = getMillis(value, format.length(), dateFormat.getTimeZone());
+			}
+			if(millis!=NO_DATE)
+			{
+				return millis;
+			}
+		}
+		ParsePosition position = new ParsePosition(0);
+		Date date = dateFormat.parse(value, position);
+		if(date==null || position.getIndex()==0)
+		{
+			return NO_DATE;
+		}
+		return date.getTime();
+	}
+
+	/**
+	 * converts the value to a date using the given format
+	 *
+	 * @param value		the value to convert
+	 * @param format	the format of the value according to the SimpleDateFormat class
+	 * @return			the date or null if the value can not be converted
+	 */
+	public static Date getDate(String value, String format)
+	{
+		long millis = getMillis(value, format);
+		if(millis==NO_DATE)
+		{
+			return null;
+		}
+		return new Date(millis);
+	}
+
+	/**
+	 * checks if the two points in time result in the same value, when they are formatted using the given format.
+	 * for the default date format this is the case if they are on the same day.
+	 *
+	 * @param millis1	the milliseconds since the epoch of the first point in time
+	 * @param millis2	the milliseconds since the epoch of the second point in time
+	 * @param format	the format according to the SimpleDateFormat class
+	 * @return			indicator if the formatted values are equal
+	 */
+	public static boolean isEqual(long millis1, long millis2, String format)
+	{
+		SimpleDateFormat dateFormat = getDateFormat(format);
+		if(format.equals(DEFAULT_DATE_FORMAT) && isGregorian(dateFormat) && millis1>=MINIMUM_MILLIS && millis2>=MINIMUM_MILLIS)
+		{
+			TimeZone zone = dateFormat.getTimeZone();
+			return getDay(millis1, zone)==getDay(millis2, zone);
+		}
+		return dateFormat.format(new Date(millis1)).equals(dateFormat.format(new Date(millis2)));
+	}
+
+	/**
+	 * returns the day of the point in time in the default time zone - as the number of days since the epoch
+	 *
+	 * @param millis	the milliseconds since the epoch
+	 * @return			the number of days since the epoch
+	 */
+	public static long getDay(long millis)
+	{
+		return getDay(millis, TimeZone.getDefault());
+	}
+
+	/**
+	 * returns the time of the day of the point in time in the default time zone - as the number of seconds since midnight
+	 *
+	 * @param millis	the milliseconds since the epoch
+	 * @return			the number of seconds since midnight
+	 */
+	public static int getSecondOfDay(long millis)
+	{
+		long localMillis = millis + TimeZone.getDefault().getOffset(millis);
+		return (int)(Math.floorMod(localMillis, MILLIS_PER_DAY) / 1000);
+	}
+
+	private static long getDay(long millis, TimeZone zone)
+	{
+		return Math.floorDiv(millis + zone.getOffset(millis), MILLIS_PER_DAY);
+	}
+
+	/**
+	 * converts a value in the format yyyy-MM-dd or yyyy-MM-dd HH:mm:ss - depending on the length - to the
+	 * milliseconds since the epoch. returns NO_DATE if the value has a different format, if it is not a
+	 * valid date or if the offset of the time zone changes around the point in time. these values are
+	 * left to the date format.
+	 */
+	private static long getMillis(String value, int length, TimeZone zone)
+	{
+		if(value.length()!=length || value.charAt(4)!='-' || value.charAt(7)!='-')
+		{
+			return NO_DATE;
+		}
+		int year = getNumber(value, 0, 4);
+		int month = getNumber(value, 5, 2);
+		int day = getNumber(value, 8, 2);
+		if(year<MINIMUM_YEAR || month<1 || month>12 || day<1 || day>getLengthOfMonth(year, month))
+		{
+			return NO_DATE;
+		}
+		int secondOfDay = 0;
+		if(length>10)
+		{
+			if(value.charAt(10)!=' ' || value.charAt(13)!=':' || value.charAt(16)!=':')
+			{
+				return NO_DATE;
+			}
+			int hours = getNumber(value, 11, 2);
+			int minutes = getNumber(value, 14, 2);
+			int seconds = getNumber(value, 17, 2);
+			if(hours<0 || hours>23 || minutes<0 || minutes>59 || seconds<0 || seconds>59)
+			{
+				return NO_DATE;
+			}
+			secondOfDay = hours * 3600 + minutes * 60 + seconds;
+		}
+		long localMillis = getEpochDay(year, month, day) * MILLIS_PER_DAY + secondOfDay * 1000L;
+		int offset = zone.getOffset(localMillis - zone.getRawOffset());
+		long millis = localMillis - offset;
+		// in a gap or an overlap the local time does not exist or exists twice. the offset of a
+		// time zone has changed by more than a day, so two days before and after are checked
+		if(zone.getOffset(millis)!=offset || zone.getOffset(millis - 2 * MILLIS_PER_DAY)!=offset || zone.getOffset(millis + 2 * MILLIS_PER_DAY)!=offset)
+		{
+			return NO_DATE;
+		}
+		return millis;
+	}
+
+	/**
+	 * returns the number represented by the digits at the given position or -1 if there is any other character
+	 */
+	private static int getNumber(String value, int start, int length)
+	{
+		int number = 0;
+		for(int i=start;i<start+length;i++)
+		{
+			char character = value.charAt(i);
+			if(character<'0' || character>'9')
+			{
+				return -1;
+			}
+			number = number * 10 + character - '0';
+		}
+		return number;
+	}
+
+	private static int getLengthOfMonth(int year, int month)
+	{
+		if(month==2)
+		{
+			return (year % 4==0 && (year % 100!=0 || year % 400==0)) ? 29 : 28;
+		}
+		return (month==4 || month==6 || month==9 || month==11) ? 30 : 31;
+	}
+
+	/**
+	 * returns the number of days since the epoch of the given date of the gregorian calendar
+	 */
+	private static long getEpochDay(int year, int month, int day)
+	{
+		// the year is counted from march, so that the leap day is the last day of the year
+		long y = month<=2 ? year - 1 : year;
+		long m = month<=2 ? month + 9 : month - 3;
+		long era = Math.floorDiv(y, 400);
+		long yearOfEra = y - era * 400;
+		long dayOfYear = (153 * m + 2) / 5 + day - 1;
+		long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097 + dayOfEra - 719468;
+	}
+
+	private static boolean isGregorian(SimpleDateFormat dateFormat)
+	{
+		return dateFormat.getCalendar().getClass()==GregorianCalendar.class;
+	}
+
+	/**
+	 * returns the date format for the given format. the date formats are kept per thread, as long as the
+	 * default time zone and locale do not change.
+	 */
+	private static SimpleDateFormat getDateFormat(String format)
+	{
+		DateFormats formats = dateFormats.get();
+		String zoneId = TimeZone.getDefault().getID();
+		Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+		if(!zoneId.equals(formats.zoneId) || !locale.equals(formats.locale) || formats.size()>=MAXIMUM_FORMATS)
+		{
+			formats.clear();
+			formats.zoneId = zoneId;
+			formats.locale = locale;
+		}
+		SimpleDateFormat dateFormat = formats.get(format);
+		if(dateFormat==null)
+		{
+			// throws an exception if the format is undefined or invalid
+			dateFormat = new SimpleDateFormat(format);
+			formats.put(format, dateFormat);
+		}
+		return dateFormat;
+	}
+
+	/**
+	 * the date formats of a thread and the time zone and locale they were created for
+	 */
+	private static class DateFormats extends HashMap<String,SimpleDateFormat>
+	{
+		private static final long serialVersionUID = 1964070911;
+
+		private String zoneId;
+		private Locale locale;
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.util;
+
+/**
+ * resolves the name of a field to the index of the field in a RowFieldCollection.
+ * <p>
+ * the rows passed to the ruleengine one after the other usually share the same HeaderRow. the
+ * index of the field is looked up in the header row once and is then kept as long as rows with
+ * the same header row - the same instance, with the same number of fields - are passed. if a row
+ * has a different header row, the index is looked up again.
+ * <p>
+ * a field index can be used by multiple threads at the same time.
+ */
+public class FieldIndex
+{
+	private final String fieldName;
+
+	// the header row the index was looked up in, together with the index
+	private volatile Binding binding;
+
+	/**
+	 * creates a field index for the field with the given name
+	 *
+	 * @param fieldName		the name of the field
+	 */
+	public FieldIndex(String fieldName)
+	{
+		this.fieldName = fieldName;
+	}
+
+	/**
+	 * returns the name of the field
+	 *
+	 * @return	the name of the field
+	 */
+	public String getFieldName()
+	{
+		return fieldName;
+	}
+
+	/**
+	 * returns the index of the field in the given header row
+	 *
+	 * @param header		the header row
+	 * @return				the index of the field
+	 * @throws Exception	exception if the field does not exist in the header row
+	 */
+	public int getIndex(HeaderRow header) throws Exception
+	{
+		Binding current = binding;
+		if(current==null || current.header!=header || current.numberOfFields!=header.getNumberOfFields())
+		{
+			current = new Binding(header, header.getNumberOfFields(), header.getFieldIndex(fieldName));
+			binding = current;
+		}
+		return current.index;
+	}
+
+	/**
+	 * returns the value of the field from the given row
+	 *
+	 * @param row			the row
+	 * @return				the value of the field
+	 * @throws Exception	exception if the field does not exist in the header row of the row
+	 */
+	public Object getFieldValue(RowFieldCollection row) throws Exception
+	{
+		return row.getFieldValue(getIndex(row.getHeader()));
+	}
+
+	private static class Binding
+	{
+		private final HeaderRow header;
+		private final int numberOfFields;
+		private final int index;
+
+		private Binding(HeaderRow header, int numberOfFields, int index)
+		{
+			this.header = header;
+			this.numberOfFields = numberOfFields;
+			this.index = index;
+		}
+	}
+}
@@ -19,9 +19,13 @@
 package com.datamelt.util;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.zip.CRC32;
 
 public class FileUtility
 {
@@ -162,4 +166,31 @@ public class FileUtility
     		return false;
     	}
     }
+    
+    /**
+     * calculates the CRC-32 checksum of the content of the given file
+     * 
+     * @param file			the file
+     * @return				the checksum of the file
+     * @throws IOException	exception if the file can not be read
+     */
+    public static long getCrc32(File file) throws IOException
+    {
+    	CRC32 crc = new CRC32();
+    	byte[] buffer = new byte[8192];
+    	InputStream input = new FileInputStream(file);
+    	try
+    	{
+    		int length;
+    		while((length = input.read(buffer))!=-1)
+    		{
+    			crc.update(buffer, 0, length);
+    		}
+    	}
+    	finally
+    	{
+    		input.close();
+    	}
+    	return crc.getValue();
+    }
 }
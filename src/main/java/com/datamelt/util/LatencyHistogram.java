@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.util;
+
+import java.util.Arrays;
+
+/**
+ * histogram of durations in nanoseconds using a fixed amount of memory.
+ * <p>
+ * the values are counted in buckets: values below 16 have a bucket of their own, above that each
+ * power of two is divided into 16 buckets of the same width. so the value of a bucket is at most
+ * 1/16 - about 6 percent - higher than the values counted in it, no matter how large the values
+ * are. values above about 73 minutes are counted in the last bucket.
+ * <p>
+ * recording a value only increments a counter, so a histogram can be used for each row processed.
+ * a histogram is not thread-safe: use one for each thread and add them up using the add method.
+ */
+public class LatencyHistogram
+{
+	// the number of bits used to divide a power of two into buckets
+	private static final int SUB_BUCKET_BITS 	= 4;
+	private static final int SUB_BUCKETS 		= 1 << SUB_BUCKET_BITS;
+	// the highest power of two that is counted
+	private static final int MAX_EXPONENT 		= 41;
+	private static final long MAX_VALUE 		= (1L << (MAX_EXPONENT + 1)) - 1;
+	private static final int NUMBER_OF_BUCKETS 	= (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+	private final long[] counts = new long[NUMBER_OF_BUCKETS];
+	private long totalCount;
+	private long totalValue;
+	private long maxValue;
+
+	/**
+	 * counts the given duration. negative values are counted as zero.
+	 *
+	 * @param nanos		the duration in nanoseconds
+	 */
+	public void record(long nanos)
+	{
+		long value = nanos<0 ? 0 : nanos;
+		counts[getBucket(value)]++;
+		totalCount++;
+		totalValue = totalValue + value;
+		if(value>maxValue)
+		{
+			maxValue = value;
+		}
+	}
+
+	/**
+	 * adds the counts of the given histogram to this histogram
+	 *
+	 * @param histogram		the histogram to add
+	 */
+	public void add(LatencyHistogram histogram)
+	{
+		for(int i=0;i<counts.length;i++)
+		{
+			counts[i] = counts[i] + histogram.counts[i];
+		}
+		totalCount = totalCount + histogram.totalCount;
+		totalValue = totalValue + histogram.totalValue;
+		if(histogram.maxValue>maxValue)
+		{
+			maxValue = histogram.maxValue;
+		}
+	}
+
+	/**
+	 * resets all counts to zero
+	 */
+	public void clear()
+	{
+		Arrays.fill(counts, 0);
+		totalCount = 0;
+		totalValue = 0;
+		maxValue = 0;
+	}
+
+	/**
+	 * returns the number of values counted
+	 *
+	 * @return	the number of values
+	 */
+	public long getTotalCount()
+	{
+		return totalCount;
+	}
+
+	/**
+	 * returns the highest value counted
+	 *
+	 * @return	the highest value in nanoseconds
+	 */
+	public long getMaxValue()
+	{
+		return maxValue;
+	}
+
+	/**
+	 * returns the mean of the values counted
+	 *
+	 * @return	the mean in nanoseconds or zero, if no values were counted
+	 */
+	public double getMean()
+	{
+		if(totalCount==0)
+		{
+			return 0;
+		}
+		return (double)totalValue / totalCount;
+	}
+
+	/**
+	 * returns the value, which the given percentage of the values counted are below or equal to -
+	 * e.g. 99 for the 99th percentile. the value returned is the highest value of the bucket the
+	 * percentile falls into, but not higher than the highest value counted.
+	 *
+	 * @param percentile	the percentile - between 0 and 100
+	 * @return				the value in nanoseconds or zero, if no values were counted
+	 */
+	public long getValueAtPercentile(double percentile)
+	{
+		if(totalCount==0)
+		{
+			return 0;
+		}
+		long rank = (long)Math.ceil(Math.min(percentile, 100) / 100 * totalCount);
+		if(rank<1)
+		{
+			rank = 1;
+		}
+		long count = 0;
+		for(int i=0;i<counts.length;i++)
+		{
+			count = count + counts[i];
+			if(count>=rank)
+			{
+				return Math.min(getHighestValue(i), maxValue);
+			}
+		}
+		return maxValue;
+	}
+
+	private static int getBucket(long value)
+	{
+		if(value>MAX_VALUE)
+		{
+			value = MAX_VALUE;
+		}
+		if(value<SUB_BUCKETS)
+		{
+			return (int)value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int)(value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	private static long getHighestValue(int bucket)
+	{
+		if(bucket<SUB_BUCKETS)
+		{
+			return bucket;
+		}
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long lowestValue = (long)(SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+		return lowestValue + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+}
@@ -0,0 +1,719 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.util;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+
+/**
+ * a batch of rows stored by column.
+ * <p>
+ * all rows of the batch share the same header row. each field of the header has a type - integer,
+ * long, double, boolean, string or date - and the values of a field are stored in a primitive array of
+ * that type: int[], long[] or double[]. booleans are stored in a bitset and dates as milliseconds in a long[].
+ * strings are dictionary encoded: each distinct string is stored once and the rows keep the index of the string.
+ * for each field a bitset marks the rows where the field is null. the arrays grow as rows are added, so a batch
+ * of many rows needs only a few objects.
+ * <p>
+ * the rules run against the rows of a batch using a cursor, which points to one row at a time. the cursor
+ * implements the TypedRow interface: rules comparing a field against an expected value use the primitive values,
+ * all other rules use the getFieldValue method of the cursor, which returns the value of the field as an object -
+ * the same way as the getFieldValue method of the RowFieldCollection.
+ * <p>
+ * actions defined for the RowFieldCollection class use the methods of the cursor with the same name
+ * and parameters. values set by an action are converted to the type of the field.
+ * <p>
+ * the batch is not synchronized: it has a single writer. rows are added and values are set by one thread
+ * at a time - this includes actions setting values through a cursor. multiple cursors may read the rows
+ * from different threads at the same time, as long as no thread changes the batch meanwhile. so a batch
+ * with rules that execute actions has to be processed by a single thread.
+ *
+ * @see TypedRow
+ */
+public class RowBatch implements Serializable
+{
+	public static final long serialVersionUID = 1964070903;
+
+	private static final int DEFAULT_CAPACITY = 1024;
+
+	private static final int KIND_INTEGER 	= 0;
+	private static final int KIND_LONG 		= 1;
+	private static final int KIND_DOUBLE 	= 2;
+	private static final int KIND_BOOLEAN 	= 3;
+	private static final int KIND_STRING 	= 4;
+	private static final int KIND_DATE 		= 5;
+
+	private final HeaderRow header;
+	private final Column[] columns;
+
+	private int numberOfRows;
+	private int capacity;
+
+	/**
+	 * creates an empty batch for the given header and the types of the fields
+	 *
+	 * @param header		the header row with the names of the fields
+	 * @param types			the type of each field of the header row: integer, long, double, boolean, string or date
+	 * @throws Exception	exception if the number of types does not match the header or a type is not supported
+	 */
+	public RowBatch(HeaderRow header, String[] types) throws Exception
+	{
+		this(header, types, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * creates an empty batch for the given header and the types of the fields, with space for the
+	 * given number of rows
+	 *
+	 * @param header		the header row with the names of the fields
+	 * @param types			the type of each field of the header row: integer, long, double, boolean, string or date
+	 * @param capacity		the number of rows the batch can hold before it has to grow
+	 * @throws Exception	exception if the number of types does not match the header or a type is not supported
+	 */
+	public RowBatch(HeaderRow header, String[] types, int capacity) throws Exception
+	{
+		if(types.length!=header.getNumberOfFields())
+		{
+			throw new Exception("the number of types [" + types.length + "] does not match the number of fields of the header row [" + header.getNumberOfFields() + "]");
+		}
+		this.header = header;
+		this.capacity = Math.max(capacity, 1);
+		this.columns = new Column[types.length];
+		for(int i=0;i<types.length;i++)
+		{
+			columns[i] = new Column(types[i], this.capacity);
+		}
+	}
+
+	/**
+	 * returns the header row of the batch
+	 *
+	 * @return	the header row
+	 */
+	public HeaderRow getHeader()
+	{
+		return header;
+	}
+
+	/**
+	 * returns the number of rows in the batch
+	 *
+	 * @return	the number of rows
+	 */
+	public int getNumberOfRows()
+	{
+		return numberOfRows;
+	}
+
+	/**
+	 * returns the type of the field with the given index
+	 *
+	 * @param column	the index of the field
+	 * @return			the type of the field
+	 */
+	public String getFieldType(int column)
+	{
+		return columns[column].type;
+	}
+
+	/**
+	 * removes all rows from the batch. the arrays and the dictionaries of the strings are kept.
+	 */
+	public void clear()
+	{
+		numberOfRows = 0;
+		for(int i=0;i<columns.length;i++)
+		{
+			columns[i].nulls.clear();
+			if(columns[i].booleans!=null)
+			{
+				columns[i].booleans.clear();
+			}
+		}
+	}
+
+	/**
+	 * adds a row to the batch. all fields of the row are null.
+	 *
+	 * @return	the index of the row
+	 */
+	public int addRow()
+	{
+		if(numberOfRows==capacity)
+		{
+			capacity = capacity * 2;
+			for(int i=0;i<columns.length;i++)
+			{
+				columns[i].grow(capacity);
+			}
+		}
+		int row = numberOfRows++;
+		for(int i=0;i<columns.length;i++)
+		{
+			columns[i].nulls.set(row);
+		}
+		return row;
+	}
+
+	/**
+	 * adds a row with the given values to the batch. the values are in the order of the fields
+	 * of the header row.
+	 *
+	 * @param values		the values of the fields
+	 * @return				the index of the row
+	 * @throws Exception	exception if a value can not be stored as the type of the field
+	 * @see					#setValue(int, int, Object)
+	 */
+	public int addRow(Object[] values) throws Exception
+	{
+		int row = addRow();
+		for(int i=0;i<values.length && i<columns.length;i++)
+		{
+			setValue(row, i, values[i]);
+		}
+		return row;
+	}
+
+	/**
+	 * returns if the field of the given row is null
+	 *
+	 * @param row		the index of the row
+	 * @param column	the index of the field
+	 * @return			indicator if the field is null
+	 */
+	public boolean isNull(int row, int column)
+	{
+		return columns[column].nulls.get(row);
+	}
+
+	/**
+	 * sets the field of the given row to null
+	 *
+	 * @param row		the index of the row
+	 * @param column	the index of the field
+	 */
+	public void setNull(int row, int column)
+	{
+		columns[column].nulls.set(row);
+	}
+
+	/**
+	 * sets the value of the field of the given row.
+	 * <p>
+	 * a string is converted to the type of the field, the same way the value of a field of a RowFieldCollection
+	 * is converted when a rule expects a different type. numbers are converted to the type of numeric fields.
+	 * a number is not truncated: for an integer or long field the number has to be a whole number within the
+	 * range of the type, otherwise an exception is thrown.
+	 *
+	 * @param row			the index of the row
+	 * @param column		the index of the field
+	 * @param value			the value
+	 * @throws Exception	exception if the value can not be stored as the type of the field
+	 */
+	public void setValue(int row, int column, Object value) throws Exception
+	{
+		Column col = columns[column];
+		if(value!=null && value instanceof String && col.kind!=KIND_STRING)
+		{
+			value = ClassUtility.getObject(col.type, (String)value);
+		}
+		if(value==null)
+		{
+			setNull(row, column);
+		}
+		else if(col.kind==KIND_INTEGER && value instanceof Number)
+		{
+			checkRange(column, (Number)value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+			setInt(row, column, ((Number)value).intValue());
+		}
+		else if(col.kind==KIND_LONG && value instanceof Number)
+		{
+			checkRange(column, (Number)value, Long.MIN_VALUE, Long.MAX_VALUE);
+			setLong(row, column, ((Number)value).longValue());
+		}
+		else if(col.kind==KIND_DOUBLE && value instanceof Number)
+		{
+			setDouble(row, column, ((Number)value).doubleValue());
+		}
+		else if(col.kind==KIND_BOOLEAN && value instanceof Boolean)
+		{
+			setBoolean(row, column, (Boolean)value);
+		}
+		else if(col.kind==KIND_STRING && value instanceof String)
+		{
+			setString(row, column, (String)value);
+		}
+		else if(col.kind==KIND_DATE && value instanceof Date)
+		{
+			setDate(row, column, (Date)value);
+		}
+		else
+		{
+			throw new Exception("value of class [" + value.getClass().getName() + "] can not be stored in field [" + header.getFieldName(column) + "] of type [" + col.type + "]");
+		}
+	}
+
+	/**
+	 * checks that the number is a whole number between the minimum and the maximum value,
+	 * so that it can be stored in an integer or long field without losing information.
+	 */
+	private void checkRange(int column, Number value, long minimum, long maximum) throws Exception
+	{
+		boolean fits;
+		if(value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
+		{
+			fits = value.longValue()>=minimum && value.longValue()<=maximum;
+		}
+		else if(value instanceof BigInteger)
+		{
+			fits = ((BigInteger)value).bitLength()<64 && value.longValue()>=minimum && value.longValue()<=maximum;
+		}
+		else if(value instanceof BigDecimal)
+		{
+			BigDecimal decimal = (BigDecimal)value;
+			fits = decimal.signum()==0 || decimal.stripTrailingZeros().scale()<=0 && decimal.compareTo(BigDecimal.valueOf(minimum))>=0 && decimal.compareTo(BigDecimal.valueOf(maximum))<=0;
+		}
+		else
+		{
+			// the maximum value of a long can not be represented as a double, so the range is checked with -minimum
+			double doubleValue = value.doubleValue();
+			fits = doubleValue==Math.rint(doubleValue) && doubleValue>=minimum && doubleValue<-(double)minimum;
+		}
+		if(!fits)
+		{
+			throw new Exception("value [" + value + "] can not be stored in field [" + header.getFieldName(column) + "] of type [" + columns[column].type + "] without losing information");
+		}
+	}
+
+	public void setInt(int row, int column, int value)
+	{
+		Column col = columns[column];
+		col.check(KIND_INTEGER);
+		col.ints[row] = value;
+		col.nulls.clear(row);
+	}
+
+	public void setLong(int row, int column, long value)
+	{
+		Column col = columns[column];
+		col.check(KIND_LONG);
+		col.longs[row] = value;
+		col.nulls.clear(row);
+	}
+
+	public void setDouble(int row, int column, double value)
+	{
+		Column col = columns[column];
+		col.check(KIND_DOUBLE);
+		col.doubles[row] = value;
+		col.nulls.clear(row);
+	}
+
+	public void setBoolean(int row, int column, boolean value)
+	{
+		Column col = columns[column];
+		col.check(KIND_BOOLEAN);
+		col.booleans.set(row, value);
+		col.nulls.clear(row);
+	}
+
+	public void setString(int row, int column, String value)
+	{
+		Column col = columns[column];
+		col.check(KIND_STRING);
+		if(value==null)
+		{
+			col.nulls.set(row);
+		}
+		else
+		{
+			col.ints[row] = col.encode(value);
+			col.nulls.clear(row);
+		}
+	}
+
+	public void setDate(int row, int column, Date value)
+	{
+		Column col = columns[column];
+		col.check(KIND_DATE);
+		if(value==null)
+		{
+			col.nulls.set(row);
+		}
+		else
+		{
+			col.longs[row] = value.getTime();
+			col.nulls.clear(row);
+		}
+	}
+
+	/**
+	 * returns the value of the field of the given row as an object
+	 *
+	 * @param row		the index of the row
+	 * @param column	the index of the field
+	 * @return			the value of the field or null
+	 */
+	public Object getValue(int row, int column)
+	{
+		Column col = columns[column];
+		if(col.nulls.get(row))
+		{
+			return null;
+		}
+		switch(col.kind)
+		{
+			case KIND_INTEGER:
+				return Integer.valueOf(col.ints[row]);
+			case KIND_LONG:
+				return Long.valueOf(col.longs[row]);
+			case KIND_DOUBLE:
+				return Double.valueOf(col.doubles[row]);
+			case KIND_BOOLEAN:
+				return Boolean.valueOf(col.booleans.get(row));
+			case KIND_STRING:
+				return col.dictionary.get(col.ints[row]);
+			default:
+				return new Date(col.longs[row]);
+		}
+	}
+
+	/**
+	 * creates a cursor for the rows of the batch. the cursor is positioned before the first row.
+	 * multiple cursors can read the rows at the same time, e.g. one per thread - but only one of
+	 * them may set values.
+	 *
+	 * @return	a new cursor
+	 */
+	public Cursor getCursor()
+	{
+		return new Cursor();
+	}
+
+	/**
+	 * points to one row of the batch at a time. the rules run against the cursor as they would run
+	 * against the row itself.
+	 */
+	public class Cursor implements TypedRow
+	{
+		private int row = -1;
+
+		private Cursor()
+		{
+		}
+
+		/**
+		 * moves the cursor to the next row
+		 *
+		 * @return	true if the cursor points to a row, false if there are no more rows
+		 */
+		public boolean next()
+		{
+			if(row<numberOfRows)
+			{
+				row++;
+			}
+			return row<numberOfRows;
+		}
+
+		/**
+		 * moves the cursor to the row with the given index
+		 *
+		 * @param row	the index of the row
+		 */
+		public void setRow(int row)
+		{
+			this.row = row;
+		}
+
+		/**
+		 * returns the index of the row the cursor points to
+		 *
+		 * @return	the index of the row
+		 */
+		public int getRow()
+		{
+			return row;
+		}
+
+		/**
+		 * returns the batch of the cursor
+		 *
+		 * @return	the batch
+		 */
+		public RowBatch getBatch()
+		{
+			return RowBatch.this;
+		}
+
+		public Object getFieldValue(String fieldName) throws Exception
+		{
+			return getValue(row, header.getFieldIndex(fieldName));
+		}
+
+		public Object getFieldValue(int index) throws Exception
+		{
+			return getValue(row, index);
+		}
+
+		/**
+		 * sets the value of the field of the current row. the value is converted to the type of the field.
+		 * the methods for the different types of values correspond to those of the RowFieldCollection, so
+		 * that actions can update the fields of the row. setting a value changes the batch, so no other
+		 * cursor may be used at the same time.
+		 *
+		 * @param fieldName		the name of the field
+		 * @param value			the value
+		 * @throws Exception	exception if the value can not be stored as the type of the field
+		 * @see					RowBatch#setValue(int, int, Object)
+		 */
+		public void setFieldValue(String fieldName, Object value) throws Exception
+		{
+			setValue(row, header.getFieldIndex(fieldName), value);
+		}
+
+		public void setFieldValue(String fieldName, String value) throws Exception
+		{
+			setValue(row, header.getFieldIndex(fieldName), value);
+		}
+
+		public void setFieldValue(String fieldName, int value) throws Exception
+		{
+			setValue(row, header.getFieldIndex(fieldName), Integer.valueOf(value));
+		}
+
+		public void setFieldValue(String fieldName, long value) throws Exception
+		{
+			setValue(row, header.getFieldIndex(fieldName), Long.valueOf(value));
+		}
+
+		public void setFieldValue(String fieldName, double value) throws Exception
+		{
+			setValue(row, header.getFieldIndex(fieldName), Double.valueOf(value));
+		}
+
+		public void setFieldValue(String fieldName, float value) throws Exception
+		{
+			setValue(row, header.getFieldIndex(fieldName), Float.valueOf(value));
+		}
+
+		public void setFieldValue(String fieldName, boolean value) throws Exception
+		{
+			setValue(row, header.getFieldIndex(fieldName), Boolean.valueOf(value));
+		}
+
+		public void setFieldValue(String fieldName, BigDecimal value) throws Exception
+		{
+			setValue(row, header.getFieldIndex(fieldName), value);
+		}
+
+		public void setFieldValue(String fieldName, BigInteger value) throws Exception
+		{
+			setValue(row, header.getFieldIndex(fieldName), value);
+		}
+
+		public void setFieldValue(String fieldName, Date value) throws Exception
+		{
+			setValue(row, header.getFieldIndex(fieldName), value);
+		}
+
+		/**
+		 * a string field is null for a type, if the string can not be converted to the type. a field of another
+		 * type can only be used as the same type, as the value of a RowFieldCollection can.
+		 */
+		public boolean isNull(String fieldName, String type) throws Exception
+		{
+			Column col = columns[header.getFieldIndex(fieldName)];
+			if(col.nulls.get(row))
+			{
+				return true;
+			}
+			if(col.kind==KIND_STRING)
+			{
+				return !ClassUtility.TYPE_STRING.equals(type) && ClassUtility.getObject(type, col.dictionary.get(col.ints[row]))==null;
+			}
+			if(!col.type.equals(type))
+			{
+				throw new Exception("field [" + fieldName + "] of type [" + col.type + "] can not be used as type [" + type + "]");
+			}
+			return false;
+		}
+
+		public int getInt(String fieldName) throws Exception
+		{
+			Column col = columns[header.getFieldIndex(fieldName)];
+			if(col.kind==KIND_STRING)
+			{
+				return (Integer)ClassUtility.getObject(ClassUtility.TYPE_INTEGER, col.dictionary.get(col.ints[row]));
+			}
+			col.check(KIND_INTEGER);
+			return col.ints[row];
+		}
+
+		public long getLong(String fieldName) throws Exception
+		{
+			Column col = columns[header.getFieldIndex(fieldName)];
+			if(col.kind==KIND_STRING)
+			{
+				return (Long)ClassUtility.getObject(ClassUtility.TYPE_LONG, col.dictionary.get(col.ints[row]));
+			}
+			col.check(KIND_LONG);
+			return col.longs[row];
+		}
+
+		public double getDouble(String fieldName) throws Exception
+		{
+			Column col = columns[header.getFieldIndex(fieldName)];
+			if(col.kind==KIND_STRING)
+			{
+				return (Double)ClassUtility.getObject(ClassUtility.TYPE_DOUBLE, col.dictionary.get(col.ints[row]));
+			}
+			col.check(KIND_DOUBLE);
+			return col.doubles[row];
+		}
+
+		public String getString(String fieldName) throws Exception
+		{
+			Column col = columns[header.getFieldIndex(fieldName)];
+			col.check(KIND_STRING);
+			return col.dictionary.get(col.ints[row]);
+		}
+
+		public Date getDate(String fieldName) throws Exception
+		{
+			Column col = columns[header.getFieldIndex(fieldName)];
+			if(col.kind==KIND_STRING)
+			{
+				return (Date)ClassUtility.getObject(ClassUtility.TYPE_DATE, col.dictionary.get(col.ints[row]));
+			}
+			col.check(KIND_DATE);
+			return new Date(col.longs[row]);
+		}
+	}
+
+	/**
+	 * the values of one field. only the array for the type of the field is created. strings are
+	 * stored as the index of the string in the dictionary of the field.
+	 */
+	private static class Column implements Serializable
+	{
+		public static final long serialVersionUID = 1964070904;
+
+		private final String type;
+		private final int kind;
+		private final BitSet nulls = new BitSet();
+
+		private int[] ints;
+		private long[] longs;
+		private double[] doubles;
+		private BitSet booleans;
+
+		private ArrayList<String> dictionary;
+		private HashMap<String,Integer> dictionaryIndex;
+
+		private Column(String type, int capacity) throws Exception
+		{
+			String lowerCaseType = type.toLowerCase();
+			if(lowerCaseType.equals(ClassUtility.TYPE_INTEGER) || lowerCaseType.equals(ClassUtility.TYPE_INT))
+			{
+				this.type = ClassUtility.TYPE_INTEGER;
+				this.kind = KIND_INTEGER;
+				this.ints = new int[capacity];
+			}
+			else if(lowerCaseType.equals(ClassUtility.TYPE_LONG))
+			{
+				this.type = ClassUtility.TYPE_LONG;
+				this.kind = KIND_LONG;
+				this.longs = new long[capacity];
+			}
+			else if(lowerCaseType.equals(ClassUtility.TYPE_DOUBLE))
+			{
+				this.type = ClassUtility.TYPE_DOUBLE;
+				this.kind = KIND_DOUBLE;
+				this.doubles = new double[capacity];
+			}
+			else if(lowerCaseType.equals(ClassUtility.TYPE_BOOLEAN))
+			{
+				this.type = ClassUtility.TYPE_BOOLEAN;
+				this.kind = KIND_BOOLEAN;
+				this.booleans = new BitSet();
+			}
+			else if(lowerCaseType.equals(ClassUtility.TYPE_STRING))
+			{
+				this.type = ClassUtility.TYPE_STRING;
+				this.kind = KIND_STRING;
+				this.ints = new int[capacity];
+				this.dictionary = new ArrayList<String>();
+				this.dictionaryIndex = new HashMap<String,Integer>();
+			}
+			else if(lowerCaseType.equals(ClassUtility.TYPE_DATE))
+			{
+				this.type = ClassUtility.TYPE_DATE;
+				this.kind = KIND_DATE;
+				this.longs = new long[capacity];
+			}
+			else
+			{
+				throw new Exception("type [" + type + "] is not supported for a field of a row batch");
+			}
+		}
+
+		private void grow(int capacity)
+		{
+			if(ints!=null)
+			{
+				ints = Arrays.copyOf(ints, capacity);
+			}
+			if(longs!=null)
+			{
+				longs = Arrays.copyOf(longs, capacity);
+			}
+			if(doubles!=null)
+			{
+				doubles = Arrays.copyOf(doubles, capacity);
+			}
+		}
+
+		private void check(int expectedKind)
+		{
+			if(kind!=expectedKind)
+			{
+				throw new IllegalArgumentException("the field is of type [" + type + "]");
+			}
+		}
+
+		private int encode(String value)
+		{
+			Integer index = dictionaryIndex.get(value);
+			if(index==null)
+			{
+				index = dictionary.size();
+				dictionary.add(value);
+				dictionaryIndex.put(value, index);
+			}
+			return index;
+		}
+	}
+}
@@ -517,31 +517,49 @@ public class RowFieldCollection implements Serializable
     }
     
     /**
-     * sets the field value of the field by specifying its name and value
-     *  
-     * @param name			the name of the field
-     * @param object		the value of the fields
-     * @throws Exception	exception when the field was not found
+     * returns the index of the field with the given name.
+     * 
+     * the index is looked up in the header row. if the header row does not point to a field
+     * with the given name - e.g. because the fields were added without a header row - the
+     * fields are searched by their name.
+     * 
+     * @param name						the name of the field
+     * @return							the index of the field
+     * @throws FieldNotFoundException	exception when the field was not found
      */
-    public void setFieldValue(String name,Object object) throws Exception
+    private int getFieldIndex(String name) throws FieldNotFoundException
     {
-    	int found=-1;
-    	for(int i=0;i<fields.size();i++)
+    	if(header!=null)
     	{
-    		RowField field = fields.get(i);
-    		if(field.getName().equals(name))
+    		Integer fieldIndex = header.getFields().get(name);
+    		if(fieldIndex!=null && fieldIndex < fields.size() && fields.get(fieldIndex).getName().equals(name))
     		{
-    			found = i;
-    			field.setValue(object);
-    			field.setUpdated(true);
-    			collectionUpdated=true;
-    			break;
+    			return fieldIndex;
     		}
     	}
-    	if(found== -1)
+    	for(int i=0;i<fields.size();i++)
     	{
-    		throw new FieldNotFoundException("field: [" + name + "] not found");
+    		if(fields.get(i).getName().equals(name))
+    		{
+    			return i;
+    		}
     	}
+    	throw new FieldNotFoundException("field: [" + name + "] not found");
+    }
+    
+    /**
+     * sets the field value of the field by specifying its name and value
+     *  
+     * @param name			the name of the field
+     * @param object		the value of the fields
+     * @throws Exception	exception when the field was not found
+     */
+    public void setFieldValue(String name,Object object) throws Exception
+    {
+    	RowField field = fields.get(getFieldIndex(name));
+    	field.setValue(object);
+    	field.setUpdated(true);
+    	collectionUpdated=true;
     }
     
     /**
@@ -553,23 +571,10 @@ public class RowFieldCollection implements Serializable
      */
     public void setFieldValue(String name,double value) throws Exception
     {
-    	int found=-1;
-    	for(int i=0;i<fields.size();i++)
-    	{
-    		RowField field = fields.get(i);
-    		if(field.getName().equals(name))
-    		{
-    			found = i;
-    			field.setValue(value);
-    			field.setUpdated(true);
-    			collectionUpdated=true;
-    			break;
-    		}
-    	}
-    	if(found== -1)
-    	{
-    		throw new FieldNotFoundException("field: [" + name + "] not found");
-    	}
+    	RowField field = fields.get(getFieldIndex(name));
+    	field.setValue(value);
+    	field.setUpdated(true);
+    	collectionUpdated=true;
     }
     
     /**
@@ -581,23 +586,10 @@ public class RowFieldCollection implements Serializable
      */
     public void setFieldValue(String name,float value) throws Exception
     {
-    	int found=-1;
-    	for(int i=0;i<fields.size();i++)
-    	{
-    		RowField field = fields.get(i);
-    		if(field.getName().equals(name))
-    		{
-    			found = i;
-    			field.setValue(value);
-    			field.setUpdated(true);
-    			collectionUpdated=true;
-    			break;
-    		}
-    	}
-    	if(found== -1)
-    	{
-    		throw new FieldNotFoundException("field: [" + name + "] not found");
-    	}
+    	RowField field = fields.get(getFieldIndex(name));
+    	field.setValue(value);
+    	field.setUpdated(true);
+    	collectionUpdated=true;
     }
     
     /**
@@ -609,23 +601,10 @@ public class RowFieldCollection implements Serializable
      */
     public void setFieldValue(String name,int value) throws Exception
     {
-    	int found=-1;
-    	for(int i=0;i<fields.size();i++)
-    	{
-    		RowField field = fields.get(i);
-    		if(field.getName().equals(name))
-    		{
-    			found = i;
-    			field.setValue(value);
-    			field.setUpdated(true);
-    			collectionUpdated=true;
-    			break;
-    		}
-    	}
-    	if(found== -1)
-    	{
-    		throw new FieldNotFoundException("field: [" + name + "] not found");
-    	}
+    	RowField field = fields.get(getFieldIndex(name));
+    	field.setValue(value);
+    	field.setUpdated(true);
+    	collectionUpdated=true;
     }
     
     /**
@@ -637,23 +616,10 @@ public class RowFieldCollection implements Serializable
      */
     public void setFieldValue(String name,String value) throws Exception
     {
-    	int found=-1;
-    	for(int i=0;i<fields.size();i++)
-    	{
-    		RowField field = fields.get(i);
-    		if(field.getName().equals(name))
-    		{
-    			found = i;
-    			field.setValue(value);
-    			field.setUpdated(true);
-    			collectionUpdated=true;
-    			break;
-    		}
-    	}
-    	if(found== -1)
-    	{
-    		throw new FieldNotFoundException("field: [" + name + "] not found");
-    	}
+    	RowField field = fields.get(getFieldIndex(name));
+    	field.setValue(value);
+    	field.setUpdated(true);
+    	collectionUpdated=true;
     }
     
     /**
@@ -665,23 +631,10 @@ public class RowFieldCollection implements Serializable
      */
     public void setFieldValue(String name,boolean value) throws Exception
     {
-    	int found=-1;
-    	for(int i=0;i<fields.size();i++)
-    	{
-    		RowField field = fields.get(i);
-    		if(field.getName().equals(name))
-    		{
-    			found = i;
-    			field.setValue(value);
-    			field.setUpdated(true);
-    			collectionUpdated=true;
-    			break;
-    		}
-    	}
-    	if(found== -1)
-    	{
-    		throw new FieldNotFoundException("field: [" + name + "] not found");
-    	}
+    	RowField field = fields.get(getFieldIndex(name));
+    	field.setValue(value);
+    	field.setUpdated(true);
+    	collectionUpdated=true;
     }
     
     /**
@@ -693,23 +646,10 @@ public class RowFieldCollection implements Serializable
      */
     public void setFieldValue(String name,long value) throws Exception
     {
-    	int found=-1;
-    	for(int i=0;i<fields.size();i++)
-    	{
-    		RowField field = fields.get(i);
-    		if(field.getName().equals(name))
-    		{
-    			found = i;
-    			field.setValue(value);
-    			field.setUpdated(true);
-    			collectionUpdated=true;
-    			break;
-    		}
-    	}
-    	if(found== -1)
-    	{
-    		throw new FieldNotFoundException("field: [" + name + "] not found");
-    	}
+    	RowField field = fields.get(getFieldIndex(name));
+    	field.setValue(value);
+    	field.setUpdated(true);
+    	collectionUpdated=true;
     }
     
     /**
@@ -721,23 +661,10 @@ public class RowFieldCollection implements Serializable
      */
     public void setFieldValue(String name,BigDecimal value) throws Exception
     {
-    	int found=-1;
-    	for(int i=0;i<fields.size();i++)
-    	{
-    		RowField field = fields.get(i);
-    		if(field.getName().equals(name))
-    		{
-    			found = i;
-    			field.setValue(value);
-    			field.setUpdated(true);
-    			collectionUpdated=true;
-    			break;
-    		}
-    	}
-    	if(found== -1)
-    	{
-    		throw new FieldNotFoundException("field: [" + name + "] not found");
-    	}
+    	RowField field = fields.get(getFieldIndex(name));
+    	field.setValue(value);
+    	field.setUpdated(true);
+    	collectionUpdated=true;
     }
     
     /**
@@ -749,23 +676,10 @@ public class RowFieldCollection implements Serializable
      */
     public void setFieldValue(String name,Date value) throws Exception
     {
-    	int found=-1;
-    	for(int i=0;i<fields.size();i++)
-    	{
-    		RowField field = fields.get(i);
-    		if(field.getName().equals(name))
-    		{
-    			found = i;
-    			field.setValue(value);
-    			field.setUpdated(true);
-    			collectionUpdated=true;
-    			break;
-    		}
-    	}
-    	if(found== -1)
-    	{
-    		throw new FieldNotFoundException("field: [" + name + "] not found");
-    	}
+    	RowField field = fields.get(getFieldIndex(name));
+    	field.setValue(value);
+    	field.setUpdated(true);
+    	collectionUpdated=true;
     }
     
     /**
@@ -777,23 +691,10 @@ public class RowFieldCollection implements Serializable
      */
     public void setFieldValue(String name,BigInteger value) throws Exception
     {
-    	int found=-1;
-    	for(int i=0;i<fields.size();i++)
-    	{
-    		RowField field = fields.get(i);
-    		if(field.getName().equals(name))
-    		{
-    			found = i;
-    			field.setValue(value);
-    			field.setUpdated(true);
-    			collectionUpdated=true;
-    			break;
-    		}
-    	}
-    	if(found== -1)
-    	{
-    		throw new FieldNotFoundException("field: [" + name + "] not found");
-    	}
+    	RowField field = fields.get(getFieldIndex(name));
+    	field.setValue(value);
+    	field.setUpdated(true);
+    	collectionUpdated=true;
     }
 
     /**
@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.datamelt.rules.core.RuleGroup;
+
+/**
+ * the graph of the dependencies between rulegroups. a rulegroup may depend on the result
+ * of another rulegroup, which then has to be executed first.
+ * <p>
+ * the level of a group is the length of its chain of dependencies: groups without a dependency
+ * have level 0. the groups are divided into stages by their level: the first stage contains the
+ * groups of level 0, the next stage the groups of level 1, and so on. groups of one stage do not
+ * depend on each other and can therefore run at the same time. a group with actions - which
+ * might change the object that the other groups check - has a stage of its own: the groups before
+ * it in the given list run in the stages before it and the groups after it in the stages after it.
+ * <p>
+ * the graph sorts the rulegroups stage by stage, so that each group comes after the group it
+ * depends on. within a stage the order of the given list is kept, so a list that was prioritized
+ * using the RuleGroupPrioritizer keeps its order as far as the stages allow.
+ * <p>
+ * the dependencies are resolved once, when the graph is created: for each group in the sorted
+ * list the index of the group it depends on is available. if the dependencies form a cycle, an
+ * exception is thrown.
+ *
+ * @see RuleGroupPrioritizer
+ */
+public class RuleGroupDependencyGraph
+{
+	// the groups in the order of execution
+	private ArrayList<RuleGroup> sortedGroups = new ArrayList<RuleGroup>();
+	// index of the group each group depends on. -1 if there is none
+	private int[] dependencyIndex;
+	// length of the chain of dependencies of each group
+	private int[] level;
+	private int numberOfLevels;
+	// groups of one level that can be run at the same time
+	private int[][] stages;
+
+	public static final int NO_DEPENDENCY = -1;
+
+	/**
+	 * creates the graph for the given list of rulegroups
+	 *
+	 * @param	groups			list of rulegroups, usually prioritized using the RuleGroupPrioritizer
+	 * @throws	Exception		exception if the dependencies between the groups form a cycle
+	 */
+	public RuleGroupDependencyGraph(List<RuleGroup> groups) throws Exception
+	{
+		int numberOfGroups = groups.size();
+
+		// the index of each group id. if there are multiple groups with the same id,
+		// the first one is used - as when searching for a group by its id
+		HashMap<String,Integer> groupIndex = new HashMap<String,Integer>();
+		for(int i=0;i<numberOfGroups;i++)
+		{
+			String id = groups.get(i).getId();
+			if(!groupIndex.containsKey(id))
+			{
+				groupIndex.put(id, i);
+			}
+		}
+
+		// resolve the dependencies in the given list. a dependency on a group that
+		// does not exist is ignored
+		int[] dependency = new int[numberOfGroups];
+		int[] numberOfDependencies = new int[numberOfGroups];
+		ArrayList<ArrayList<Integer>> dependentGroups = new ArrayList<ArrayList<Integer>>();
+		for(int i=0;i<numberOfGroups;i++)
+		{
+			dependentGroups.add(new ArrayList<Integer>());
+		}
+		for(int i=0;i<numberOfGroups;i++)
+		{
+			dependency[i] = NO_DEPENDENCY;
+			String dependentRuleGroupId = groups.get(i).getDependentRuleGroupId();
+			if(dependentRuleGroupId!=null && !dependentRuleGroupId.equals(""))
+			{
+				Integer index = groupIndex.get(dependentRuleGroupId);
+				if(index!=null)
+				{
+					dependency[i] = index;
+					numberOfDependencies[i] = 1;
+					dependentGroups.get(index).add(i);
+				}
+			}
+		}
+
+		// sort the groups. of the groups which are ready to run, the one
+		// with the lowest index in the given list is taken first
+		int[] sortedIndex = new int[numberOfGroups];
+		PriorityQueue<Integer> readyGroups = new PriorityQueue<Integer>();
+		for(int i=0;i<numberOfGroups;i++)
+		{
+			if(numberOfDependencies[i]==0)
+			{
+				readyGroups.add(i);
+			}
+		}
+		int count = 0;
+		while(!readyGroups.isEmpty())
+		{
+			int index = readyGroups.poll();
+			sortedIndex[count++] = index;
+			ArrayList<Integer> dependents = dependentGroups.get(index);
+			for(int i=0;i<dependents.size();i++)
+			{
+				int dependent = dependents.get(i);
+				numberOfDependencies[dependent]--;
+				if(numberOfDependencies[dependent]==0)
+				{
+					readyGroups.add(dependent);
+				}
+			}
+		}
+		if(count<numberOfGroups)
+		{
+			throw new Exception("the dependencies of the rulegroups form a cycle: " + getCycleGroupIds(groups, numberOfDependencies));
+		}
+
+		// divide the groups into stages. groups without actions are put into the stage after the
+		// stage of the group they depend on, so a stage contains the groups of one level of the
+		// graph. a group with actions starts a stage of its own after all previous stages and all
+		// following groups come after it, because the actions might change the object
+		int[] stage = new int[numberOfGroups];
+		ArrayList<ArrayList<Integer>> stageGroups = new ArrayList<ArrayList<Integer>>();
+		int firstStage = 0;
+		for(int i=0;i<numberOfGroups;i++)
+		{
+			int index = sortedIndex[i];
+			if(hasActions(groups.get(index)))
+			{
+				stage[index] = stageGroups.size();
+				firstStage = stage[index] + 1;
+			}
+			else if(dependency[index]==NO_DEPENDENCY)
+			{
+				stage[index] = firstStage;
+			}
+			else
+			{
+				stage[index] = Math.max(firstStage, stage[dependency[index]] + 1);
+			}
+			if(stage[index]==stageGroups.size())
+			{
+				stageGroups.add(new ArrayList<Integer>());
+			}
+			stageGroups.get(stage[index]).add(index);
+		}
+
+		// create the sorted list - stage by stage - and the dependencies using the sorted positions
+		stages = new int[stageGroups.size()][];
+		int[] position = new int[numberOfGroups];
+		dependencyIndex = new int[numberOfGroups];
+		level = new int[numberOfGroups];
+		for(int i=0;i<stageGroups.size();i++)
+		{
+			ArrayList<Integer> indexes = stageGroups.get(i);
+			stages[i] = new int[indexes.size()];
+			for(int j=0;j<indexes.size();j++)
+			{
+				int index = indexes.get(j);
+				int sortedPosition = sortedGroups.size();
+				position[index] = sortedPosition;
+				stages[i][j] = sortedPosition;
+				sortedGroups.add(groups.get(index));
+				if(dependency[index]==NO_DEPENDENCY)
+				{
+					dependencyIndex[sortedPosition] = NO_DEPENDENCY;
+					level[sortedPosition] = 0;
+				}
+				else
+				{
+					dependencyIndex[sortedPosition] = position[dependency[index]];
+					level[sortedPosition] = level[dependencyIndex[sortedPosition]] + 1;
+				}
+				if(level[sortedPosition]+1>numberOfLevels)
+				{
+					numberOfLevels = level[sortedPosition] + 1;
+				}
+			}
+		}
+	}
+
+	private static boolean hasActions(RuleGroup group)
+	{
+		return group.getActions().size()>0;
+	}
+
+	/**
+	 * returns the ids of the groups that are part of a cycle or depend on a cycle
+	 */
+	private static String getCycleGroupIds(List<RuleGroup> groups, int[] numberOfDependencies)
+	{
+		StringBuffer buffer = new StringBuffer();
+		for(int i=0;i<groups.size();i++)
+		{
+			if(numberOfDependencies[i]>0)
+			{
+				if(buffer.length()>0)
+				{
+					buffer.append(", ");
+				}
+				buffer.append(groups.get(i).getId());
+			}
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * returns the list of groups in the order of execution: each group comes
+	 * after the group it depends on
+	 *
+	 * @return	the sorted list of groups
+	 */
+	public ArrayList<RuleGroup> getSortedGroups()
+	{
+		return sortedGroups;
+	}
+
+	/**
+	 * returns the index of the group - in the sorted list of groups - that the
+	 * group at the given index depends on
+	 *
+	 * @param	index	the index of the group in the sorted list
+	 * @return			the index of the group it depends on or -1 if the group has no dependency
+	 */
+	public int getDependencyIndex(int index)
+	{
+		return dependencyIndex[index];
+	}
+
+	/**
+	 * returns the level of the group at the given index - in the sorted list of
+	 * groups - which is the length of its chain of dependencies
+	 *
+	 * @param	index	the index of the group in the sorted list
+	 * @return			the level of the group
+	 */
+	public int getLevel(int index)
+	{
+		return level[index];
+	}
+
+	/**
+	 * returns the number of levels of the graph, which is the length of the longest
+	 * chain of dependencies plus one
+	 *
+	 * @return	the number of levels
+	 */
+	public int getNumberOfLevels()
+	{
+		return numberOfLevels;
+	}
+
+	/**
+	 * returns the stages of the sorted groups. each stage is an array of the indexes of
+	 * consecutive groups in the sorted list, which belong to the same level of the graph.
+	 * the groups of a stage do not depend on each other and can therefore run at the same
+	 * time. a group with actions has a stage of its own.
+	 *
+	 * @return	array of stages
+	 */
+	public int[][] getStages()
+	{
+		return stages;
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datamelt.util;
+
+import java.util.Date;
+
+/**
+ * a row of data that provides the values of its fields as primitive values.
+ * <p>
+ * rules that compare the value of a field - retrieved using the getFieldValue method - against an
+ * expected value of type int, long, double, string or date run against a typed row using the getter of
+ * the corresponding type. the value is not boxed and the check is invoked with primitive values. all other
+ * rules use the getFieldValue method.
+ * <p>
+ * the typed getters must return the value the way a rule expects it for the given type: if the value is
+ * stored using a different type, it has to be converted. if the value is null or can not be converted
+ * to the type, isNull must return true for this type.
+ */
+public interface TypedRow
+{
+	/**
+	 * returns the value of the field with the given name
+	 *
+	 * @param fieldName		the name of the field
+	 * @return				the value of the field
+	 * @throws Exception	exception if the field does not exist
+	 */
+	Object getFieldValue(String fieldName) throws Exception;
+
+	/**
+	 * indicates if the field with the given name has no value of the given type. the type is
+	 * one of the types used in the rule definition - e.g. integer, long or string.
+	 *
+	 * @param fieldName		the name of the field
+	 * @param type			the type of the value
+	 * @return				indicator if the field has no value of the given type
+	 * @throws Exception	exception if the field does not exist
+	 */
+	boolean isNull(String fieldName, String type) throws Exception;
+
+	int getInt(String fieldName) throws Exception;
+
+	long getLong(String fieldName) throws Exception;
+
+	double getDouble(String fieldName) throws Exception;
+
+	String getString(String fieldName) throws Exception;
+
+	Date getDate(String fieldName) throws Exception;
+}
@@ -0,0 +1,59 @@
+package com.datamelt.rules;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * gives the tests access to the rule files in the rules folder of the test resources
+ */
+public final class RuleFiles
+{
+	private RuleFiles()
+	{
+	}
+
+	/**
+	 * returns the rule file with the given name from the rules folder of the test resources
+	 *
+	 * @param	name		the name of the rule file
+	 * @return				the rule file
+	 * @throws	Exception	if the rule file does not exist
+	 */
+	public static File getFile(String name) throws Exception
+	{
+		return new File(RuleFiles.class.getResource("/rules/" + name).toURI());
+	}
+
+	/**
+	 * creates a temporary zip file - like the project zip files of the business rules maintenance tool -
+	 * containing the given rule files from the rules folder of the test resources. the zip file is
+	 * deleted when the jvm exits.
+	 *
+	 * @param	names		the names of the rule files
+	 * @return				the zip file
+	 * @throws	Exception	if a rule file does not exist or the zip file can not be written
+	 */
+	public static File createZipFile(String... names) throws Exception
+	{
+		File file = File.createTempFile("rules", ".zip");
+		file.deleteOnExit();
+		ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
+		try
+		{
+			for(String name : names)
+			{
+				out.putNextEntry(new ZipEntry(name));
+				out.write(Files.readAllBytes(getFile(name).toPath()));
+				out.closeEntry();
+			}
+		}
+		finally
+		{
+			out.close();
+		}
+		return file;
+	}
+}
@@ -0,0 +1,125 @@
+package com.datamelt.rules.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Test;
+
+import com.datamelt.rules.RuleFiles;
+import com.datamelt.rules.engine.BusinessRulesEngine;
+import com.datamelt.util.RowFieldCollection;
+
+class CompiledRuleGroupTest
+{
+	private static final String[] FIELD_NAMES = {"name","age","city","code","nick"};
+
+	private static final Object[][] ROWS = {
+		{"peter","42","Berlin",null,"peter"},
+		{"paul","17","ROME","x","pauline"},
+		{"peter","31","Munich",null,"petr"},
+		{"anna","x","Madrid","y","anna"},
+		{null,null,null,null,"nobody"},
+		{"anna","55","London","","anna"},
+		{"peter","12","Paris","z","peter"},
+	};
+
+	@Test
+	void testCompiledEqualsInterpreted() throws Exception
+	{
+		BusinessRulesEngine engine = new BusinessRulesEngine(new File[] { RuleFiles.getFile("compiled.xml") });
+		RuleGroup group = engine.getGroups().get(0);
+		CompiledRuleGroup compiledGroup = group.getCompiledGroup();
+		assertEquals(5, compiledGroup.getNumberOfRules());
+
+		for(int i=0;i<ROWS.length;i++)
+		{
+			RowFieldCollection row = new RowFieldCollection(FIELD_NAMES, ROWS[i].clone());
+
+			// the outcome of each rule, evaluated one by one
+			int[] expectedOutcomes = new int[compiledGroup.getNumberOfRules()];
+			int position = 0;
+			for(int j=0;j<group.getSubGroupCollection().size();j++)
+			{
+				CompiledRule[] rules = group.getSubGroupCollection().get(j).getCompiledRules();
+				assertEquals(position, compiledGroup.getOffset(j));
+				for(int k=0;k<rules.length;k++)
+				{
+					expectedOutcomes[position++] = rules[k].evaluate(rules[k].getFirstObject(row), rules[k].getSecondObject(row)) ? 0 : 1;
+				}
+			}
+			int[] outcomes = new int[compiledGroup.getNumberOfRules()];
+			boolean passed = compiledGroup.evaluate(row, null, outcomes, false);
+
+			assertArrayEquals(expectedOutcomes, outcomes, "outcomes, row " + i);
+			assertEquals(compiledGroup.getFailedInterpreted(row), passed ? 0 : 1, "interpreted, row " + i);
+			assertEquals(compiledGroup.getFailedInterpreted(row), compiledGroup.getFailed(row), "compiled, row " + i);
+		}
+	}
+
+	@Test
+	void testRunWithoutResults() throws Exception
+	{
+		compareRunWithoutResults(false);
+	}
+
+	@Test
+	void testRunWithoutResultsShortCircuit() throws Exception
+	{
+		compareRunWithoutResults(true);
+	}
+
+	@Test
+	void testFieldNotFound() throws Exception
+	{
+		BusinessRulesEngine engine = new BusinessRulesEngine(new File[] { RuleFiles.getFile("compiled.xml") });
+		engine.setPreserveRuleExcecutionResults(false);
+		RowFieldCollection row = new RowFieldCollection(new String[] {"name"}, new Object[] {"peter"});
+
+		// the error names the rule that could not be evaluated
+		Exception exception = assertThrows(Exception.class, () -> engine.run("row", row));
+		assertTrue(exception.getMessage().contains("[r2]"), exception.getMessage());
+	}
+
+	/**
+	 * runs the rules with results - evaluating rule by rule - and without results - using the compiled
+	 * group - and compares the outcome of the subgroups and the group for each row
+	 */
+	private static void compareRunWithoutResults(boolean shortCircuit) throws Exception
+	{
+		BusinessRulesEngine engine = new BusinessRulesEngine(new File[] { RuleFiles.getFile("compiled.xml") });
+		engine.setShortCircuit(shortCircuit);
+		BusinessRulesEngine engineWithoutResults = new BusinessRulesEngine(new File[] { RuleFiles.getFile("compiled.xml") });
+		engineWithoutResults.setShortCircuit(shortCircuit);
+		engineWithoutResults.setPreserveRuleExcecutionResults(false);
+
+		for(int i=0;i<ROWS.length;i++)
+		{
+			engine.run("row", new RowFieldCollection(FIELD_NAMES, ROWS[i].clone()));
+			engineWithoutResults.run("row", new RowFieldCollection(FIELD_NAMES, ROWS[i].clone()));
+
+			RuleGroup group = engine.getGroups().get(0);
+			RuleGroup groupWithoutResults = engineWithoutResults.getGroups().get(0);
+			assertEquals(group.getFailed(), groupWithoutResults.getFailed(), "group, row " + i);
+			for(int j=0;j<group.getSubGroupCollection().size();j++)
+			{
+				RuleSubGroup subGroup = group.getSubGroupCollection().get(j);
+				RuleSubGroup subGroupWithoutResults = groupWithoutResults.getSubGroupCollection().get(j);
+				String message = "subgroup " + j + ", row " + i;
+				assertEquals(subGroup.getFailed(), subGroupWithoutResults.getFailed(), message);
+				assertEquals(subGroup.getNumberOfRulesPassed(), subGroupWithoutResults.getNumberOfRulesPassed(), message);
+				assertEquals(subGroup.getNumberOfRulesFailed(), subGroupWithoutResults.getNumberOfRulesFailed(), message);
+				assertEquals(subGroup.getNumberOfRulesNotEvaluated(), subGroupWithoutResults.getNumberOfRulesNotEvaluated(), message);
+				assertEquals(subGroup.isSkipped(), subGroupWithoutResults.isSkipped(), message);
+			}
+		}
+		assertEquals(engine.getNumberOfRulesFailed(), engineWithoutResults.getNumberOfRulesFailed());
+		assertEquals(engine.getNumberOfRulesPassed(), engineWithoutResults.getNumberOfRulesPassed());
+		assertEquals(engine.getNumberOfRulesNotEvaluated(), engineWithoutResults.getNumberOfRulesNotEvaluated());
+		assertEquals(engine.getNumberOfGroupsFailed(), engineWithoutResults.getNumberOfGroupsFailed());
+		if(shortCircuit)
+		{
+			assertTrue(engineWithoutResults.getNumberOfRulesNotEvaluated()>0);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package com.datamelt.rules.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.datamelt.rules.RuleFiles;
+import com.datamelt.rules.engine.BusinessRulesEngine;
+import com.datamelt.util.RowFieldCollection;
+
+class RuleExpressionIndexTest
+{
+	private static final String[] FIELD_NAMES = {"name","age","city"};
+
+	private static final String[][] ROWS = {
+		{"peter","42","Berlin"},
+		{"paul","42","Munich"},
+		{"peter","17","Berlin"},
+		{"mary","17","Rome"},
+		{"peter","42","Berlin"},
+	};
+
+	@Test
+	void testSlots() throws Exception
+	{
+		BusinessRulesEngine engine = new BusinessRulesEngine(new File[] { RuleFiles.getFile("shared.xml") });
+		List<RuleGroup> groups = engine.getRuleSet().getGroups();
+		CompiledRule r1 = getRule(groups, 0, 0);
+		CompiledRule r2 = getRule(groups, 0, 1);
+		CompiledRule r3 = getRule(groups, 1, 0);
+		CompiledRule r4 = getRule(groups, 1, 1);
+		CompiledRule r5 = getRule(groups, 2, 0);
+		CompiledRule r6 = getRule(groups, 2, 1);
+
+		// identical checks share the slot of the result
+		assertNotEquals(RuleExpressionIndex.NO_SLOT, r1.getResultSlot());
+		assertEquals(r1.getResultSlot(), r3.getResultSlot());
+		assertEquals(r2.getResultSlot(), r5.getResultSlot());
+		assertNotEquals(r1.getResultSlot(), r2.getResultSlot());
+		assertEquals(RuleExpressionIndex.NO_SLOT, r4.getResultSlot());
+		assertEquals(RuleExpressionIndex.NO_SLOT, r6.getResultSlot());
+
+		// rules reading the same field share the slot of the value
+		assertNotEquals(RuleExpressionIndex.NO_SLOT, r1.getFirstObjectSlot());
+		assertEquals(r1.getFirstObjectSlot(), r3.getFirstObjectSlot());
+		assertEquals(r1.getFirstObjectSlot(), r4.getFirstObjectSlot());
+		assertEquals(r2.getFirstObjectSlot(), r5.getFirstObjectSlot());
+		assertEquals(RuleExpressionIndex.NO_SLOT, r6.getFirstObjectSlot());
+		assertEquals(RuleExpressionIndex.NO_SLOT, r1.getSecondObjectSlot());
+
+		RuleExpressionIndex index = engine.getRuleSet().getExpressionIndex();
+		assertEquals(2, index.getNumberOfValueSlots());
+		assertEquals(2, index.getNumberOfResultSlots());
+		assertEquals(2, index.getNumberOfSharedResults());
+	}
+
+	@Test
+	void testCacheClear() throws Exception
+	{
+		BusinessRulesEngine engine = new BusinessRulesEngine(new File[] { RuleFiles.getFile("shared.xml") });
+		RuleExpressionCache cache = new RuleExpressionCache(engine.getRuleSet().getExpressionIndex());
+		cache.setValue(0, "peter");
+		cache.setResult(1, true);
+		assertTrue(cache.hasValue(0));
+		assertTrue(cache.hasResult(1));
+		assertFalse(cache.hasValue(1));
+		assertFalse(cache.hasResult(0));
+
+		cache.clear();
+		assertFalse(cache.hasValue(0));
+		assertFalse(cache.hasResult(1));
+	}
+
+	@Test
+	void testResultsWithCache() throws Exception
+	{
+		compareResults(true);
+	}
+
+	@Test
+	void testResultsWithCacheWithoutResults() throws Exception
+	{
+		compareResults(false);
+	}
+
+	/**
+	 * runs the rows one after the other - using the cache of the session, which is cleared for
+	 * each row - and compares the outcome of each rule against the rule evaluated without a cache
+	 */
+	private static void compareResults(boolean preserveResults) throws Exception
+	{
+		BusinessRulesEngine engine = new BusinessRulesEngine(new File[] { RuleFiles.getFile("shared.xml") });
+		engine.setPreserveRuleExcecutionResults(preserveResults);
+
+		for(int i=0;i<ROWS.length;i++)
+		{
+			RowFieldCollection row = new RowFieldCollection(FIELD_NAMES, ROWS[i]);
+			engine.run("row", row);
+			for(RuleGroup group : engine.getGroups())
+			{
+				RuleSubGroup subGroup = group.getSubGroupCollection().get(0);
+				CompiledRule[] rules = subGroup.getCompiledRules();
+				int numberOfRulesFailed = 0;
+				for(int j=0;j<rules.length;j++)
+				{
+					if(!rules[j].evaluate(rules[j].getFirstObject(row), rules[j].getSecondObject(row)))
+					{
+						numberOfRulesFailed++;
+					}
+				}
+				assertEquals(numberOfRulesFailed, subGroup.getNumberOfRulesFailed(), group.getId() + ", row " + i);
+			}
+		}
+	}
+
+	private static CompiledRule getRule(List<RuleGroup> groups, int groupIndex, int ruleIndex)
+	{
+		return groups.get(groupIndex).getSubGroupCollection().get(0).getCompiledRules()[ruleIndex];
+	}
+}
@@ -0,0 +1,121 @@
+package com.datamelt.rules.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.util.Date;
+import java.util.HashMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.datamelt.rules.RuleFiles;
+import com.datamelt.rules.engine.BusinessRulesEngine;
+import com.datamelt.rules.implementation.CheckIsEqual;
+import com.datamelt.rules.implementation.CheckIsGreater;
+import com.datamelt.util.TypedRow;
+
+class TypedCheckTest
+{
+	@Test
+	void testLongCheck() throws Exception
+	{
+		TypedCheck check = TypedCheck.create(CheckIsGreater.class.getMethod("evaluate", long.class, long.class), "long", 30L);
+		assertNotNull(check);
+
+		assertTrue(check.evaluate(new MapRow("age", 42L), "age"));
+		assertFalse(check.evaluate(new MapRow("age", 17L), "age"));
+	}
+
+	@Test
+	void testStringCheck() throws Exception
+	{
+		TypedCheck check = TypedCheck.create(CheckIsEqual.class.getMethod("evaluate", String.class, String.class), "string", "peter");
+		assertNotNull(check);
+
+		assertTrue(check.evaluate(new MapRow("name", "peter"), "name"));
+		assertFalse(check.evaluate(new MapRow("name", "paul"), "name"));
+	}
+
+	@Test
+	void testNoOperandShape() throws Exception
+	{
+		// the operands have different types
+		assertNull(TypedCheck.create(CheckIsEqual.class.getMethod("evaluate", long.class, int.class), "long", 30));
+		// the expected value could not be converted
+		assertNull(TypedCheck.create(CheckIsEqual.class.getMethod("evaluate", long.class, long.class), "long", null));
+	}
+
+	@Test
+	void testTypedRow() throws Exception
+	{
+		BusinessRulesEngine engine = new BusinessRulesEngine(new File[] { RuleFiles.getFile("names.xml") });
+		CompiledRule rule = engine.getGroups().get(0).getSubGroupCollection().get(0).getCompiledRules()[0];
+		assertTrue(rule.hasTypedCheck());
+
+		assertTrue(rule.test(new MapRow("name", "peter")));
+		assertFalse(rule.test(new MapRow("name", "paul")));
+
+		// the error of the typed row is reported with the id of the rule
+		Exception exception = assertThrows(Exception.class, () -> rule.test(new FailingRow()));
+		assertTrue(exception.getMessage().contains("[r1]"), exception.getMessage());
+		assertTrue(exception.getMessage().contains("invalid value"), exception.getMessage());
+	}
+
+	private static class FailingRow extends MapRow
+	{
+		private FailingRow()
+		{
+			super("name", "peter");
+		}
+
+		public String getString(String fieldName) throws Exception
+		{
+			throw new Exception("invalid value for field: " + fieldName);
+		}
+	}
+
+	private static class MapRow implements TypedRow
+	{
+		private HashMap<String,Object> values = new HashMap<String,Object>();
+
+		private MapRow(String fieldName, Object value)
+		{
+			values.put(fieldName, value);
+		}
+
+		public Object getFieldValue(String fieldName)
+		{
+			return values.get(fieldName);
+		}
+
+		public boolean isNull(String fieldName, String type)
+		{
+			return values.get(fieldName)==null;
+		}
+
+		public int getInt(String fieldName)
+		{
+			return (Integer)values.get(fieldName);
+		}
+
+		public long getLong(String fieldName)
+		{
+			return (Long)values.get(fieldName);
+		}
+
+		public double getDouble(String fieldName)
+		{
+			return (Double)values.get(fieldName);
+		}
+
+		public String getString(String fieldName) throws Exception
+		{
+			return (String)values.get(fieldName);
+		}
+
+		public Date getDate(String fieldName)
+		{
+			return (Date)values.get(fieldName);
+		}
+	}
+}
@@ -0,0 +1,410 @@
+package com.datamelt.rules.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipFile;
+
+import org.junit.jupiter.api.Test;
+
+import com.datamelt.rules.RuleFiles;
+import com.datamelt.rules.core.ReferenceField;
+import com.datamelt.rules.core.RuleExecutionCollection;
+import com.datamelt.rules.core.RuleExecutionResult;
+import com.datamelt.rules.core.RuleGroup;
+import com.datamelt.rules.core.RuleSubGroup;
+import com.datamelt.rules.parser.xml.Parser;
+import com.datamelt.util.RowFieldCollection;
+import com.datamelt.util.RuleGroupPrioritizer;
+
+class BusinessRulesEngineTest
+{
+	private static final String[] FIELD_NAMES = {"name","age"};
+
+	private static final int NUMBER_OF_SESSIONS = 4;
+	private static final int ROWS_PER_SESSION = 500;
+	private static final int NUMBER_OF_ROWS = 1000;
+	private static final int NUMBER_OF_READERS = 4;
+	private static final int NUMBER_OF_RELOADS = 50;
+	private static final int NUMBER_OF_LOADS = 10;
+
+	private static final String[] RULE_FILES = {"shortcircuit.xml","dependencies.xml","shared.xml"};
+
+	@Test
+	void testSessionsAreIsolated() throws Exception
+	{
+		BusinessRulesEngine engine = new BusinessRulesEngine(new File[] { RuleFiles.getFile("names.xml") });
+		List<RuleEngineSession> sessions = new ArrayList<>();
+		for(int i=0;i<NUMBER_OF_SESSIONS;i++)
+		{
+			sessions.add(engine.createSession());
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_SESSIONS);
+		try
+		{
+			List<Future<?>> futures = new ArrayList<>();
+			for(int i=0;i<NUMBER_OF_SESSIONS;i++)
+			{
+				final int number = i;
+				final RuleEngineSession session = sessions.get(i);
+				futures.add(executor.submit(() ->
+				{
+					// the first session only runs rows that pass, all other sessions run rows that fail
+					String name = number==0 ? "peter" : "paul";
+					for(int k=0;k<ROWS_PER_SESSION;k++)
+					{
+						session.run("session" + number, new RowFieldCollection(FIELD_NAMES, new Object[] {name,"42"}));
+					}
+					return null;
+				}));
+			}
+			for(Future<?> future : futures)
+			{
+				future.get();
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+
+		for(int i=0;i<NUMBER_OF_SESSIONS;i++)
+		{
+			RuleEngineSession session = sessions.get(i);
+			assertEquals(i==0 ? ROWS_PER_SESSION : 0, session.getNumberOfRulesPassed());
+			assertEquals(i==0 ? 0 : ROWS_PER_SESSION, session.getNumberOfRulesFailed());
+			assertEquals(ROWS_PER_SESSION, session.getRuleExecutionCollection().getResults().size());
+			for(RuleExecutionResult result : session.getRuleExecutionCollection().getResults())
+			{
+				assertEquals("session" + i, result.getObjectLabel());
+				assertEquals(i==0 ? 0 : 1, result.getFailed());
+			}
+		}
+		// the default session of the engine is not touched by the other sessions
+		assertEquals(0, engine.getNumberOfRulesPassed() + engine.getNumberOfRulesFailed());
+	}
+
+	@Test
+	void testRunParallel() throws Exception
+	{
+		List<Object> rows = new ArrayList<>();
+		for(int i=0;i<NUMBER_OF_ROWS;i++)
+		{
+			rows.add(new RowFieldCollection(FIELD_NAMES, new Object[] {i % 3==0 ? "peter" : "paul", String.valueOf(i)}));
+		}
+
+		BusinessRulesEngine sequentialEngine = new BusinessRulesEngine(new File[] { RuleFiles.getFile("names.xml") });
+		sequentialEngine.run(rows);
+
+		BusinessRulesEngine parallelEngine = new BusinessRulesEngine(new File[] { RuleFiles.getFile("names.xml") });
+		assertFalse(parallelEngine.getStatus());
+		List<RuleExecutionCollection> objectResults = parallelEngine.runParallel(rows, 4);
+		assertTrue(parallelEngine.getStatus());
+
+		RuleExecutionCollection sequential = sequentialEngine.getRuleExecutionCollection();
+		RuleExecutionCollection parallel = parallelEngine.getRuleExecutionCollection();
+		assertEquals(sequential.getRulesRunCount(), parallel.getRulesRunCount());
+		assertEquals(sequential.getRulesPassedCount(), parallel.getRulesPassedCount());
+		assertEquals(sequential.getRulesFailedCount(), parallel.getRulesFailedCount());
+		assertEquals(sequential.getPassedGroupsCount(), parallel.getPassedGroupsCount());
+		assertEquals(sequential.getFailedGroupsCount(), parallel.getFailedGroupsCount());
+		assertEquals(sequential.getSkippedGroupsCount(), parallel.getSkippedGroupsCount());
+		assertEquals(sequential.getActionsExecutedCount(), parallel.getActionsExecutedCount());
+
+		// the merged results are in the order of the rows and equal to the sequential results
+		assertEquals(NUMBER_OF_ROWS, objectResults.size());
+		assertEquals(sequential.size(), parallel.size());
+		for(int i=0;i<sequential.size();i++)
+		{
+			RuleExecutionResult expected = sequential.get(i);
+			RuleExecutionResult actual = parallel.get(i);
+			assertEquals(expected.getObjectLabel(), actual.getObjectLabel());
+			assertEquals(expected.getRule().getId(), actual.getRule().getId());
+			assertEquals(expected.getFailed(), actual.getFailed());
+			assertEquals(expected.getObjectLabel(), objectResults.get(i).get(0).getObjectLabel());
+		}
+	}
+
+	@Test
+	void testShortCircuitAnd() throws Exception
+	{
+		BusinessRulesEngine engine = runShortCircuit(true, "paul", "42");
+		RuleExecutionCollection results = engine.getRuleExecutionCollection();
+
+		// the first rule fails, so the outcome of the subgroup is decided
+		assertEquals(1, results.getSubgroupRuleResult("sgand", "r1").getFailed());
+		assertEquals(RuleExecutionResult.NOT_EVALUATED, results.getSubgroupRuleResult("sgand", "r2").getFailed());
+		assertEquals(RuleExecutionResult.NOT_EVALUATED, results.getSubgroupRuleResult("sgand", "r3").getFailed());
+
+		engine = runShortCircuit(true, "peter", "42");
+		results = engine.getRuleExecutionCollection();
+		assertEquals(0, results.getSubgroupRuleResult("sgand", "r1").getFailed());
+		assertEquals(0, results.getSubgroupRuleResult("sgand", "r2").getFailed());
+		assertEquals(1, results.getSubgroupRuleResult("sgand", "r3").getFailed());
+	}
+
+	@Test
+	void testShortCircuitOr() throws Exception
+	{
+		BusinessRulesEngine engine = runShortCircuit(true, "paul", "42");
+		RuleExecutionCollection results = engine.getRuleExecutionCollection();
+
+		// the first rule passes, so the outcome of the subgroup is decided
+		assertEquals(0, results.getSubgroupRuleResult("sgor", "r4").getFailed());
+		assertEquals(RuleExecutionResult.NOT_EVALUATED, results.getSubgroupRuleResult("sgor", "r5").getFailed());
+		assertEquals(RuleExecutionResult.NOT_EVALUATED, results.getSubgroupRuleResult("sgor", "r6").getFailed());
+
+		engine = runShortCircuit(true, "peter", "17");
+		results = engine.getRuleExecutionCollection();
+		assertEquals(1, results.getSubgroupRuleResult("sgor", "r4").getFailed());
+		assertEquals(1, results.getSubgroupRuleResult("sgor", "r5").getFailed());
+		assertEquals(0, results.getSubgroupRuleResult("sgor", "r6").getFailed());
+	}
+
+	@Test
+	void testShortCircuitSkipsSubgroup() throws Exception
+	{
+		BusinessRulesEngine engine = runShortCircuit(true, "paul", "42");
+
+		// the first subgroup fails and the second one is connected with [and]
+		assertEquals(1, engine.getRuleExecutionCollection().getSubgroupRuleResult("sg1", "r7").getFailed());
+		assertEquals(RuleExecutionResult.NOT_EVALUATED, engine.getRuleExecutionCollection().getSubgroupRuleResult("sg2", "r8").getFailed());
+		assertEquals(5, engine.getNumberOfRulesNotEvaluated());
+		assertEquals(5, engine.getRuleExecutionCollection().getRulesNotEvaluatedCount());
+	}
+
+	@Test
+	void testShortCircuitKeepsOutcome() throws Exception
+	{
+		String[][] rows = {{"paul","42"},{"peter","42"},{"peter","17"},{"paul","17"},{"mary","31"}};
+		for(String[] row : rows)
+		{
+			BusinessRulesEngine shortCircuitEngine = runShortCircuit(true, row[0], row[1]);
+			BusinessRulesEngine engine = runShortCircuit(false, row[0], row[1]);
+
+			assertEquals(0, engine.getNumberOfRulesNotEvaluated());
+			assertEquals(engine.getNumberOfGroupsFailed(), shortCircuitEngine.getNumberOfGroupsFailed());
+			assertEquals(engine.getNumberOfGroupsPassed(), shortCircuitEngine.getNumberOfGroupsPassed());
+			assertEquals(engine.getNumberOfRulesPassed() + engine.getNumberOfRulesFailed(), shortCircuitEngine.getNumberOfRulesPassed() + shortCircuitEngine.getNumberOfRulesFailed() + shortCircuitEngine.getNumberOfRulesNotEvaluated());
+
+			// the rules that were evaluated have the same outcome
+			for(RuleExecutionResult result : shortCircuitEngine.getRuleExecutionCollection().getResults())
+			{
+				if(result.isEvaluated())
+				{
+					RuleExecutionResult expected = engine.getRuleExecutionCollection().getSubgroupRuleResult(result.getSubgroupId(), result.getRule().getId());
+					assertEquals(expected.getFailed(), result.getFailed());
+				}
+			}
+		}
+	}
+
+	private static BusinessRulesEngine runShortCircuit(boolean shortCircuit, String name, String age) throws Exception
+	{
+		BusinessRulesEngine engine = new BusinessRulesEngine(new File[] { RuleFiles.getFile("shortcircuit.xml") });
+		engine.setShortCircuit(shortCircuit);
+		engine.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {name,age}));
+		return engine;
+	}
+
+	@Test
+	void testGroupExecutor() throws Exception
+	{
+		BusinessRulesEngine engine = new BusinessRulesEngine(new File[] { RuleFiles.getFile("dependencies.xml") });
+		RuleEngineSession sequentialSession = engine.createSession();
+		RuleEngineSession stagedSession = engine.createSession();
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try
+		{
+			stagedSession.setGroupExecutor(executor);
+			String[][] rows = {{"peter","42"},{"peter","17"},{"paul","42"},{"mary","17"},{"mary","31"}};
+			for(String[] row : rows)
+			{
+				sequentialSession.run("row", new RowFieldCollection(FIELD_NAMES, row));
+				stagedSession.run("row", new RowFieldCollection(FIELD_NAMES, row));
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+
+		RuleExecutionCollection sequential = sequentialSession.getRuleExecutionCollection();
+		RuleExecutionCollection staged = stagedSession.getRuleExecutionCollection();
+		assertEquals(sequential.getRulesRunCount(), staged.getRulesRunCount());
+		assertEquals(sequential.getRulesPassedCount(), staged.getRulesPassedCount());
+		assertEquals(sequential.getRulesFailedCount(), staged.getRulesFailedCount());
+		assertEquals(sequential.getPassedGroupsCount(), staged.getPassedGroupsCount());
+		assertEquals(sequential.getFailedGroupsCount(), staged.getFailedGroupsCount());
+		assertTrue(staged.getSkippedGroupsCount()>0);
+		assertEquals(sequential.getSkippedGroupsCount(), staged.getSkippedGroupsCount());
+		assertEquals(sequential.size(), staged.size());
+		for(int i=0;i<sequential.size();i++)
+		{
+			assertEquals(sequential.get(i).getSubgroupId(), staged.get(i).getSubgroupId());
+			assertEquals(sequential.get(i).getRule().getId(), staged.get(i).getRule().getId());
+			assertEquals(sequential.get(i).getFailed(), staged.get(i).getFailed());
+		}
+	}
+
+	@Test
+	void testReloadKeepsResultsAndCounters() throws Exception
+	{
+		BusinessRulesEngine engine = new BusinessRulesEngine(new File[] { RuleFiles.getFile("names.xml") });
+		engine.setStatisticsOnly(true);
+		engine.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {"peter","42"}));
+		engine.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {"paul","17"}));
+
+		long version = engine.getRuleSet().getVersion();
+		engine.reloadRuleFile(new File[] { RuleFiles.getFile("names.xml") });
+		engine.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {"paul","31"}));
+
+		assertEquals(version + 1, engine.getRuleSet().getVersion());
+		assertEquals(1, engine.getNumberOfRulesPassed());
+		assertEquals(2, engine.getNumberOfRulesFailed());
+		assertEquals(1, engine.getStatistics().getRulePassedCount(0));
+		assertEquals(2, engine.getStatistics().getRuleFailedCount(0));
+	}
+
+	@Test
+	void testReloadWhileRunning() throws Exception
+	{
+		// names.xml has one group with one rule, shortcircuit.xml has three groups with eight rules
+		File namesZipFile = RuleFiles.createZipFile("names.xml");
+		File shortCircuitZipFile = RuleFiles.createZipFile("shortcircuit.xml");
+		BusinessRulesEngine engine = new BusinessRulesEngine(new ZipFile(namesZipFile));
+
+		AtomicBoolean reloading = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_READERS);
+		try
+		{
+			List<Future<Integer>> futures = new ArrayList<>();
+			for(int i=0;i<NUMBER_OF_READERS;i++)
+			{
+				futures.add(executor.submit(() ->
+				{
+					int numberOfVersions = 0;
+					RuleEngineSession session = null;
+					while(reloading.get())
+					{
+						// like a client handler: a new session once the ruleset of the engine changed
+						if(session==null || session.getRuleSet()!=engine.getRuleSet())
+						{
+							session = engine.createSession();
+							numberOfVersions++;
+						}
+						long numberOfRules = session.getNumberOfRulesPassed() + session.getNumberOfRulesFailed();
+						session.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {"peter","42"}));
+						long numberOfRulesRun = session.getNumberOfRulesPassed() + session.getNumberOfRulesFailed() - numberOfRules;
+
+						// the run used one complete version of the ruleset
+						int numberOfGroups = session.getRuleSet().getNumberOfGroups();
+						assertTrue(numberOfGroups==1 || numberOfGroups==3, "groups: " + numberOfGroups);
+						assertEquals(numberOfGroups==1 ? 1 : 8, numberOfRulesRun);
+					}
+					return numberOfVersions;
+				}));
+			}
+			for(int i=0;i<NUMBER_OF_RELOADS;i++)
+			{
+				engine.reloadZipFile(new ZipFile(i % 2==0 ? shortCircuitZipFile : namesZipFile));
+			}
+			reloading.set(false);
+			for(Future<Integer> future : futures)
+			{
+				assertTrue(future.get()>0);
+			}
+		}
+		finally
+		{
+			reloading.set(false);
+			executor.shutdown();
+		}
+		assertEquals(NUMBER_OF_RELOADS + 1, engine.getRuleSet().getVersion());
+		assertEquals(1, engine.getRuleSet().getNumberOfGroups());
+	}
+
+	@Test
+	void testParallelParseKeepsOrder() throws Exception
+	{
+		// the rule files parsed one after the other
+		ArrayList<RuleGroup> groups = new ArrayList<>();
+		ArrayList<ReferenceField> referenceFields = new ArrayList<>();
+		for(String ruleFile : RULE_FILES)
+		{
+			Parser parser = new Parser(null);
+			parser.parse(RuleFiles.getFile(ruleFile).getPath());
+			groups.addAll(parser.getGroups());
+			referenceFields.addAll(parser.getReferenceFields());
+		}
+		String expected = getRuleIds(new CompiledRuleSet(new RuleGroupPrioritizer(groups).getPrioritizedList(), referenceFields).getGroups());
+
+		File zipFile = RuleFiles.createZipFile(RULE_FILES);
+		for(int i=0;i<NUMBER_OF_LOADS;i++)
+		{
+			BusinessRulesEngine engine = new BusinessRulesEngine(new ZipFile(zipFile));
+			assertEquals(expected, getRuleIds(engine.getRuleSet().getGroups()));
+		}
+	}
+
+	@Test
+	void testMonitorCountsLoads() throws Exception
+	{
+		BusinessRulesEngine engine = new BusinessRulesEngine(new ZipFile(RuleFiles.createZipFile(RULE_FILES)), new String[] {"shared.xml"});
+		assertEquals(3, engine.getRuleSet().getNumberOfGroups());
+		assertEquals(1, engine.getMonitor().getReloadCount());
+
+		engine.reloadRuleFile(new File[] { RuleFiles.getFile("names.xml") });
+		assertEquals(2, engine.getMonitor().getReloadCount());
+	}
+
+	/**
+	 * returns the ids of the groups, subgroups and rules in the order of the ruleset
+	 */
+	private static String getRuleIds(List<RuleGroup> groups)
+	{
+		StringBuilder buffer = new StringBuilder();
+		for(RuleGroup group : groups)
+		{
+			buffer.append(group.getId()).append(":");
+			for(int i=0;i<group.getSubGroupCollection().size();i++)
+			{
+				RuleSubGroup subGroup = group.getSubGroupCollection().get(i);
+				buffer.append(" ").append(subGroup.getId()).append("(");
+				for(int j=0;j<subGroup.getRulesCollection().size();j++)
+				{
+					buffer.append(j>0 ? "," : "").append(subGroup.getRulesCollection().get(j).getId());
+				}
+				buffer.append(")");
+			}
+			buffer.append("; ");
+		}
+		return buffer.toString();
+	}
+
+	@Test
+	void testOutputType() throws Exception
+	{
+		BusinessRulesEngine engine = new BusinessRulesEngine(new File[] { RuleFiles.getFile("names.xml") });
+		engine.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {"peter","42"}));
+		engine.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {"paul","17"}));
+
+		// all results are kept as long as the output type is not set
+		assertEquals(2, engine.getRuleExecutionCollection().getResults().size());
+
+		engine.setOutputType(BusinessRulesEngine.OUTPUT_TYPE_FAILED_ONLY);
+		engine.getRuleExecutionCollection().clear();
+		engine.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {"peter","42"}));
+		engine.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {"paul","17"}));
+
+		assertEquals(1, engine.getRuleExecutionCollection().getResults().size());
+		assertEquals(1, engine.getRuleExecutionCollection().getResults().get(0).getFailed());
+	}
+}
@@ -0,0 +1,34 @@
+package com.datamelt.rules.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import com.datamelt.rules.core.ReferenceField;
+import com.datamelt.rules.core.RuleGroup;
+
+class ParsedRuleFileTest
+{
+	@Test
+	void testUnchanged()
+	{
+		ParsedRuleFile parsedFile = new ParsedRuleFile("rules.xml", 100, 1000, 42, new ArrayList<RuleGroup>(), new ArrayList<ReferenceField>());
+
+		assertTrue(parsedFile.isUnchanged(100, 1000, 42));
+		assertTrue(parsedFile.copy().isUnchanged(100, 1000, 42));
+		assertFalse(parsedFile.isUnchanged(101, 1000, 42));
+		assertFalse(parsedFile.isUnchanged(100, 1001, 42));
+		assertFalse(parsedFile.isUnchanged(100, 1000, 43));
+	}
+
+	@Test
+	void testParsedOnDifferentDay()
+	{
+		ParsedRuleFile parsedFile = new ParsedRuleFile("rules.xml", 100, 1000, 42, ParsedRuleFile.getCurrentDay() - 1, new ArrayList<RuleGroup>(), new ArrayList<ReferenceField>());
+
+		assertFalse(parsedFile.isUnchanged(100, 1000, 42));
+		assertFalse(parsedFile.copy().isUnchanged(100, 1000, 42));
+	}
+}
@@ -0,0 +1,140 @@
+package com.datamelt.rules.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.io.FileWriter;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.datamelt.rules.RuleFiles;
+import com.datamelt.rules.core.RuleGroup;
+import com.datamelt.rules.core.XmlRule;
+import com.datamelt.rules.core.util.VariableReplacer;
+import com.datamelt.util.RowFieldCollection;
+
+class RuleSetSnapshotTest
+{
+	private static final String ENTRY_NAME = "names.xml";
+	private static final String[] FIELD_NAMES = {"name","age"};
+
+	private File zipFile;
+	private File snapshotFile;
+
+	@BeforeEach
+	void createRules() throws Exception
+	{
+		zipFile = RuleFiles.createZipFile(ENTRY_NAME);
+		snapshotFile = RuleSetSnapshot.getSnapshotFile(zipFile);
+	}
+
+	@AfterEach
+	void deleteRules()
+	{
+		zipFile.delete();
+		snapshotFile.delete();
+	}
+
+	@Test
+	void testWriteAndRead() throws Exception
+	{
+		new BusinessRulesEngine(new ZipFile(zipFile), snapshotFile);
+		assertTrue(snapshotFile.isFile());
+
+		HashMap<String,ParsedRuleFile> parsedFiles = RuleSetSnapshot.read(snapshotFile, null);
+		assertNotNull(parsedFiles);
+		assertEquals(1, parsedFiles.size());
+
+		ParsedRuleFile parsedFile = parsedFiles.get(ENTRY_NAME);
+		ZipFile rules = new ZipFile(zipFile);
+		ZipEntry entry = rules.getEntry(ENTRY_NAME);
+		rules.close();
+		assertTrue(parsedFile.isUnchanged(entry.getSize(), entry.getTime(), entry.getCrc()));
+
+		RuleGroup group = parsedFile.getGroups().get(0);
+		assertEquals("g1", group.getId());
+		assertEquals("2099-12-31", group.getValidUntil());
+		assertEquals("sg1", group.getSubGroupCollection().get(0).getId());
+		XmlRule rule = group.getSubGroupCollection().get(0).getRulesCollection().get(0);
+		assertEquals("r1", rule.getId());
+		assertEquals("peter", rule.getExpectedValueRule());
+		assertEquals("name", rule.getRuleObjects().get(0).getParameter());
+	}
+
+	@Test
+	void testRulesFromSnapshot() throws Exception
+	{
+		new BusinessRulesEngine(new ZipFile(zipFile), snapshotFile);
+		BusinessRulesEngine engine = new BusinessRulesEngine(new ZipFile(zipFile), snapshotFile);
+		engine.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {"peter","42"}));
+		engine.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {"paul","17"}));
+
+		assertEquals(1, engine.getNumberOfRulesPassed());
+		assertEquals(1, engine.getNumberOfRulesFailed());
+	}
+
+	@Test
+	void testStaleSnapshotRejected() throws Exception
+	{
+		new BusinessRulesEngine(new ZipFile(zipFile), snapshotFile);
+		assertNull(RuleSetSnapshot.read(snapshotFile, "0123"));
+
+		// the day follows the magic number, the format version and the digest of the replacer, which is null
+		RandomAccessFile file = new RandomAccessFile(snapshotFile, "rw");
+		file.seek(12);
+		file.writeInt(ParsedRuleFile.getCurrentDay() - 1);
+		file.close();
+		assertNull(RuleSetSnapshot.read(snapshotFile, null));
+	}
+
+	@Test
+	void testFallbackToXml() throws Exception
+	{
+		FileOutputStream output = new FileOutputStream(snapshotFile);
+		output.write("not a snapshot".getBytes(StandardCharsets.UTF_8));
+		output.close();
+		assertNull(RuleSetSnapshot.read(snapshotFile, null));
+
+		BusinessRulesEngine engine = new BusinessRulesEngine(new ZipFile(zipFile), snapshotFile);
+		engine.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {"peter","42"}));
+
+		assertEquals(1, engine.getNumberOfRulesPassed());
+		assertNotNull(RuleSetSnapshot.read(snapshotFile, null));
+	}
+
+	@Test
+	void testReplacerDigest() throws Exception
+	{
+		String digest = createReplacer("$NAME=peter\n$AGE=42\n").getVariablesDigest();
+
+		// the order of the variables does not matter, but their names and values do
+		assertEquals(digest, createReplacer("$AGE=42\n$NAME=peter\n").getVariablesDigest());
+		assertNotEquals(digest, createReplacer("$NAME=peter\n$AGE=43\n").getVariablesDigest());
+		assertNotEquals(digest, createReplacer("$NAME=peter\n$AGE2=42\n").getVariablesDigest());
+		assertNotEquals(digest, createReplacer("$NAME=peter$AGE\n").getVariablesDigest());
+
+		BusinessRulesEngine engine = new BusinessRulesEngine(new ZipFile(zipFile));
+		engine.setReplacer(createReplacer("$NAME=peter\n$AGE=42\n"));
+		engine.reloadZipFile(new ZipFile(zipFile), snapshotFile);
+		assertNotNull(RuleSetSnapshot.read(snapshotFile, digest));
+		assertNull(RuleSetSnapshot.read(snapshotFile, null));
+	}
+
+	private static VariableReplacer createReplacer(String variables) throws Exception
+	{
+		File file = File.createTempFile("replacer", ".properties");
+		file.deleteOnExit();
+		FileWriter writer = new FileWriter(file);
+		writer.write(variables);
+		writer.close();
+		return new VariableReplacer(file.getPath());
+	}
+}
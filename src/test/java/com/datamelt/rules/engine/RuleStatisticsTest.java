@@ -0,0 +1,68 @@
+package com.datamelt.rules.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Test;
+
+import com.datamelt.rules.RuleFiles;
+import com.datamelt.util.RowFieldCollection;
+
+class RuleStatisticsTest
+{
+	private static final String[] FIELD_NAMES = {"name","age"};
+
+	@Test
+	void testCountersMatchEngine() throws Exception
+	{
+		BusinessRulesEngine engine = new BusinessRulesEngine(new File[] { RuleFiles.getFile("statistics.xml") });
+		engine.setStatisticsOnly(true);
+		engine.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {"peter","17"}));
+		engine.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {"paul","31"}));
+		engine.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {"mary","42"}));
+		engine.run("row", new RowFieldCollection(FIELD_NAMES, new Object[] {"peter","42"}));
+
+		RuleStatistics statistics = engine.getStatistics();
+		assertEquals(2, statistics.getNumberOfGroups());
+		assertEquals(5, statistics.getNumberOfRules());
+
+		long rulesPassed = 0;
+		long rulesFailed = 0;
+		long rulesSkipped = 0;
+		for(int i=0;i<statistics.getNumberOfRules();i++)
+		{
+			rulesPassed = rulesPassed + statistics.getRulePassedCount(i);
+			rulesFailed = rulesFailed + statistics.getRuleFailedCount(i);
+			rulesSkipped = rulesSkipped + statistics.getRuleSkippedCount(i);
+		}
+		long groupsPassed = 0;
+		long groupsFailed = 0;
+		long groupsSkipped = 0;
+		long rulesOfSkippedGroups = 0;
+		for(int i=0;i<statistics.getNumberOfGroups();i++)
+		{
+			groupsPassed = groupsPassed + statistics.getGroupPassedCount(i);
+			groupsFailed = groupsFailed + statistics.getGroupFailedCount(i);
+			groupsSkipped = groupsSkipped + statistics.getGroupSkippedCount(i);
+		}
+		for(int i=0;i<statistics.getNumberOfRules();i++)
+		{
+			rulesOfSkippedGroups = rulesOfSkippedGroups + statistics.getGroupSkippedCount(statistics.getGroupOfRule(i));
+		}
+
+		assertEquals(engine.getNumberOfRulesPassed(), rulesPassed);
+		assertEquals(engine.getNumberOfRulesFailed(), rulesFailed);
+		// rules of skipped groups are counted as skipped, but not as not evaluated by the engine
+		assertEquals(engine.getNumberOfRulesNotEvaluated() + rulesOfSkippedGroups, rulesSkipped);
+		assertEquals(engine.getNumberOfGroupsPassed(), groupsPassed);
+		assertEquals(engine.getNumberOfGroupsFailed(), groupsFailed);
+		assertEquals(engine.getNumberOfGroupsSkipped(), groupsSkipped);
+
+		// every row is counted once for every rule and every group
+		assertEquals(4 * statistics.getNumberOfRules(), rulesPassed + rulesFailed + rulesSkipped);
+		assertEquals(4 * statistics.getNumberOfGroups(), groupsPassed + groupsFailed + groupsSkipped);
+		assertTrue(engine.getNumberOfRulesNotEvaluated() > 0);
+		assertTrue(groupsSkipped > 0);
+	}
+}
@@ -0,0 +1,46 @@
+package com.datamelt.rules.implementation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.datamelt.rules.core.util.LevenshteinDistance;
+
+class CheckDistanceIsSmallerTest
+{
+
+	@Test
+	void testDistanceIsSmallerValid()
+	{
+		boolean result = CheckDistanceIsSmaller.evaluate("kitten", "sitting", 4);
+
+		assertTrue(result);
+	}
+
+	@Test
+	void testDistanceIsSmallerInvalid()
+	{
+		boolean result = CheckDistanceIsSmaller.evaluate("kitten", "sitting", 3);
+
+		assertFalse(result);
+	}
+
+	@Test
+	void testDistanceIsSmallerZero()
+	{
+		assertFalse(CheckDistanceIsSmaller.evaluate("kitten", "kitten", 0));
+		// the check compares the distance with smaller than, the same way as CheckDistanceIsSmaller
+		assertFalse(CheckDistanceIsSmallerOrEqual.evaluate("kitten", "kitten", 0));
+		assertFalse(CheckDistanceIsSmallerOrEqual.evaluate("kitten", "sitting", 3));
+		assertTrue(CheckDistanceIsSmallerOrEqual.evaluate("kitten", "sitting", 4));
+	}
+
+	@Test
+	void testDistanceLimited()
+	{
+		assertEquals(3, LevenshteinDistance.getDistance("kitten", "sitting"));
+		assertEquals(3, LevenshteinDistance.getDistance("kitten", "sitting", 5));
+		assertEquals(2, LevenshteinDistance.getDistance("kitten", "sitting", 1));
+		assertEquals(6, LevenshteinDistance.getDistance("", "kitten", 10));
+	}
+}
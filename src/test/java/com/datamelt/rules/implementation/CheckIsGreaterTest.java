@@ -0,0 +1,58 @@
+package com.datamelt.rules.implementation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Calendar;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import com.datamelt.util.ClassUtility;
+
+class CheckIsGreaterTest
+{
+
+	@Test
+	void testDateIsGreaterValid()
+	{
+		boolean result = CheckIsGreater.evaluate("2018-03-02", "2018-03-01", "yyyy-MM-dd");
+
+		assertTrue(result);
+	}
+
+	@Test
+	void testDateIsGreaterInvalid()
+	{
+		assertFalse(CheckIsGreater.evaluate("2018-03-01", "2018-03-01", "yyyy-MM-dd"));
+		assertTrue(CheckIsGreaterOrEqual.evaluate("2018-03-01", "2018-03-01", "yyyy-MM-dd"));
+	}
+
+	@Test
+	void testDateWithFormat()
+	{
+		assertTrue(CheckIsGreater.evaluate("02.03.2018", "01.03.2018", "dd.MM.yyyy"));
+		assertTrue(CheckIsSmaller.evaluate("2018-03-01 10:00:00", "2018-03-01 10:00:01", "yyyy-MM-dd HH:mm:ss"));
+	}
+
+	@Test
+	void testDateNotParsable()
+	{
+		assertFalse(CheckIsGreater.evaluate("2018-03-02", "not a date", "yyyy-MM-dd"));
+		assertFalse(CheckIsNotEqual.evaluate("2018-03-02", null, "yyyy-MM-dd"));
+		assertThrows(IllegalArgumentException.class, () -> CheckIsGreater.evaluate("2018-03-02", "2018-03-01", "invalid"));
+	}
+
+	@Test
+	void testDateAndValue()
+	{
+		Calendar calendar = Calendar.getInstance();
+		calendar.clear();
+		calendar.set(2018, Calendar.MARCH, 2, 10, 30, 0);
+		Date date = calendar.getTime();
+
+		assertTrue(CheckIsGreater.evaluate(date, "2018-03-02"));
+		assertTrue(CheckIsEqual.evaluate(date, "2018-03-02"));
+		assertFalse(CheckIsEqual.evaluate(date, "2018-03-03"));
+		assertTrue(CheckIsEqual.evaluate(date, (Date)ClassUtility.getObject(ClassUtility.TYPE_DATE, "2018-03-02 23:59:59")));
+	}
+}
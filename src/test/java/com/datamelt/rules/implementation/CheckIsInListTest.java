@@ -0,0 +1,86 @@
+package com.datamelt.rules.implementation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.datamelt.rules.core.util.LongValueSet;
+import com.datamelt.rules.core.util.StringValueSet;
+
+class CheckIsInListTest 
+{
+
+	@Test
+	void testIsInListValid() 
+	{
+		String value= "Paris";
+		String list = "Berlin,Paris,London";
+		
+		boolean result = CheckIsInList.evaluate(value, list);
+		
+		assertTrue(result);
+	}
+	
+	@Test
+	void testIsInListInvalid() 
+	{
+		String value= "Rome";
+		String list = "Berlin,Paris,London";
+		
+		boolean result = CheckIsInList.evaluate(value, list);
+		
+		assertFalse(result);
+	}
+
+	@Test
+	void testIsInListSingleValue() 
+	{
+		String value= "Berlin";
+		String list = "Berlin";
+		
+		boolean result = CheckIsInList.evaluate(value, list);
+		
+		assertTrue(result);
+	}
+
+	@Test
+	void testIsInListIgnoreCase() 
+	{
+		String value= "pArIs";
+		StringValueSet values = new StringValueSet("Berlin,Paris,London");
+		
+		boolean result = CheckIsInList.evaluatePrepared(value, values, true);
+		
+		assertTrue(result);
+	}
+
+	@Test
+	void testIsInListNull() 
+	{
+		String value = null;
+		StringValueSet values = new StringValueSet("Berlin,Paris,London");
+		
+		boolean result = CheckIsInList.evaluatePrepared(value, values);
+		
+		assertFalse(result);
+	}
+
+	@Test
+	void testIsInListLong() 
+	{
+		LongValueSet values = new LongValueSet("10,20,030, 40");
+		
+		assertTrue(CheckIsInList.evaluatePrepared(20L, values));
+		assertFalse(CheckIsInList.evaluatePrepared(30L, values));
+		assertFalse(CheckIsInList.evaluatePrepared(40, values));
+	}
+
+	@Test
+	void testIsNotInList() 
+	{
+		LongValueSet values = new LongValueSet("10,20");
+		
+		assertTrue(CheckIsNotInList.evaluatePrepared(30, values));
+		assertFalse(CheckIsNotInList.evaluate("10", "10,20"));
+	}
+}
@@ -0,0 +1,48 @@
+package com.datamelt.rules.implementation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class CheckListHasMemberTest
+{
+
+	@Test
+	void testListHasMemberValid()
+	{
+		String list = "Rome, Paris, New York, Berlin";
+
+		boolean result = CheckListHasMember.evaluate(list, " New York");
+
+		assertTrue(result);
+	}
+
+	@Test
+	void testListHasMemberIgnoreCase()
+	{
+		String list = "Rome, Paris, New York, Berlin";
+
+		assertFalse(CheckListHasMember.evaluate(list, "paris", false));
+		assertTrue(CheckListHasMember.evaluate(list, "paris", true));
+		assertFalse(CheckListNotHasMember.evaluate(list, "paris", true));
+	}
+
+	@Test
+	void testListHasMemberNumbers()
+	{
+		String list = "10, 20, 30";
+
+		assertTrue(CheckListHasMember.evaluate(list, 20));
+		assertFalse(CheckListHasMember.evaluate(list, 25L));
+		assertTrue(CheckListNotHasMember.evaluate(list, 25));
+	}
+
+	@Test
+	void testListHasMemberNotANumber()
+	{
+		String list = "10, x, 30";
+
+		assertTrue(CheckListHasMember.evaluate(list, 10));
+		assertThrows(NumberFormatException.class, () -> CheckListHasMember.evaluate(list, 30L));
+	}
+}
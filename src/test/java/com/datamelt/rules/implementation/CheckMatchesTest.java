@@ -0,0 +1,69 @@
+package com.datamelt.rules.implementation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.datamelt.rules.core.util.RegexPattern;
+
+class CheckMatchesTest
+{
+
+	@Test
+	void testMatchesValid()
+	{
+		String value= "Berlin 2020";
+		String pattern = "[A-Za-z]+ \\d{4}";
+
+		boolean result = CheckMatches.evaluate(value, pattern);
+
+		assertTrue(result);
+	}
+
+	@Test
+	void testMatchesInvalid()
+	{
+		String value= "Berlin 20";
+		String pattern = "[A-Za-z]+ \\d{4}";
+
+		boolean result = CheckMatches.evaluate(value, pattern);
+
+		assertFalse(result);
+	}
+
+	@Test
+	void testMatchesLiteralPatterns()
+	{
+		String[] patterns = {"Berlin", "^Berlin$", "Ber.*", ".*lin", ".*rl.*", "Berlin\\.", ".*", "Berlin\\$"};
+		String[] values = {"Berlin", "Berlin.", "Berliner", "Ber\nlin", "berlin", "", "Berlin$"};
+
+		for(int i=0;i<patterns.length;i++)
+		{
+			RegexPattern pattern = new RegexPattern(patterns[i]);
+			for(int f=0;f<values.length;f++)
+			{
+				assertEquals(values[f].matches(patterns[i]), CheckMatches.evaluatePrepared(values[f], pattern), patterns[i] + " - " + values[f]);
+				assertEquals(!values[f].matches(patterns[i]), CheckNotMatches.evaluatePrepared(values[f], pattern), patterns[i] + " - " + values[f]);
+			}
+		}
+	}
+
+	@Test
+	void testReplaceLiteralPattern()
+	{
+		RegexPattern pattern = new RegexPattern("a.b");
+		RegexPattern literalPattern = new RegexPattern("a\\.b");
+
+		assertEquals("x-x", pattern.replaceAll("a.b-axb", "x"));
+		assertEquals("x-axb", literalPattern.replaceAll("a.b-axb", "x"));
+		assertEquals("[a.b]-axb", literalPattern.replaceAll("a.b-axb", "[$0]"));
+	}
+
+	@Test
+	void testMatchesNull()
+	{
+		boolean result = CheckMatches.evaluate(null, "Berlin");
+
+		assertFalse(result);
+	}
+}
@@ -0,0 +1,57 @@
+package com.datamelt.rules.implementation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.datamelt.rules.core.util.ColognePhoneticCode;
+import com.datamelt.rules.core.util.SoundexCode;
+
+class CheckSoundsLikeTest
+{
+
+	@Test
+	void testSoundsLikeValid()
+	{
+		boolean result = CheckSoundsLike.evaluate("Robert", "Rupert");
+
+		assertTrue(result);
+	}
+
+	@Test
+	void testSoundsLikeInvalid()
+	{
+		boolean result = CheckSoundsLike.evaluate("Robert", "Rubin");
+
+		assertFalse(result);
+	}
+
+	@Test
+	void testSoundsLikePrepared()
+	{
+		SoundexCode code = new SoundexCode("Robert");
+
+		assertEquals("R163", code.getCode());
+		assertTrue(CheckSoundsLike.evaluatePrepared("Rupert", code));
+		assertTrue(CheckNotSoundsLike.evaluatePrepared("Rubin", code));
+	}
+
+	@Test
+	void testSoundsLikeMetaphone()
+	{
+		assertTrue(CheckSoundsLikeMetaphone.evaluate("Philips", "Filips"));
+		assertFalse(CheckSoundsLikeMetaphone.evaluate("Philips", "Pilips"));
+		assertTrue(CheckNotSoundsLikeMetaphone.evaluate("Philips", "Pilips"));
+	}
+
+	@Test
+	void testSoundsLikeCologne()
+	{
+		ColognePhoneticCode code = new ColognePhoneticCode("Meier");
+
+		assertEquals("67", code.getCode());
+		assertTrue(CheckSoundsLikeCologne.evaluatePrepared("Mayer", code));
+		assertTrue(CheckSoundsLikeCologne.evaluate("Müller", "Mueller"));
+		assertTrue(CheckNotSoundsLikeCologne.evaluate("Meier", "Schmidt"));
+	}
+}
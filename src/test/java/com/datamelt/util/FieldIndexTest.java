@@ -0,0 +1,52 @@
+package com.datamelt.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class FieldIndexTest
+{
+	@Test
+	void testGetIndex() throws Exception
+	{
+		HeaderRow header = new HeaderRow(new String[] {"name","age","city"});
+		FieldIndex index = new FieldIndex("age");
+
+		assertEquals("age", index.getFieldName());
+		assertEquals(1, index.getIndex(header));
+		assertEquals(1, index.getIndex(header));
+
+		// a different header row is looked up again
+		assertEquals(0, index.getIndex(new HeaderRow(new String[] {"age","name"})));
+
+		// the header row got a field added
+		header.addField("country");
+		assertEquals(1, index.getIndex(header));
+		assertEquals(3, new FieldIndex("country").getIndex(header));
+	}
+
+	@Test
+	void testGetFieldValue() throws Exception
+	{
+		HeaderRow header = new HeaderRow(new String[] {"name","age"});
+		FieldIndex index = new FieldIndex("age");
+
+		assertEquals("42", index.getFieldValue(new RowFieldCollection(header, new Object[] {"peter","42"})));
+		assertEquals("17", index.getFieldValue(new RowFieldCollection(header, new Object[] {"paul","17"})));
+		assertEquals("31", index.getFieldValue(new RowFieldCollection(new String[] {"age","name"}, new Object[] {"31","mary"})));
+	}
+
+	@Test
+	void testFieldMissing() throws Exception
+	{
+		HeaderRow header = new HeaderRow(new String[] {"name","age"});
+		FieldIndex index = new FieldIndex("city");
+
+		assertThrows(Exception.class, () -> index.getIndex(header));
+		assertThrows(Exception.class, () -> index.getFieldValue(new RowFieldCollection(header, new Object[] {"peter","42"})));
+
+		// the field is found once the header row has it
+		header.addField("city");
+		assertEquals(2, index.getIndex(header));
+	}
+}
@@ -0,0 +1,44 @@
+package com.datamelt.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest
+{
+	@Test
+	void testPercentiles()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+		for(long i=1;i<=1000;i++)
+		{
+			histogram.record(i * 1000);
+		}
+		assertEquals(1000, histogram.getTotalCount());
+		assertEquals(1000000, histogram.getMaxValue());
+		assertEquals(500500, histogram.getMean(), 0.001);
+		// the buckets are at most 1/16 wide
+		assertEquals(500000, histogram.getValueAtPercentile(50), 500000 / 16);
+		assertEquals(990000, histogram.getValueAtPercentile(99), 990000 / 16);
+		assertEquals(1000000, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	void testAdd()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+		LatencyHistogram other = new LatencyHistogram();
+		histogram.record(5);
+		other.record(7);
+		other.record(Long.MAX_VALUE);
+		histogram.add(other);
+		assertEquals(3, histogram.getTotalCount());
+		assertEquals(5, histogram.getValueAtPercentile(10));
+		assertEquals(7, histogram.getValueAtPercentile(50));
+		assertEquals(Long.MAX_VALUE, histogram.getMaxValue());
+
+		histogram.clear();
+		assertEquals(0, histogram.getTotalCount());
+		assertEquals(0, histogram.getValueAtPercentile(99));
+	}
+}
@@ -0,0 +1,109 @@
+package com.datamelt.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.datamelt.rules.core.TypedCheck;
+import com.datamelt.rules.implementation.CheckIsEqual;
+import com.datamelt.rules.implementation.CheckIsGreater;
+
+class RowBatchTest
+{
+	private static final String[] FIELD_NAMES = {"name","age","amount","id"};
+	private static final String[] TYPES = {"string","integer","double","long"};
+
+	@Test
+	void testAddAndGetRows() throws Exception
+	{
+		RowBatch batch = new RowBatch(new HeaderRow(FIELD_NAMES), TYPES, 1);
+		batch.addRow(new Object[] {"peter", 42, 10.5, 1L});
+		batch.addRow(new Object[] {"paul", "17", null, "2"});
+		batch.addRow(new Object[] {"peter", 3.0, 7, new BigInteger("3")});
+
+		assertEquals(3, batch.getNumberOfRows());
+		assertEquals("peter", batch.getValue(0, 0));
+		assertEquals(42, batch.getValue(0, 1));
+		assertEquals(17, batch.getValue(1, 1));
+		assertTrue(batch.isNull(1, 2));
+		assertNull(batch.getValue(1, 2));
+		assertEquals(2L, batch.getValue(1, 3));
+		assertEquals(3, batch.getValue(2, 1));
+		assertEquals(7.0, batch.getValue(2, 2));
+		assertEquals(3L, batch.getValue(2, 3));
+	}
+
+	@Test
+	void testValueDoesNotFit() throws Exception
+	{
+		RowBatch batch = new RowBatch(new HeaderRow(FIELD_NAMES), TYPES);
+		int row = batch.addRow();
+
+		assertThrows(Exception.class, () -> batch.setValue(row, 1, 3000000000L));
+		assertThrows(Exception.class, () -> batch.setValue(row, 1, 4.5));
+		assertThrows(Exception.class, () -> batch.setValue(row, 1, new BigDecimal("1.25")));
+		assertThrows(Exception.class, () -> batch.setValue(row, 1, Double.NaN));
+		assertThrows(Exception.class, () -> batch.setValue(row, 3, 1e19));
+		assertThrows(Exception.class, () -> batch.setValue(row, 3, new BigInteger("9223372036854775808")));
+		assertTrue(batch.isNull(row, 1));
+		assertTrue(batch.isNull(row, 3));
+
+		batch.setValue(row, 1, Integer.MIN_VALUE);
+		batch.setValue(row, 3, new BigDecimal("5.00"));
+		assertEquals(Integer.MIN_VALUE, batch.getValue(row, 1));
+		assertEquals(5L, batch.getValue(row, 3));
+	}
+
+	@Test
+	void testCursor() throws Exception
+	{
+		RowBatch batch = new RowBatch(new HeaderRow(FIELD_NAMES), TYPES);
+		batch.addRow(new Object[] {"peter", 42, 10.5, 1L});
+		batch.addRow(new Object[] {"paul", null, 2.5, 2L});
+
+		RowBatch.Cursor cursor = batch.getCursor();
+		assertTrue(cursor.next());
+		assertEquals("peter", cursor.getString("name"));
+		assertEquals(42, cursor.getInt("age"));
+		assertEquals(10.5, cursor.getDouble("amount"));
+		assertEquals(1L, cursor.getLong("id"));
+		assertFalse(cursor.isNull("age", "integer"));
+		assertThrows(Exception.class, () -> cursor.isNull("age", "long"));
+
+		cursor.setFieldValue("age", 43L);
+		assertEquals(43, cursor.getFieldValue("age"));
+		assertThrows(Exception.class, () -> cursor.setFieldValue("age", 43.5));
+		assertEquals(43, cursor.getFieldValue("age"));
+
+		assertTrue(cursor.next());
+		assertTrue(cursor.isNull("age", "integer"));
+		assertEquals("paul", cursor.getFieldValue("name"));
+		assertFalse(cursor.next());
+	}
+
+	@Test
+	void testTypedCheck() throws Exception
+	{
+		RowBatch batch = new RowBatch(new HeaderRow(FIELD_NAMES), TYPES);
+		batch.addRow(new Object[] {"peter", 42, 10.5, 3000000000L});
+		batch.addRow(new Object[] {"paul", 17, 2.5, 1L});
+
+		TypedCheck ageCheck = TypedCheck.create(CheckIsGreater.class.getMethod("evaluate", int.class, int.class), "integer", 30);
+		TypedCheck idCheck = TypedCheck.create(CheckIsGreater.class.getMethod("evaluate", long.class, long.class), "long", 2147483647L);
+		TypedCheck nameCheck = TypedCheck.create(CheckIsEqual.class.getMethod("evaluate", String.class, String.class), "string", "peter");
+
+		RowBatch.Cursor cursor = batch.getCursor();
+		cursor.next();
+		assertTrue(ageCheck.evaluate(cursor, "age"));
+		assertTrue(idCheck.evaluate(cursor, "id"));
+		assertTrue(nameCheck.evaluate(cursor, "name"));
+
+		cursor.next();
+		assertFalse(ageCheck.evaluate(cursor, "age"));
+		assertFalse(idCheck.evaluate(cursor, "id"));
+		assertFalse(nameCheck.evaluate(cursor, "name"));
+	}
+}
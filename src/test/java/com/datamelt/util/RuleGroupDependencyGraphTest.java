@@ -0,0 +1,111 @@
+package com.datamelt.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import com.datamelt.rules.core.RuleGroup;
+import com.datamelt.rules.core.XmlAction;
+
+class RuleGroupDependencyGraphTest
+{
+	@Test
+	void testCycle()
+	{
+		ArrayList<RuleGroup> groups = new ArrayList<>();
+		groups.add(createGroup("a", "c"));
+		groups.add(createGroup("b", "a"));
+		groups.add(createGroup("c", "b"));
+		groups.add(createGroup("d", null));
+
+		Exception exception = assertThrows(Exception.class, () -> new RuleGroupDependencyGraph(groups));
+		assertTrue(exception.getMessage().contains("a, b, c"));
+	}
+
+	@Test
+	void testStagesByLevel() throws Exception
+	{
+		// b and c depend on a, d depends on b and e has no dependency. a group
+		// can only depend on one other group, so the paths do not join again
+		ArrayList<RuleGroup> groups = new ArrayList<>();
+		groups.add(createGroup("d", "b"));
+		groups.add(createGroup("b", "a"));
+		groups.add(createGroup("c", "a"));
+		groups.add(createGroup("a", null));
+		groups.add(createGroup("e", null));
+
+		RuleGroupDependencyGraph graph = new RuleGroupDependencyGraph(groups);
+
+		assertEquals("[a, e], [b, c], [d]", getStageIds(graph));
+		assertEquals(3, graph.getNumberOfLevels());
+		for(int i=0;i<graph.getSortedGroups().size();i++)
+		{
+			int dependencyIndex = graph.getDependencyIndex(i);
+			if(dependencyIndex==RuleGroupDependencyGraph.NO_DEPENDENCY)
+			{
+				assertEquals(0, graph.getLevel(i));
+			}
+			else
+			{
+				assertTrue(dependencyIndex<i);
+				assertEquals(graph.getSortedGroups().get(i).getDependentRuleGroupId(), graph.getSortedGroups().get(dependencyIndex).getId());
+				assertEquals(graph.getLevel(dependencyIndex) + 1, graph.getLevel(i));
+			}
+		}
+	}
+
+	@Test
+	void testStagesWithActions() throws Exception
+	{
+		// the group with actions separates the groups before it from the groups after it
+		ArrayList<RuleGroup> groups = new ArrayList<>();
+		groups.add(createGroup("a", null));
+		groups.add(createGroup("b", "a"));
+		groups.add(createGroup("c", null));
+		RuleGroup groupWithActions = createGroup("x", null);
+		groupWithActions.addAction(new XmlAction("action", "action"));
+		groups.add(groupWithActions);
+		groups.add(createGroup("d", "a"));
+		groups.add(createGroup("e", null));
+
+		RuleGroupDependencyGraph graph = new RuleGroupDependencyGraph(groups);
+
+		assertEquals("[a, c], [b], [x], [d, e]", getStageIds(graph));
+	}
+
+	private static RuleGroup createGroup(String id, String dependentRuleGroupId)
+	{
+		RuleGroup group = new RuleGroup(id, id);
+		group.setDependentRuleGroupId(dependentRuleGroupId);
+		return group;
+	}
+
+	private static String getStageIds(RuleGroupDependencyGraph graph)
+	{
+		StringBuffer buffer = new StringBuffer();
+		int[][] stages = graph.getStages();
+		int position = 0;
+		for(int i=0;i<stages.length;i++)
+		{
+			if(i>0)
+			{
+				buffer.append(", ");
+			}
+			buffer.append("[");
+			for(int j=0;j<stages[i].length;j++)
+			{
+				// the stages consist of consecutive groups of the sorted list
+				assertEquals(position++, stages[i][j]);
+				if(j>0)
+				{
+					buffer.append(", ");
+				}
+				buffer.append(graph.getSortedGroups().get(stages[i][j]).getId());
+			}
+			buffer.append("]");
+		}
+		return buffer.toString();
+	}
+}